@@ -19,7 +19,11 @@ public enum MetricType implements Metric {
     THREADPOOL_QUEUE_SIZE("threadpool.queue.size"),
     THREADPOOL_ACTIVE_THREADS("threadpool.threads.active"),
     THREADPOOL_THREADS_TOTAL("threadpool.threads.coresize"),
-    THREADPOOL_TASKS_COMPLETED("threadpool.tasks.completed");
+    THREADPOOL_TASKS_COMPLETED("threadpool.tasks.completed"),
+
+    CLUSTER_REST_CLIENT_CACHE_HIT("cluster.restclient.cache.hit"),
+    CLUSTER_REST_CLIENT_CACHE_MISS("cluster.restclient.cache.miss"),
+    CLUSTER_REST_CLIENT_CACHE_EVICTED("cluster.restclient.cache.evicted");
 
     private final String metricName;
 
@@ -38,6 +38,7 @@ import com.sequenceiq.periscope.repository.ClusterRepository;
 import com.sequenceiq.periscope.repository.SecurityConfigRepository;
 import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
 import com.sequenceiq.periscope.service.security.SecurityConfigService;
+import com.sequenceiq.periscope.service.security.TlsSecurityService;
 
 @Service
 public class ClusterService {
@@ -65,6 +66,9 @@ public class ClusterService {
     @Inject
     private SecurityConfigService securityConfigService;
 
+    @Inject
+    private TlsSecurityService tlsSecurityService;
+
     @Inject
     private CloudbreakMessagesService messagesService;
 
@@ -128,6 +132,7 @@ public class ClusterService {
                 sc = securityConfigRepository.save(sc);
                 cluster.setSecurityConfig(sc);
             }
+            tlsSecurityService.evictTls(clusterId);
         }
         cluster = save(cluster);
         calculateClusterStateMetrics();
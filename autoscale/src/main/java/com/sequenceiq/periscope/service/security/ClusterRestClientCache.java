@@ -0,0 +1,118 @@
+package com.sequenceiq.periscope.service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.client.RestClientUtil;
+import com.sequenceiq.periscope.domain.MetricType;
+import com.sequenceiq.periscope.model.TlsConfiguration;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
+
+/**
+ * Keeps one JAX-RS client per cluster, so the periodic calls to the cluster do not build a new SSL context and connection every time.
+ * The clients are keyed by the cluster id and a version derived from the TLS material, a client is replaced as soon as the TLS
+ * configuration of the cluster changes and dropped when {@link TlsSecurityService#evictTls(Long)} is called.
+ * <p>
+ * Removed clients are not closed, because a caller may still be in the middle of a request with them. They hold no connection
+ * between the calls, so they are reclaimed by the garbage collector once the last caller is done. Only the shutdown closes them.
+ */
+@Service
+public class ClusterRestClientCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterRestClientCache.class);
+
+    @Value("${periscope.cluster.restclient.cache.max.size:5000}")
+    private long maxSize;
+
+    @Value("${periscope.cluster.restclient.cache.idle.minutes:30}")
+    private long idleMinutes;
+
+    @Inject
+    private PeriscopeMetricService metricService;
+
+    private Cache<Long, VersionedClient> clients;
+
+    @PostConstruct
+    public void init() {
+        clients = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.asMap().values().forEach(versionedClient -> versionedClient.client.close());
+        clients.invalidateAll();
+    }
+
+    public Client getClient(Long clusterId, TlsConfiguration tlsConfiguration) {
+        String tlsVersion = tlsVersion(tlsConfiguration);
+        VersionedClient cached = clients.getIfPresent(clusterId);
+        if (cached != null && cached.tlsVersion.equals(tlsVersion)) {
+            metricService.incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_HIT);
+            return cached.client;
+        }
+        metricService.incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_MISS);
+        VersionedClient result = clients.asMap().compute(clusterId, (id, current) -> current != null && current.tlsVersion.equals(tlsVersion)
+                ? current
+                : new VersionedClient(tlsVersion, createClient(clusterId, tlsConfiguration)));
+        return result.client;
+    }
+
+    public void evict(Long clusterId) {
+        LOGGER.debug("Evicting rest client of cluster: {}", clusterId);
+        clients.invalidate(clusterId);
+    }
+
+    Client createClient(Long clusterId, TlsConfiguration tlsConfiguration) {
+        LOGGER.debug("Creating rest client for cluster: {}", clusterId);
+        try {
+            return RestClientUtil.createClient(tlsConfiguration.getServerCert(), tlsConfiguration.getClientCert(), tlsConfiguration.getClientKey(), true);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create rest client for cluster " + clusterId, e);
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Long, VersionedClient> notification) {
+        LOGGER.debug("Rest client of cluster {} is removed from the cache, cause: {}", notification.getKey(), notification.getCause());
+        metricService.incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_EVICTED, "cause", notification.getCause().name());
+    }
+
+    private String tlsVersion(TlsConfiguration tlsConfiguration) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(Objects.toString(tlsConfiguration.getServerCert(), ""), StandardCharsets.UTF_8);
+        hasher.putString(Objects.toString(tlsConfiguration.getClientCert(), ""), StandardCharsets.UTF_8);
+        hasher.putString(Objects.toString(tlsConfiguration.getClientKey(), ""), StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    private static class VersionedClient {
+
+        private final String tlsVersion;
+
+        private final Client client;
+
+        VersionedClient(String tlsVersion, Client client) {
+            this.tlsVersion = tlsVersion;
+            this.client = client;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -47,6 +48,11 @@ public class SecurityConfigService {
         return securityConfig;
     }
 
+    @CacheEvict(cacheNames = "securityConfigCache", key = "{ #clusterId }")
+    public void evictSecurityConfig(Long clusterId) {
+        LOGGER.debug("Evict SecurityConfig for clusterId: {}", clusterId);
+    }
+
     public SecurityConfig syncSecurityConfigForCluster(Long clusterId) {
         String stackCrn = clusterRepository.findStackCrnById(clusterId);
         SecurityConfig securityConfig = getRemoteSecurityConfig(stackCrn);
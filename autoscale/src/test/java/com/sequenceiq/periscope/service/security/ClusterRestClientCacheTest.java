@@ -0,0 +1,89 @@
+package com.sequenceiq.periscope.service.security;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.periscope.domain.MetricType;
+import com.sequenceiq.periscope.model.TlsConfiguration;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterRestClientCacheTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    @Spy
+    @InjectMocks
+    private ClusterRestClientCache underTest;
+
+    @Mock
+    private PeriscopeMetricService metricService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "maxSize", 10L);
+        ReflectionTestUtils.setField(underTest, "idleMinutes", 30L);
+        underTest.init();
+        doAnswer(invocation -> mock(Client.class)).when(underTest).createClient(any(), any());
+    }
+
+    @Test
+    public void testClientIsReusedForTheSameTlsConfiguration() {
+        Client first = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+        Client second = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+
+        assertSame(first, second);
+        verify(underTest, times(1)).createClient(eq(CLUSTER_ID), any());
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_HIT);
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_MISS);
+    }
+
+    @Test
+    public void testClientIsReplacedWhenTheTlsConfigurationChanges() {
+        Client first = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+        Client second = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "rotated"));
+
+        assertNotSame(first, second);
+        verify(first, never()).close();
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_EVICTED, "cause", "REPLACED");
+    }
+
+    @Test
+    public void testClientIsRecreatedAfterEviction() {
+        Client first = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+        underTest.evict(CLUSTER_ID);
+        Client second = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+
+        assertNotSame(first, second);
+        verify(first, never()).close();
+        verify(metricService, times(1)).incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_EVICTED, "cause", "EXPLICIT");
+        verify(metricService, times(2)).incrementMetricCounter(MetricType.CLUSTER_REST_CLIENT_CACHE_MISS);
+    }
+
+    @Test
+    public void testClientsAreClosedOnShutdown() {
+        Client client = underTest.getClient(CLUSTER_ID, new TlsConfiguration("key", "cert", "server"));
+
+        underTest.shutdown();
+
+        verify(client).close();
+    }
+}
@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.cm.client;
 
 import org.springframework.stereotype.Component;
 
+import com.cloudera.api.swagger.ClustersResourceApi;
 import com.cloudera.api.swagger.CommandsResourceApi;
 import com.cloudera.api.swagger.HostsResourceApi;
 import com.cloudera.api.swagger.ParcelResourceApi;
@@ -24,6 +25,10 @@ public class ClouderaManagerApiPojoFactory {
         return new CommandsResourceApi(apiClient);
     }
 
+    public ClustersResourceApi getClustersResourceApi(ApiClient apiClient) {
+        return new ClustersResourceApi(apiClient);
+    }
+
     public ParcelsResourceApi getParcelsResourceApi(ApiClient apiClient) {
         return new ParcelsResourceApi(apiClient);
     }
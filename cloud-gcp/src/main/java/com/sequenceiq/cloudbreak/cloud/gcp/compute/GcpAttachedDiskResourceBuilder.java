@@ -232,14 +232,18 @@ public class GcpAttachedDiskResourceBuilder extends AbstractGcpComputeBuilder {
     @Override
     public List<CloudResourceStatus> checkResources(GcpContext context, AuthenticatedContext auth, List<CloudResource> resources) {
         List<CloudResourceStatus> result = new ArrayList<>();
+        Map<String, Operation> operations = checkOperations(context, auth, resources);
         for (CloudResource resource : resources) {
             LOGGER.debug("Check {} resource: {}", resourceType(), resource);
-            List<String> operationIds = Optional.ofNullable(resource.getParameter(OPERATION_ID, List.class)).orElse(List.of());
+            List<String> operationIds = getOperationIds(resource);
 
             boolean finished = operationIds.isEmpty() || operationIds.stream()
                     .allMatch(operationId -> {
                         try {
-                            Operation operation = getResourceChecker().check(context, operationId);
+                            Operation operation = operations.get(operationId);
+                            if (operation != null) {
+                                getResourceChecker().checkComputeOperationError(operation);
+                            }
                             return operation == null || GcpStackUtil.isOperationFinished(operation);
                         } catch (Exception e) {
                             CloudContext cloudContext = auth.getCloudContext();
@@ -259,4 +263,21 @@ public class GcpAttachedDiskResourceBuilder extends AbstractGcpComputeBuilder {
         }
         return result;
     }
+
+    private Map<String, Operation> checkOperations(GcpContext context, AuthenticatedContext auth, List<CloudResource> resources) {
+        List<String> operationIds = resources.stream()
+                .flatMap(resource -> getOperationIds(resource).stream())
+                .collect(Collectors.toList());
+        try {
+            return getResourceChecker().checkAll(context, operationIds);
+        } catch (Exception e) {
+            CloudContext cloudContext = auth.getCloudContext();
+            throw new GcpResourceException("Error during status check", resourceType(), cloudContext.getName(), cloudContext.getId(),
+                    String.join(",", operationIds), e);
+        }
+    }
+
+    private List<String> getOperationIds(CloudResource resource) {
+        return Optional.ofNullable(resource.getParameter(OPERATION_ID, List.class)).orElse(List.of());
+    }
 }
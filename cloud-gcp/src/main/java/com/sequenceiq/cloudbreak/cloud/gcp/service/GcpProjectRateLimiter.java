@@ -0,0 +1,28 @@
+package com.sequenceiq.cloudbreak.cloud.gcp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Limits the rate of the Compute API calls made by Cloudbreak per GCP project, so that polling the operations of several stacks in the
+ * same project together stays under the API quota. Every call counts, also the ones sent within a batch request.
+ */
+@Component
+public class GcpProjectRateLimiter {
+
+    @Value("${cb.gcp.api.requests.per.second.per.project:20}")
+    private double requestsPerSecond;
+
+    private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public void acquire(String projectId, int requests) {
+        if (requestsPerSecond > 0 && requests > 0) {
+            rateLimiters.computeIfAbsent(projectId, id -> RateLimiter.create(requestsPerSecond)).acquire(requests);
+        }
+    }
+}
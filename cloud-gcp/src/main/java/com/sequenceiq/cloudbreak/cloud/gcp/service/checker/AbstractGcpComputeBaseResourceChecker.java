@@ -3,6 +3,9 @@ package com.sequenceiq.cloudbreak.cloud.gcp.service.checker;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -38,11 +41,15 @@ public abstract class AbstractGcpComputeBaseResourceChecker extends AbstractGcpB
     protected List<CloudResourceStatus> checkResources(
         ResourceType type, GcpContext context, AuthenticatedContext auth, Iterable<CloudResource> resources) {
         List<CloudResourceStatus> result = new ArrayList<>();
+        Map<String, Operation> operations = checkOperations(type, context, auth, resources);
         for (CloudResource resource : resources) {
             LOGGER.debug("Check {} resource: {}", type, resource);
             try {
                 String operationId = resource.getStringParameter(OPERATION_ID);
-                Operation operation = resourceChecker.check(context, operationId);
+                Operation operation = operationId == null ? null : operations.get(operationId);
+                if (operation != null) {
+                    resourceChecker.checkComputeOperationError(operation);
+                }
                 boolean finished = operation == null || GcpStackUtil.isOperationFinished(operation);
                 ResourceStatus successStatus = context.isBuild() ? ResourceStatus.CREATED : ResourceStatus.DELETED;
                 result.add(new CloudResourceStatus(resource, finished ? successStatus : ResourceStatus.IN_PROGRESS));
@@ -62,6 +69,18 @@ public abstract class AbstractGcpComputeBaseResourceChecker extends AbstractGcpB
         return result;
     }
 
+    private Map<String, Operation> checkOperations(ResourceType type, GcpContext context, AuthenticatedContext auth, Iterable<CloudResource> resources) {
+        List<String> operationIds = new ArrayList<>();
+        resources.forEach(resource -> operationIds.add(resource.getStringParameter(OPERATION_ID)));
+        try {
+            return resourceChecker.checkAll(context, operationIds);
+        } catch (Exception e) {
+            CloudContext cloudContext = auth.getCloudContext();
+            throw new GcpResourceException("Error during status check", type, cloudContext.getName(), cloudContext.getId(),
+                    operationIds.stream().filter(Objects::nonNull).collect(Collectors.joining(",")), e);
+        }
+    }
+
     protected CloudResource createOperationAwareCloudResource(CloudResource resource, Operation operation) {
         return new Builder()
                 .cloudResource(resource)
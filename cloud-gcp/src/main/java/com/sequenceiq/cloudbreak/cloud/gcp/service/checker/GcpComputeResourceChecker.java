@@ -1,28 +1,61 @@
 package com.sequenceiq.cloudbreak.cloud.gcp.service.checker;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
 
 import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.ComputeRequest;
 import com.google.api.services.compute.model.Operation;
+import com.google.common.collect.Iterables;
 import com.sequenceiq.cloudbreak.cloud.exception.CloudConnectorException;
 import com.sequenceiq.cloudbreak.cloud.gcp.context.GcpContext;
+import com.sequenceiq.cloudbreak.cloud.gcp.service.GcpProjectRateLimiter;
 import com.sequenceiq.cloudbreak.cloud.gcp.util.GcpStackUtil;
 import com.sequenceiq.cloudbreak.cloud.model.Location;
 
 @Component
 public class GcpComputeResourceChecker {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GcpComputeResourceChecker.class);
+
+    private static final String COMPUTE_BATCH_PATH = "batch/compute/v1";
+
+    @Value("${cb.gcp.operation.check.batch.size:100}")
+    private int batchSize;
+
+    @Inject
+    private GcpProjectRateLimiter rateLimiter;
+
     @Retryable(value = CloudConnectorException.class, maxAttempts = 5, backoff = @Backoff(delay = 1000))
     public Operation check(GcpContext context,  String operationId) throws IOException {
         if (operationId == null) {
             return null;
         }
         try {
+            rateLimiter.acquire(context.getProjectId(), 1);
             Operation execute = GcpStackUtil.globalOperations(context.getCompute(), context.getProjectId(), operationId).execute();
             checkComputeOperationError(execute);
             return execute;
@@ -31,7 +64,70 @@ public class GcpComputeResourceChecker {
         }
     }
 
-    protected void checkComputeOperationError(Operation execute) {
+    /**
+     * Gets the given operations with as few requests as possible: the operations are queried in batch requests, first among the global
+     * operations, then the ones not found there among the region and finally among the zone operations of the context. The returned
+     * operations are not checked for errors, use {@link #checkComputeOperationError(Operation)} for that.
+     */
+    @Retryable(value = CloudConnectorException.class, maxAttempts = 5, backoff = @Backoff(delay = 1000))
+    public Map<String, Operation> checkAll(GcpContext context, Collection<String> operationIds) throws IOException {
+        Map<String, Operation> operations = new HashMap<>();
+        Set<String> remaining = operationIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Compute compute = context.getCompute();
+        String projectId = context.getProjectId();
+        Location location = context.getLocation();
+        remaining = getInBatches(context, remaining, operations, id -> GcpStackUtil.globalOperations(compute, projectId, id));
+        if (!remaining.isEmpty()) {
+            remaining = getInBatches(context, remaining, operations, id -> GcpStackUtil.regionOperations(compute, projectId, id, location.getRegion()));
+        }
+        if (!remaining.isEmpty()) {
+            remaining = getInBatches(context, remaining, operations,
+                    id -> GcpStackUtil.zoneOperations(compute, projectId, id, location.getAvailabilityZone()));
+        }
+        if (!remaining.isEmpty()) {
+            throw new CloudConnectorException(String.format("Operations not found in project %s: %s", projectId, remaining));
+        }
+        return operations;
+    }
+
+    private Set<String> getInBatches(GcpContext context, Set<String> operationIds, Map<String, Operation> operations,
+            OperationRequestProvider requestProvider) throws IOException {
+        Set<String> notFound = new LinkedHashSet<>();
+        Map<String, GoogleJsonError> failures = new HashMap<>();
+        for (List<String> ids : Iterables.partition(operationIds, Math.max(batchSize, 1))) {
+            rateLimiter.acquire(context.getProjectId(), ids.size());
+            BatchRequest batch = context.getCompute().batch();
+            batch.setBatchUrl(new GenericUrl(context.getCompute().getRootUrl() + COMPUTE_BATCH_PATH));
+            for (String id : ids) {
+                requestProvider.get(id).queue(batch, new JsonBatchCallback<>() {
+                    @Override
+                    public void onSuccess(Operation operation, HttpHeaders responseHeaders) {
+                        operations.put(id, operation);
+                    }
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                        if (error.getCode() == HttpStatus.SC_NOT_FOUND || error.getCode() == HttpStatus.SC_FORBIDDEN) {
+                            notFound.add(id);
+                        } else {
+                            failures.put(id, error);
+                        }
+                    }
+                });
+            }
+            LOGGER.debug("Checking {} operations in a batch request in project {}", ids.size(), context.getProjectId());
+            batch.execute();
+        }
+        if (!failures.isEmpty()) {
+            String message = failures.entrySet().stream()
+                    .map(failure -> String.format("%s: %s", failure.getKey(), failure.getValue().getMessage()))
+                    .collect(Collectors.joining(", "));
+            throw new CloudConnectorException("Failed to check operations: " + message);
+        }
+        return notFound;
+    }
+
+    public void checkComputeOperationError(Operation execute) {
         if (execute.getError() != null) {
             String msg = null;
             StringBuilder error = new StringBuilder();
@@ -49,11 +145,13 @@ public class GcpComputeResourceChecker {
         if (e.getDetails().get("code").equals(HttpStatus.SC_NOT_FOUND) || e.getDetails().get("code").equals(HttpStatus.SC_FORBIDDEN)) {
             Location location = context.getLocation();
             try {
+                rateLimiter.acquire(context.getProjectId(), 1);
                 Operation execute = GcpStackUtil.regionOperations(context.getCompute(), context.getProjectId(), operationId, location.getRegion()).execute();
                 checkComputeOperationError(execute);
                 return execute;
             } catch (GoogleJsonResponseException e1) {
                 if (e1.getDetails().get("code").equals(HttpStatus.SC_NOT_FOUND) || e1.getDetails().get("code").equals(HttpStatus.SC_FORBIDDEN)) {
+                    rateLimiter.acquire(context.getProjectId(), 1);
                     Operation execute = GcpStackUtil.zoneOperations(context.getCompute(), context.getProjectId(), operationId,
                             location.getAvailabilityZone()).execute();
                     checkComputeOperationError(execute);
@@ -66,4 +164,9 @@ public class GcpComputeResourceChecker {
             throw e;
         }
     }
+
+    @FunctionalInterface
+    private interface OperationRequestProvider {
+        ComputeRequest<Operation> get(String operationId) throws IOException;
+    }
 }
@@ -0,0 +1,99 @@
+package com.sequenceiq.cloudbreak.cloud.gcp.service.checker;
+
+import static com.sequenceiq.cloudbreak.cloud.gcp.service.checker.AbstractGcpComputeBaseResourceChecker.OPERATION_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.google.api.services.compute.model.Operation;
+import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
+import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
+import com.sequenceiq.cloudbreak.cloud.exception.CloudConnectorException;
+import com.sequenceiq.cloudbreak.cloud.gcp.GcpResourceException;
+import com.sequenceiq.cloudbreak.cloud.gcp.context.GcpContext;
+import com.sequenceiq.cloudbreak.cloud.model.CloudCredential;
+import com.sequenceiq.cloudbreak.cloud.model.CloudResource;
+import com.sequenceiq.cloudbreak.cloud.model.CloudResourceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.ResourceStatus;
+import com.sequenceiq.common.api.type.CommonStatus;
+import com.sequenceiq.common.api.type.ResourceType;
+
+@ExtendWith(MockitoExtension.class)
+class AbstractGcpComputeBaseResourceCheckerTest {
+
+    private static final int FINISHED = 100;
+
+    @Mock
+    private GcpComputeResourceChecker resourceChecker;
+
+    @Mock
+    private GcpContext context;
+
+    @InjectMocks
+    private TestResourceChecker underTest;
+
+    private final AuthenticatedContext auth = new AuthenticatedContext(new CloudContext(1L, "name", "crn", "GCP", "user", 1L),
+            new CloudCredential("crn", "credential"));
+
+    @Test
+    void testOperationsOfAllResourcesAreCheckedTogether() throws Exception {
+        when(context.isBuild()).thenReturn(true);
+        when(resourceChecker.checkAll(eq(context), any())).thenReturn(Map.of(
+                "op1", new Operation().setName("op1").setProgress(FINISHED),
+                "op2", new Operation().setName("op2").setProgress(50)));
+
+        List<CloudResourceStatus> result = underTest.checkResources(ResourceType.GCP_INSTANCE, context, auth,
+                List.of(resource("instance1", "op1"), resource("instance2", "op2"), resource("instance3", null)));
+
+        verify(resourceChecker, times(1)).checkAll(context, Arrays.asList("op1", "op2", null));
+        assertEquals(ResourceStatus.CREATED, result.get(0).getStatus());
+        assertEquals(ResourceStatus.IN_PROGRESS, result.get(1).getStatus());
+        assertEquals(ResourceStatus.CREATED, result.get(2).getStatus());
+    }
+
+    @Test
+    void testFailedOperationFailsTheCheckOfItsResource() throws Exception {
+        Operation failed = new Operation().setName("op1").setProgress(FINISHED);
+        when(resourceChecker.checkAll(eq(context), any())).thenReturn(Map.of("op1", failed));
+        doThrow(new CloudConnectorException("quota exceeded")).when(resourceChecker).checkComputeOperationError(failed);
+
+        GcpResourceException exception = assertThrows(GcpResourceException.class,
+                () -> underTest.checkResources(ResourceType.GCP_INSTANCE, context, auth, List.of(resource("instance1", "op1"))));
+
+        assertTrue(exception.getMessage().contains("instance1"));
+    }
+
+    private CloudResource resource(String name, String operationId) {
+        return CloudResource.builder()
+                .type(ResourceType.GCP_INSTANCE)
+                .status(CommonStatus.REQUESTED)
+                .name(name)
+                .params(operationId == null ? Map.of() : Map.of(OPERATION_ID, operationId))
+                .build();
+    }
+
+    static class TestResourceChecker extends AbstractGcpComputeBaseResourceChecker {
+
+        @Override
+        public List<CloudResourceStatus> checkResources(ResourceType type, GcpContext context, AuthenticatedContext auth,
+                Iterable<CloudResource> resources) {
+            return super.checkResources(type, context, auth, resources);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sequenceiq.cloudbreak.cm.metrics;
+
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+
+public enum ClouderaManagerMetricType implements Metric {
+    COMMAND_POLLING_REQUESTED("cm.command.polling.requested"),
+    COMMAND_POLLING_FETCHED("cm.command.polling.fetched"),
+    COMMAND_POLLING_ROUND("cm.command.polling.round"),
+    COMMAND_POLLING_SAVED("cm.command.polling.saved");
+
+    private final String metricName;
+
+    ClouderaManagerMetricType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    @Override
+    public String getMetricName() {
+        return metricName;
+    }
+}
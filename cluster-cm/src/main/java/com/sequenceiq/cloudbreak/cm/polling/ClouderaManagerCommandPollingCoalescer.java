@@ -0,0 +1,227 @@
+package com.sequenceiq.cloudbreak.cm.polling;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cloudera.api.swagger.CommandsResourceApi;
+import com.cloudera.api.swagger.client.ApiClient;
+import com.cloudera.api.swagger.client.ApiException;
+import com.cloudera.api.swagger.model.ApiCommand;
+import com.cloudera.api.swagger.model.ApiCommandList;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sequenceiq.cloudbreak.cm.DataView;
+import com.sequenceiq.cloudbreak.cm.client.ClouderaManagerApiPojoFactory;
+import com.sequenceiq.cloudbreak.cm.metrics.ClouderaManagerMetricType;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.domain.stack.Stack;
+
+/**
+ * Coalesces the command reads of the pollers that poll the same cluster on the same Cloudera Manager server. Once in a polling window,
+ * the active commands of the cluster are listed in one round, and every poller of the cluster is served from that list. A command that
+ * is not in the list, because it has finished or is not a cluster level command, is read on its own, at most once in a polling window:
+ * the pollers asking for a command that is being read wait for that read, and the ones asking within the window get its result. The
+ * commands that are still active after such a read are not looked up in the rounds any more. The children of a read command are fanned
+ * out too, so polling a child of a command that was just read does not need a request. Failed reads and failed child commands are never
+ * reused, those are always read again to get the full error details.
+ */
+@Component
+public class ClouderaManagerCommandPollingCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClouderaManagerCommandPollingCoalescer.class);
+
+    @Value("${cb.cm.command.polling.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.cm.command.polling.coalescing.window.ms:2500}")
+    private long windowMs;
+
+    @Inject
+    private MetricService metricService;
+
+    @Inject
+    private ClouderaManagerApiPojoFactory clouderaManagerApiPojoFactory;
+
+    private Cache<CommandKey, CompletableFuture<ApiCommand>> commands;
+
+    private Cache<RoundKey, CompletableFuture<Void>> rounds;
+
+    private Cache<CommandKey, Boolean> commandsOutsideRounds;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            LOGGER.info("Cloudera Manager command polling coalescing is enabled, window: {} ms", windowMs);
+            commands = CacheBuilder.newBuilder()
+                    .expireAfterWrite(windowMs, TimeUnit.MILLISECONDS)
+                    .build();
+            rounds = CacheBuilder.newBuilder()
+                    .expireAfterWrite(windowMs, TimeUnit.MILLISECONDS)
+                    .build();
+            commandsOutsideRounds = CacheBuilder.newBuilder()
+                    .expireAfterAccess(1, TimeUnit.HOURS)
+                    .build();
+        }
+    }
+
+    public ApiCommand readCommand(Stack stack, ApiClient apiClient, CommandsResourceApi commandsResourceApi, BigDecimal commandId)
+            throws ApiException {
+        if (commands == null) {
+            return commandsResourceApi.readCommand(commandId);
+        }
+        metricService.incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_REQUESTED);
+        Long stackId = stack.getId();
+        String server = apiClient.getBasePath();
+        CommandKey key = new CommandKey(stackId, server, commandId);
+        if (commandsOutsideRounds.getIfPresent(key) == null) {
+            readActiveCommands(stack, server, apiClient);
+        }
+        CompletableFuture<ApiCommand> read = new CompletableFuture<>();
+        CompletableFuture<ApiCommand> current = commands.asMap().putIfAbsent(key, read);
+        if (current != null && current.isCompletedExceptionally()) {
+            current = commands.asMap().replace(key, current, read) ? null : commands.asMap().putIfAbsent(key, read);
+        }
+        if (current != null) {
+            metricService.incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_SAVED);
+            LOGGER.debug("Command [{}] of stack [{}] on Cloudera Manager [{}] is shared with another poller", commandId, stackId, server);
+            return await(current);
+        }
+        try {
+            metricService.incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_FETCHED);
+            ApiCommand apiCommand = commandsResourceApi.readCommand(commandId);
+            read.complete(apiCommand);
+            if (apiCommand != null && Boolean.TRUE.equals(apiCommand.getActive())) {
+                commandsOutsideRounds.put(key, Boolean.TRUE);
+            }
+            fanOutChildren(stackId, server, apiCommand);
+            return apiCommand;
+        } catch (ApiException | RuntimeException e) {
+            read.completeExceptionally(e);
+            commands.asMap().remove(key, read);
+            throw e;
+        }
+    }
+
+    private void readActiveCommands(Stack stack, String server, ApiClient apiClient) {
+        CompletableFuture<Void> round = new CompletableFuture<>();
+        CompletableFuture<Void> current = rounds.asMap().putIfAbsent(new RoundKey(stack.getId(), server), round);
+        if (current != null) {
+            current.join();
+            return;
+        }
+        try {
+            metricService.incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_ROUND);
+            ApiCommandList activeCommands = clouderaManagerApiPojoFactory.getClustersResourceApi(apiClient)
+                    .listActiveCommands(stack.getName(), DataView.SUMMARY.name());
+            if (activeCommands != null && activeCommands.getItems() != null) {
+                activeCommands.getItems().stream()
+                        .filter(activeCommand -> activeCommand.getId() != null)
+                        .forEach(activeCommand -> commands.put(new CommandKey(stack.getId(), server, activeCommand.getId()),
+                                CompletableFuture.completedFuture(activeCommand)));
+            }
+        } catch (ApiException | RuntimeException e) {
+            LOGGER.debug("Active commands of stack [{}] could not be listed on Cloudera Manager [{}], the commands are read one by one",
+                    stack.getId(), server, e);
+        } finally {
+            round.complete(null);
+        }
+    }
+
+    private void fanOutChildren(Long stackId, String server, ApiCommand apiCommand) {
+        if (apiCommand != null && apiCommand.getChildren() != null && apiCommand.getChildren().getItems() != null) {
+            apiCommand.getChildren().getItems().stream()
+                    .filter(child -> child.getId() != null)
+                    .filter(child -> Boolean.TRUE.equals(child.getActive()) || Boolean.TRUE.equals(child.getSuccess()))
+                    .forEach(child -> commands.asMap().putIfAbsent(new CommandKey(stackId, server, child.getId()),
+                            CompletableFuture.completedFuture(child)));
+        }
+    }
+
+    private ApiCommand await(CompletableFuture<ApiCommand> read) throws ApiException {
+        try {
+            return read.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ApiException(e.getCause());
+        }
+    }
+
+    private static class RoundKey {
+
+        private final Long stackId;
+
+        private final String server;
+
+        RoundKey(Long stackId, String server) {
+            this.stackId = stackId;
+            this.server = server;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RoundKey that = (RoundKey) o;
+            return Objects.equals(stackId, that.stackId) && Objects.equals(server, that.server);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(stackId, server);
+        }
+    }
+
+    private static class CommandKey {
+
+        private final Long stackId;
+
+        private final String server;
+
+        private final BigDecimal commandId;
+
+        CommandKey(Long stackId, String server, BigDecimal commandId) {
+            this.stackId = stackId;
+            this.server = server;
+            this.commandId = commandId.stripTrailingZeros();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CommandKey that = (CommandKey) o;
+            return Objects.equals(stackId, that.stackId) && Objects.equals(server, that.server) && Objects.equals(commandId, that.commandId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(stackId, server, commandId);
+        }
+    }
+}
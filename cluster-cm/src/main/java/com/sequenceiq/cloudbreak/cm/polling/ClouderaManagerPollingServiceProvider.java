@@ -73,6 +73,9 @@ public class ClouderaManagerPollingServiceProvider {
     @Inject
     private CloudbreakEventService cloudbreakEventService;
 
+    @Inject
+    private ClouderaManagerCommandPollingCoalescer commandPollingCoalescer;
+
     public PollingResult startPollingCmStartup(Stack stack, ApiClient apiClient) {
         LOGGER.debug("Waiting for Cloudera Manager startup. [Server address: {}]", stack.getClusterManagerIp());
         return pollCommandWithTimeListener(stack, apiClient, null, POLL_FOR_ONE_HOUR,
@@ -228,6 +231,7 @@ public class ClouderaManagerPollingServiceProvider {
 
     private PollingResult pollCommandListWithTimeListener(Stack stack, ApiClient apiClient, List<BigDecimal> commandIds, long maximumWaitTimeInSeconds,
             AbstractClouderaManagerCommandListCheckerTask<ClouderaManagerCommandListPollerObject> listenerTask) {
+        listenerTask.setCommandPollingCoalescer(commandPollingCoalescer);
         ClouderaManagerCommandListPollerObject clouderaManagerCommandPollerObject = new ClouderaManagerCommandListPollerObject(stack, apiClient, commandIds);
         return clouderaManagerCommandListPollerObjectPollingService.pollWithAbsoluteTimeoutSingleFailure(
                 listenerTask,
@@ -238,6 +242,7 @@ public class ClouderaManagerPollingServiceProvider {
 
     private PollingResult pollCommandWithTimeListener(Stack stack, ApiClient apiClient, BigDecimal commandId, long maximumWaitTimeInSeconds,
             AbstractClouderaManagerCommandCheckerTask<ClouderaManagerCommandPollerObject> listenerTask) {
+        listenerTask.setCommandPollingCoalescer(commandPollingCoalescer);
         ClouderaManagerCommandPollerObject clouderaManagerCommandPollerObject = new ClouderaManagerCommandPollerObject(stack, apiClient, commandId);
         return clouderaManagerCommandPollerObjectPollingService.pollWithAbsoluteTimeoutSingleFailure(
                 listenerTask,
@@ -248,6 +253,7 @@ public class ClouderaManagerPollingServiceProvider {
 
     private PollingResult pollCommandWithAttemptListener(Stack stack, ApiClient apiClient, BigDecimal commandId, int numAttempts,
             AbstractClouderaManagerCommandCheckerTask<ClouderaManagerCommandPollerObject> listenerTask) {
+        listenerTask.setCommandPollingCoalescer(commandPollingCoalescer);
         ClouderaManagerCommandPollerObject clouderaManagerCommandPollerObject = new ClouderaManagerCommandPollerObject(stack, apiClient, commandId);
         return clouderaManagerCommandPollerObjectPollingService.pollWithAttemptSingleFailure(
                 listenerTask,
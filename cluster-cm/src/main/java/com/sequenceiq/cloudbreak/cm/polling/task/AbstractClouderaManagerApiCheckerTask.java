@@ -1,6 +1,7 @@
 package com.sequenceiq.cloudbreak.cm.polling.task;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.ConnectException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
@@ -13,9 +14,11 @@ import org.springframework.http.HttpStatus;
 import com.cloudera.api.swagger.CommandsResourceApi;
 import com.cloudera.api.swagger.client.ApiClient;
 import com.cloudera.api.swagger.client.ApiException;
+import com.cloudera.api.swagger.model.ApiCommand;
 import com.sequenceiq.cloudbreak.cluster.service.ClusterBasedStatusCheckerTask;
 import com.sequenceiq.cloudbreak.cm.ClouderaManagerOperationFailedException;
 import com.sequenceiq.cloudbreak.cm.client.ClouderaManagerApiPojoFactory;
+import com.sequenceiq.cloudbreak.cm.polling.ClouderaManagerCommandPollingCoalescer;
 import com.sequenceiq.cloudbreak.cm.polling.ClouderaManagerPollerObject;
 import com.sequenceiq.cloudbreak.domain.stack.Stack;
 import com.sequenceiq.cloudbreak.event.ResourceEvent;
@@ -37,12 +40,18 @@ public abstract class AbstractClouderaManagerApiCheckerTask<T extends ClouderaMa
     private boolean connectExceptionOccurred = false;
     //CHECKSTYLE:ON
 
+    private ClouderaManagerCommandPollingCoalescer commandPollingCoalescer;
+
     protected AbstractClouderaManagerApiCheckerTask(ClouderaManagerApiPojoFactory clouderaManagerApiPojoFactory,
             CloudbreakEventService cloudbreakEventService) {
         this.clouderaManagerApiPojoFactory = clouderaManagerApiPojoFactory;
         this.cloudbreakEventService = cloudbreakEventService;
     }
 
+    public void setCommandPollingCoalescer(ClouderaManagerCommandPollingCoalescer commandPollingCoalescer) {
+        this.commandPollingCoalescer = commandPollingCoalescer;
+    }
+
     @Override
     public final boolean checkStatus(T pollerObject) {
         ApiClient apiClient = pollerObject.getApiClient();
@@ -101,6 +110,12 @@ public abstract class AbstractClouderaManagerApiCheckerTask<T extends ClouderaMa
                 || e.getCause() instanceof SocketTimeoutException;
     }
 
+    protected ApiCommand readCommand(T pollerObject, CommandsResourceApi commandsResourceApi, BigDecimal commandId) throws ApiException {
+        return commandPollingCoalescer == null
+                ? commandsResourceApi.readCommand(commandId)
+                : commandPollingCoalescer.readCommand(pollerObject.getStack(), pollerObject.getApiClient(), commandsResourceApi, commandId);
+    }
+
     protected abstract boolean doStatusCheck(T pollerObject, CommandsResourceApi commandsResourceApi) throws ApiException;
 
     protected abstract String getCommandName();
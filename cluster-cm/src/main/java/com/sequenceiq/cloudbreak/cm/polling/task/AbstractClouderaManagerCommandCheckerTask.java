@@ -22,7 +22,7 @@ public abstract class AbstractClouderaManagerCommandCheckerTask<T extends Cloude
     }
 
     protected boolean doStatusCheck(T pollerObject, CommandsResourceApi commandsResourceApi) throws ApiException {
-        ApiCommand apiCommand = commandsResourceApi.readCommand(pollerObject.getId());
+        ApiCommand apiCommand = readCommand(pollerObject, commandsResourceApi, pollerObject.getId());
         if (apiCommand.getActive()) {
             LOGGER.debug("Command [" + getCommandName() + "] with id [" + pollerObject.getId() + "] is active, so it hasn't finished yet");
             return false;
@@ -41,7 +41,7 @@ public abstract class AbstractClouderaManagerCommandListCheckerTask<T extends Cl
     private List<ApiCommand> collectApiCommands(T pollerObject, CommandsResourceApi commandsResourceApi)  throws ApiException {
         List<ApiCommand> apiCommands = new ArrayList<>();
         for (BigDecimal commandId : pollerObject.getIdList()) {
-            ApiCommand apiCommand = commandsResourceApi.readCommand(commandId);
+            ApiCommand apiCommand = readCommand(pollerObject, commandsResourceApi, commandId);
             apiCommands.add(apiCommand);
             if (apiCommand.getActive()) {
                 LOGGER.debug("Command [" + getCommandName() + "] with id [" + commandId + "] is active, so it hasn't finished yet");
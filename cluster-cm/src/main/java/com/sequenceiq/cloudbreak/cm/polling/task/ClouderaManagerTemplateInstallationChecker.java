@@ -32,7 +32,7 @@ public class ClouderaManagerTemplateInstallationChecker extends AbstractCloudera
     @Override
     protected boolean doStatusCheck(ClouderaManagerCommandPollerObject pollerObject, CommandsResourceApi commandsResourceApi) throws ApiException {
         commandsResourceApi = clouderaManagerApiPojoFactory.getCommandsResourceApi(pollerObject.getApiClient());
-        ApiCommand apiCommand = commandsResourceApi.readCommand(pollerObject.getId());
+        ApiCommand apiCommand = readCommand(pollerObject, commandsResourceApi, pollerObject.getId());
         if (apiCommand.getActive()) {
             LOGGER.debug("Command [" + getCommandName() + "] with id [" + pollerObject.getId() + "] is active, so it hasn't finished yet");
             return false;
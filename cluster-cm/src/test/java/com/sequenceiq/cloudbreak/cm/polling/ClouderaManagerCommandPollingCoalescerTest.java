@@ -0,0 +1,229 @@
+package com.sequenceiq.cloudbreak.cm.polling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cloudera.api.swagger.ClustersResourceApi;
+import com.cloudera.api.swagger.CommandsResourceApi;
+import com.cloudera.api.swagger.client.ApiClient;
+import com.cloudera.api.swagger.client.ApiException;
+import com.cloudera.api.swagger.model.ApiCommand;
+import com.cloudera.api.swagger.model.ApiCommandList;
+import com.google.common.cache.Cache;
+import com.sequenceiq.cloudbreak.cm.client.ClouderaManagerApiPojoFactory;
+import com.sequenceiq.cloudbreak.cm.metrics.ClouderaManagerMetricType;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.domain.stack.Stack;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClouderaManagerCommandPollingCoalescerTest {
+
+    private static final Long STACK_ID = 1L;
+
+    private static final Long OTHER_STACK_ID = 2L;
+
+    private static final String CLUSTER_NAME = "cluster";
+
+    private static final String SERVER = "https://cm-1:7183/api/v31";
+
+    private static final BigDecimal PARENT_ID = new BigDecimal(1);
+
+    private static final BigDecimal CHILD_ID = new BigDecimal(2);
+
+    private static final BigDecimal FAILED_CHILD_ID = new BigDecimal(3);
+
+    private static final BigDecimal OTHER_ID = new BigDecimal(4);
+
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private ClouderaManagerApiPojoFactory clouderaManagerApiPojoFactory;
+
+    @Mock
+    private ClustersResourceApi clustersResourceApi;
+
+    @Mock
+    private ApiClient apiClient;
+
+    @Mock
+    private ApiClient otherApiClient;
+
+    @Mock
+    private CommandsResourceApi commandsResourceApi;
+
+    @InjectMocks
+    private ClouderaManagerCommandPollingCoalescer underTest;
+
+    private Stack stack;
+
+    private Stack otherStack;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "windowMs", 60000L);
+        underTest.init();
+        stack = stack(STACK_ID);
+        otherStack = stack(OTHER_STACK_ID);
+    }
+
+    @Test
+    public void testActiveCommandsOfAClusterAreListedOnceForAllPollers() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(apiClient)).thenReturn(clustersResourceApi);
+        ApiCommand parent = command(PARENT_ID, true, null);
+        ApiCommand other = command(OTHER_ID, true, null);
+        when(clustersResourceApi.listActiveCommands(CLUSTER_NAME, "SUMMARY")).thenReturn(new ApiCommandList().items(List.of(parent, other)));
+
+        assertSame(parent, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+        assertSame(other, underTest.readCommand(stack, apiClient, commandsResourceApi, OTHER_ID));
+
+        verify(clustersResourceApi, times(1)).listActiveCommands(CLUSTER_NAME, "SUMMARY");
+        verify(commandsResourceApi, never()).readCommand(any());
+        verify(metricService, times(1)).incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_ROUND);
+    }
+
+    @Test
+    public void testCommandMissingFromTheRoundIsReadAndLeftOutOfLaterRounds() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(apiClient)).thenReturn(clustersResourceApi);
+        when(clustersResourceApi.listActiveCommands(CLUSTER_NAME, "SUMMARY")).thenReturn(new ApiCommandList().items(List.of()));
+        ApiCommand serviceCommand = command(PARENT_ID, true, null);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(serviceCommand);
+
+        assertSame(serviceCommand, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+        ((Cache<?, ?>) ReflectionTestUtils.getField(underTest, "commands")).invalidateAll();
+        ((Cache<?, ?>) ReflectionTestUtils.getField(underTest, "rounds")).invalidateAll();
+        assertSame(serviceCommand, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+
+        verify(clustersResourceApi, times(1)).listActiveCommands(CLUSTER_NAME, "SUMMARY");
+        verify(commandsResourceApi, times(2)).readCommand(PARENT_ID);
+    }
+
+    @Test
+    public void testCommandIsReadOnItsOwnWhenTheRoundFails() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(apiClient)).thenReturn(clustersResourceApi);
+        when(clustersResourceApi.listActiveCommands(CLUSTER_NAME, "SUMMARY")).thenThrow(new ApiException(500, "error"));
+        ApiCommand parent = command(PARENT_ID, false, true);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(parent);
+
+        assertSame(parent, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+    }
+
+    @Test
+    public void testCommandIsReadOnceWithinTheWindow() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(any())).thenReturn(clustersResourceApi);
+        ApiCommand parent = command(PARENT_ID, true, null);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(parent);
+
+        assertSame(parent, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+        assertSame(parent, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+
+        verify(commandsResourceApi, times(1)).readCommand(PARENT_ID);
+        verify(metricService, times(1)).incrementMetricCounter(ClouderaManagerMetricType.COMMAND_POLLING_SAVED);
+    }
+
+    @Test
+    public void testCommandsOfDifferentServersAreNotShared() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(any())).thenReturn(clustersResourceApi);
+        when(otherApiClient.getBasePath()).thenReturn("https://cm-2:7183/api/v31");
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(command(PARENT_ID, true, null));
+
+        underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+        underTest.readCommand(stack, otherApiClient, commandsResourceApi, PARENT_ID);
+
+        verify(commandsResourceApi, times(2)).readCommand(PARENT_ID);
+    }
+
+    @Test
+    public void testCommandsOfDifferentStacksOnTheSameServerAreNotShared() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(any())).thenReturn(clustersResourceApi);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(command(PARENT_ID, true, null));
+
+        underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+        underTest.readCommand(otherStack, apiClient, commandsResourceApi, PARENT_ID);
+
+        verify(commandsResourceApi, times(2)).readCommand(PARENT_ID);
+    }
+
+    @Test
+    public void testActiveChildrenAreServedFromTheParentButFailedOnesAreReadAgain() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(any())).thenReturn(clustersResourceApi);
+        ApiCommand child = command(CHILD_ID, true, null);
+        ApiCommand failedChild = command(FAILED_CHILD_ID, false, false);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(command(PARENT_ID, true, null, child, failedChild));
+        when(commandsResourceApi.readCommand(FAILED_CHILD_ID)).thenReturn(failedChild);
+
+        underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+
+        assertSame(child, underTest.readCommand(stack, apiClient, commandsResourceApi, CHILD_ID));
+        assertSame(failedChild, underTest.readCommand(stack, apiClient, commandsResourceApi, FAILED_CHILD_ID));
+        verify(commandsResourceApi, never()).readCommand(CHILD_ID);
+        verify(commandsResourceApi, times(1)).readCommand(FAILED_CHILD_ID);
+    }
+
+    @Test
+    public void testFailedReadIsNotReused() throws ApiException {
+        when(apiClient.getBasePath()).thenReturn(SERVER);
+        when(clouderaManagerApiPojoFactory.getClustersResourceApi(any())).thenReturn(clustersResourceApi);
+        ApiCommand parent = command(PARENT_ID, true, null);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenThrow(new ApiException(500, "error")).thenReturn(parent);
+
+        try {
+            underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+        } catch (ApiException e) {
+            assertEquals(500, e.getCode());
+        }
+
+        assertSame(parent, underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID));
+        verify(commandsResourceApi, times(2)).readCommand(PARENT_ID);
+    }
+
+    @Test
+    public void testCommandIsReadDirectlyWhenDisabled() throws ApiException {
+        ReflectionTestUtils.setField(underTest, "commands", null);
+        when(commandsResourceApi.readCommand(PARENT_ID)).thenReturn(command(PARENT_ID, true, null));
+
+        underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+        underTest.readCommand(stack, apiClient, commandsResourceApi, PARENT_ID);
+
+        verify(commandsResourceApi, times(2)).readCommand(PARENT_ID);
+    }
+
+    private Stack stack(Long id) {
+        Stack stack = new Stack();
+        stack.setId(id);
+        stack.setName(CLUSTER_NAME);
+        return stack;
+    }
+
+    private ApiCommand command(BigDecimal id, Boolean active, Boolean success, ApiCommand... children) {
+        return new ApiCommand()
+                .id(id)
+                .active(active)
+                .success(success)
+                .children(new ApiCommandList().items(List.of(children)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.sequenceiq.cloudbreak.common.json;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Replays the attribute reads of a stack describe call on a freshly loaded {@link Json}: the tags and parameters are converted to typed
+ * objects and maps and a few values are looked up by path. The {@code parses} counter reports how many times the raw string was parsed:
+ * the former approach parses it on each of the 13 reads of a call, the memoized tree parses it once per call. Run with
+ * {@code ./gradlew :common:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final int TYPED_READS = 4;
+
+    private static final int MAP_READS = 4;
+
+    private static final String[] PATHS = {"userDefined.owner", "defaults.Cloud-Provider", "application.datahub-version", "platform", "nodeCount"};
+
+    private String attributes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, Object> value = new HashMap<>();
+        Map<String, String> userDefined = new HashMap<>();
+        Map<String, String> defaults = new HashMap<>();
+        Map<String, String> application = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            userDefined.put("user-tag-" + i, "value-" + i);
+            defaults.put("default-tag-" + i, "value-" + i);
+            application.put("application-tag-" + i, "value-" + i);
+        }
+        userDefined.put("owner", "cloudbreak");
+        defaults.put("Cloud-Provider", "AWS");
+        application.put("datahub-version", "7.2.8");
+        value.put("userDefined", userDefined);
+        value.put("defaults", defaults);
+        value.put("application", application);
+        value.put("platform", "AWS");
+        value.put("nodeCount", 12);
+        attributes = JsonUtil.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public void reparseOnEveryRead(ParseCounter counter, Blackhole blackhole) throws IOException {
+        for (int i = 0; i < TYPED_READS; i++) {
+            blackhole.consume(JsonUtil.readValue(attributes, new TypeReference<Map<String, Map<String, String>>>() { }));
+            counter.parses++;
+        }
+        for (int i = 0; i < MAP_READS; i++) {
+            blackhole.consume(JsonUtil.readValue(attributes, Map.class));
+            counter.parses++;
+        }
+        for (String path : PATHS) {
+            blackhole.consume(lookupWithJsonLib(path));
+            counter.parses++;
+        }
+    }
+
+    @Benchmark
+    public void memoizedTree(ParseCounter counter, Blackhole blackhole) throws IOException {
+        Json json = new Json(attributes);
+        for (int i = 0; i < TYPED_READS; i++) {
+            blackhole.consume(json.getView(Map.class));
+        }
+        for (int i = 0; i < MAP_READS; i++) {
+            blackhole.consume(json.getMap());
+        }
+        for (String path : PATHS) {
+            blackhole.consume((Object) json.getValue(path));
+        }
+        counter.parses++;
+    }
+
+    private Object lookupWithJsonLib(String path) {
+        String[] split = path.split("\\.");
+        JSONObject object = JSONObject.fromObject(attributes);
+        for (int i = 0; i < split.length - 1; i++) {
+            object = object.getJSONObject(split[i]);
+        }
+        return object.get(split[split.length - 1]);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ParseCounter {
+
+        public long parses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            parses = 0;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.math.BigInteger;
@@ -82,6 +83,8 @@ public class PkiUtil {
 
     private static final Integer MAX_CACHE_SIZE = 200;
 
+    private static final int SIGNATURE_BUFFER_SIZE = 64 * 1024;
+
     private static final Map<String, RSAKeyParameters> CACHE =
             Collections.synchronizedMap(new LinkedHashMap<>(MAX_CACHE_SIZE * 4 / 3, 0.75f, true) {
                 @Override
@@ -103,6 +106,26 @@ public class PkiUtil {
     }
 
     public static String generateSignature(String privateKeyPem, byte[] data) {
+        Signer signer = createSigner(privateKeyPem);
+        signer.update(data, 0, data.length);
+        return generateSignature(signer);
+    }
+
+    /**
+     * Same as {@link #generateSignature(String, byte[])}, but reads the data from the stream in chunks, so the content to sign does not have
+     * to be held in memory. The stream is not closed.
+     */
+    public static String generateSignature(String privateKeyPem, InputStream data) throws IOException {
+        Signer signer = createSigner(privateKeyPem);
+        byte[] buffer = new byte[SIGNATURE_BUFFER_SIZE];
+        int read;
+        while ((read = data.read(buffer)) != -1) {
+            signer.update(buffer, 0, read);
+        }
+        return generateSignature(signer);
+    }
+
+    private static Signer createSigner(String privateKeyPem) {
         RSAKeyParameters rsaKeyParameters = CACHE.get(privateKeyPem);
 
         if (rsaKeyParameters == null) {
@@ -126,7 +149,10 @@ public class PkiUtil {
 
         Signer signer = new PSSSigner(new RSAEngine(), new SHA256Digest(), SALT_LENGTH);
         signer.init(true, rsaKeyParameters);
-        signer.update(data, 0, data.length);
+        return signer;
+    }
+
+    private static String generateSignature(Signer signer) {
         try {
             byte[] signature = signer.generateSignature();
             return BaseEncoding.base64().encode(signature);
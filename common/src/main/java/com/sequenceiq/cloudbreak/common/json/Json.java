@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -20,17 +21,28 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import net.sf.json.JSONArray;
 import net.sf.json.JSONException;
+import net.sf.json.JSONNull;
 import net.sf.json.JSONObject;
 
+/**
+ * Wraps a JSON string. The string is parsed at most once per instance: the parsed tree is memoized, the typed getters convert from the
+ * tree instead of parsing the string again, and {@link #getView(Class)} keeps one converted instance per type. The memoized state is
+ * dropped whenever the value is changed.
+ */
 public class Json implements Serializable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Json.class);
 
     private String value;
 
+    private transient volatile JsonNode tree;
+
+    private transient volatile Map<Class<?>, Object> views;
+
     public Json(String value) {
         this.value = value;
     }
@@ -52,19 +64,42 @@ public class Json implements Serializable {
     }
 
     public <T> T get(Class<T> valueType) throws IOException {
-        return JsonUtil.readValue(value, valueType);
+        JsonNode node = getTree();
+        return node == null ? JsonUtil.readValue(value, valueType) : JsonUtil.treeToValue(node, valueType);
     }
 
     public <T> T getSilent(Class<T> valueType) {
         try {
-            return JsonUtil.readValue(value, valueType);
+            return get(valueType);
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
     public <T> T get(TypeReference<T> valueType) throws IOException {
-        return JsonUtil.readValue(value, valueType);
+        JsonNode node = getTree();
+        return node == null ? JsonUtil.readValue(value, valueType) : JsonUtil.treeToValue(node, valueType);
+    }
+
+    /**
+     * Returns the value converted to the given type, the instance is created on the first call and shared by the later ones until the
+     * value changes. It is meant for read-only access, use {@link #get(Class)} to get an instance that can be modified.
+     */
+    @JsonIgnore
+    public <T> T getView(Class<T> valueType) throws IOException {
+        Map<Class<?>, Object> currentViews = views;
+        if (currentViews == null) {
+            currentViews = new ConcurrentHashMap<>();
+            views = currentViews;
+        }
+        Object view = currentViews.get(valueType);
+        if (view == null) {
+            view = get(valueType);
+            if (view != null) {
+                currentViews.put(valueType, view);
+            }
+        }
+        return valueType.cast(view);
     }
 
     public static Json silent(Object value) {
@@ -85,19 +120,66 @@ public class Json implements Serializable {
         }
     }
 
+    /**
+     * Looks up the value on the dot separated path in the memoized tree. Like the former json-lib based lookup, scalars are returned as
+     * {@link String}, {@link Boolean} or {@link Number}, objects and arrays as {@link JSONObject} and {@link JSONArray}, a JSON null as
+     * {@link JSONNull}, and a missing leaf as {@code null}.
+     */
     @JsonIgnore
     public <T> T getValue(String path) {
+        JsonNode node = getTree();
+        if (node == null || !node.isObject()) {
+            throw new JSONException("A JSONObject text must begin with '{'");
+        }
         String[] split = path.split("\\.");
-        JSONObject jsonObject = JSONObject.fromObject(value);
-        if (split.length == 1) {
-            return (T) jsonObject.get(split[0]);
+        for (int i = 0; i < split.length - 1; i++) {
+            node = node.get(split[i]);
+            if (node == null || !(node.isObject() || node.isNull())) {
+                throw new JSONException("JSONObject[\"" + split[i] + "\"] is not a JSONObject.");
+            }
         }
+        return (T) toJsonLibValue(node.get(split[split.length - 1]));
+    }
 
-        JSONObject object = jsonObject;
-        for (int i = 0; i < split.length - 1; i++) {
-            object = object.getJSONObject(split[i]);
+    private Object toJsonLibValue(JsonNode node) {
+        Object result;
+        if (node == null || node.isMissingNode()) {
+            result = null;
+        } else if (node.isNull()) {
+            result = JSONNull.getInstance();
+        } else if (node.isObject()) {
+            result = JSONObject.fromObject(node.toString());
+        } else if (node.isArray()) {
+            result = JSONArray.fromObject(node.toString());
+        } else if (node.isTextual()) {
+            result = node.textValue();
+        } else if (node.isBoolean()) {
+            result = node.booleanValue();
+        } else if (node.isNumber()) {
+            result = node.numberValue();
+        } else {
+            result = node.asText();
+        }
+        return result;
+    }
+
+    private JsonNode getTree() {
+        JsonNode result = tree;
+        if (result == null && value != null) {
+            try {
+                result = JsonUtil.readTree(value);
+                tree = result;
+            } catch (IOException e) {
+                LOGGER.debug("The value could not be parsed as a JSON tree: {}", e.getMessage());
+            }
         }
-        return object.containsKey(split[split.length - 1]) ? (T) object.get(split[split.length - 1]) : null;
+        return result;
+    }
+
+    private void updateValue(String value) {
+        this.value = value;
+        tree = null;
+        views = null;
     }
 
     @Override
@@ -137,7 +219,7 @@ public class Json implements Serializable {
             object = object.getJSONObject(split[i]);
         }
         object.remove(split[split.length - 1]);
-        value = jsonObject.toString();
+        updateValue(jsonObject.toString());
     }
 
     @JsonIgnore
@@ -170,7 +252,7 @@ public class Json implements Serializable {
             object = object.getJSONObject(split[i]);
         }
         object.put(split[split.length - 1], newValue);
-        value = jsonObject.toString();
+        updateValue(jsonObject.toString());
     }
 
     @Override
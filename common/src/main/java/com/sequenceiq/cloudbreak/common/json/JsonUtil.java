@@ -154,6 +154,10 @@ public class JsonUtil {
         return MAPPER.treeToValue(n, valueType);
     }
 
+    public static <T> T treeToValue(TreeNode n, TypeReference<T> valueTypeRef) throws IOException {
+        return MAPPER.readValue(MAPPER.treeAsTokens(n), valueTypeRef);
+    }
+
     public static boolean isValid(String content) {
         try {
             readTree(content);
@@ -55,6 +55,12 @@ public abstract class AbstractMetricService implements MetricService {
         incrementMetricCounter(getMetricName(metric), tags);
     }
 
+    @Override
+    public void incrementMetricCounter(Metric metric, double amount, String... tags) {
+        Counter counter = Metrics.counter(getMetricName(metric), tags);
+        counter.increment(amount);
+    }
+
     @Override
     public <T, U> Map<T, U> gaugeMapSize(Metric metric, Map<T, U> map) {
         return Metrics.gaugeMapSize(getMetricName(metric), Tags.empty(), map);
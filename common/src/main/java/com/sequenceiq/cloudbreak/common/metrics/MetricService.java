@@ -13,5 +13,7 @@ public interface MetricService {
 
     void incrementMetricCounter(Metric metric, String... tags);
 
+    void incrementMetricCounter(Metric metric, double amount, String... tags);
+
     <T, U> Map<T, U> gaugeMapSize(Metric metric, Map<T, U> map);
 }
@@ -18,15 +18,23 @@ public class StatusCheckerConfig {
     @Value("${statuschecker.enabled:true}")
     private boolean autoSyncEnabled;
 
+    @Value("${statuschecker.batch.enabled:false}")
+    private boolean batchSyncEnabled;
+
     @PostConstruct
     void logEnablement() {
         LOGGER.info("Auto sync is {}", autoSyncEnabled ? "enabled" : "disabled");
+        LOGGER.info("Batched auto sync is {}", batchSyncEnabled ? "enabled" : "disabled");
     }
 
     public boolean isAutoSyncEnabled() {
         return autoSyncEnabled;
     }
 
+    public boolean isBatchSyncEnabled() {
+        return batchSyncEnabled;
+    }
+
     public int getIntervalInSeconds() {
         return intervalInSeconds;
     }
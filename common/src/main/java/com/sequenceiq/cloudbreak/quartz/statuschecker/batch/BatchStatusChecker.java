@@ -0,0 +1,46 @@
+package com.sequenceiq.cloudbreak.quartz.statuschecker.batch;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.sequenceiq.cloudbreak.quartz.statuschecker.job.StatusCheckerJob;
+
+/**
+ * Status check of one resource type for the batched status sync. When the batched sync is enabled the resources are checked in batches
+ * on the HA node owning their shard, instead of scheduling a {@link StatusCheckerJob} for each of them, so implementations are expected
+ * to reuse the check of the job they replace.
+ *
+ * @param <T> the type of the checked resource
+ */
+public interface BatchStatusChecker<T> {
+
+    /**
+     * @return name of the checked resource type, used in the logs and as a metric tag
+     */
+    String getName();
+
+    /**
+     * @return whether the auto sync of this resource type is enabled in the service
+     */
+    boolean isEnabled();
+
+    /**
+     * @return the status checker job which is not scheduled anymore while the batched status sync is enabled, the already scheduled jobs
+     * of the checked resources are removed
+     */
+    Class<? extends StatusCheckerJob> getReplacedJobClass();
+
+    /**
+     * @return ids of every resource which has to be checked periodically
+     */
+    List<Long> findAllResourceIds();
+
+    /**
+     * Loads the resources of a batch with one query, together with everything their check needs.
+     */
+    List<T> loadResources(Collection<Long> resourceIds);
+
+    Long getResourceId(T resource);
+
+    void check(T resource);
+}
@@ -6,6 +6,8 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 import javax.inject.Inject;
@@ -27,6 +29,7 @@ import org.springframework.stereotype.Service;
 
 import com.sequenceiq.cloudbreak.quartz.model.JobResourceAdapter;
 import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.batch.BatchStatusChecker;
 
 @Service
 public class StatusCheckerJobService {
@@ -54,6 +57,9 @@ public class StatusCheckerJobService {
     @Inject
     private ApplicationContext applicationContext;
 
+    @Inject
+    private Optional<List<BatchStatusChecker<?>>> batchStatusCheckers;
+
     public <T> void schedule(JobResourceAdapter<T> resource) {
         JobDetail jobDetail = buildJobDetail(resource.getLocalId(), resource.getRemoteResourceId(), resource.getJobClassForResource());
         Trigger trigger = buildJobTrigger(jobDetail, RANDOM.nextInt(RANDOM_DELAY));
@@ -71,6 +77,10 @@ public class StatusCheckerJobService {
             if (scheduler.getJobDetail(JobKey.jobKey(localId, JOB_GROUP)) != null) {
                 unschedule(localId);
             }
+            if (isCheckedInBatch(jobDetail.getJobClass())) {
+                LOGGER.debug("Quartz job is not scheduled for {}, it is checked by the batched status sync", localId);
+                return;
+            }
             scheduler.scheduleJob(jobDetail, trigger);
         } catch (SchedulerException e) {
             LOGGER.error(String.format("Error during scheduling quartz job: %s", localId), e);
@@ -103,6 +113,11 @@ public class StatusCheckerJobService {
         }
     }
 
+    private boolean isCheckedInBatch(Class<? extends Job> jobClass) {
+        return properties.isBatchSyncEnabled() && batchStatusCheckers.isPresent()
+                && batchStatusCheckers.get().stream().anyMatch(checker -> checker.getReplacedJobClass().equals(jobClass));
+    }
+
     private <T> JobDetail buildJobDetail(String sdxId, String crn, Class<? extends Job> clazz) {
         JobDataMap jobDataMap = new JobDataMap();
 
@@ -3,6 +3,7 @@ package com.sequenceiq.cloudbreak.util;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +12,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
@@ -26,27 +28,34 @@ public class CompressUtil {
 
     public static byte[] generateCompressedOutputFromFolders(String... classpathFolders) throws IOException {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            try (ZipOutputStream zout = new ZipOutputStream(baos)) {
-                Map<String, List<Resource>> structure = new TreeMap<>();
-                for (String classpathFolder : classpathFolders) {
-                    fillStructureWithResources(structure, classpathFolder);
-                }
-                for (Map.Entry<String, List<Resource>> entry : structure.entrySet()) {
-                    zout.putNextEntry(new ZipEntry(entry.getKey()));
-                    for (Resource resource : entry.getValue()) {
-                        LOGGER.debug("Zip entry: {}", resource.getFilename());
-                        zout.putNextEntry(new ZipEntry(entry.getKey() + resource.getFilename()));
-                        InputStream inputStream = resource.getInputStream();
-                        byte[] bytes = IOUtils.toByteArray(inputStream);
-                        zout.write(bytes);
-                        zout.closeEntry();
+            writeCompressedOutputFromFolders(baos, classpathFolders);
+            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * Writes the zip of the given classpath folders to the output stream instead of collecting it in memory. The stream is not closed.
+     */
+    public static void writeCompressedOutputFromFolders(OutputStream outputStream, String... classpathFolders) throws IOException {
+        try (ZipOutputStream zout = new ZipOutputStream(new CloseShieldOutputStream(outputStream))) {
+            Map<String, List<Resource>> structure = new TreeMap<>();
+            for (String classpathFolder : classpathFolders) {
+                fillStructureWithResources(structure, classpathFolder);
+            }
+            for (Map.Entry<String, List<Resource>> entry : structure.entrySet()) {
+                zout.putNextEntry(new ZipEntry(entry.getKey()));
+                for (Resource resource : entry.getValue()) {
+                    LOGGER.debug("Zip entry: {}", resource.getFilename());
+                    zout.putNextEntry(new ZipEntry(entry.getKey() + resource.getFilename()));
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        IOUtils.copy(inputStream, zout);
                     }
+                    zout.closeEntry();
                 }
-            } catch (IOException e) {
-                LOGGER.error("Failed to zip file resources", e);
-                throw new IOException("Failed to zip file resources", e);
             }
-            return baos.toByteArray();
+        } catch (IOException e) {
+            LOGGER.error("Failed to zip file resources", e);
+            throw new IOException("Failed to zip file resources", e);
         }
     }
 
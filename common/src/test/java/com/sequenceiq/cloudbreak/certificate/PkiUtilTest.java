@@ -1,7 +1,13 @@
 package com.sequenceiq.cloudbreak.certificate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
+import java.security.Signature;
 import java.security.cert.X509Certificate;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Base64;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -35,4 +41,24 @@ public class PkiUtilTest {
         Assert.assertEquals(keyPair.getPrivate(), actual.getPrivate());
         Assert.assertEquals(keyPair.getPublic(), actual.getPublic());
     }
+
+    @Test
+    public void testSignatureFromStreamIsVerifiable() throws Exception {
+        KeyPair keyPair = PkiUtil.generateKeypair();
+        String privateKeyPem = PkiUtil.convert(keyPair.getPrivate());
+        byte[] content = "salt-content-".repeat(10000).getBytes(StandardCharsets.UTF_8);
+
+        String signature = PkiUtil.generateSignature(privateKeyPem, new ByteArrayInputStream(content));
+
+        Assert.assertTrue(verify(keyPair, content, signature));
+        Assert.assertTrue(verify(keyPair, content, PkiUtil.generateSignature(privateKeyPem, content)));
+    }
+
+    private boolean verify(KeyPair keyPair, byte[] content, String signature) throws Exception {
+        Signature verifier = Signature.getInstance("RSASSA-PSS");
+        verifier.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 20, 1));
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(content);
+        return verifier.verify(Base64.getDecoder().decode(signature));
+    }
 }
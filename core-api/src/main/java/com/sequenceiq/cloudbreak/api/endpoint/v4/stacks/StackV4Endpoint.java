@@ -40,6 +40,7 @@ import static com.sequenceiq.cloudbreak.doc.OperationDescriptions.StackOpDescrip
 import static com.sequenceiq.cloudbreak.doc.OperationDescriptions.StackOpDescription.STOP_BY_NAME_IN_WORKSPACE_INTERNAL;
 import static com.sequenceiq.cloudbreak.doc.OperationDescriptions.StackOpDescription.SYNC_BY_NAME_IN_WORKSPACE;
 import static com.sequenceiq.cloudbreak.doc.OperationDescriptions.StackOpDescription.UPGRADE_CLUSTER_IN_WORKSPACE;
+import static com.sequenceiq.cloudbreak.doc.OperationDescriptions.StackOpDescription.WATCH_STATUS_BY_NAME;
 
 import java.util.List;
 import java.util.Set;
@@ -292,6 +293,15 @@ public interface StackV4Endpoint {
     StackStatusV4Response getStatusByName(@PathParam("workspaceId") Long workspaceId, @PathParam("name") String name,
             @AccountId @QueryParam("accountId") String accountId);
 
+    @GET
+    @Path("{name}/status/watch")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = WATCH_STATUS_BY_NAME, produces = MediaType.APPLICATION_JSON, notes = Notes.STACK_NOTES,
+            nickname = "watchStatusStackV4")
+    StackStatusV4Response watchStatusByName(@PathParam("workspaceId") Long workspaceId, @PathParam("name") String name,
+            @QueryParam("version") String version, @QueryParam("waitSeconds") @DefaultValue("0") int waitSeconds,
+            @AccountId @QueryParam("accountId") String accountId);
+
     @DELETE
     @Path("{name}/instance")
     @Produces(MediaType.APPLICATION_JSON)
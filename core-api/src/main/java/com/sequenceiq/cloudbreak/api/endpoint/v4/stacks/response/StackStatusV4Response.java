@@ -29,6 +29,9 @@ public class StackStatusV4Response {
     @ApiModelProperty(ClusterModelDescription.CERT_EXPIRATION)
     private CertExpirationState certExpirationState;
 
+    @ApiModelProperty
+    private String version;
+
     public Long getId() {
         return id;
     }
@@ -85,6 +88,14 @@ public class StackStatusV4Response {
         this.certExpirationState = certExpirationState;
     }
 
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "StackStatusV4Response{" +
@@ -95,6 +106,7 @@ public class StackStatusV4Response {
                 ", clusterStatusReason='" + clusterStatusReason + '\'' +
                 ", crn='" + crn + '\'' +
                 ", certExpirationState=" + certExpirationState +
+                ", version='" + version + '\'' +
                 '}';
     }
 }
@@ -16,6 +16,7 @@ public class OperationDescriptions {
     public static class StackOpDescription {
         public static final String GET_BY_CRN = "retrieve stack by crn";
         public static final String GET_STATUS_BY_NAME = "retrieve stack status by stack name";
+        public static final String WATCH_STATUS_BY_NAME = "retrieve stack status by stack name, waiting until it differs from the given version";
         public static final String PUT_BY_ID = "update stack by id";
         public static final String PUT_BY_NAME = "update stack by name";
         public static final String GET_STACK_CERT = "retrieves the TLS certificate used by the gateway";
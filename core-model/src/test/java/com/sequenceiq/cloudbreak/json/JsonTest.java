@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.json;
 
 import static org.hamcrest.core.Is.is;
 
+import java.io.IOException;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -10,6 +11,7 @@ import org.junit.Test;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.sequenceiq.cloudbreak.common.json.Json;
 
+import net.sf.json.JSONNull;
 import net.sf.json.JSONObject;
 
 public class JsonTest {
@@ -66,4 +68,42 @@ public class JsonTest {
 
         Assert.assertThat(value, is("value"));
     }
+
+    @Test
+    public void testGetValueWithMissingLeaf() {
+        String value = new Json("{\"depth1\":{\"depth2\":\"value\"}}").getValue("depth1.other");
+
+        Assert.assertNull(value);
+    }
+
+    @Test
+    public void testGetValueWithNullLeaf() {
+        Object value = new Json("{\"depth1\":null}").getValue("depth1");
+
+        Assert.assertThat(value, is(JSONNull.getInstance()));
+    }
+
+    @Test
+    public void testGetReturnsNewInstanceOnEveryCall() throws IOException {
+        Json json = new Json("{\"depth1\":\"value\"}");
+
+        Map<String, Object> first = json.get(Map.class);
+        first.put("depth1", "changed");
+
+        Assert.assertThat(json.getMap().get("depth1"), is("value"));
+    }
+
+    @Test
+    public void testGetViewIsSharedUntilTheValueChanges() throws IOException {
+        Json json = new Json("{\"depth1\":\"value\"}");
+
+        Map<String, Object> first = json.getView(Map.class);
+        Map<String, Object> second = json.getView(Map.class);
+        json.replaceValue("depth1", "changed");
+        Map<String, Object> third = json.getView(Map.class);
+
+        Assert.assertSame(first, second);
+        Assert.assertThat(third.get("depth1"), is("changed"));
+        Assert.assertThat(json.getValue("depth1"), is("changed"));
+    }
 }
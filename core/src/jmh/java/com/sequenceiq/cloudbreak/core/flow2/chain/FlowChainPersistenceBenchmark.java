@@ -0,0 +1,143 @@
+package com.sequenceiq.cloudbreak.core.flow2.chain;
+
+import static com.sequenceiq.cloudbreak.core.flow2.stack.downscale.StackDownscaleEvent.STACK_DOWNSCALE_EVENT;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.cloudbreak.common.event.Selectable;
+import com.sequenceiq.cloudbreak.common.type.ClusterManagerType;
+import com.sequenceiq.cloudbreak.common.type.ScalingType;
+import com.sequenceiq.cloudbreak.core.flow2.event.ClusterAndStackDownscaleTriggerEvent;
+import com.sequenceiq.cloudbreak.core.flow2.event.ClusterDownscaleDetails;
+import com.sequenceiq.cloudbreak.core.flow2.event.StackAndClusterUpscaleTriggerEvent;
+import com.sequenceiq.cloudbreak.core.flow2.event.StackDownscaleTriggerEvent;
+import com.sequenceiq.cloudbreak.reactor.api.event.StackEvent;
+import com.sequenceiq.cloudbreak.reactor.api.event.orchestration.RescheduleStatusCheckTriggerEvent;
+
+import reactor.rx.Promise;
+
+/**
+ * Replays the persistence of a flow chain from its first step to its last one. The former approach writes the whole remaining queue with
+ * json-io after every step, the compact one writes the queue once and then only the number of the remaining events. Restoring the chain
+ * on restart parses the snapshot once in both cases. The {@code bytes} counter reports the size of the chain rows written per run. The
+ * {@code provision} chain comes from {@link ProvisionFlowEventChainFactory}, the {@code repair} one has the shape of a
+ * {@link ClusterRepairFlowEventChainFactory} chain repairing a primary gateway and the given number of host groups. Run with
+ * {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowChainPersistenceBenchmark {
+
+    private static final Long STACK_ID = 1L;
+
+    private static final int HOSTS_PER_GROUP = 20;
+
+    @Param({"provision", "repair"})
+    private String chainType;
+
+    @Param({"10"})
+    private int hostGroups;
+
+    private Queue<Selectable> chain;
+
+    @Setup
+    public void setUp() {
+        chain = "provision".equals(chainType)
+                ? new ProvisionFlowEventChainFactory().createFlowTriggerEventQueue(new StackEvent(FlowChainTriggers.FULL_PROVISION_TRIGGER_EVENT, STACK_ID))
+                : repairChain();
+    }
+
+    @Benchmark
+    public void fullQueueOnEveryStep(WriteCounter counter, Blackhole blackhole) {
+        Queue<Selectable> queue = new ConcurrentLinkedDeque<>(chain);
+        while (queue.poll() != null) {
+            String json = JsonWriter.objectToJson(queue);
+            counter.bytes += json.length();
+            blackhole.consume(json);
+        }
+    }
+
+    @Benchmark
+    public void snapshotAndStepCount(WriteCounter counter, Blackhole blackhole) {
+        Queue<Selectable> queue = new ConcurrentLinkedDeque<>(chain);
+        queue.poll();
+        String snapshot = JsonWriter.objectToJson(queue);
+        counter.bytes += snapshot.length();
+        blackhole.consume(snapshot);
+        while (queue.poll() != null) {
+            counter.bytes += Integer.BYTES;
+            blackhole.consume(queue.size());
+        }
+    }
+
+    @Benchmark
+    public void restoreFromSnapshot(Blackhole blackhole) {
+        Queue<Selectable> queue = new ConcurrentLinkedDeque<>(chain);
+        queue.poll();
+        String snapshot = JsonWriter.objectToJson(queue);
+        Queue<Selectable> restored = (Queue<Selectable>) JsonReader.jsonToJava(snapshot);
+        while (restored.size() > 1) {
+            restored.poll();
+        }
+        blackhole.consume(restored);
+    }
+
+    private Queue<Selectable> repairChain() {
+        Queue<Selectable> repair = new ConcurrentLinkedDeque<>();
+        repair.add(new StackDownscaleTriggerEvent(STACK_DOWNSCALE_EVENT.event(), STACK_ID, "gateway", Set.of(0L), new Promise<>()));
+        repair.add(new StackAndClusterUpscaleTriggerEvent(FlowChainTriggers.FULL_UPSCALE_TRIGGER_EVENT, STACK_ID, "gateway", 1,
+                ScalingType.UPSCALE_TOGETHER, Set.of("gateway0.example.com"), true, false, new Promise<>(), false, false, ClusterManagerType.CLOUDERA_MANAGER));
+        for (int group = 0; group < hostGroups; group++) {
+            Set<Long> privateIds = new HashSet<>();
+            Set<String> hostNames = new HashSet<>();
+            for (int host = 0; host < HOSTS_PER_GROUP; host++) {
+                privateIds.add((long) group * HOSTS_PER_GROUP + host);
+                hostNames.add(String.format("worker%d-%d.example.com", group, host));
+            }
+            repair.add(new ClusterAndStackDownscaleTriggerEvent(FlowChainTriggers.FULL_DOWNSCALE_TRIGGER_EVENT, STACK_ID, "worker" + group, privateIds,
+                    ScalingType.DOWNSCALE_TOGETHER, new Promise<>(), new ClusterDownscaleDetails(true, true)));
+            repair.add(new StackAndClusterUpscaleTriggerEvent(FlowChainTriggers.FULL_UPSCALE_TRIGGER_EVENT, STACK_ID, "worker" + group,
+                    HOSTS_PER_GROUP, ScalingType.UPSCALE_TOGETHER, hostNames, false, false, new Promise<>(), false, false,
+                    ClusterManagerType.CLOUDERA_MANAGER));
+        }
+        repair.add(new RescheduleStatusCheckTriggerEvent(FlowChainTriggers.RESCHEDULE_STATUS_CHECK_TRIGGER_EVENT, STACK_ID, new Promise<>()));
+        return repair;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteCounter {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
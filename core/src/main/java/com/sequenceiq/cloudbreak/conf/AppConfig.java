@@ -191,6 +191,7 @@ public class AppConfig implements ResourceLoaderAware {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(corePoolSize);
         executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
         executor.setThreadNamePrefix("resourceBuilderExecutor-");
         executor.setTaskDecorator(new MDCCleanerTaskDecorator());
         executor.setWaitForTasksToCompleteOnShutdown(true);
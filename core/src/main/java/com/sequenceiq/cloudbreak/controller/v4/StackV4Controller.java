@@ -233,6 +233,12 @@ public class StackV4Controller extends NotificationController implements StackV4
         return stackOperations.getStatus(NameOrCrn.ofName(name), restRequestThreadLocalService.getRequestedWorkspaceId());
     }
 
+    @Override
+    @CheckPermissionByAccount(action = AuthorizationResourceAction.POWERUSER_ONLY)
+    public StackStatusV4Response watchStatusByName(Long workspaceId, String name, String version, int waitSeconds, @AccountId String accountId) {
+        return stackOperations.watchStatus(NameOrCrn.ofName(name), restRequestThreadLocalService.getRequestedWorkspaceId(), version, waitSeconds);
+    }
+
     @Override
     @CheckPermissionByAccount(action = AuthorizationResourceAction.POWERUSER_ONLY)
     public FlowIdentifier deleteInstance(Long workspaceId, String name, boolean forced, String instanceId,
@@ -1,7 +1,11 @@
 package com.sequenceiq.cloudbreak.converter.v4.stacks;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
 import org.springframework.stereotype.Component;
 
+import com.google.common.hash.Hashing;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.converter.AbstractConversionServiceAwareConverter;
 import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
@@ -9,6 +13,8 @@ import com.sequenceiq.cloudbreak.domain.projection.StackClusterStatusView;
 @Component
 public class StackClusterStatusViewToStatusConverter extends AbstractConversionServiceAwareConverter<StackClusterStatusView, StackStatusV4Response> {
 
+    private static final String VERSION_DELIMITER = "|";
+
     @Override
     public StackStatusV4Response convert(StackClusterStatusView source) {
         StackStatusV4Response response = new StackStatusV4Response();
@@ -19,6 +25,14 @@ public class StackClusterStatusViewToStatusConverter extends AbstractConversionS
         response.setClusterStatus(source.getClusterStatus());
         response.setClusterStatusReason(source.getClusterStatusReason());
         response.setCertExpirationState(source.getCertExpirationState());
+        response.setVersion(version(source));
         return response;
     }
+
+    private String version(StackClusterStatusView source) {
+        String statusFields = String.join(VERSION_DELIMITER, Objects.toString(source.getStatus()), Objects.toString(source.getStatusReason()),
+                Objects.toString(source.getClusterStatus()), Objects.toString(source.getClusterStatusReason()),
+                Objects.toString(source.getCertExpirationState()));
+        return Hashing.murmur3_128().hashString(statusFields, StandardCharsets.UTF_8).toString();
+    }
 }
@@ -144,7 +144,7 @@ public class StackToStackV4ResponseConverter extends AbstractConversionServiceAw
     private TagsV4Response getTags(Json tag) {
         try {
             if (tag != null && tag.getValue() != null) {
-                StackTags stackTag = tag.get(StackTags.class);
+                StackTags stackTag = tag.getView(StackTags.class);
                 return getConversionService().convert(stackTag, TagsV4Response.class);
             }
         } catch (Exception e) {
@@ -0,0 +1,69 @@
+package com.sequenceiq.cloudbreak.service.stack;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
+
+/**
+ * Long-polls the status of a stack for the clients that only wait for a status change. The status is read with the status projection,
+ * and the call returns as soon as its version differs from the one the client already has, or when the wait time is over. The wait time
+ * is capped, and only a limited number of calls may wait at the same time; the others return the current status at once, so the client
+ * falls back to plain polling.
+ */
+@Service
+public class StackStatusWatchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StackStatusWatchService.class);
+
+    @Value("${cb.stack.status.watch.max.wait.seconds:30}")
+    private int maxWaitSeconds;
+
+    @Value("${cb.stack.status.watch.check.interval.ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${cb.stack.status.watch.max.concurrent:50}")
+    private int maxConcurrentWatches;
+
+    private Semaphore watches;
+
+    @PostConstruct
+    public void init() {
+        watches = new Semaphore(Math.max(maxConcurrentWatches, 0));
+    }
+
+    public StackStatusV4Response watch(Supplier<StackStatusV4Response> statusSupplier, String version, int waitSeconds) {
+        StackStatusV4Response status = statusSupplier.get();
+        long waitMs = TimeUnit.SECONDS.toMillis(Math.min(Math.max(waitSeconds, 0), maxWaitSeconds));
+        if (version == null || waitMs == 0 || !version.equals(status.getVersion())) {
+            return status;
+        }
+        if (!watches.tryAcquire()) {
+            LOGGER.debug("Too many stack status watches are waiting, returning the current status of stack {}", status.getCrn());
+            return status;
+        }
+        try {
+            long deadline = System.currentTimeMillis() + waitMs;
+            long remaining = waitMs;
+            while (remaining > 0 && version.equals(status.getVersion())) {
+                TimeUnit.MILLISECONDS.sleep(Math.min(checkIntervalMs, remaining));
+                status = statusSupplier.get();
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.debug("Stack status watch of {} is interrupted", status.getCrn());
+            Thread.currentThread().interrupt();
+        } finally {
+            watches.release();
+        }
+        return status;
+    }
+}
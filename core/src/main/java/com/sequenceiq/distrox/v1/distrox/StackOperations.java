@@ -56,6 +56,7 @@ import com.sequenceiq.cloudbreak.service.StackCommonService;
 import com.sequenceiq.cloudbreak.service.cluster.ClusterDBValidationService;
 import com.sequenceiq.cloudbreak.service.stack.StackApiViewService;
 import com.sequenceiq.cloudbreak.service.stack.StackService;
+import com.sequenceiq.cloudbreak.service.stack.StackStatusWatchService;
 import com.sequenceiq.cloudbreak.service.upgrade.ClusterUpgradeAvailabilityService;
 import com.sequenceiq.cloudbreak.service.upgrade.UpgradeService;
 import com.sequenceiq.cloudbreak.service.user.UserService;
@@ -87,6 +88,9 @@ public class StackOperations implements ResourceBasedCrnProvider {
     @Inject
     private StackService stackService;
 
+    @Inject
+    private StackStatusWatchService stackStatusWatchService;
+
     @Inject
     private ClusterCommonService clusterCommonService;
 
@@ -289,6 +293,10 @@ public class StackOperations implements ResourceBasedCrnProvider {
         return converterUtil.convert(stackStatusView, StackStatusV4Response.class);
     }
 
+    public StackStatusV4Response watchStatus(@NotNull NameOrCrn nameOrCrn, Long workspaceId, String version, int waitSeconds) {
+        return stackStatusWatchService.watch(() -> getStatus(nameOrCrn, workspaceId), version, waitSeconds);
+    }
+
     public StackStatusV4Response getStatusByCrn(@NotNull NameOrCrn nameOrCrn, Long workspaceId) {
         StackClusterStatusView stackStatusView = stackService.getStatusByNameOrCrn(nameOrCrn, workspaceId);
         return converterUtil.convert(stackStatusView, StackStatusV4Response.class);
@@ -0,0 +1,49 @@
+package com.sequenceiq.cloudbreak.core.flow2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.cloudbreak.reactor.api.event.StackEvent;
+import com.sequenceiq.cloudbreak.reactor.api.event.orchestration.ClusterRepairTriggerEvent;
+import com.sequenceiq.cloudbreak.reactor.api.event.stack.TerminationEvent;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.service.flowlog.codec.BinaryFlowLogPayloadCodec;
+
+class FlowLogPayloadCodecRoundTripTest {
+
+    private final BinaryFlowLogPayloadCodec codec = new BinaryFlowLogPayloadCodec();
+
+    private Map<String, Object> jsonWriterOptions;
+
+    @BeforeEach
+    void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        jsonWriterOptions = jsonIoConfig.getCustomWriteOptions();
+    }
+
+    @Test
+    void testFlowPayloadsSurviveBinaryRoundTrip() {
+        Map<String, List<String>> failedNodes = new HashMap<>();
+        failedNodes.put("master", new ArrayList<>(List.of("host-1.example.com", "host-2.example.com")));
+        List<Object> values = List.of(
+                new StackEvent("START_STACK_PROVISION_EVENT", 1L),
+                new TerminationEvent("TERMINATION_EVENT", 1L, Boolean.TRUE),
+                new ClusterRepairTriggerEvent(1L, failedNodes, false, true),
+                new HashMap<>(Map.of("STACK_ID", 1L, "RETRY", Boolean.FALSE)));
+
+        for (Object value : values) {
+            Object decoded = codec.decode(codec.encode(value));
+            assertEquals(JsonWriter.objectToJson(value, jsonWriterOptions), JsonWriter.objectToJson(decoded, jsonWriterOptions),
+                    value.getClass().getSimpleName() + " changed during the binary round trip");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,6 +37,7 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.service.FlowCancelService;
+import com.sequenceiq.flow.service.flowlog.codec.FlowLogPayloadCodecService;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TerminationTriggerServiceTest {
@@ -57,6 +59,9 @@ public class TerminationTriggerServiceTest {
     @Mock
     private ApplicationFlowInformation applicationFlowInformation;
 
+    @Mock
+    private FlowLogPayloadCodecService payloadCodecService;
+
     @InjectMocks
     private TerminationTriggerService underTest;
 
@@ -269,6 +274,7 @@ public class TerminationTriggerServiceTest {
         TerminationEvent event = new TerminationEvent("selector", 1L, forced);
         flowLog.setPayload(JsonWriter.objectToJson(event));
         flowLog.setPayloadType(TerminationEvent.class);
+        lenient().when(payloadCodecService.deserialize(flowLog.getPayload())).thenReturn(event);
         return flowLog;
     }
 }
\ No newline at end of file
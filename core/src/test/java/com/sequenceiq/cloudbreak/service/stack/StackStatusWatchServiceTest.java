@@ -0,0 +1,81 @@
+package com.sequenceiq.cloudbreak.service.stack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
+
+class StackStatusWatchServiceTest {
+
+    private static final String VERSION = "version";
+
+    private static final String CHANGED_VERSION = "changed";
+
+    private final StackStatusWatchService underTest = new StackStatusWatchService();
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "maxWaitSeconds", 1);
+        ReflectionTestUtils.setField(underTest, "checkIntervalMs", 10L);
+        ReflectionTestUtils.setField(underTest, "maxConcurrentWatches", 1);
+        underTest.init();
+    }
+
+    @Test
+    void testStatusIsReturnedAtOnceWhenTheVersionDiffers() {
+        StackStatusV4Response result = underTest.watch(statusChangingAfter(Integer.MAX_VALUE), CHANGED_VERSION, 1);
+
+        assertEquals(VERSION, result.getVersion());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void testStatusIsReturnedAtOnceWithoutVersion() {
+        underTest.watch(statusChangingAfter(Integer.MAX_VALUE), null, 1);
+
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void testWatchReturnsWhenTheStatusChanges() {
+        StackStatusV4Response result = underTest.watch(statusChangingAfter(3), VERSION, 1);
+
+        assertEquals(CHANGED_VERSION, result.getVersion());
+        assertEquals(4, reads.get());
+    }
+
+    @Test
+    void testWatchReturnsTheUnchangedStatusWhenTheWaitIsOver() {
+        ReflectionTestUtils.setField(underTest, "checkIntervalMs", 200L);
+
+        StackStatusV4Response result = underTest.watch(statusChangingAfter(Integer.MAX_VALUE), VERSION, 60);
+
+        assertEquals(VERSION, result.getVersion());
+    }
+
+    @Test
+    void testStatusIsReturnedAtOnceWhenTooManyWatchesAreWaiting() {
+        ReflectionTestUtils.setField(underTest, "maxConcurrentWatches", 0);
+        underTest.init();
+
+        underTest.watch(statusChangingAfter(Integer.MAX_VALUE), VERSION, 1);
+
+        assertEquals(1, reads.get());
+    }
+
+    private Supplier<StackStatusV4Response> statusChangingAfter(int unchangedReads) {
+        return () -> {
+            StackStatusV4Response status = new StackStatusV4Response();
+            status.setVersion(reads.incrementAndGet() > unchangedReads ? CHANGED_VERSION : VERSION);
+            return status;
+        };
+    }
+}
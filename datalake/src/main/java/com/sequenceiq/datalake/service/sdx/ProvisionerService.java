@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
 import javax.ws.rs.NotFoundException;
@@ -15,6 +16,7 @@ import javax.ws.rs.WebApplicationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.dyngr.Polling;
@@ -23,8 +25,8 @@ import com.dyngr.core.AttemptResults;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.StackV4Endpoint;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.request.StackV4Request;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
 import com.sequenceiq.cloudbreak.api.model.StatusKind;
 import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
 import com.sequenceiq.cloudbreak.cloud.scheduler.PollGroup;
@@ -70,6 +72,9 @@ public class ProvisionerService {
     @Inject
     private AvailabilityChecker availabilityChecker;
 
+    @Value("${sdx.stack.status.watch_sec:0}")
+    private int statusWatchSeconds;
+
     private AttemptResult<StackV4Response> sdxCreationFailed(String statusReason) {
         String errorMessage = "Data Lake creation failed: " + statusReason;
         LOGGER.error(errorMessage);
@@ -99,44 +104,43 @@ public class ProvisionerService {
     public void waitCloudbreakClusterDeletion(Long id, PollingConfig pollingConfig) {
         SdxCluster sdxCluster = sdxService.getById(id);
         AtomicInteger deleteFailedCount = new AtomicInteger(1);
+        AtomicReference<String> statusVersion = new AtomicReference<>();
         Polling.waitPeriodly(pollingConfig.getSleepTime(), pollingConfig.getSleepTimeUnit())
                 .stopIfException(pollingConfig.getStopPollingIfExceptionOccured())
                 .stopAfterDelay(pollingConfig.getDuration(), pollingConfig.getDurationTimeUnit())
                 .run(() -> {
                     LOGGER.info("Deletion polling cloudbreak for stack status: '{}' in '{}' env", sdxCluster.getClusterName(), sdxCluster.getEnvName());
                     try {
-                        StackV4Response stackV4Response = ThreadBasedUserCrnProvider.doAsInternalActor(() -> stackV4Endpoint
-                                .get(0L, sdxCluster.getClusterName(), Collections.emptySet(), sdxCluster.getAccountId()));
+                        StackStatusV4Response stackStatus = getStackStatus(sdxCluster, statusVersion);
                         LOGGER.info("Stack status of SDX {} by response from cloudbreak: {}", sdxCluster.getClusterName(),
-                                stackV4Response.getStatus().name());
-                        LOGGER.debug("Response from cloudbreak: {}", JsonUtil.writeValueAsString(stackV4Response));
-                        ClusterV4Response cluster = stackV4Response.getCluster();
-                        if (cluster != null) {
-                            if (StatusKind.PROGRESS.equals(cluster.getStatus().getStatusKind())) {
+                                stackStatus.getStatus().name());
+                        LOGGER.debug("Response from cloudbreak: {}", stackStatus);
+                        if (stackStatus.getClusterStatus() != null) {
+                            if (StatusKind.PROGRESS.equals(stackStatus.getClusterStatus().getStatusKind())) {
                                 return AttemptResults.justContinue();
                             }
-                            if (Status.DELETE_FAILED.equals(cluster.getStatus())) {
+                            if (Status.DELETE_FAILED.equals(stackStatus.getClusterStatus())) {
                                 // it's a hack, until we implement a nice non-async terminate which can return with flowid..
                                 // if it is implemented, please remove this
                                 if (deleteFailedCount.getAndIncrement() >= DELETE_FAILED_RETRY_COUNT) {
                                     LOGGER.error("Cluster deletion failed '" + sdxCluster.getClusterName() + "', "
-                                            + stackV4Response.getCluster().getStatusReason());
+                                            + stackStatus.getClusterStatusReason());
                                     return AttemptResults.breakFor(
                                             "Data Lake deletion failed '" + sdxCluster.getClusterName() + "', "
-                                                    + stackV4Response.getCluster().getStatusReason()
+                                                    + stackStatus.getClusterStatusReason()
                                     );
                                 } else {
                                     return AttemptResults.justContinue();
                                 }
                             }
                         }
-                        if (Status.DELETE_FAILED.equals(stackV4Response.getStatus())) {
+                        if (Status.DELETE_FAILED.equals(stackStatus.getStatus())) {
                             // it's a hack, until we implement a nice non-async terminate which can return with flowid..
                             // if it is implemented, please remove this
                             if (deleteFailedCount.getAndIncrement() >= DELETE_FAILED_RETRY_COUNT) {
-                                LOGGER.error("Stack deletion failed '" + sdxCluster.getClusterName() + "', " + stackV4Response.getStatusReason());
+                                LOGGER.error("Stack deletion failed '" + sdxCluster.getClusterName() + "', " + stackStatus.getStatusReason());
                                 return AttemptResults.breakFor(
-                                        "Data Lake deletion failed '" + sdxCluster.getClusterName() + "', " + stackV4Response.getStatusReason()
+                                        "Data Lake deletion failed '" + sdxCluster.getClusterName() + "', " + stackStatus.getStatusReason()
                                 );
                             } else {
                                 return AttemptResults.justContinue();
@@ -189,6 +193,7 @@ public class ProvisionerService {
     public StackV4Response waitCloudbreakClusterCreation(Long id, PollingConfig pollingConfig) {
         SdxCluster sdxCluster = sdxService.getById(id);
         sdxStatusService.setStatusForDatalakeAndNotify(DatalakeStatusEnum.STACK_CREATION_IN_PROGRESS, "Datalake stack creation in progress", sdxCluster);
+        AtomicReference<String> statusVersion = new AtomicReference<>();
         return Polling.waitPeriodly(pollingConfig.getSleepTime(), pollingConfig.getSleepTimeUnit())
                 .stopIfException(pollingConfig.getStopPollingIfExceptionOccured())
                 .stopAfterDelay(pollingConfig.getDuration(), pollingConfig.getDurationTimeUnit())
@@ -204,26 +209,26 @@ public class ProvisionerService {
                             LOGGER.info("Cluster creation polling will continue, cluster has an active flow in Cloudbreak, id: {}", sdxCluster.getId());
                             return AttemptResults.justContinue();
                         }
-                        StackV4Response stackV4Response = ThreadBasedUserCrnProvider.doAsInternalActor(() -> stackV4Endpoint
-                                .get(0L, sdxCluster.getClusterName(), Collections.emptySet(), sdxCluster.getAccountId()));
+                        StackStatusV4Response stackStatus = getStackStatus(sdxCluster, statusVersion);
                         LOGGER.info("Stack status of SDX {} by response from cloudbreak: {}", sdxCluster.getClusterName(),
-                                stackV4Response.getStatus().name());
-                        LOGGER.debug("Response from cloudbreak: {}", JsonUtil.writeValueAsString(stackV4Response));
-                        ClusterV4Response cluster = stackV4Response.getCluster();
-                        if (availabilityChecker.stackAndClusterAvailable(stackV4Response, cluster)) {
+                                stackStatus.getStatus().name());
+                        LOGGER.debug("Response from cloudbreak: {}", stackStatus);
+                        if (availabilityChecker.stackAndClusterAvailable(stackStatus)) {
                             LOGGER.info("Stack and cluster is available.");
+                            StackV4Response stackV4Response = ThreadBasedUserCrnProvider.doAsInternalActor(() -> stackV4Endpoint
+                                    .get(0L, sdxCluster.getClusterName(), Collections.emptySet(), sdxCluster.getAccountId()));
                             sdxStatusService.setStatusForDatalakeAndNotify(DatalakeStatusEnum.STACK_CREATION_FINISHED,
                                     "Stack created for Datalake", sdxCluster);
                             return AttemptResults.finishWith(stackV4Response);
                         } else {
-                            if (Status.CREATE_FAILED.equals(stackV4Response.getStatus())) {
-                                LOGGER.error("Stack creation failed {}", stackV4Response.getName());
-                                return sdxCreationFailed(stackV4Response.getStatusReason());
-                            } else if (Status.CREATE_FAILED.equals(stackV4Response.getCluster().getStatus())) {
-                                LOGGER.error("Cluster creation failed {}", stackV4Response.getCluster().getName());
-                                return sdxCreationFailed(stackV4Response.getCluster().getStatusReason());
+                            if (Status.CREATE_FAILED.equals(stackStatus.getStatus())) {
+                                LOGGER.error("Stack creation failed {}", sdxCluster.getClusterName());
+                                return sdxCreationFailed(stackStatus.getStatusReason());
+                            } else if (Status.CREATE_FAILED.equals(stackStatus.getClusterStatus())) {
+                                LOGGER.error("Cluster creation failed {}", sdxCluster.getClusterName());
+                                return sdxCreationFailed(stackStatus.getClusterStatusReason());
                             } else {
-                                String message = sdxStatusService.getShortStatusMessage(stackV4Response);
+                                String message = sdxStatusService.getShortStatusMessage(stackStatus);
                                 if (FINISHED.equals(flowState)) {
                                     LOGGER.error("Cluster creation flow finished but stack or cluster is not available! {}", message);
                                     return sdxCreationFailed(message);
@@ -240,4 +245,15 @@ public class ProvisionerService {
                 });
     }
 
+    /**
+     * Reads only the status of the stack. If {@code sdx.stack.status.watch_sec} is set, the call waits on the Cloudbreak side until the
+     * status differs from the one read by the previous attempt, at most for the configured seconds.
+     */
+    private StackStatusV4Response getStackStatus(SdxCluster sdxCluster, AtomicReference<String> statusVersion) {
+        StackStatusV4Response stackStatus = ThreadBasedUserCrnProvider.doAsInternalActor(() -> statusWatchSeconds > 0
+                ? stackV4Endpoint.watchStatusByName(0L, sdxCluster.getClusterName(), statusVersion.get(), statusWatchSeconds, sdxCluster.getAccountId())
+                : stackV4Endpoint.getStatusByName(0L, sdxCluster.getClusterName(), sdxCluster.getAccountId()));
+        statusVersion.set(stackStatus.getVersion());
+        return stackStatus;
+    }
 }
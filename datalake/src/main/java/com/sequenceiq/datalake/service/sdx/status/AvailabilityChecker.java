@@ -2,6 +2,7 @@ package com.sequenceiq.datalake.service.sdx.status;
 
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
 
@@ -14,4 +15,11 @@ public class AvailabilityChecker {
                 && cluster.getStatus() != null
                 && cluster.getStatus().isAvailable();
     }
+
+    public boolean stackAndClusterAvailable(StackStatusV4Response stackStatus) {
+        return stackStatus.getStatus() != null
+                && stackStatus.getStatus().isAvailable()
+                && stackStatus.getClusterStatus() != null
+                && stackStatus.getClusterStatus().isAvailable();
+    }
 }
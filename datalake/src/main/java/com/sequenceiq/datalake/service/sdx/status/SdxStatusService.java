@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
 import com.sequenceiq.cloudbreak.cloud.scheduler.PollGroup;
 import com.sequenceiq.cloudbreak.common.service.Clock;
@@ -174,4 +175,12 @@ public class SdxStatusService {
         return String.format("Stack status: %s, reason: %s, cluster status: %s, reason: %s",
                 stackStatus, stackStatusReason, clusterStatus, clusterStatusReason);
     }
+
+    public String getShortStatusMessage(StackStatusV4Response stackStatus) {
+        return String.format("Stack status: %s, reason: %s, cluster status: %s, reason: %s",
+                stackStatus.getStatus() == null ? "N/A" : stackStatus.getStatus().name(),
+                stackStatus.getStatusReason() == null ? "N/A" : stackStatus.getStatusReason(),
+                stackStatus.getClusterStatus() == null ? "N/A" : stackStatus.getClusterStatus().name(),
+                stackStatus.getClusterStatusReason() == null ? "N/A" : stackStatus.getClusterStatusReason());
+    }
 }
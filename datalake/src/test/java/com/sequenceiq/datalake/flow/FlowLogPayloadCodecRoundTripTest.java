@@ -0,0 +1,45 @@
+package com.sequenceiq.datalake.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.datalake.flow.create.event.SdxCreateFailedEvent;
+import com.sequenceiq.datalake.flow.create.event.StackCreationWaitRequest;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.service.flowlog.codec.BinaryFlowLogPayloadCodec;
+
+class FlowLogPayloadCodecRoundTripTest {
+
+    private final BinaryFlowLogPayloadCodec codec = new BinaryFlowLogPayloadCodec();
+
+    private Map<String, Object> jsonWriterOptions;
+
+    @BeforeEach
+    void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        jsonWriterOptions = jsonIoConfig.getCustomWriteOptions();
+    }
+
+    @Test
+    void testFlowPayloadsSurviveBinaryRoundTrip() {
+        List<Object> values = List.of(
+                new SdxEvent("SDX_CREATE_EVENT", 1L, "userId"),
+                new StackCreationWaitRequest(1L, "userId"),
+                new SdxCreateFailedEvent(1L, "userId", new IllegalStateException("failure")),
+                new HashMap<>(Map.of("STACK_ID", 1L, "RETRY", Boolean.FALSE)));
+
+        for (Object value : values) {
+            Object decoded = codec.decode(codec.encode(value));
+            assertEquals(JsonWriter.objectToJson(value, jsonWriterOptions), JsonWriter.objectToJson(decoded, jsonWriterOptions),
+                    value.getClass().getSimpleName() + " changed during the binary round trip");
+        }
+    }
+}
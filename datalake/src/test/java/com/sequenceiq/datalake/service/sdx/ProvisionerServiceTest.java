@@ -29,6 +29,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.dyngr.exception.PollerStoppedException;
 import com.dyngr.exception.UserBreakException;
@@ -37,6 +38,7 @@ import com.google.common.collect.Sets;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.StackV4Endpoint;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.request.StackV4Request;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
 import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
@@ -148,9 +150,8 @@ class ProvisionerServiceTest {
     void waitCloudbreakClusterCreationFailedByFailedStack() {
         long clusterId = CLUSTER_ID.incrementAndGet();
         SdxCluster sdxCluster = generateValidSdxCluster(clusterId);
-        StackV4Response stackV4Response = new StackV4Response();
-        stackV4Response.setStatus(Status.CREATE_FAILED);
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString())).thenReturn(stackV4Response);
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString()))
+                .thenReturn(stackStatus(Status.CREATE_FAILED, null, null));
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 500, TimeUnit.MILLISECONDS);
 
@@ -173,14 +174,18 @@ class ProvisionerServiceTest {
         when(cloudbreakFlowService.getLastKnownFlowState(sdxCluster))
                 .thenReturn(FlowState.RUNNING)
                 .thenReturn(FlowState.FINISHED);
+        StackStatusV4Response stackStatus = stackStatus(Status.AVAILABLE, Status.AVAILABLE, null);
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString())).thenReturn(stackStatus);
         when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString())).thenReturn(stackV4Response);
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
-        when(availabilityChecker.stackAndClusterAvailable(stackV4Response, cluster)).thenReturn(Boolean.TRUE);
+        when(availabilityChecker.stackAndClusterAvailable(stackStatus)).thenReturn(Boolean.TRUE);
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 1000, TimeUnit.MILLISECONDS);
 
-        underTest.waitCloudbreakClusterCreation(clusterId, pollingConfig);
+        StackV4Response result = underTest.waitCloudbreakClusterCreation(clusterId, pollingConfig);
 
+        Assertions.assertEquals(stackV4Response, result);
         verify(cloudbreakFlowService, times(2)).getLastKnownFlowState(sdxCluster);
+        verify(stackV4Endpoint, times(1)).get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString());
         verify(sdxStatusService, times(1))
                 .setStatusForDatalakeAndNotify(DatalakeStatusEnum.STACK_CREATION_IN_PROGRESS, "Datalake stack creation in progress", sdxCluster);
         verify(sdxStatusService, times(1))
@@ -238,9 +243,8 @@ class ProvisionerServiceTest {
         long clusterId = CLUSTER_ID.incrementAndGet();
         SdxCluster sdxCluster = generateValidSdxCluster(clusterId);
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
-        StackV4Response firstStackV4Response = new StackV4Response();
-        firstStackV4Response.setStatus(Status.AVAILABLE);
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString())).thenReturn(firstStackV4Response);
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString()))
+                .thenReturn(stackStatus(Status.AVAILABLE, null, null));
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 200, TimeUnit.MILLISECONDS);
 
         Assertions.assertThrows(PollerStoppedException.class, () -> underTest.waitCloudbreakClusterDeletion(clusterId, pollingConfig));
@@ -251,12 +255,9 @@ class ProvisionerServiceTest {
         long clusterId = CLUSTER_ID.incrementAndGet();
         SdxCluster sdxCluster = generateValidSdxCluster(clusterId);
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
-        StackV4Response firstStackV4Response = new StackV4Response();
-        firstStackV4Response.setStatus(Status.AVAILABLE);
-        StackV4Response secondStackV4Response = new StackV4Response();
-        secondStackV4Response.setStatus(Status.DELETE_FAILED);
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString())).thenReturn(firstStackV4Response)
-                .thenReturn(secondStackV4Response);
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString()))
+                .thenReturn(stackStatus(Status.AVAILABLE, null, null))
+                .thenReturn(stackStatus(Status.DELETE_FAILED, null, null));
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 500, TimeUnit.MILLISECONDS);
 
         Assertions.assertThrows(UserBreakException.class, () -> underTest.waitCloudbreakClusterDeletion(clusterId, pollingConfig));
@@ -267,7 +268,7 @@ class ProvisionerServiceTest {
         long clusterId = CLUSTER_ID.incrementAndGet();
         SdxCluster sdxCluster = generateValidSdxCluster(clusterId);
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString())).thenThrow(new NotFoundException());
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString())).thenThrow(new NotFoundException());
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 200, TimeUnit.MILLISECONDS);
 
         underTest.waitCloudbreakClusterDeletion(clusterId, pollingConfig);
@@ -283,37 +284,16 @@ class ProvisionerServiceTest {
         sdxCluster.setClusterName("sdxcluster1");
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
 
-        StackV4Response firstStackV4Response = new StackV4Response();
-        firstStackV4Response.setStatus(Status.DELETE_IN_PROGRESS);
-        ClusterV4Response firstClusterResponse = new ClusterV4Response();
-        firstClusterResponse.setStatus(Status.DELETE_IN_PROGRESS);
-        firstClusterResponse.setStatusReason("delete failed");
-        firstStackV4Response.setCluster(firstClusterResponse);
-
-        StackV4Response secondStackV4Response = new StackV4Response();
-        secondStackV4Response.setStatus(Status.DELETE_FAILED);
-        ClusterV4Response secondClusterResponse = new ClusterV4Response();
-        secondClusterResponse.setStatus(Status.DELETE_IN_PROGRESS);
-        secondClusterResponse.setStatusReason("delete failed");
-        secondStackV4Response.setCluster(secondClusterResponse);
-
-        StackV4Response thirdStackV4Response = new StackV4Response();
-        thirdStackV4Response.setStatus(Status.DELETE_FAILED);
-        ClusterV4Response thirdClusterResponse = new ClusterV4Response();
-        thirdClusterResponse.setStatus(Status.DELETE_FAILED);
-        thirdClusterResponse.setStatusReason("delete failed");
-        thirdStackV4Response.setCluster(thirdClusterResponse);
-
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString()))
-                .thenReturn(firstStackV4Response)
-                .thenReturn(secondStackV4Response)
-                .thenReturn(thirdStackV4Response);
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString()))
+                .thenReturn(stackStatus(Status.DELETE_IN_PROGRESS, Status.DELETE_IN_PROGRESS, "delete failed"))
+                .thenReturn(stackStatus(Status.DELETE_FAILED, Status.DELETE_IN_PROGRESS, "delete failed"))
+                .thenReturn(stackStatus(Status.DELETE_FAILED, Status.DELETE_FAILED, "delete failed"));
 
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 500, TimeUnit.MILLISECONDS);
 
         Assertions.assertThrows(UserBreakException.class, () -> underTest.waitCloudbreakClusterDeletion(clusterId, pollingConfig),
                 "Data lake deletion failed 'sdxcluster1', delete failed");
-        verify(stackV4Endpoint, times(5)).get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString());
+        verify(stackV4Endpoint, times(5)).getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString());
     }
 
     @Test
@@ -323,21 +303,9 @@ class ProvisionerServiceTest {
         sdxCluster.setClusterName("sdxcluster1");
         when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
 
-        StackV4Response firstStackV4Response = new StackV4Response();
-        firstStackV4Response.setStatus(Status.DELETE_FAILED);
-        ClusterV4Response firstClusterResponse = new ClusterV4Response();
-        firstClusterResponse.setStatus(Status.DELETE_IN_PROGRESS);
-        firstStackV4Response.setCluster(firstClusterResponse);
-
-        StackV4Response secondStackV4Response = new StackV4Response();
-        secondStackV4Response.setStatus(Status.DELETE_FAILED);
-        ClusterV4Response secondClusterResponse = new ClusterV4Response();
-        secondClusterResponse.setStatus(Status.DELETE_COMPLETED);
-        secondStackV4Response.setCluster(secondClusterResponse);
-
-        when(stackV4Endpoint.get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString()))
-                .thenReturn(firstStackV4Response)
-                .thenReturn(secondStackV4Response)
+        when(stackV4Endpoint.getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString()))
+                .thenReturn(stackStatus(Status.DELETE_FAILED, Status.DELETE_IN_PROGRESS, null))
+                .thenReturn(stackStatus(Status.DELETE_FAILED, Status.DELETE_COMPLETED, null))
                 .thenThrow(new NotFoundException());
 
         PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 1000, TimeUnit.MILLISECONDS);
@@ -346,7 +314,35 @@ class ProvisionerServiceTest {
 
         verify(sdxStatusService, times(1))
                 .setStatusForDatalakeAndNotify(DatalakeStatusEnum.STACK_DELETED, "Datalake stack deleted", sdxCluster);
-        verify(stackV4Endpoint, times(3)).get(anyLong(), eq(sdxCluster.getClusterName()), anySet(), anyString());
+        verify(stackV4Endpoint, times(3)).getStatusByName(anyLong(), eq(sdxCluster.getClusterName()), anyString());
+    }
+
+    @Test
+    void waitCloudbreakClusterDeletionWithStatusWatch() {
+        long clusterId = CLUSTER_ID.incrementAndGet();
+        SdxCluster sdxCluster = generateValidSdxCluster(clusterId);
+        sdxCluster.setClusterName("sdxcluster1");
+        when(sdxService.getById(clusterId)).thenReturn(sdxCluster);
+        ReflectionTestUtils.setField(underTest, "statusWatchSeconds", 5);
+        StackStatusV4Response stackStatus = stackStatus(Status.DELETE_IN_PROGRESS, Status.DELETE_IN_PROGRESS, null);
+        stackStatus.setVersion("version1");
+        when(stackV4Endpoint.watchStatusByName(0L, "sdxcluster1", null, 5, "hortonworks")).thenReturn(stackStatus);
+        when(stackV4Endpoint.watchStatusByName(0L, "sdxcluster1", "version1", 5, "hortonworks")).thenThrow(new NotFoundException());
+        PollingConfig pollingConfig = new PollingConfig(10, TimeUnit.MILLISECONDS, 1000, TimeUnit.MILLISECONDS);
+
+        underTest.waitCloudbreakClusterDeletion(clusterId, pollingConfig);
+
+        verify(sdxStatusService, times(1))
+                .setStatusForDatalakeAndNotify(DatalakeStatusEnum.STACK_DELETED, "Datalake stack deleted", sdxCluster);
+        verify(stackV4Endpoint, times(0)).getStatusByName(anyLong(), anyString(), anyString());
+    }
+
+    private StackStatusV4Response stackStatus(Status status, Status clusterStatus, String clusterStatusReason) {
+        StackStatusV4Response stackStatus = new StackStatusV4Response();
+        stackStatus.setStatus(status);
+        stackStatus.setClusterStatus(clusterStatus);
+        stackStatus.setClusterStatusReason(clusterStatusReason);
+        return stackStatus;
     }
 
     private DetailedEnvironmentResponse getEnvironmentResponse() {
@@ -1,7 +1,6 @@
 package com.sequenceiq.environment.environment.poller;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -14,8 +13,7 @@ import com.dyngr.core.AttemptResult;
 import com.dyngr.core.AttemptResults;
 import com.dyngr.exception.PollerStoppedException;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.cloud.scheduler.PollGroup;
 import com.sequenceiq.environment.environment.service.datahub.DatahubService;
 import com.sequenceiq.environment.store.EnvironmentInMemoryStateStore;
@@ -56,12 +54,12 @@ public class DatahubPollerProvider {
     }
 
     private AttemptResult<Void> fetchStartDatahubClustersResult(List<String> remainingCrns, String crn) {
-        StackV4Response stack = datahubService.getByCrn(crn, Collections.emptySet());
-        if (stackAndClusterAvailable(stack, stack.getCluster())) {
+        StackStatusV4Response stack = datahubService.getStatusByCrn(crn);
+        if (stackAndClusterAvailable(stack)) {
             return AttemptResults.finishWith(null);
         } else {
             remainingCrns.add(crn);
-            return checkDatahubStartStatus(stack);
+            return checkDatahubStartStatus(stack, crn);
         }
     }
 
@@ -88,56 +86,52 @@ public class DatahubPollerProvider {
     }
 
     private AttemptResult<Void> fetchStopDatahubClustersResult(List<String> remainingCrns, String datahubCrn) {
-        StackV4Response stack = datahubService.getByCrn(datahubCrn, Collections.emptySet());
-        if (stackAndClusterStopped(stack, stack.getCluster())) {
+        StackStatusV4Response stack = datahubService.getStatusByCrn(datahubCrn);
+        if (stackAndClusterStopped(stack)) {
             return AttemptResults.finishWith(null);
         } else {
             remainingCrns.add(datahubCrn);
-            return checkDatahubStopStatus(stack);
+            return checkDatahubStopStatus(stack, datahubCrn);
         }
     }
 
-    private AttemptResult<Void> checkDatahubStartStatus(StackV4Response stack) {
-        ClusterV4Response cluster = stack.getCluster();
+    private AttemptResult<Void> checkDatahubStartStatus(StackStatusV4Response stack, String crn) {
         if (Status.START_FAILED.equals(stack.getStatus())) {
             LOGGER.error("Datahub stack start failed for '{}' with status: {} and reason: {}",
-                    stack.getName(), stack.getStatus(), stack.getStatusReason());
-            return AttemptResults.breakFor("Datahub stack start failed '" + stack.getName() + "', " + stack.getStatusReason());
-        } else if (cluster != null && Status.START_FAILED.equals(cluster.getStatus())) {
+                    crn, stack.getStatus(), stack.getStatusReason());
+            return AttemptResults.breakFor("Datahub stack start failed '" + crn + "', " + stack.getStatusReason());
+        } else if (Status.START_FAILED.equals(stack.getClusterStatus())) {
             LOGGER.error("Datahub cluster start failed for '{}' with status: {} and reason: {}",
-                    cluster.getName(), cluster.getStatus(), stack.getStatusReason());
-            return AttemptResults.breakFor("Datahub cluster start failed '" + cluster.getName() + "', " + cluster.getStatusReason());
+                    crn, stack.getClusterStatus(), stack.getClusterStatusReason());
+            return AttemptResults.breakFor("Datahub cluster start failed '" + crn + "', " + stack.getClusterStatusReason());
         } else {
             return AttemptResults.justContinue();
         }
     }
 
-    private boolean stackAndClusterAvailable(StackV4Response stackV4Response, ClusterV4Response cluster) {
-        return stackV4Response.getStatus().isAvailable()
-                && cluster != null
-                && cluster.getStatus() != null
-                && cluster.getStatus().isAvailable();
+    private boolean stackAndClusterAvailable(StackStatusV4Response stack) {
+        return stack.getStatus().isAvailable()
+                && stack.getClusterStatus() != null
+                && stack.getClusterStatus().isAvailable();
     }
 
-    private AttemptResult<Void> checkDatahubStopStatus(StackV4Response stack) {
-        ClusterV4Response cluster = stack.getCluster();
+    private AttemptResult<Void> checkDatahubStopStatus(StackStatusV4Response stack, String crn) {
         if (Status.STOP_FAILED.equals(stack.getStatus())) {
             LOGGER.error("Datahub cluster stop failed for '{}' with status: {} and reason: {}",
-                    stack.getName(), stack.getStatus(), stack.getStatusReason());
-            return AttemptResults.breakFor("Datahub stack stop failed '" + stack.getName() + "', " + stack.getStatusReason());
-        } else if (cluster != null && Status.STOP_FAILED.equals(cluster.getStatus())) {
-            LOGGER.error("Datahub cluster stop failed for '{}' with status: {} and reason: {}", cluster.getName(), cluster.getStatus(),
-                    cluster.getStatusReason());
-            return AttemptResults.breakFor("Datahub cluster stop failed '" + cluster.getName() + "', " + cluster.getStatusReason());
+                    crn, stack.getStatus(), stack.getStatusReason());
+            return AttemptResults.breakFor("Datahub stack stop failed '" + crn + "', " + stack.getStatusReason());
+        } else if (Status.STOP_FAILED.equals(stack.getClusterStatus())) {
+            LOGGER.error("Datahub cluster stop failed for '{}' with status: {} and reason: {}", crn, stack.getClusterStatus(),
+                    stack.getClusterStatusReason());
+            return AttemptResults.breakFor("Datahub cluster stop failed '" + crn + "', " + stack.getClusterStatusReason());
         } else {
             return AttemptResults.justContinue();
         }
     }
 
-    private boolean stackAndClusterStopped(StackV4Response stackV4Response, ClusterV4Response cluster) {
-        return stackV4Response.getStatus().isStopped()
-                && cluster != null
-                && cluster.getStatus() != null
-                && cluster.getStatus().isStopped();
+    private boolean stackAndClusterStopped(StackStatusV4Response stack) {
+        return stack.getStatus().isStopped()
+                && stack.getClusterStatus() != null
+                && stack.getClusterStatus().isStopped();
     }
 }
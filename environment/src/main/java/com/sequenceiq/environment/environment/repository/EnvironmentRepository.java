@@ -44,6 +44,8 @@ public interface EnvironmentRepository extends AccountAwareResourceRepository<En
 
     List<Environment> findAllByIdInAndStatusInAndArchivedIsFalse(Collection<Long> ids, Collection<EnvironmentStatus> statuses);
 
+    List<Environment> findAllByIdInAndArchivedIsFalse(Collection<Long> ids);
+
     List<Environment> findAllByStatusInAndArchivedIsFalse(Collection<EnvironmentStatus> statuses);
 
     @Query("SELECT e.resourceCrn FROM Environment e WHERE e.name = :name AND e.accountId = :accountId")
@@ -245,6 +245,10 @@ public class EnvironmentService extends AbstractAccountAwareResourceService<Envi
         return environments.stream().map(environmentDtoConverter::environmentToDto).collect(Collectors.toList());
     }
 
+    public List<Environment> findAllByIdInAndArchivedIsFalse(Collection<Long> resourceIds) {
+        return environmentRepository.findAllByIdInAndArchivedIsFalse(resourceIds);
+    }
+
     public List<EnvironmentDto> findAllByStatusIn(Collection<EnvironmentStatus> environmentStatuses) {
         List<Environment> environments = environmentRepository
                 .findAllByStatusInAndArchivedIsFalse(environmentStatuses);
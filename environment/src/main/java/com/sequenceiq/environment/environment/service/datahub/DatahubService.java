@@ -1,7 +1,6 @@
 package com.sequenceiq.environment.environment.service.datahub;
 
 import java.util.List;
-import java.util.Set;
 
 import javax.ws.rs.WebApplicationException;
 
@@ -9,7 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackViewV4Responses;
 import com.sequenceiq.cloudbreak.common.exception.WebApplicationExceptionMessageExtractor;
 import com.sequenceiq.distrox.api.v1.distrox.endpoint.DistroXV1Endpoint;
@@ -41,12 +40,12 @@ public class DatahubService {
         }
     }
 
-    public StackV4Response getByCrn(String crn, Set<String> entries) {
+    public StackStatusV4Response getStatusByCrn(String crn) {
         try {
-            return distroXV1Endpoint.getByCrn(crn, entries);
+            return distroXV1Endpoint.getStatusByCrn(crn);
         } catch (WebApplicationException e) {
             String errorMessage = webApplicationExceptionMessageExtractor.getErrorMessage(e);
-            LOGGER.error(String.format("Failed to get Datahub cluster by crn %s due to: '%s'.", crn, errorMessage), e);
+            LOGGER.error(String.format("Failed to get Datahub cluster status by crn %s due to: '%s'.", crn, errorMessage), e);
             throw new DatahubOperationFailedException(errorMessage, e);
         }
     }
@@ -1,7 +1,9 @@
 package com.sequenceiq.environment.environment.service.freeipa;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.WebApplicationException;
@@ -15,10 +17,12 @@ import com.sequenceiq.cloudbreak.common.exception.WebApplicationExceptionMessage
 import com.sequenceiq.environment.exception.FreeIpaOperationFailedException;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.FreeIpaV1Endpoint;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.attachchildenv.AttachChildEnvironmentRequest;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.create.CreateFreeIpaRequest;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.describe.DescribeFreeIpaResponse;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.detachchildenv.DetachChildEnvironmentRequest;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.health.HealthDetailsFreeIpaResponse;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status.EnvironmentFreeIpaStatusResponse;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.UserV1Endpoint;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.model.SyncOperationStatus;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.model.SynchronizeAllUsersRequest;
@@ -85,6 +89,19 @@ public class FreeIpaService {
         }
     }
 
+    public Map<String, Status> internalGetStatuses(Set<String> envCrns, String accountId) {
+        try {
+            return freeIpaV1Endpoint.getStatusesInternal(envCrns, accountId).stream()
+                    .filter(response -> response.getStatus() != null)
+                    .collect(Collectors.toMap(EnvironmentFreeIpaStatusResponse::getEnvironmentCrn, EnvironmentFreeIpaStatusResponse::getStatus,
+                            (first, second) -> first));
+        } catch (WebApplicationException e) {
+            String errorMessage = webApplicationExceptionMessageExtractor.getErrorMessage(e);
+            LOGGER.error(String.format("Failed to get the status of FreeIpa clusters for environments '%s' due to: '%s'.", envCrns, errorMessage), e);
+            throw new FreeIpaOperationFailedException(errorMessage, e);
+        }
+    }
+
     public void delete(String environmentCrn, boolean forced) {
         try {
             freeIpaV1Endpoint.delete(environmentCrn, forced);
@@ -18,10 +18,17 @@ public class AutoSyncConfig {
     @Value("${environment.autosync.enabled:true}")
     private boolean enabled;
 
+    @Value("${environment.autosync.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${environment.autosync.batch.size:50}")
+    private int batchSize;
+
     @PostConstruct
     void logEnablement() {
         LOGGER.info("Status update is {} by auto sync ", updateStatus ? "enabled" : "disabled");
         LOGGER.info("Auto sync is {}", enabled ? "enabled" : "disabled");
+        LOGGER.info("Batched auto sync is {}", batchEnabled ? "enabled" : "disabled");
     }
 
     public boolean isUpdateStatus() {
@@ -31,4 +38,12 @@ public class AutoSyncConfig {
     public boolean isEnabled() {
         return enabled;
     }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
 }
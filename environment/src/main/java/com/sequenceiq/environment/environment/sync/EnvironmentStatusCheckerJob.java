@@ -11,12 +11,9 @@ import org.springframework.stereotype.Component;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
-import com.sequenceiq.cloudbreak.event.ResourceEvent;
 import com.sequenceiq.cloudbreak.quartz.statuschecker.job.StatusCheckerJob;
-import com.sequenceiq.environment.environment.EnvironmentStatus;
 import com.sequenceiq.environment.environment.domain.Environment;
 import com.sequenceiq.environment.environment.service.EnvironmentService;
-import com.sequenceiq.environment.environment.service.EnvironmentStatusUpdateService;
 import com.sequenceiq.flow.core.FlowLogService;
 
 import io.opentracing.Tracer;
@@ -33,22 +30,22 @@ public class EnvironmentStatusCheckerJob extends StatusCheckerJob {
 
     private final EnvironmentSyncService environmentSyncService;
 
-    private final EnvironmentStatusUpdateService environmentStatusUpdateService;
-
     private final EnvironmentJobService environmentJobService;
 
     private final AutoSyncConfig autoSyncConfig;
 
+    private final EnvironmentSyncBatchService environmentSyncBatchService;
+
     public EnvironmentStatusCheckerJob(EnvironmentService environmentService, FlowLogService flowLogService,
-            EnvironmentSyncService environmentSyncService, EnvironmentStatusUpdateService environmentStatusUpdateService,
-            EnvironmentJobService environmentJobService, AutoSyncConfig autoSyncConfig, Tracer tracer) {
+            EnvironmentSyncService environmentSyncService, EnvironmentJobService environmentJobService, AutoSyncConfig autoSyncConfig,
+            EnvironmentSyncBatchService environmentSyncBatchService, Tracer tracer) {
         super(tracer, "Environment Status Checker Job");
         this.environmentService = environmentService;
         this.flowLogService = flowLogService;
         this.environmentSyncService = environmentSyncService;
-        this.environmentStatusUpdateService = environmentStatusUpdateService;
         this.environmentJobService = environmentJobService;
         this.autoSyncConfig = autoSyncConfig;
+        this.environmentSyncBatchService = environmentSyncBatchService;
     }
 
     @Override
@@ -64,6 +61,8 @@ public class EnvironmentStatusCheckerJob extends StatusCheckerJob {
             Environment environment = environmentOpt.get();
             if (flowLogService.isOtherFlowRunning(envId)) {
                 LOGGER.info("EnvironmentStatusCheckerJob cannot run, because flow is running for environment: {}", environment.getName());
+            } else if (autoSyncConfig.isBatchEnabled()) {
+                environmentSyncBatchService.enqueue(envId);
             } else {
                 syncAnEnv(environment);
             }
@@ -76,32 +75,13 @@ public class EnvironmentStatusCheckerJob extends StatusCheckerJob {
     @VisibleForTesting
     void syncAnEnv(Environment environment) {
         try {
-            ThreadBasedUserCrnProvider.doAsInternalActor(() -> {
-                EnvironmentStatus status = environmentSyncService.getStatusByFreeipa(environment);
-                if (environment.getStatus() != status) {
-                    if (!flowLogService.isOtherFlowRunning(environment.getId())) {
-                        updateIfEnabled(environment, status);
-                    } else {
-                        LOGGER.info("EnvironmentStatusCheckerJob wants to update the status but it's ignored because a flow started on: {}",
-                                environment.getName());
-                    }
-                } else {
-                    LOGGER.info("Environment status is the same ({}), the update is skipped", status);
-                }
-            });
+            ThreadBasedUserCrnProvider.doAsInternalActor(() ->
+                    environmentSyncService.updateStatusIfChanged(environment, environmentSyncService.getStatusByFreeipa(environment)));
         } catch (Exception e) {
             LOGGER.info("Environment sync is failed for {}, error: {}", environment.getName(), e.getMessage(), e);
         }
     }
 
-    private void updateIfEnabled(Environment environment, EnvironmentStatus status) {
-        if (autoSyncConfig.isUpdateStatus()) {
-            environmentStatusUpdateService.updateEnvironmentStatusAndNotify(environment, status, ResourceEvent.ENVIRONMENT_SYNC_FINISHED);
-        } else {
-            LOGGER.info("The environment status would be had to update from {} to {}", environment.getStatus(), status);
-        }
-    }
-
     private Long getEnvId() {
         return Long.valueOf(getLocalId());
     }
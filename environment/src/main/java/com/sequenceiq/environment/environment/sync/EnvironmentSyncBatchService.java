@@ -0,0 +1,74 @@
+package com.sequenceiq.environment.environment.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
+import com.sequenceiq.environment.environment.domain.Environment;
+import com.sequenceiq.environment.environment.service.EnvironmentService;
+
+/**
+ * Collects the environments whose status checker job fired while batched auto sync is enabled, and syncs them on every tick with one
+ * FreeIPA status call per account and batch instead of one describe call per environment.
+ */
+@Component
+public class EnvironmentSyncBatchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentSyncBatchService.class);
+
+    private final Set<Long> dueEnvironmentIds = ConcurrentHashMap.newKeySet();
+
+    private final EnvironmentService environmentService;
+
+    private final EnvironmentSyncService environmentSyncService;
+
+    private final AutoSyncConfig autoSyncConfig;
+
+    public EnvironmentSyncBatchService(EnvironmentService environmentService, EnvironmentSyncService environmentSyncService, AutoSyncConfig autoSyncConfig) {
+        this.environmentService = environmentService;
+        this.environmentSyncService = environmentSyncService;
+        this.autoSyncConfig = autoSyncConfig;
+    }
+
+    public void enqueue(Long environmentId) {
+        dueEnvironmentIds.add(environmentId);
+    }
+
+    @Scheduled(fixedDelayString = "${environment.autosync.batch.tick.millis:5000}",
+            initialDelayString = "${environment.autosync.batch.tick.millis:5000}")
+    public void syncDueEnvironments() {
+        if (dueEnvironmentIds.isEmpty()) {
+            return;
+        }
+        List<Long> environmentIds = new ArrayList<>(dueEnvironmentIds);
+        dueEnvironmentIds.removeAll(environmentIds);
+        try {
+            Map<String, List<Environment>> environmentsByAccount = environmentService.findAllByIdInAndArchivedIsFalse(environmentIds).stream()
+                    .collect(Collectors.groupingBy(Environment::getAccountId));
+            LOGGER.debug("Batched environment sync of {} environments in {} accounts", environmentIds.size(), environmentsByAccount.size());
+            environmentsByAccount.forEach((accountId, environments) ->
+                    Lists.partition(environments, Math.max(autoSyncConfig.getBatchSize(), 1)).forEach(batch -> syncBatch(accountId, batch)));
+        } catch (Exception e) {
+            LOGGER.info("Batched environment sync is failed for {}, error: {}", environmentIds, e.getMessage(), e);
+        }
+    }
+
+    private void syncBatch(String accountId, List<Environment> environments) {
+        try {
+            ThreadBasedUserCrnProvider.doAsInternalActor(() ->
+                    environmentSyncService.getStatusesByFreeipa(accountId, environments).forEach(environmentSyncService::updateStatusIfChanged));
+        } catch (Exception e) {
+            LOGGER.info("Environment sync is failed for {} environments of account {}, error: {}", environments.size(), accountId, e.getMessage(), e);
+        }
+    }
+}
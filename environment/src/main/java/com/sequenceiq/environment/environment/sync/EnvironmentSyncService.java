@@ -7,29 +7,82 @@ import static com.sequenceiq.environment.environment.EnvironmentStatus.START_FRE
 import static com.sequenceiq.environment.environment.EnvironmentStatus.STOP_FREEIPA_FAILED;
 import static com.sequenceiq.environment.environment.EnvironmentStatus.STOP_FREEIPA_STARTED;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.event.ResourceEvent;
 import com.sequenceiq.environment.environment.EnvironmentStatus;
 import com.sequenceiq.environment.environment.domain.Environment;
+import com.sequenceiq.environment.environment.service.EnvironmentStatusUpdateService;
 import com.sequenceiq.environment.environment.service.freeipa.FreeIpaService;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.describe.DescribeFreeIpaResponse;
 
 @Component
 public class EnvironmentSyncService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EnvironmentSyncService.class);
+
     private final FreeIpaService freeIpaService;
 
-    public EnvironmentSyncService(FreeIpaService freeIpaService) {
+    private final FlowLogService flowLogService;
+
+    private final EnvironmentStatusUpdateService environmentStatusUpdateService;
+
+    private final AutoSyncConfig autoSyncConfig;
+
+    public EnvironmentSyncService(FreeIpaService freeIpaService, FlowLogService flowLogService, EnvironmentStatusUpdateService environmentStatusUpdateService,
+            AutoSyncConfig autoSyncConfig) {
         this.freeIpaService = freeIpaService;
+        this.flowLogService = flowLogService;
+        this.environmentStatusUpdateService = environmentStatusUpdateService;
+        this.autoSyncConfig = autoSyncConfig;
     }
 
     public EnvironmentStatus getStatusByFreeipa(Environment environment) {
         Optional<DescribeFreeIpaResponse> freeIpaResponseOpt = freeIpaService.internalDescribe(environment.getResourceCrn(), environment.getAccountId());
-        if (freeIpaResponseOpt.isPresent()) {
-            DescribeFreeIpaResponse freeIpaResponse = freeIpaResponseOpt.get();
-            switch (freeIpaResponse.getStatus()) {
+        return getStatusByFreeipa(environment, freeIpaResponseOpt.map(DescribeFreeIpaResponse::getStatus));
+    }
+
+    /**
+     * Same as {@link #getStatusByFreeipa(Environment)} for the given environments of an account, with a single call to FreeIPA.
+     */
+    public Map<Environment, EnvironmentStatus> getStatusesByFreeipa(String accountId, Collection<Environment> environments) {
+        Set<String> environmentCrns = environments.stream().map(Environment::getResourceCrn).collect(Collectors.toSet());
+        Map<String, Status> freeIpaStatuses = freeIpaService.internalGetStatuses(environmentCrns, accountId);
+        return environments.stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        environment -> getStatusByFreeipa(environment, Optional.ofNullable(freeIpaStatuses.get(environment.getResourceCrn())))));
+    }
+
+    /**
+     * Updates the environment to the synced status, unless it did not change, a flow started on the environment since the status was read, or
+     * the status update of the auto sync is disabled.
+     */
+    public void updateStatusIfChanged(Environment environment, EnvironmentStatus status) {
+        if (environment.getStatus() == status) {
+            LOGGER.debug("Environment status of {} is the same ({}), the update is skipped", environment.getName(), status);
+        } else if (flowLogService.isOtherFlowRunning(environment.getId())) {
+            LOGGER.info("Environment sync wants to update the status but it's ignored because a flow started on: {}", environment.getName());
+        } else if (autoSyncConfig.isUpdateStatus()) {
+            environmentStatusUpdateService.updateEnvironmentStatusAndNotify(environment, status, ResourceEvent.ENVIRONMENT_SYNC_FINISHED);
+        } else {
+            LOGGER.info("The environment status would be had to update from {} to {}", environment.getStatus(), status);
+        }
+    }
+
+    private EnvironmentStatus getStatusByFreeipa(Environment environment, Optional<Status> freeIpaStatusOpt) {
+        if (freeIpaStatusOpt.isPresent()) {
+            switch (freeIpaStatusOpt.get()) {
                 case STOPPED:
                     return ENV_STOPPED;
                 case DELETED_ON_PROVIDER_SIDE:
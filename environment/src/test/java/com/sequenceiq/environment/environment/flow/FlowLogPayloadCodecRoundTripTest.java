@@ -0,0 +1,51 @@
+package com.sequenceiq.environment.environment.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.environment.environment.flow.creation.event.EnvCreationEvent;
+import com.sequenceiq.environment.environment.flow.creation.event.EnvCreationFailureEvent;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.service.flowlog.codec.BinaryFlowLogPayloadCodec;
+
+class FlowLogPayloadCodecRoundTripTest {
+
+    private final BinaryFlowLogPayloadCodec codec = new BinaryFlowLogPayloadCodec();
+
+    private Map<String, Object> jsonWriterOptions;
+
+    private static final String ENV_CRN = "crn:cdp:environments:us-west-1:accountId:environment:envId";
+
+    @BeforeEach
+    void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        jsonWriterOptions = jsonIoConfig.getCustomWriteOptions();
+    }
+
+    @Test
+    void testFlowPayloadsSurviveBinaryRoundTrip() {
+        List<Object> values = List.of(
+                EnvCreationEvent.builder()
+                        .withSelector("START_ENVIRONMENT_VALIDATION_EVENT")
+                        .withResourceId(1L)
+                        .withResourceName("envName")
+                        .withResourceCrn(ENV_CRN)
+                        .build(),
+                new EnvCreationFailureEvent(1L, "envName", new IllegalStateException("failure"), ENV_CRN),
+                new HashMap<>(Map.of("STACK_ID", 1L, "RETRY", Boolean.FALSE)));
+
+        for (Object value : values) {
+            Object decoded = codec.decode(codec.encode(value));
+            assertEquals(JsonWriter.objectToJson(value, jsonWriterOptions), JsonWriter.objectToJson(decoded, jsonWriterOptions),
+                    value.getClass().getSimpleName() + " changed during the binary round trip");
+        }
+    }
+}
@@ -23,8 +23,7 @@ import org.mockito.Mockito;
 import com.dyngr.core.AttemptResult;
 import com.dyngr.core.AttemptState;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.environment.environment.service.datahub.DatahubService;
 
 class DatahubPollerProviderTest {
@@ -51,11 +50,11 @@ class DatahubPollerProviderTest {
         List<String> pollingCrn = new ArrayList<>();
         pollingCrn.add("crn1");
         pollingCrn.add("crn2");
-        StackV4Response stack1 = getStackV4Response(s1Status, c1Status, "crn1");
-        StackV4Response stack2 = getStackV4Response(s2Status, c2Status, "crn2");
+        StackStatusV4Response stack1 = getStackStatusV4Response(s1Status, c1Status, "crn1");
+        StackStatusV4Response stack2 = getStackStatusV4Response(s2Status, c2Status, "crn2");
 
-        Mockito.when(datahubService.getByCrn("crn1", Collections.emptySet())).thenReturn(stack1);
-        Mockito.when(datahubService.getByCrn("crn2", Collections.emptySet())).thenReturn(stack2);
+        Mockito.when(datahubService.getStatusByCrn("crn1")).thenReturn(stack1);
+        Mockito.when(datahubService.getStatusByCrn("crn2")).thenReturn(stack2);
 
         AttemptResult<Void> result = underTest.stopDatahubClustersPoller(pollingCrn, ENV_ID).process();
 
@@ -69,11 +68,11 @@ class DatahubPollerProviderTest {
         List<String> pollingCrn = new ArrayList<>();
         pollingCrn.add("crn1");
         pollingCrn.add("crn2");
-        StackV4Response stack1 = getStackV4Response(s1Status, c1Status, "crn1");
-        StackV4Response stack2 = getStackV4Response(s2Status, c2Status, "crn2");
+        StackStatusV4Response stack1 = getStackStatusV4Response(s1Status, c1Status, "crn1");
+        StackStatusV4Response stack2 = getStackStatusV4Response(s2Status, c2Status, "crn2");
 
-        Mockito.when(datahubService.getByCrn("crn1", Collections.emptySet())).thenReturn(stack1);
-        Mockito.when(datahubService.getByCrn("crn2", Collections.emptySet())).thenReturn(stack2);
+        Mockito.when(datahubService.getStatusByCrn("crn1")).thenReturn(stack1);
+        Mockito.when(datahubService.getStatusByCrn("crn2")).thenReturn(stack2);
 
         AttemptResult<Void> result = underTest.startDatahubClustersPoller(pollingCrn, ENV_ID).process();
 
@@ -102,15 +101,11 @@ class DatahubPollerProviderTest {
         );
     }
 
-    private StackV4Response getStackV4Response(Status status, Status clusterStatus, String crn) {
-        StackV4Response stack1 = new StackV4Response();
+    private StackStatusV4Response getStackStatusV4Response(Status status, Status clusterStatus, String crn) {
+        StackStatusV4Response stack1 = new StackStatusV4Response();
         stack1.setStatus(status);
-        ClusterV4Response cluster = new ClusterV4Response();
-        cluster.setStatus(clusterStatus);
-        cluster.setName(crn);
-        cluster.setStatusReason("cluster reason");
-        stack1.setCluster(cluster);
-        stack1.setName(crn);
+        stack1.setClusterStatus(clusterStatus);
+        stack1.setClusterStatusReason("cluster reason");
         stack1.setCrn(crn);
         stack1.setStatusReason("reason");
         return stack1;
@@ -1,7 +1,6 @@
 package com.sequenceiq.environment.environment.service;
 
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -17,10 +16,9 @@ import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.Status;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackV4Response;
+import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackStatusV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackViewV4Response;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.StackViewV4Responses;
-import com.sequenceiq.cloudbreak.api.endpoint.v4.stacks.response.cluster.ClusterV4Response;
 import com.sequenceiq.cloudbreak.common.exception.WebApplicationExceptionMessageExtractor;
 import com.sequenceiq.environment.environment.poller.ClusterPollerResultEvaluator;
 import com.sequenceiq.environment.environment.poller.DatahubPollerProvider;
@@ -65,7 +63,7 @@ class DatahubPollerServiceTest {
     void testStopAttachedDatahubWhenDatahubIsAvailable() {
         StackViewV4Response stackView = getStackView(Status.AVAILABLE);
         when(datahubService.list(ENV_CRN)).thenReturn(new StackViewV4Responses(Set.of(stackView)));
-        when(datahubService.getByCrn(anyString(), anySet()))
+        when(datahubService.getStatusByCrn(anyString()))
                 .thenReturn(getStack(Status.AVAILABLE), getStack(Status.AVAILABLE), getStack(Status.STOPPED));
 
         underTest.stopAttachedDatahubClusters(ENV_ID, ENV_CRN);
@@ -86,7 +84,7 @@ class DatahubPollerServiceTest {
     void testStartAttachedDatahubWhenDatahubIsStopped() {
         StackViewV4Response stackView = getStackView(Status.STOPPED);
         when(datahubService.list(ENV_CRN)).thenReturn(new StackViewV4Responses(Set.of(stackView)));
-        when(datahubService.getByCrn(anyString(), anySet()))
+        when(datahubService.getStatusByCrn(anyString()))
                 .thenReturn(getStack(Status.STOPPED), getStack(Status.STOPPED), getStack(Status.AVAILABLE));
 
         underTest.startAttachedDatahubClusters(ENV_ID, ENV_CRN);
@@ -94,13 +92,11 @@ class DatahubPollerServiceTest {
         verify(datahubService, times(1)).putStartByCrns(eq(ENV_CRN), anyList());
     }
 
-    private StackV4Response getStack(Status status) {
-        StackV4Response stack = new StackV4Response();
+    private StackStatusV4Response getStack(Status status) {
+        StackStatusV4Response stack = new StackStatusV4Response();
         stack.setStatus(status);
         stack.setCrn(STACK_CRN);
-        ClusterV4Response cluster = new ClusterV4Response();
-        cluster.setStatus(status);
-        stack.setCluster(cluster);
+        stack.setClusterStatus(status);
         return stack;
     }
 
@@ -0,0 +1,74 @@
+package com.sequenceiq.environment.environment.sync;
+
+import static com.sequenceiq.environment.environment.EnvironmentStatus.AVAILABLE;
+import static com.sequenceiq.environment.environment.EnvironmentStatus.ENV_STOPPED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.sequenceiq.environment.environment.EnvironmentStatus;
+import com.sequenceiq.environment.environment.domain.Environment;
+import com.sequenceiq.environment.environment.service.EnvironmentService;
+
+class EnvironmentSyncBatchServiceTest {
+
+    private final EnvironmentService environmentService = Mockito.mock(EnvironmentService.class);
+
+    private final EnvironmentSyncService environmentSyncService = Mockito.mock(EnvironmentSyncService.class);
+
+    private final AutoSyncConfig autoSyncConfig = Mockito.mock(AutoSyncConfig.class);
+
+    private final EnvironmentSyncBatchService underTest = new EnvironmentSyncBatchService(environmentService, environmentSyncService, autoSyncConfig);
+
+    @Test
+    void testNothingIsSyncedWithoutDueEnvironments() {
+        underTest.syncDueEnvironments();
+
+        verify(environmentService, never()).findAllByIdInAndArchivedIsFalse(anyCollection());
+    }
+
+    @Test
+    void testDueEnvironmentsAreSyncedInBatchesPerAccount() {
+        Environment env1 = getEnvironment(1L, "account1", AVAILABLE);
+        Environment env2 = getEnvironment(2L, "account1", AVAILABLE);
+        Environment env3 = getEnvironment(3L, "account1", ENV_STOPPED);
+        Environment env4 = getEnvironment(4L, "account2", AVAILABLE);
+        when(environmentService.findAllByIdInAndArchivedIsFalse(anyCollection())).thenReturn(List.of(env1, env2, env3, env4));
+        when(environmentSyncService.getStatusesByFreeipa("account1", List.of(env1, env2))).thenReturn(Map.of(env1, AVAILABLE, env2, ENV_STOPPED));
+        when(environmentSyncService.getStatusesByFreeipa("account1", List.of(env3))).thenReturn(Map.of(env3, ENV_STOPPED));
+        when(environmentSyncService.getStatusesByFreeipa("account2", List.of(env4))).thenReturn(Map.of(env4, AVAILABLE));
+        when(autoSyncConfig.getBatchSize()).thenReturn(2);
+        List.of(1L, 2L, 3L, 4L).forEach(underTest::enqueue);
+
+        underTest.syncDueEnvironments();
+
+        verify(environmentSyncService, times(3)).getStatusesByFreeipa(anyString(), any());
+        verify(environmentSyncService).updateStatusIfChanged(env1, AVAILABLE);
+        verify(environmentSyncService).updateStatusIfChanged(env2, ENV_STOPPED);
+        verify(environmentSyncService).updateStatusIfChanged(env3, ENV_STOPPED);
+        verify(environmentSyncService).updateStatusIfChanged(env4, AVAILABLE);
+
+        underTest.syncDueEnvironments();
+
+        verify(environmentService, times(1)).findAllByIdInAndArchivedIsFalse(anyCollection());
+    }
+
+    private Environment getEnvironment(Long id, String accountId, EnvironmentStatus status) {
+        Environment environment = new Environment();
+        environment.setId(id);
+        environment.setAccountId(accountId);
+        environment.setName("env" + id);
+        environment.setStatus(status);
+        return environment;
+    }
+}
@@ -1,9 +1,18 @@
 package com.sequenceiq.environment.environment.sync;
 
+import static com.sequenceiq.cloudbreak.event.ResourceEvent.ENVIRONMENT_SYNC_FINISHED;
+import static com.sequenceiq.environment.environment.EnvironmentStatus.AVAILABLE;
+import static com.sequenceiq.environment.environment.EnvironmentStatus.ENV_STOPPED;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,7 +23,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.sequenceiq.environment.environment.EnvironmentStatus;
 import com.sequenceiq.environment.environment.domain.Environment;
+import com.sequenceiq.environment.environment.service.EnvironmentStatusUpdateService;
 import com.sequenceiq.environment.environment.service.freeipa.FreeIpaService;
+import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.describe.DescribeFreeIpaResponse;
 
@@ -23,7 +34,14 @@ public class EnvironmentSyncServiceTest {
 
     private final FreeIpaService freeIpaService = mock(FreeIpaService.class);
 
-    private final EnvironmentSyncService underTest = new EnvironmentSyncService(freeIpaService);
+    private final FlowLogService flowLogService = mock(FlowLogService.class);
+
+    private final EnvironmentStatusUpdateService environmentStatusUpdateService = mock(EnvironmentStatusUpdateService.class);
+
+    private final AutoSyncConfig autoSyncConfig = mock(AutoSyncConfig.class);
+
+    private final EnvironmentSyncService underTest = new EnvironmentSyncService(freeIpaService, flowLogService, environmentStatusUpdateService,
+            autoSyncConfig);
 
     @ParameterizedTest(name = "{0}")
     @MethodSource("getStatusByFreeipaParams")
@@ -63,6 +81,78 @@ public class EnvironmentSyncServiceTest {
         Assertions.assertEquals(EnvironmentStatus.AVAILABLE, actual);
     }
 
+    @Test
+    void testGetStatusesByFreeipa() {
+        Environment stopped = getEnvironment("crn1", true);
+        Environment missingFreeIpa = getEnvironment("crn2", true);
+        Environment withoutFreeIpa = getEnvironment("crn3", false);
+
+        when(freeIpaService.internalGetStatuses(Set.of("crn1", "crn2", "crn3"), "cloudera")).thenReturn(Map.of("crn1", Status.STOPPED));
+
+        Map<Environment, EnvironmentStatus> actual = underTest.getStatusesByFreeipa("cloudera", List.of(stopped, missingFreeIpa, withoutFreeIpa));
+
+        Assertions.assertEquals(3, actual.size());
+        Assertions.assertEquals(EnvironmentStatus.ENV_STOPPED, actual.get(stopped));
+        Assertions.assertEquals(EnvironmentStatus.FREEIPA_DELETED_ON_PROVIDER_SIDE, actual.get(missingFreeIpa));
+        Assertions.assertEquals(EnvironmentStatus.AVAILABLE, actual.get(withoutFreeIpa));
+    }
+
+    @Test
+    void testUpdateStatusIfChangedSameStatus() {
+        Environment environment = getEnvironment(1234L, AVAILABLE);
+
+        underTest.updateStatusIfChanged(environment, AVAILABLE);
+
+        verify(environmentStatusUpdateService, never()).updateEnvironmentStatusAndNotify(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateStatusIfChangedDifferentStatusAndUpdateEnabled() {
+        Environment environment = getEnvironment(1234L, ENV_STOPPED);
+        when(autoSyncConfig.isUpdateStatus()).thenReturn(true);
+
+        underTest.updateStatusIfChanged(environment, AVAILABLE);
+
+        verify(environmentStatusUpdateService).updateEnvironmentStatusAndNotify(environment, AVAILABLE, ENVIRONMENT_SYNC_FINISHED);
+    }
+
+    @Test
+    void testUpdateStatusIfChangedDifferentStatusAndUpdateDisabled() {
+        Environment environment = getEnvironment(1234L, ENV_STOPPED);
+        when(autoSyncConfig.isUpdateStatus()).thenReturn(false);
+
+        underTest.updateStatusIfChanged(environment, AVAILABLE);
+
+        verify(autoSyncConfig).isUpdateStatus();
+        verify(environmentStatusUpdateService, never()).updateEnvironmentStatusAndNotify(environment, AVAILABLE, ENVIRONMENT_SYNC_FINISHED);
+    }
+
+    @Test
+    void testUpdateStatusIfChangedWhenFlowIsRunning() {
+        Environment environment = getEnvironment(1234L, ENV_STOPPED);
+        when(flowLogService.isOtherFlowRunning(1234L)).thenReturn(true);
+
+        underTest.updateStatusIfChanged(environment, AVAILABLE);
+
+        verify(autoSyncConfig, never()).isUpdateStatus();
+        verify(environmentStatusUpdateService, never()).updateEnvironmentStatusAndNotify(any(), any(), any());
+    }
+
+    private Environment getEnvironment(Long id, EnvironmentStatus status) {
+        Environment environment = new Environment();
+        environment.setId(id);
+        environment.setStatus(status);
+        return environment;
+    }
+
+    private Environment getEnvironment(String crn, boolean createFreeIpa) {
+        Environment environment = new Environment();
+        environment.setAccountId("cloudera");
+        environment.setResourceCrn(crn);
+        environment.setCreateFreeIpa(createFreeIpa);
+        return environment;
+    }
+
     // @formatter:off
     // CHECKSTYLE:OFF
     static Object[][] getStatusByFreeipaParams() {
@@ -0,0 +1,120 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.reactor.api.event.BaseFailedFlowEvent;
+import com.sequenceiq.flow.reactor.api.event.BaseNamedFlowEvent;
+
+/**
+ * Compares json-io and the binary codec on the values a flow log row holds: a flow event payload, a failure payload and the flow
+ * variables. The {@code bytes} counter reports the size of the encoded value as it is stored in the text column, so the two formats can
+ * be compared by size as well. Run with {@code ./gradlew :flow:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowLogPayloadCodecBenchmark {
+
+    private static final String RESOURCE_CRN = "crn:cdp:datalake:us-west-1:accountId:datalake:resourceId";
+
+    @Param({"event", "failure", "variables"})
+    private String valueType;
+
+    private final BinaryFlowLogPayloadCodec binaryCodec = new BinaryFlowLogPayloadCodec();
+
+    private Map<String, Object> jsonWriterOptions;
+
+    private Object value;
+
+    private String json;
+
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        jsonWriterOptions = jsonIoConfig.getCustomWriteOptions();
+        value = createValue();
+        json = JsonWriter.objectToJson(value, jsonWriterOptions);
+        binary = binaryCodec.encode(value);
+    }
+
+    @Benchmark
+    public String jsonIoEncode(SizeCounter counter) {
+        String encoded = JsonWriter.objectToJson(value, jsonWriterOptions);
+        counter.bytes += encoded.length();
+        return encoded;
+    }
+
+    @Benchmark
+    public Object jsonIoDecode() {
+        return JsonReader.jsonToJava(json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(SizeCounter counter) {
+        byte[] encoded = binaryCodec.encode(value);
+        counter.bytes += encodedLength(encoded);
+        return encoded;
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return binaryCodec.decode(binary);
+    }
+
+    private Object createValue() {
+        switch (valueType) {
+            case "event":
+                return new BaseNamedFlowEvent("START_FLOW_EVENT", 1L, "resourceName", RESOURCE_CRN);
+            case "failure":
+                return new BaseFailedFlowEvent("FLOW_FAILED_EVENT", 1L, "resourceName", RESOURCE_CRN, new IllegalStateException("failure"));
+            default:
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("STACK_ID", 1L);
+                variables.put("RETRY", Boolean.FALSE);
+                variables.put("OPERATION_ID", "operationId");
+                return variables;
+        }
+    }
+
+    private static int encodedLength(byte[] encoded) {
+        int bytesWithVersion = encoded.length + 1;
+        return FlowLogPayloadCodecService.ENCODED_PREFIX.length() + (bytesWithVersion + 2) / 3 * 4;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SizeCounter {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sequenceiq.cloudbreak.ha.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+
+/**
+ * Distributes the flows with consistent hashing with bounded loads. The flows of the same resource are kept together and land on the same
+ * node as long as the set of active nodes does not change. A node is skipped on the ring if its load, the flows it is already running plus
+ * the ones assigned to it in this round, reached {@code load.factor} times the average load.
+ */
+@Service
+@ConditionalOnProperty(value = "cb.ha.flow.distributor", havingValue = "consistent-hash")
+public class ConsistentHashFlowDistributor implements FlowDistributor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsistentHashFlowDistributor.class);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    @Value("${cb.ha.flow.distributor.virtual.nodes:100}")
+    private int virtualNodesPerNode;
+
+    @Value("${cb.ha.flow.distributor.load.factor:1.25}")
+    private double loadFactor;
+
+    @Override
+    public Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes) {
+        Map<String, Long> resourceIdsByFlowId = new LinkedHashMap<>();
+        flows.forEach(flow -> resourceIdsByFlowId.put(flow, null));
+        return distribute(resourceIdsByFlowId, nodes, Map.of());
+    }
+
+    @Override
+    public Map<Node, List<String>> distribute(Map<String, Long> resourceIdsByFlowId, List<Node> nodes, Map<String, Long> runningFlowsByNodeId) {
+        Map<Node, List<String>> result = new HashMap<>();
+        if (nodes.isEmpty() || resourceIdsByFlowId.isEmpty()) {
+            return result;
+        }
+        Map<String, List<String>> flowsByKey = groupFlowsByKey(resourceIdsByFlowId);
+        Map<Node, Long> loads = new HashMap<>();
+        long totalLoad = resourceIdsByFlowId.size();
+        for (Node node : nodes) {
+            long load = runningFlowsByNodeId.getOrDefault(node.getUuid(), 0L);
+            loads.put(node, load);
+            totalLoad += load;
+        }
+        long capacity = (long) Math.ceil(totalLoad * Math.max(loadFactor, 1.0) / nodes.size());
+        LOGGER.debug("Number of flows to distribute: {}, across: {} nodes, current loads: {}, capacity per node: {}",
+                resourceIdsByFlowId.size(), nodes.size(), loads, capacity);
+
+        NavigableMap<Integer, Node> ring = createRing(nodes);
+        for (Entry<String, List<String>> keyFlows : flowsByKey.entrySet()) {
+            Node node = findNode(ring, keyFlows.getKey(), loads, capacity);
+            result.computeIfAbsent(node, k -> new ArrayList<>()).addAll(keyFlows.getValue());
+            loads.merge(node, (long) keyFlows.getValue().size(), Long::sum);
+        }
+        LOGGER.debug("Result of flow distribution: {}", result);
+        return result;
+    }
+
+    private Map<String, List<String>> groupFlowsByKey(Map<String, Long> resourceIdsByFlowId) {
+        Map<String, List<String>> flowsByKey = new LinkedHashMap<>();
+        resourceIdsByFlowId.forEach((flowId, resourceId) -> {
+            String key = resourceId != null ? resourceId.toString() : flowId;
+            flowsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(flowId);
+        });
+        return flowsByKey;
+    }
+
+    private NavigableMap<Integer, Node> createRing(List<Node> nodes) {
+        NavigableMap<Integer, Node> ring = new TreeMap<>();
+        for (Node node : nodes) {
+            for (int i = 0; i < virtualNodesPerNode; i++) {
+                ring.putIfAbsent(hash(node.getUuid() + '#' + i), node);
+            }
+        }
+        return ring;
+    }
+
+    private Node findNode(NavigableMap<Integer, Node> ring, String key, Map<Node, Long> loads, long capacity) {
+        int hash = hash(key);
+        for (Node node : ring.tailMap(hash, true).values()) {
+            if (loads.get(node) < capacity) {
+                return node;
+            }
+        }
+        for (Node node : ring.headMap(hash, false).values()) {
+            if (loads.get(node) < capacity) {
+                return node;
+            }
+        }
+        return Collections.min(loads.entrySet(), Entry.comparingByValue()).getKey();
+    }
+
+    private int hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asInt();
+    }
+}
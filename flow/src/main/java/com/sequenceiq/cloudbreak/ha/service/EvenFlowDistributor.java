@@ -7,11 +7,13 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import com.sequenceiq.cloudbreak.ha.domain.Node;
 
 @Service
+@ConditionalOnProperty(value = "cb.ha.flow.distributor", havingValue = "even", matchIfMissing = true)
 public class EvenFlowDistributor implements FlowDistributor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EvenFlowDistributor.class);
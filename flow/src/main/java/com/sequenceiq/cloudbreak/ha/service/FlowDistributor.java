@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.ha.service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -8,4 +9,12 @@ import com.sequenceiq.cloudbreak.ha.domain.Node;
 public interface FlowDistributor {
 
     Map<Node, List<String>> distribute(List<String> flows, List<Node> nodes);
+
+    /**
+     * Distributes the flows where the resource of each flow and the number of flows already running on the nodes are known.
+     * The map of the flows is keyed by flow id, the map of the running flows is keyed by node id.
+     */
+    default Map<Node, List<String>> distribute(Map<String, Long> resourceIdsByFlowId, List<Node> nodes, Map<String, Long> runningFlowsByNodeId) {
+        return distribute(new ArrayList<>(resourceIdsByFlowId.keySet()), nodes);
+    }
 }
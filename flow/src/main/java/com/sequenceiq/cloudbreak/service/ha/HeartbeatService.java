@@ -3,7 +3,10 @@ package com.sequenceiq.cloudbreak.service.ha;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -28,12 +31,13 @@ import com.sequenceiq.cloudbreak.ha.domain.Node;
 import com.sequenceiq.cloudbreak.ha.service.FlowDistributor;
 import com.sequenceiq.cloudbreak.ha.service.NodeService;
 import com.sequenceiq.cloudbreak.service.Retry;
-import com.sequenceiq.cloudbreak.service.flowlog.RestartFlowService;
 import com.sequenceiq.flow.cleanup.InMemoryCleanup;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.core.FlowMetricType;
 import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.RunningFlowIndex;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
@@ -54,9 +58,6 @@ public class HeartbeatService {
     @Inject
     private FlowLogService flowLogService;
 
-    @Inject
-    private RestartFlowService restartFlowService;
-
     @Inject
     private Flow2Handler flow2Handler;
 
@@ -88,6 +89,9 @@ public class HeartbeatService {
     @Inject
     private InMemoryCleanup inMemoryCleanup;
 
+    @Inject
+    private RunningFlowIndex runningFlowIndex;
+
     @Scheduled(cron = "${cb.ha.heartbeat.rate:0/30 * * * * *}")
     public void heartbeat() {
         if (shouldRun()) {
@@ -115,7 +119,9 @@ public class HeartbeatService {
                 inMemoryCleanup.cancelEveryFlowWithoutDbUpdate();
             }
 
+            long start = System.currentTimeMillis();
             cancelInvalidFlows();
+            metricService.submit(FlowMetricType.HEARTBEAT_INVALID_FLOWS_SCAN_TIME, System.currentTimeMillis() - start);
         }
     }
 
@@ -124,11 +130,13 @@ public class HeartbeatService {
         if (shouldRun()) {
             LOGGER.info("Scheduled flow distribution on node: {}", nodeConfig.getId());
             List<Node> failedNodes = new ArrayList<>();
+            long start = System.currentTimeMillis();
             try {
                 failedNodes.addAll(distributeFlows());
             } catch (TransactionExecutionException e) {
                 LOGGER.error("Failed to distribute the flow logs across the active nodes, somebody might have already done it. Message: {}", e.getMessage());
             }
+            metricService.submit(FlowMetricType.HEARTBEAT_FLOW_DISTRIBUTION_TIME, System.currentTimeMillis() - start);
             LOGGER.info("Scheduled flow distribution failed nodes: {}", failedNodes);
             try {
                 cleanupNodes(failedNodes);
@@ -137,8 +145,9 @@ public class HeartbeatService {
             }
 
             String nodeId = nodeConfig.getId();
-            Set<String> allMyFlows = flowLogService.findAllByCloudbreakNodeId(nodeId).stream()
-                    .map(FlowLog::getFlowId).collect(Collectors.toSet());
+            start = System.currentTimeMillis();
+            Set<String> allMyFlows = flowLogService.findAllRunningFlowIdsByCloudbreakNodeId(nodeId);
+            metricService.submit(FlowMetricType.HEARTBEAT_OWNED_FLOWS_SCAN_TIME, System.currentTimeMillis() - start);
             LOGGER.info("All my flows: {}", allMyFlows);
             Set<String> newFlows = allMyFlows.stream().filter(f -> runningFlows.get(f) == null).collect(Collectors.toSet());
             LOGGER.info("Restarted flows: {}", newFlows);
@@ -180,27 +189,52 @@ public class HeartbeatService {
             updatedFlowLogs.addAll(invalidFlows);
             failedFlowLogs.removeAll(invalidFlows);
             LOGGER.info("The following flows have been filtered out from distribution: {}", getFlowIds(invalidFlows));
-            Map<Node, List<String>> flowDistribution = flowDistributor.distribute(getFlowIds(failedFlowLogs), activeNodes);
+            Map<String, List<FlowLog>> failedFlowLogsByFlowId = new LinkedHashMap<>();
+            Map<String, Long> resourceIdsByFlowId = new LinkedHashMap<>();
+            for (FlowLog flowLog : failedFlowLogs) {
+                String flowId = flowLog.getFlowId().toLowerCase(Locale.ROOT);
+                failedFlowLogsByFlowId.computeIfAbsent(flowId, k -> new ArrayList<>()).add(flowLog);
+                resourceIdsByFlowId.putIfAbsent(flowLog.getFlowId(), flowLog.getResourceId());
+            }
+            Map<Node, List<String>> flowDistribution = flowDistributor.distribute(resourceIdsByFlowId, activeNodes,
+                    getRunningFlowsByNodeId(activeNodes));
             for (Entry<Node, List<String>> entry : flowDistribution.entrySet()) {
-                entry.getValue().forEach(flowId ->
-                        failedFlowLogs.stream().filter(flowLog -> flowLog.getFlowId().equalsIgnoreCase(flowId)).forEach(flowLog -> {
-                            flowLog.setCloudbreakNodeId(entry.getKey().getUuid());
-                            updatedFlowLogs.add(flowLog);
-                        }));
+                for (String flowId : entry.getValue()) {
+                    failedFlowLogsByFlowId.getOrDefault(flowId.toLowerCase(Locale.ROOT), Collections.emptyList()).forEach(flowLog -> {
+                        flowLog.setCloudbreakNodeId(entry.getKey().getUuid());
+                        updatedFlowLogs.add(flowLog);
+                    });
+                }
             }
             transactionService.required(() -> flowLogService.saveAll(updatedFlowLogs));
+            runningFlowIndex.invalidateAll();
         }
         return failedNodes;
     }
 
+    /**
+     * The load of this node is the size of its flow register, the load of the other nodes is the number of their pending flows in the DB.
+     */
+    private Map<String, Long> getRunningFlowsByNodeId(List<Node> activeNodes) {
+        List<String> nodeIds = activeNodes.stream().map(Node::getUuid).collect(Collectors.toList());
+        Map<String, Long> runningFlowsByNodeId = new HashMap<>(flowLogService.countRunningFlowsByCloudbreakNodeIds(nodeIds));
+        String nodeId = nodeConfig.getId();
+        if (nodeIds.contains(nodeId)) {
+            runningFlowsByNodeId.put(nodeId, (long) runningFlows.getRunningFlowIds().size());
+        }
+        return runningFlowsByNodeId;
+    }
+
     /**
      * Remove the node reference from the DB for those nodes that are failing and does not have any assigned flows.
      */
     public void cleanupNodes(Collection<Node> failedNodes) throws TransactionExecutionException {
         if (failedNodes != null && !failedNodes.isEmpty()) {
             LOGGER.info("Cleanup node candidates: {}", failedNodes);
+            Set<String> nodesWithRunningFlows = flowLogService.findAllCloudbreakNodeIdsWithRunningFlows(
+                    failedNodes.stream().map(Node::getUuid).collect(Collectors.toSet()));
             List<Node> cleanupNodes = failedNodes.stream()
-                    .filter(node -> flowLogService.findAllByCloudbreakNodeId(node.getUuid()).isEmpty())
+                    .filter(node -> !nodesWithRunningFlows.contains(node.getUuid()))
                     .collect(Collectors.toList());
             LOGGER.info("Cleanup nodes from the DB: {}", cleanupNodes);
             transactionService.required(() -> {
@@ -211,35 +245,25 @@ public class HeartbeatService {
     }
 
     /**
-     * Query all resources that have a running flow on this node and if there is a termination flow on any of the nodes
-     * cancel the non-terminating flows on this node for that resource
+     * Query all resources that have a termination flow running on another node from the runningflow table and cancel the
+     * non-terminating flows on this node for that resource
      */
     private void cancelInvalidFlows() {
-        Set<Long> deletingResourceIds = haApplication.getAllDeletingResources();
-        if (!deletingResourceIds.isEmpty()) {
-            Set<Long> terminatingStacksByCurrentNode = findTerminatingStacksForCurrentNode();
-            for (Long resourceId : deletingResourceIds) {
-                if (isStackTerminationExecutedByAnotherNode(resourceId, terminatingStacksByCurrentNode)) {
-                    Set<String> runningFlowIds = flowLogService.findAllRunningNonTerminationFlowIdsByStackId(resourceId);
-                    if (haApplication.isRunningOnThisNode(runningFlowIds)) {
-                        LOGGER.info("Found termination flow on a different node for stack: {}", resourceId);
-                        cancelRunningFlow(resourceId);
-                    } else {
-                        cleanupInMemoryStore(resourceId);
-                    }
+        Set<Long> resourceIds = flowLogService.findAllResourceIdsTerminatedByOtherNodes(nodeConfig.getId());
+        if (!resourceIds.isEmpty()) {
+            Map<Long, Set<String>> runningFlowIdsByResourceId = flowLogService.findAllRunningNonTerminationFlowIdsByResourceIds(resourceIds);
+            for (Long resourceId : resourceIds) {
+                Set<String> runningFlowIds = runningFlowIdsByResourceId.getOrDefault(resourceId, Collections.emptySet());
+                if (haApplication.isRunningOnThisNode(runningFlowIds)) {
+                    LOGGER.info("Found termination flow on a different node for stack: {}", resourceId);
+                    cancelRunningFlow(resourceId);
+                } else {
+                    cleanupInMemoryStore(resourceId);
                 }
             }
         }
     }
 
-    private boolean isStackTerminationExecutedByAnotherNode(Long stackId, Set<Long> terminatingStacksByCurrentNode) {
-        return !terminatingStacksByCurrentNode.contains(stackId);
-    }
-
-    private Set<Long> findTerminatingStacksForCurrentNode() {
-        return restartFlowService.findTerminatingStacksByCloudbreakNodeId(nodeConfig.getId());
-    }
-
     /**
      * Returns all the FlowLogs that have a termination flow running on any of the nodes for the same stack.
      * This is required as we don't want to distribute flows that will be terminated anyways.
@@ -9,7 +9,42 @@ public class FlowCleanupConfig {
     @Value("${flowcleanup.intervalhours:24}")
     private int intervalInHours;
 
+    @Value("${flowcleanup.purge.batchsize:1000}")
+    private int purgeBatchSize;
+
+    @Value("${flowcleanup.purge.maxdurationseconds:600}")
+    private int purgeMaxDurationInSeconds;
+
+    @Value("${flowcleanup.purge.batchpausemillis:100}")
+    private long purgeBatchPauseInMillis;
+
+    @Value("${flowcleanup.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${flowcleanup.flowchain.minagehours:1}")
+    private int flowChainMinAgeInHours;
+
     public int getIntervalInHours() {
         return intervalInHours;
     }
+
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+
+    public int getPurgeMaxDurationInSeconds() {
+        return purgeMaxDurationInSeconds;
+    }
+
+    public long getPurgeBatchPauseInMillis() {
+        return purgeBatchPauseInMillis;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public int getFlowChainMinAgeInHours() {
+        return flowChainMinAgeInHours;
+    }
 }
@@ -1,5 +1,8 @@
 package com.sequenceiq.flow.cleanup;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import javax.inject.Inject;
 
 import org.quartz.JobExecutionContext;
@@ -29,6 +32,9 @@ public class FlowCleanupJob extends TracedQuartzJob {
     @Inject
     private FlowChainLogService flowChainLogService;
 
+    @Inject
+    private FlowCleanupConfig flowCleanupConfig;
+
     public FlowCleanupJob(Tracer tracer) {
         super(tracer, "Flow Cleanup Job");
     }
@@ -49,6 +55,24 @@ public class FlowCleanupJob extends TracedQuartzJob {
     }
 
     public void purgeFinalisedFlowLogs() throws TransactionService.TransactionExecutionException {
+        int batchSize = flowCleanupConfig.getPurgeBatchSize();
+        if (batchSize <= 0) {
+            purgeAllFinalisedFlowLogs();
+        } else {
+            boolean archive = flowCleanupConfig.isArchiveEnabled();
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(flowCleanupConfig.getPurgeMaxDurationInSeconds());
+            LOGGER.debug("Cleaning finalised flowlogs in batches of {}, archive: {}", batchSize, archive);
+            int purgedFinalizedFlowLogs = purgeInBatches(() -> flowLogService.purgeFinalizedFlowLogs(batchSize, archive), batchSize, deadline);
+            LOGGER.debug("Deleted flowlog count: {}", purgedFinalizedFlowLogs);
+            LOGGER.debug("Cleaning orphan flowchainlogs in batches of {}, archive: {}", batchSize, archive);
+            long createdBefore = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(flowCleanupConfig.getFlowChainMinAgeInHours());
+            int purgedOrphanFLowChainLogs = purgeInBatches(() -> flowChainLogService.purgeOrphanFlowChainLogs(batchSize, createdBefore, archive),
+                    batchSize, deadline);
+            LOGGER.debug("Deleted flowchainlog count: {}", purgedOrphanFLowChainLogs);
+        }
+    }
+
+    private void purgeAllFinalisedFlowLogs() throws TransactionService.TransactionExecutionException {
         transactionService.required(() -> {
             LOGGER.debug("Cleaning finalised flowlogs");
             int purgedFinalizedFlowLogs = flowLogService.purgeFinalizedFlowLogs();
@@ -59,4 +83,39 @@ public class FlowCleanupJob extends TracedQuartzJob {
             return null;
         });
     }
+
+    /**
+     * Runs every batch in its own transaction, so the rows are locked only while their batch is deleted. Stops when a batch is not full or
+     * the time budget of the cleanup is used up, the remaining rows are purged by the next run.
+     */
+    private int purgeInBatches(Supplier<Integer> batch, int batchSize, long deadline) throws TransactionService.TransactionExecutionException {
+        int purged = 0;
+        int purgedInBatch;
+        do {
+            purgedInBatch = transactionService.required(batch);
+            purged += purgedInBatch;
+        } while (purgedInBatch >= batchSize && hasTimeLeft(deadline) && pauseBetweenBatches());
+        if (purgedInBatch >= batchSize) {
+            LOGGER.info("Flow cleanup stopped after purging {} rows, the remaining rows will be purged by the next run", purged);
+        }
+        return purged;
+    }
+
+    private boolean hasTimeLeft(long deadline) {
+        return System.currentTimeMillis() < deadline;
+    }
+
+    private boolean pauseBetweenBatches() {
+        long pause = flowCleanupConfig.getPurgeBatchPauseInMillis();
+        if (pause > 0) {
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                LOGGER.info("Flow cleanup was interrupted");
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -14,7 +14,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.cedarsoftware.util.io.JsonReader;
 import com.sequenceiq.cloudbreak.common.event.AcceptResult;
 import com.sequenceiq.cloudbreak.common.event.Acceptable;
 import com.sequenceiq.cloudbreak.common.event.Payload;
@@ -27,10 +26,13 @@ import com.sequenceiq.flow.cleanup.InMemoryCleanup;
 import com.sequenceiq.flow.core.chain.FlowChainHandler;
 import com.sequenceiq.flow.core.chain.FlowChains;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
+import com.sequenceiq.flow.core.exception.FlowLogPersistenceException;
 import com.sequenceiq.flow.core.exception.FlowNotFoundException;
 import com.sequenceiq.flow.core.model.FlowAcceptResult;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitService;
+import com.sequenceiq.flow.service.flowlog.codec.FlowLogPayloadCodecService;
 
 import io.opentracing.Scope;
 import io.opentracing.Span;
@@ -87,6 +89,12 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
     @Inject
     private InMemoryCleanup inMemoryCleanup;
 
+    @Inject
+    private FlowLogGroupCommitService flowLogGroupCommitService;
+
+    @Inject
+    private FlowLogPayloadCodecService payloadCodecService;
+
     @Override
     public void accept(Event<? extends Payload> event) {
         String key = (String) event.getKey();
@@ -152,7 +160,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                         flowParameters.setFlowId(flowId);
                         Flow flow = flowConfig.createFlow(flowId, flowChainId, payload.getResourceId());
                         flow.initialize(contextParams);
-                        runningFlows.put(flow, flowChainId);
+                        runningFlows.put(flow, flowChainId, payload.getResourceId());
                         try {
                             transactionService.required(() -> {
                                 flowLogService.save(flowParameters, flowChainId, key, payload, null, flowConfig.getClass(), flow.getCurrentState());
@@ -182,6 +190,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
             handleFlowControlEvent(key, payload, flowParameters, flowChainId);
         } catch (Exception e) {
             LOGGER.error("Flow will be terminated because flow control event handling failed", e);
+            flowLogGroupCommitService.awaitCommit(flowId);
             flowLogService.terminate(payload.getResourceId(), flowId);
             runningFlows.remove(flowId);
         }
@@ -195,19 +204,14 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         if (flow != null) {
             MutableBoolean flowCancelled = new MutableBoolean(false);
             transactionService.required(() -> {
-                Optional<FlowLog> lastFlowLog = flowLogService.getLastFlowLog(flow.getFlowId());
-                lastFlowLog.ifPresent(flowLog -> {
-                    String nodeId = nodeConfig.getId();
-                    if (flowLog.getFinalized() || flowLog.getCloudbreakNodeId() == null || flowLog.getCloudbreakNodeId().equals(nodeId)) {
-                        updateFlowLogStatus(key, payload, flowChainId, flow, flowLog, flowParameters);
-                    } else {
-                        LOGGER.info("Flow {} was handled by another node {}, current node ID is {}, abandoning.",
-                                flow.getFlowId(), flowLog.getCloudbreakNodeId(), nodeId);
-                        inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
-                        flowCancelled.setTrue();
-                    }
-                });
+                Optional<FlowLog> lastFlowLog = flowLogGroupCommitService.isEnabled()
+                        ? flowLogGroupCommitService.getLastFlowLog(flow.getFlowId())
+                        : flowLogService.getLastFlowLog(flow.getFlowId());
+                lastFlowLog.ifPresent(flowLog -> handleLastFlowLog(key, payload, flowParameters, flowChainId, flow, flowLog, flowCancelled));
             });
+            if (!flowCancelled.booleanValue() && !flowLogGroupCommitService.awaitCommit(flowId)) {
+                throw new FlowLogPersistenceException(flowId);
+            }
             if (!flowCancelled.booleanValue()) {
                 flow.sendEvent(key, flowParameters.getFlowTriggerUserCrn(), payload, flowParameters.getSpanContext());
             }
@@ -216,8 +220,23 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         }
     }
 
+    private void handleLastFlowLog(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Flow flow, FlowLog flowLog,
+            MutableBoolean flowCancelled) {
+        String nodeId = nodeConfig.getId();
+        if (flowLog.getFinalized() || flowLog.getCloudbreakNodeId() == null || flowLog.getCloudbreakNodeId().equals(nodeId)) {
+            updateFlowLogStatus(key, payload, flowChainId, flow, flowLog, flowParameters);
+        } else {
+            LOGGER.info("Flow {} was handled by another node {}, current node ID is {}, abandoning.",
+                    flow.getFlowId(), flowLog.getCloudbreakNodeId(), nodeId);
+            inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
+            flowCancelled.setTrue();
+        }
+    }
+
     private void updateFlowLogStatus(String key, Payload payload, String flowChainId, Flow flow, FlowLog lastFlowLog, FlowParameters flowParameters) {
-        if (flowLogService.repeatedFlowState(lastFlowLog, key)) {
+        if (flowLogGroupCommitService.isEnabled()) {
+            updateFlowLogStatusGroupCommit(key, payload, flowChainId, flow, lastFlowLog, flowParameters);
+        } else if (flowLogService.repeatedFlowState(lastFlowLog, key)) {
             flowLogService.updateLastFlowLogPayload(lastFlowLog, payload, flow.getVariables());
         } else {
             flowLogService.updateLastFlowLogStatus(lastFlowLog, failHandledEvents.contains(key));
@@ -225,6 +244,17 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         }
     }
 
+    private void updateFlowLogStatusGroupCommit(String key, Payload payload, String flowChainId, Flow flow, FlowLog lastFlowLog,
+            FlowParameters flowParameters) {
+        if (flowLogService.repeatedFlowState(lastFlowLog, key)) {
+            flowLogGroupCommitService.updateLastFlowLogPayload(lastFlowLog, payload, flow.getVariables());
+        } else {
+            flowLogGroupCommitService.updateLastFlowLogStatus(lastFlowLog, failHandledEvents.contains(key));
+            flowLogGroupCommitService.save(flowParameters, flowChainId, key, payload, flow.getVariables(), flow.getFlowConfigClass(),
+                    flow.getCurrentState());
+        }
+    }
+
     private boolean isFlowAcceptable(String key, Payload payload) {
         if (payload instanceof Acceptable && ((Acceptable) payload).accepted() != null) {
             Acceptable acceptable = (Acceptable) payload;
@@ -263,7 +293,12 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         Flow flow = runningFlows.remove(flowId);
         if (flow != null) {
             flow.stop();
-            flowLogService.cancel(stackId, flowId);
+            if (flowLogGroupCommitService.awaitCommit(flowId)) {
+                flowLogService.cancel(stackId, flowId);
+            } else {
+                LOGGER.error("Flow {} is terminated instead of cancelled because its flow log could not be persisted", flowId);
+                flowLogService.terminate(stackId, flowId);
+            }
         }
     }
 
@@ -271,10 +306,16 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
             throws TransactionExecutionException {
         String flowId = flowParameters.getFlowId();
         LOGGER.debug("flow finalizing arrived: id: {}", flowId);
-        flowLogService.close(stackId, flowId);
+        boolean flowLogPersisted = flowLogGroupCommitService.awaitCommit(flowId);
+        if (flowLogPersisted) {
+            flowLogService.close(stackId, flowId);
+        } else {
+            LOGGER.error("Flow {} is terminated instead of finished because its flow log could not be persisted", flowId);
+            flowLogService.terminate(stackId, flowId);
+        }
         Flow flow = runningFlows.remove(flowId);
         if (flowChainId != null) {
-            if (flow.isFlowFailed()) {
+            if (!flowLogPersisted || flow.isFlowFailed()) {
                 flowChains.removeFullFlowChain(flowChainId);
             } else {
                 flowChains.triggerNextFlow(flowChainId, flowParameters.getFlowTriggerUserCrn(), contextParams);
@@ -293,13 +334,13 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 Optional<FlowConfiguration<?>> flowConfig = flowConfigs.stream()
                         .filter(fc -> fc.getClass().equals(flowLog.getFlowType())).findFirst();
                 try {
-                    Payload payload = (Payload) JsonReader.jsonToJava(flowLog.getPayload());
+                    Payload payload = (Payload) payloadCodecService.deserialize(flowLog.getPayload());
                     Flow flow = flowConfig.get().createFlow(flowLog.getFlowId(), flowLog.getFlowChainId(), payload.getResourceId());
-                    runningFlows.put(flow, flowLog.getFlowChainId());
+                    runningFlows.put(flow, flowLog.getFlowChainId(), payload.getResourceId());
                     if (flowLog.getFlowChainId() != null) {
                         flowChainHandler.restoreFlowChain(flowLog.getFlowChainId());
                     }
-                    Map<Object, Object> variables = (Map<Object, Object>) JsonReader.jsonToJava(flowLog.getVariables());
+                    Map<Object, Object> variables = (Map<Object, Object>) payloadCodecService.deserialize(flowLog.getVariables());
                     flow.initialize(flowLog.getCurrentState(), variables);
                     RestartAction restartAction = flowConfig.get().getRestartAction(flowLog.getNextEvent());
                     if (restartAction != null) {
@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.core;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,7 +25,11 @@ public interface FlowLogService {
 
     FlowLog terminate(Long stackId, String flowId) throws TransactionService.TransactionExecutionException;
 
-    void saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn);
+    FlowChainLog saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn);
+
+    FlowChainLog saveChainStep(String flowChainId, String parentFlowChainId, Long snapshotId, int remainingEvents, String flowTriggerUserCrn);
+
+    Queue<Selectable> getChainEvents(FlowChainLog chainLog);
 
     void updateLastFlowLogStatus(FlowLog lastFlowLog, boolean failureEvent);
 
@@ -42,6 +47,10 @@ public interface FlowLogService {
 
     Set<String> findAllRunningNonTerminationFlowIdsByStackId(Long stackId);
 
+    Map<Long, Set<String>> findAllRunningNonTerminationFlowIdsByResourceIds(Collection<Long> resourceIds);
+
+    Set<Long> findAllResourceIdsTerminatedByOtherNodes(String cloudbreakNodeId);
+
     Optional<FlowLog> findFirstByFlowIdOrderByCreatedDesc(String flowId);
 
     Optional<FlowChainLog> findFirstByFlowChainIdOrderByCreatedDesc(String flowChainId);
@@ -52,9 +61,17 @@ public interface FlowLogService {
 
     Set<FlowLog> findAllByCloudbreakNodeId(String cloudbreakNodeId);
 
+    Set<String> findAllRunningFlowIdsByCloudbreakNodeId(String cloudbreakNodeId);
+
+    Set<String> findAllCloudbreakNodeIdsWithRunningFlows(Collection<String> cloudbreakNodeIds);
+
+    Map<String, Long> countRunningFlowsByCloudbreakNodeIds(Collection<String> cloudbreakNodeIds);
+
     List<FlowLog> findAllByResourceIdOrderByCreatedDesc(Long id);
 
     List<FlowLog> findAllByResourceIdAndFinalizedIsFalseOrderByCreatedDesc(Long id);
 
     int purgeFinalizedFlowLogs();
+
+    int purgeFinalizedFlowLogs(int batchSize, boolean archive);
 }
@@ -4,7 +4,24 @@ import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
 
 public enum FlowMetricType implements Metric {
     FLOW_STEP("flowstep"),
-    ACTIVE_FLOWS("activeflow");
+    ACTIVE_FLOWS("activeflow"),
+    FLOWLOG_GROUP_COMMIT_QUEUE_SIZE("flowlog.groupcommit.queue.size"),
+    FLOWLOG_GROUP_COMMIT_BATCH_SIZE("flowlog.groupcommit.batch.size"),
+    FLOWLOG_GROUP_COMMIT_FLUSH_TIME("flowlog.groupcommit.flush.time"),
+    FLOWLOG_GROUP_COMMIT_FAILED("flowlog.groupcommit.failed"),
+    HEARTBEAT_OWNED_FLOWS_SCAN_TIME("heartbeat.ownedflows.scan.time"),
+    HEARTBEAT_FLOW_DISTRIBUTION_TIME("heartbeat.flowdistribution.time"),
+    HEARTBEAT_INVALID_FLOWS_SCAN_TIME("heartbeat.invalidflows.scan.time"),
+    EVENTBUS_LANE_OVERFLOW("eventbus.lane.overflow"),
+    RUNNING_FLOW_INDEX_HIT("runningflow.index.hit"),
+    RUNNING_FLOW_INDEX_MISS("runningflow.index.miss"),
+    STATUS_SYNC_OWNED_SHARDS("statussync.owned.shards"),
+    STATUS_SYNC_OWNED_RESOURCES("statussync.owned.resources"),
+    STATUS_SYNC_DUE_RESOURCES("statussync.due.resources"),
+    STATUS_SYNC_LAG("statussync.lag"),
+    STATUS_SYNC_BATCH_TIME("statussync.batch.time"),
+    STATUS_SYNC_CHECKED("statussync.checked"),
+    STATUS_SYNC_FAILED("statussync.failed");
 
     private final String metricName;
 
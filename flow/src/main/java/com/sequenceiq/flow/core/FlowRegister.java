@@ -23,6 +23,9 @@ public class FlowRegister {
     @Inject
     private MetricService metricService;
 
+    @Inject
+    private RunningFlowIndex runningFlowIndex;
+
     private Map<String, Pair<Flow, String>> runningFlows;
 
     @PostConstruct
@@ -31,8 +34,13 @@ public class FlowRegister {
     }
 
     public void put(Flow flow, String chainFlowId) {
+        put(flow, chainFlowId, null);
+    }
+
+    public void put(Flow flow, String chainFlowId, Long resourceId) {
         LOGGER.info("Put flow {} to running flows", flow.getFlowId());
         runningFlows.put(flow.getFlowId(), new ImmutablePair<>(flow, chainFlowId));
+        runningFlowIndex.add(flow.getFlowId(), resourceId, flow.getFlowConfigClass());
         LOGGER.info("Running flows after put: {}", runningFlows.keySet());
     }
 
@@ -49,6 +57,7 @@ public class FlowRegister {
     public Flow remove(String flowId) {
         LOGGER.info("Remove flow {} from running flows", flowId);
         Pair<Flow, String> pair = runningFlows.remove(flowId);
+        runningFlowIndex.remove(flowId);
         metricService.submit(FlowMetricType.ACTIVE_FLOWS, runningFlows.size());
         LOGGER.info("Running flows after removal: {}", runningFlows.keySet());
         return pair == null ? null : pair.getLeft();
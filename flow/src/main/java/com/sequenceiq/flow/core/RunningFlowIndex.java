@@ -0,0 +1,127 @@
+package com.sequenceiq.flow.core;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.flow.domain.RunningFlow;
+
+/**
+ * Index of the flows running on this node by resource id, kept in sync by {@link FlowRegister}. The running flow checks are answered from
+ * memory when a matching flow of the resource runs on this node. Otherwise the flow might run on another node, so the caller falls back
+ * to the runningflow table. The answers of the table, including the negative ones, can be cached for a short time, so the status checker
+ * jobs that ask more than once in a run query the database only once. The cache of a resource is invalidated whenever a flow of the
+ * resource starts or stops on this node and when the flows are redistributed across the nodes, but not when a flow starts on another node,
+ * so it must not be used to decide whether a new flow can be accepted.
+ */
+@Component
+public class RunningFlowIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RunningFlowIndex.class);
+
+    @Value("${cb.flow.running.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cb.flow.running.index.db.cache.ttl.ms:2000}")
+    private long dbCacheTtlMs;
+
+    @Inject
+    private MetricService metricService;
+
+    private final Map<Long, Map<String, Class<?>>> flowTypesByResourceId = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> resourceIdsByFlowId = new ConcurrentHashMap<>();
+
+    private Cache<Long, Set<RunningFlow>> dbCache;
+
+    @PostConstruct
+    public void init() {
+        if (enabled && dbCacheTtlMs > 0) {
+            dbCache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(dbCacheTtlMs, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+    }
+
+    public void add(String flowId, Long resourceId, Class<?> flowType) {
+        if (enabled && resourceId != null) {
+            Long previous = resourceIdsByFlowId.put(flowId, resourceId);
+            if (previous != null && !previous.equals(resourceId)) {
+                removeFlowType(previous, flowId);
+            }
+            flowTypesByResourceId.compute(resourceId, (key, flowTypes) -> {
+                Map<String, Class<?>> result = flowTypes == null ? new ConcurrentHashMap<>() : flowTypes;
+                result.put(flowId, flowType);
+                return result;
+            });
+            invalidate(resourceId);
+        }
+    }
+
+    public void remove(String flowId) {
+        Long resourceId = resourceIdsByFlowId.remove(flowId);
+        if (resourceId != null) {
+            removeFlowType(resourceId, flowId);
+            invalidate(resourceId);
+        }
+    }
+
+    /**
+     * Returns whether a flow of the resource that matches the filter runs on this node.
+     */
+    public boolean isRunningLocally(Long resourceId, Predicate<Class<?>> flowTypeFilter) {
+        Map<String, Class<?>> flowTypes = resourceId == null ? null : flowTypesByResourceId.get(resourceId);
+        boolean running = flowTypes != null && flowTypes.values().stream().anyMatch(flowTypeFilter);
+        metricService.incrementMetricCounter(running ? FlowMetricType.RUNNING_FLOW_INDEX_HIT : FlowMetricType.RUNNING_FLOW_INDEX_MISS);
+        return running;
+    }
+
+    /**
+     * Returns the running flows of the resource from the database, using the cached answer if it is not older than the configured TTL.
+     */
+    public Set<RunningFlow> findRunningFlows(Long resourceId, Function<Long, Set<RunningFlow>> dbLookup) {
+        if (dbCache == null || resourceId == null) {
+            return dbLookup.apply(resourceId);
+        }
+        try {
+            return dbCache.get(resourceId, () -> dbLookup.apply(resourceId));
+        } catch (ExecutionException e) {
+            LOGGER.debug("Failed to look up running flows of resource {} through the cache", resourceId, e);
+            return dbLookup.apply(resourceId);
+        }
+    }
+
+    public void invalidateAll() {
+        if (dbCache != null) {
+            dbCache.invalidateAll();
+        }
+    }
+
+    private void invalidate(Long resourceId) {
+        if (dbCache != null) {
+            dbCache.invalidate(resourceId);
+        }
+    }
+
+    private void removeFlowType(Long resourceId, String flowId) {
+        flowTypesByResourceId.computeIfPresent(resourceId, (key, flowTypes) -> {
+            flowTypes.remove(flowId);
+            return flowTypes.isEmpty() ? null : flowTypes;
+        });
+    }
+}
@@ -10,7 +10,6 @@ import javax.inject.Inject;
 
 import org.springframework.stereotype.Component;
 
-import com.cedarsoftware.util.io.JsonReader;
 import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.event.Selectable;
 import com.sequenceiq.flow.core.Flow2Handler;
@@ -47,7 +46,7 @@ public class FlowChainHandler implements Consumer<Event<? extends Payload>> {
     public void restoreFlowChain(String flowChainId) {
         Optional<FlowChainLog> chainLog = flowLogService.findFirstByFlowChainIdOrderByCreatedDesc(flowChainId);
         if (chainLog.isPresent()) {
-            Queue<Selectable> chain = (Queue<Selectable>) JsonReader.jsonToJava(chainLog.get().getChain());
+            Queue<Selectable> chain = flowLogService.getChainEvents(chainLog.get());
             flowChains.putFlowChain(flowChainId, chainLog.get().getParentFlowChainId(), chain);
             if (chainLog.get().getParentFlowChainId() != null) {
                 restoreFlowChain(chainLog.get().getParentFlowChainId());
@@ -9,20 +9,30 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
 import com.sequenceiq.cloudbreak.common.event.Selectable;
 import com.sequenceiq.flow.core.FlowConstants;
 import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
 
 import reactor.bus.EventBus;
 
+/**
+ * Keeps the event queues of the running flow chains. When {@code flow.flowchain.compact.enabled} is set, a chain is persisted as a full
+ * snapshot once on this node, and every later step only writes a small row with the number of the remaining events, pointing to the
+ * snapshot. Otherwise the whole remaining queue is written on every step.
+ */
 @Component
 public class FlowChains {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowChains.class);
 
+    @Value("${flow.flowchain.compact.enabled:false}")
+    private boolean compactChainLog;
+
     @Inject
     private EventBus eventBus;
 
@@ -36,8 +46,11 @@ public class FlowChains {
 
     private final Map<String, String> flowChainParentMap = new ConcurrentHashMap<>();
 
+    private final Map<String, Long> flowChainSnapshotIdMap = new ConcurrentHashMap<>();
+
     public void putFlowChain(String flowChainId, String parentFlowChainId, Queue<Selectable> flowChain) {
         flowChainMap.put(flowChainId, flowChain);
+        flowChainSnapshotIdMap.remove(flowChainId);
         if (parentFlowChainId != null) {
             flowChainParentMap.put(flowChainId, parentFlowChainId);
         }
@@ -47,6 +60,7 @@ public class FlowChains {
         LOGGER.debug("Remove FlowChain: [{}]", flowChainId);
         if (flowChainId != null) {
             flowChainMap.remove(flowChainId);
+            flowChainSnapshotIdMap.remove(flowChainId);
         }
     }
 
@@ -65,7 +79,7 @@ public class FlowChains {
         if (queue != null) {
             Selectable selectable = queue.poll();
             if (selectable != null) {
-                flowLogService.saveChain(flowChainId, flowChainParentMap.get(flowChainId), queue, flowTriggerUserCrn);
+                saveChain(flowChainId, queue, flowTriggerUserCrn);
             }
         }
     }
@@ -80,8 +94,7 @@ public class FlowChains {
                 String parentFlowChainId = flowChainParentMap.get(flowChainId);
                 if (parentFlowChainId != null) {
                     flowChainMap.get(parentFlowChainId).poll();
-                    flowLogService.saveChain(parentFlowChainId, flowChainParentMap.get(parentFlowChainId),
-                            flowChainMap.get(parentFlowChainId), flowTriggerUserCrn);
+                    saveChain(parentFlowChainId, flowChainMap.get(parentFlowChainId), flowTriggerUserCrn);
                 }
                 removeFlowChain(flowChainId);
                 triggerParentFlowChain(flowChainId, flowTriggerUserCrn, contextParams);
@@ -100,6 +113,19 @@ public class FlowChains {
         eventBus.notify(selectable.selector(), eventFactory.createEvent(headers, selectable));
     }
 
+    private void saveChain(String flowChainId, Queue<Selectable> queue, String flowTriggerUserCrn) {
+        String parentFlowChainId = flowChainParentMap.get(flowChainId);
+        Long snapshotId = flowChainSnapshotIdMap.get(flowChainId);
+        if (compactChainLog && snapshotId != null) {
+            flowLogService.saveChainStep(flowChainId, parentFlowChainId, snapshotId, queue.size(), flowTriggerUserCrn);
+        } else {
+            FlowChainLog snapshot = flowLogService.saveChain(flowChainId, parentFlowChainId, queue, flowTriggerUserCrn);
+            if (compactChainLog && snapshot != null) {
+                flowChainSnapshotIdMap.put(flowChainId, snapshot.getId());
+            }
+        }
+    }
+
     private void triggerParentFlowChain(String flowChainId, String flowTriggerUserCrn, Map<Object, Object> contextParams) {
         String parentFlowChainId = flowChainId != null ? flowChainParentMap.remove(flowChainId) : null;
         if (parentFlowChainId != null) {
@@ -0,0 +1,9 @@
+package com.sequenceiq.flow.core.exception;
+
+public class FlowLogPersistenceException extends RuntimeException {
+
+    public FlowLogPersistenceException(String flowId) {
+        super("Flow log entries could not be persisted for flow with id: " + flowId);
+    }
+
+}
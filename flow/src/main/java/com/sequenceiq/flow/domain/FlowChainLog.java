@@ -29,6 +29,10 @@ public class FlowChainLog {
 
     private String flowTriggerUserCrn;
 
+    private Long snapshotId;
+
+    private Integer remainingEvents;
+
     public FlowChainLog() {
 
     }
@@ -87,4 +91,20 @@ public class FlowChainLog {
     public void setFlowTriggerUserCrn(String flowTriggerUserCrn) {
         this.flowTriggerUserCrn = flowTriggerUserCrn;
     }
+
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(Long snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public Integer getRemainingEvents() {
+        return remainingEvents;
+    }
+
+    public void setRemainingEvents(Integer remainingEvents) {
+        this.remainingEvents = remainingEvents;
+    }
 }
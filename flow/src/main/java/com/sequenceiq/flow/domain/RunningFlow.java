@@ -0,0 +1,49 @@
+package com.sequenceiq.flow.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Ownership of the flows that have a pending flow log. The table is maintained by {@link com.sequenceiq.flow.service.flowlog.FlowLogDBService}
+ * together with the flow log writes: a row is added with the first pending flow log of a flow and removed when the flow is finalized.
+ */
+@Entity
+public class RunningFlow {
+
+    @Id
+    private String flowId;
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    private Class<?> flowType;
+
+    private String cloudbreakNodeId;
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public Class<?> getFlowType() {
+        return flowType;
+    }
+
+    public String getCloudbreakNodeId() {
+        return cloudbreakNodeId;
+    }
+
+    @Override
+    public String toString() {
+        return "RunningFlow{"
+                + "flowId='" + flowId + '\''
+                + ", resourceId=" + resourceId
+                + ", flowType=" + flowType
+                + ", cloudbreakNodeId='" + cloudbreakNodeId + '\''
+                + '}';
+    }
+}
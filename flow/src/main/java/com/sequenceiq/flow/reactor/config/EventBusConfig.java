@@ -15,16 +15,20 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
+import com.sequenceiq.flow.reactor.dispatcher.FlowEventLaneDispatcher;
 import com.sequenceiq.flow.reactor.handler.ConsumerNotFoundHandler;
 import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitService;
 
 import reactor.Environment;
 import reactor.bus.Event;
 import reactor.bus.EventBus;
 import reactor.bus.spec.EventBusSpec;
+import reactor.core.Dispatcher;
 import reactor.core.dispatch.ThreadPoolExecutorDispatcher;
 import reactor.core.support.Exceptions;
 import reactor.core.support.NamedDaemonThreadFactory;
@@ -44,6 +48,27 @@ public class EventBusConfig {
     @Value("${cb.eventbus.threadpool.backlog.size:1000}")
     private int eventBusThreadPoolBacklogSize;
 
+    @Value("${cb.eventbus.lanes.enabled:false}")
+    private boolean eventBusLanesEnabled;
+
+    @Value("${cb.eventbus.lanes.count:100}")
+    private int eventBusLaneCount;
+
+    @Value("${cb.eventbus.lanes.workers:4}")
+    private int eventBusLaneWorkers;
+
+    @Value("${cb.eventbus.lanes.priority.count:8}")
+    private int eventBusPriorityLaneCount;
+
+    @Value("${cb.eventbus.lanes.capacity:100}")
+    private int eventBusLaneCapacity;
+
+    @Value("${cb.eventbus.lanes.offer.timeout.ms:2000}")
+    private long eventBusLaneOfferTimeoutMs;
+
+    @Value("${cb.eventbus.lanes.priority.selector.pattern:FLOWCANCEL|.*TERMINAT.*}")
+    private String eventBusPrioritySelectorPattern;
+
     @Inject
     @Lazy
     private ApplicationFlowInformation applicationFlowInformation;
@@ -52,6 +77,14 @@ public class EventBusConfig {
     @Lazy
     private FlowLogDBService flowLogDBService;
 
+    @Inject
+    @Lazy
+    private FlowLogGroupCommitService flowLogGroupCommitService;
+
+    @Inject
+    @Lazy
+    private MetricService metricService;
+
     private void handleFlowFail(Throwable throwable) {
         try {
             String flowId = getFlowIdFromHeaders(throwable);
@@ -60,8 +93,9 @@ public class EventBusConfig {
             }
             if (flowId != null) {
                 LOGGER.error("Unhandled exception happened in flow {}, lets cancel it", flowId, throwable);
+                flowLogGroupCommitService.awaitCommit(flowId);
                 flowLogDBService.getLastFlowLog(flowId).ifPresent(flowLog -> {
-                    flowLogDBService.updateLastFlowLogStatus(flowLog, true);
+                    flowLogDBService.failLastFlowLog(flowLog);
                     applicationFlowInformation.handleFlowFail(flowLog);
                 });
             } else {
@@ -121,7 +155,7 @@ public class EventBusConfig {
     public EventBus reactor(MDCCleanerThreadPoolExecutor threadPoolExecutor, Environment env) {
         return new EventBusSpec()
                 .env(env)
-                .dispatcher(new ThreadPoolExecutorDispatcher(eventBusThreadPoolBacklogSize, eventBusThreadPoolCoreSize, threadPoolExecutor))
+                .dispatcher(createDispatcher(threadPoolExecutor))
                 .traceEventPath()
                 .dispatchErrorHandler(throwable -> {
                     handleFlowFail(throwable);
@@ -131,6 +165,14 @@ public class EventBusConfig {
                 .get();
     }
 
+    private Dispatcher createDispatcher(MDCCleanerThreadPoolExecutor threadPoolExecutor) {
+        if (eventBusLanesEnabled) {
+            return new FlowEventLaneDispatcher(eventBusLaneCount, eventBusLaneWorkers, eventBusPriorityLaneCount, eventBusLaneCapacity,
+                    eventBusLaneOfferTimeoutMs, eventBusPrioritySelectorPattern, metricService);
+        }
+        return new ThreadPoolExecutorDispatcher(eventBusThreadPoolBacklogSize, eventBusThreadPoolCoreSize, threadPoolExecutor);
+    }
+
     @Bean("eventBusThreadPoolExecutor")
     public MDCCleanerThreadPoolExecutor getPoolExecutor() {
         return new MDCCleanerThreadPoolExecutor(eventBusThreadPoolCoreSize,
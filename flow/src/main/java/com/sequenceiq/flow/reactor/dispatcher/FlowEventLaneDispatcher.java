@@ -0,0 +1,353 @@
+package com.sequenceiq.flow.reactor.dispatcher;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+import reactor.bus.Event;
+import reactor.core.Dispatcher;
+import reactor.core.support.Exceptions;
+import reactor.fn.Consumer;
+
+/**
+ * Dispatches the events of the event bus to ordered lanes instead of a shared thread pool. The events are sharded to the lanes by the
+ * resource id of their payload. Every lane has several worker threads, but the flow events of a resource are handled one after the other
+ * in the order they were sent, so a slow handler only holds up the events of its own resource and not the whole lane. Events whose
+ * selector matches the priority pattern, like flow cancellation and termination, go to separate priority lanes, so they do not wait behind
+ * the backlog of the resource.
+ * <p>
+ * Only the events of a flow, the ones with a flow id header, are ordered. Requests sent without it, like the cloud platform requests an
+ * action sends and then waits for, are not ordered to anything, and neither are the events a worker sends with the key of the event it is
+ * handling. Those are awaited by the sender in many places, and queueing them behind the sender would block it until its timeout.
+ * <p>
+ * Events are never dropped. A producer waits for free capacity in the lane up to the offer timeout, which has to stay well below the
+ * flow accept timeout, and then spills the event over the capacity of the lane and counts it in the overflow metric. Events sent from a
+ * lane worker thread are always enqueued without waiting, otherwise a handler sending an event to its own full lane would block itself.
+ */
+public class FlowEventLaneDispatcher implements Dispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowEventLaneDispatcher.class);
+
+    private static final String LANE_THREAD_PREFIX = "flowEventLane-";
+
+    private final Lane[] lanes;
+
+    private final Lane[] priorityLanes;
+
+    private final Pattern prioritySelectorPattern;
+
+    private final long offerTimeoutMs;
+
+    private final MetricService metricService;
+
+    private final ThreadLocal<Object> handledKey = new ThreadLocal<>();
+
+    private volatile boolean alive = true;
+
+    public FlowEventLaneDispatcher(int laneCount, int workersPerLane, int priorityLaneCount, int laneCapacity, long offerTimeoutMs,
+            String prioritySelectorPattern, MetricService metricService) {
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.prioritySelectorPattern = Pattern.compile(prioritySelectorPattern);
+        this.metricService = metricService;
+        int workers = Math.max(workersPerLane, 1);
+        lanes = createLanes("", Math.max(laneCount, 1), workers, laneCapacity);
+        priorityLanes = createLanes("priority-", Math.max(priorityLaneCount, 1), workers, laneCapacity);
+        LOGGER.info("Flow event lane dispatcher started with {} lanes and {} priority lanes, {} workers per lane, lane capacity: {}", lanes.length,
+                priorityLanes.length, workers, laneCapacity);
+    }
+
+    @Override
+    public <E> void dispatch(E data, Consumer<E> eventConsumer, Consumer<Throwable> errorConsumer) {
+        if (!alive) {
+            throw new IllegalStateException("This Dispatcher has been shut down.");
+        }
+        Object key = selectKey(data);
+        Lane lane = selectLane(data, key);
+        LaneTask task = new LaneTask(key, () -> {
+            try {
+                eventConsumer.accept(data);
+            } catch (Throwable t) {
+                if (errorConsumer != null) {
+                    errorConsumer.accept(Exceptions.addValueAsLastCause(t, data));
+                } else {
+                    LOGGER.error("Failed to handle event: {}", data, t);
+                }
+            }
+        });
+        lane.enqueue(task);
+    }
+
+    @Override
+    public <E> void tryDispatch(E data, Consumer<E> eventConsumer, Consumer<Throwable> errorConsumer) {
+        dispatch(data, eventConsumer, errorConsumer);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        dispatch(command, Runnable::run, null);
+    }
+
+    @Override
+    public boolean inContext() {
+        return Thread.currentThread().getName().startsWith(LANE_THREAD_PREFIX);
+    }
+
+    @Override
+    public boolean supportsOrdering() {
+        return false;
+    }
+
+    @Override
+    public long backlogSize() {
+        return Arrays.stream(lanes).mapToLong(lane -> lane.capacity).sum() + Arrays.stream(priorityLanes).mapToLong(lane -> lane.capacity).sum();
+    }
+
+    @Override
+    public long remainingSlots() {
+        return Arrays.stream(lanes).mapToLong(Lane::remainingSlots).sum() + Arrays.stream(priorityLanes).mapToLong(Lane::remainingSlots).sum();
+    }
+
+    @Override
+    public boolean alive() {
+        return alive;
+    }
+
+    @Override
+    public void shutdown() {
+        alive = false;
+        Arrays.stream(lanes).forEach(Lane::stop);
+        Arrays.stream(priorityLanes).forEach(Lane::stop);
+    }
+
+    @Override
+    public boolean awaitAndShutdown() {
+        return awaitAndShutdown(Integer.MAX_VALUE, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean awaitAndShutdown(long timeout, TimeUnit timeUnit) {
+        alive = false;
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        boolean drained = false;
+        while (!drained && System.nanoTime() < deadline) {
+            drained = Arrays.stream(lanes).allMatch(Lane::isEmpty) && Arrays.stream(priorityLanes).allMatch(Lane::isEmpty);
+            if (!drained) {
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        shutdown();
+        return drained;
+    }
+
+    @Override
+    public void forceShutdown() {
+        shutdown();
+    }
+
+    Lane selectLane(Object data) {
+        return selectLane(data, selectKey(data));
+    }
+
+    /**
+     * Returns the key the events are serialized by: the resource id of the payload of a flow event, or its flow id when there is no
+     * resource id. Events that are not flow events, and the ones sent by a worker with the key it is handling, get a key of their own, so
+     * they are not ordered to any other event.
+     */
+    private Object selectKey(Object data) {
+        if (data instanceof Event) {
+            Event<?> event = (Event<?>) data;
+            Object flowId = event.getHeaders() != null ? event.getHeaders().get(FlowConstants.FLOW_ID) : null;
+            if (flowId != null) {
+                Object key = event.getData() instanceof Payload && ((Payload) event.getData()).getResourceId() != null
+                        ? ((Payload) event.getData()).getResourceId()
+                        : flowId.toString();
+                if (!key.equals(handledKey.get())) {
+                    return key;
+                }
+            }
+        }
+        return new Object();
+    }
+
+    private Lane selectLane(Object data, Object key) {
+        Lane[] candidates = lanes;
+        if (data instanceof Event) {
+            Event<?> event = (Event<?>) data;
+            if (event.getKey() != null && prioritySelectorPattern.matcher(event.getKey().toString()).matches()) {
+                candidates = priorityLanes;
+            }
+        }
+        return candidates[Math.floorMod(key.hashCode(), candidates.length)];
+    }
+
+    private Lane[] createLanes(String type, int count, int workers, int capacity) {
+        Lane[] result = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new Lane(type + i, workers, capacity);
+        }
+        return result;
+    }
+
+    class Lane {
+
+        private final String name;
+
+        private final int capacity;
+
+        private final Map<Object, Deque<LaneTask>> tasksByKey = new HashMap<>();
+
+        private final BlockingQueue<Object> readyKeys = new LinkedBlockingQueue<>();
+
+        private final Semaphore slots;
+
+        private final Thread[] workers;
+
+        private final Metric queueDepthMetric;
+
+        private final Metric waitTimeMetric;
+
+        private int size;
+
+        Lane(String name, int workerCount, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+            slots = new Semaphore(capacity);
+            queueDepthMetric = () -> "eventbus.lane." + name + ".queue.depth";
+            waitTimeMetric = () -> "eventbus.lane." + name + ".wait.time";
+            workers = new Thread[workerCount];
+            for (int i = 0; i < workerCount; i++) {
+                workers[i] = new Thread(this::work, LANE_THREAD_PREFIX + name + '-' + i);
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+        }
+
+        void enqueue(LaneTask task) {
+            if (!inContext()) {
+                try {
+                    task.holdsSlot = slots.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (!task.holdsSlot) {
+                    LOGGER.warn("Flow event lane {} is full, the event is spilled over the capacity of {}", name, capacity);
+                    metricService.incrementMetricCounter(FlowMetricType.EVENTBUS_LANE_OVERFLOW);
+                }
+            }
+            task.enqueued = System.nanoTime();
+            int queueSize;
+            synchronized (this) {
+                Deque<LaneTask> tasks = tasksByKey.get(task.key);
+                if (tasks == null) {
+                    tasks = new ArrayDeque<>();
+                    tasksByKey.put(task.key, tasks);
+                    readyKeys.add(task.key);
+                }
+                tasks.add(task);
+                queueSize = ++size;
+            }
+            metricService.submit(queueDepthMetric, queueSize);
+        }
+
+        long remainingSlots() {
+            return slots.availablePermits();
+        }
+
+        String getName() {
+            return name;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        void stop() {
+            Arrays.stream(workers).forEach(Thread::interrupt);
+        }
+
+        private void work() {
+            while (alive || !isEmpty()) {
+                try {
+                    Object key = readyKeys.take();
+                    LaneTask task;
+                    int queueSize;
+                    synchronized (this) {
+                        task = tasksByKey.get(key).peek();
+                        queueSize = --size;
+                    }
+                    if (task.holdsSlot) {
+                        slots.release();
+                    }
+                    metricService.submit(queueDepthMetric, queueSize);
+                    metricService.submit(waitTimeMetric, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.enqueued));
+                    handledKey.set(key);
+                    try {
+                        task.runnable.run();
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Unexpected error in flow event lane {}", name, e);
+                    } finally {
+                        handledKey.remove();
+                        MDCBuilder.cleanupMdc();
+                        complete(key);
+                    }
+                } catch (InterruptedException e) {
+                    if (!alive) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes the finished task of the key and makes the key ready again if it has more tasks, so they are picked up by the next
+         * free worker of the lane.
+         */
+        private synchronized void complete(Object key) {
+            Deque<LaneTask> tasks = tasksByKey.get(key);
+            tasks.poll();
+            if (tasks.isEmpty()) {
+                tasksByKey.remove(key);
+            } else {
+                readyKeys.add(key);
+            }
+        }
+    }
+
+    static class LaneTask {
+
+        private final Object key;
+
+        private final Runnable runnable;
+
+        private boolean holdsSlot;
+
+        private long enqueued;
+
+        LaneTask(Object key, Runnable runnable) {
+            this.key = key;
+            this.runnable = runnable;
+        }
+    }
+}
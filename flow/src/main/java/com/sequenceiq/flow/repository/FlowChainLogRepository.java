@@ -9,12 +9,20 @@ import javax.transaction.Transactional.TxType;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.sequenceiq.flow.domain.FlowChainLog;
 
 @Transactional(TxType.REQUIRED)
 public interface FlowChainLogRepository extends CrudRepository<FlowChainLog, Long> {
 
+    String ARCHIVED_COLUMNS = "id, created, flowchainid, parentflowchainid, chain, flowtriggerusercrn, snapshotid, remainingevents";
+
+    String ORPHAN_BATCH = "SELECT fch.id FROM flowchainlog fch WHERE fch.created < :createdBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM flowlog fl WHERE fl.flowchainid = fch.flowchainid) "
+            + "AND NOT EXISTS (SELECT 1 FROM flowchainlog fc WHERE fc.parentflowchainid = fch.flowchainid) "
+            + "ORDER BY fch.id LIMIT :batchSize";
+
     List<FlowChainLog> findByParentFlowChainIdOrderByCreatedDesc(String parentFlowChainId);
 
     List<FlowChainLog> findByFlowChainIdOrderByCreatedDesc(String flowChainId);
@@ -26,4 +34,13 @@ public interface FlowChainLogRepository extends CrudRepository<FlowChainLog, Lon
             + "WHERE fch.flowChainId NOT IN ( SELECT DISTINCT fl.flowChainId FROM FlowLog fl )"
             + " AND fch.flowChainId NOT IN (SELECT DISTINCT fc.parentFlowChainId FROM FlowChainLog fc)")
     int purgeOrphanFLowChainLogs();
+
+    @Modifying
+    @Query(value = "DELETE FROM flowchainlog WHERE id IN (" + ORPHAN_BATCH + ")", nativeQuery = true)
+    int purgeOrphanFlowChainLogs(@Param("batchSize") int batchSize, @Param("createdBefore") long createdBefore);
+
+    @Modifying
+    @Query(value = "WITH purged AS (DELETE FROM flowchainlog WHERE id IN (" + ORPHAN_BATCH + ") RETURNING " + ARCHIVED_COLUMNS + ") "
+            + "INSERT INTO flowchainlog_archive (" + ARCHIVED_COLUMNS + ") SELECT " + ARCHIVED_COLUMNS + " FROM purged", nativeQuery = true)
+    int archiveOrphanFlowChainLogs(@Param("batchSize") int batchSize, @Param("createdBefore") long createdBefore);
 }
@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -20,6 +21,11 @@ import com.sequenceiq.flow.domain.StateStatus;
 @Transactional(TxType.REQUIRED)
 public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
 
+    String ARCHIVED_COLUMNS = "id, created, flowid, nextevent, payloadtype, flowtype, currentstate, payload, resourceid, finalized, flowchainid, "
+            + "variables, cloudbreaknodeid, version, statestatus, resourcetype, flowtriggerusercrn";
+
+    String FINALIZED_BATCH = "SELECT id FROM flowlog WHERE finalized = TRUE ORDER BY id LIMIT :batchSize";
+
     Optional<FlowLog> findFirstByFlowIdOrderByCreatedDesc(String flowId);
 
     @Query("SELECT fl.flowId as flowId, fl.flowType as flowType, fl.created as created FROM FlowLog fl "
@@ -52,10 +58,27 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
     @Query("UPDATE FlowLog fl SET fl.stateStatus = :stateStatus WHERE fl.id = :id")
     void updateLastLogStatusInFlow(@Param("id") Long id, @Param("stateStatus") StateStatus stateStatus);
 
+    @Modifying
+    @Query("UPDATE FlowLog fl SET fl.stateStatus = :stateStatus WHERE fl.id IN (:ids)")
+    void updateStateStatusByIds(@Param("ids") Collection<Long> ids, @Param("stateStatus") StateStatus stateStatus);
+
+    @Modifying
+    @Query("UPDATE FlowLog fl SET fl.payload = :payload, fl.variables = :variables WHERE fl.id = :id")
+    void updatePayloadAndVariables(@Param("id") Long id, @Param("payload") String payload, @Param("variables") String variables);
+
     @Modifying
     @Query("DELETE FROM FlowLog fl WHERE fl.finalized = TRUE")
     int purgeFinalizedFlowLogs();
 
+    @Modifying
+    @Query(value = "DELETE FROM flowlog WHERE id IN (" + FINALIZED_BATCH + ")", nativeQuery = true)
+    int purgeFinalizedFlowLogs(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "WITH purged AS (DELETE FROM flowlog WHERE id IN (" + FINALIZED_BATCH + ") RETURNING " + ARCHIVED_COLUMNS + ") "
+            + "INSERT INTO flowlog_archive (" + ARCHIVED_COLUMNS + ") SELECT " + ARCHIVED_COLUMNS + " FROM purged", nativeQuery = true)
+    int archiveFinalizedFlowLogs(@Param("batchSize") int batchSize);
+
     List<FlowLog> findAllByResourceIdOrderByCreatedDesc(Long resourceId);
 
     Optional<FlowLog> findFirstByResourceIdOrderByCreatedDesc(@Param("resourceId") Long resourceId);
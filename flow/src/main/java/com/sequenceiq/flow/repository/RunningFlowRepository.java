@@ -0,0 +1,47 @@
+package com.sequenceiq.flow.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.sequenceiq.flow.domain.RunningFlow;
+
+@Transactional(TxType.REQUIRED)
+public interface RunningFlowRepository extends Repository<RunningFlow, String> {
+
+    Set<RunningFlow> findAllByResourceId(Long resourceId);
+
+    Set<RunningFlow> findAllByResourceIdIn(Collection<Long> resourceIds);
+
+    Set<RunningFlow> findAllByFlowTypeIn(Collection<Class<?>> flowTypes);
+
+    @Query("SELECT rf.flowId FROM RunningFlow rf WHERE rf.cloudbreakNodeId = :cloudbreakNodeId")
+    Set<String> findAllFlowIdsByCloudbreakNodeId(@Param("cloudbreakNodeId") String cloudbreakNodeId);
+
+    @Query("SELECT DISTINCT rf.cloudbreakNodeId FROM RunningFlow rf WHERE rf.cloudbreakNodeId IN (:cloudbreakNodeIds)")
+    Set<String> findAllCloudbreakNodeIdsWithRunningFlows(@Param("cloudbreakNodeIds") Collection<String> cloudbreakNodeIds);
+
+    @Query("SELECT rf.cloudbreakNodeId, COUNT(rf.flowId) FROM RunningFlow rf WHERE rf.cloudbreakNodeId IN (:cloudbreakNodeIds) "
+            + "GROUP BY rf.cloudbreakNodeId")
+    List<Object[]> countByCloudbreakNodeIds(@Param("cloudbreakNodeIds") Collection<String> cloudbreakNodeIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO runningflow (flowid, resourceid, flowtype, cloudbreaknodeid) "
+            + "VALUES (:flowId, :resourceId, :flowType, :cloudbreakNodeId) "
+            + "ON CONFLICT (flowid) DO UPDATE SET cloudbreaknodeid = EXCLUDED.cloudbreaknodeid "
+            + "WHERE runningflow.cloudbreaknodeid IS DISTINCT FROM EXCLUDED.cloudbreaknodeid", nativeQuery = true)
+    void upsert(@Param("flowId") String flowId, @Param("resourceId") Long resourceId, @Param("flowType") String flowType,
+            @Param("cloudbreakNodeId") String cloudbreakNodeId);
+
+    @Modifying
+    @Query("DELETE FROM RunningFlow rf WHERE rf.flowId = :flowId")
+    void deleteByFlowId(@Param("flowId") String flowId);
+}
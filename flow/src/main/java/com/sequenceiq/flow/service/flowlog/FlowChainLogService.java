@@ -86,15 +86,42 @@ public class FlowChainLogService {
                     .findFirst()
                     .get();
             LOGGER.debug("Checking if chain with id {} has any event in it's queue", latestFlowChain.getFlowChainId());
+            if (latestFlowChain.getRemainingEvents() != null) {
+                return latestFlowChain.getRemainingEvents() > 0;
+            }
             Queue<Selectable> chain = (Queue<Selectable>) JsonReader.jsonToJava(latestFlowChain.getChain());
             return !chain.isEmpty();
         });
     }
 
+    /**
+     * Returns the events of the chain that were not triggered yet. A step row only stores the number of the remaining events, the events
+     * themselves are read from the snapshot row it points to, dropping the ones that were triggered since the snapshot was written.
+     */
+    public Queue<Selectable> getChainEvents(FlowChainLog chainLog) {
+        if (chainLog.getSnapshotId() == null) {
+            return (Queue<Selectable>) JsonReader.jsonToJava(chainLog.getChain());
+        }
+        FlowChainLog snapshot = repository.findById(chainLog.getSnapshotId())
+                .orElseThrow(() -> new IllegalStateException(String.format("Snapshot [%s] of flow chain [%s] is not found",
+                        chainLog.getSnapshotId(), chainLog.getFlowChainId())));
+        Queue<Selectable> chain = (Queue<Selectable>) JsonReader.jsonToJava(snapshot.getChain());
+        while (chain.size() > chainLog.getRemainingEvents()) {
+            chain.poll();
+        }
+        return chain;
+    }
+
     public int purgeOrphanFLowChainLogs() {
         return repository.purgeOrphanFLowChainLogs();
     }
 
+    public int purgeOrphanFlowChainLogs(int batchSize, long createdBefore, boolean archive) {
+        return archive
+                ? repository.archiveOrphanFlowChainLogs(batchSize, createdBefore)
+                : repository.purgeOrphanFlowChainLogs(batchSize, createdBefore);
+    }
+
     public FlowChainLog save(FlowChainLog chainLog) {
         return repository.save(chainLog);
     }
@@ -1,5 +1,7 @@
 package com.sequenceiq.flow.service.flowlog;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -14,7 +16,6 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
@@ -24,7 +25,6 @@ import com.sequenceiq.cloudbreak.auth.altus.Crn;
 import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.event.Selectable;
 import com.sequenceiq.cloudbreak.common.exception.NotFoundException;
-import com.sequenceiq.cloudbreak.common.json.JsonUtil;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
@@ -33,13 +33,17 @@ import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowParameters;
 import com.sequenceiq.flow.core.FlowState;
 import com.sequenceiq.flow.core.ResourceIdProvider;
+import com.sequenceiq.flow.core.RunningFlowIndex;
 import com.sequenceiq.flow.core.config.AbstractFlowConfiguration;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.RunningFlow;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.repository.FlowLogRepository;
+import com.sequenceiq.flow.repository.RunningFlowRepository;
+import com.sequenceiq.flow.service.flowlog.codec.FlowLogPayloadCodecService;
 
 @Primary
 @Service
@@ -53,6 +57,9 @@ public class FlowLogDBService implements FlowLogService {
     @Inject
     private FlowLogRepository flowLogRepository;
 
+    @Inject
+    private RunningFlowRepository runningFlowRepository;
+
     @Inject
     private FlowChainLogService flowChainLogService;
 
@@ -60,8 +67,7 @@ public class FlowLogDBService implements FlowLogService {
     private ApplicationFlowInformation applicationFlowInformation;
 
     @Inject
-    @Qualifier("JsonWriterOptions")
-    private Map<String, Object> writeOptions;
+    private FlowLogPayloadCodecService payloadCodecService;
 
     @Inject
     private TransactionService transactionService;
@@ -69,30 +75,48 @@ public class FlowLogDBService implements FlowLogService {
     @Inject
     private ResourceIdProvider resourceIdProvider;
 
+    @Inject
+    private RunningFlowIndex runningFlowIndex;
+
     public FlowLog save(FlowParameters flowParameters, String flowChanId, String key, Payload payload, Map<Object, Object> variables, Class<?> flowType,
             FlowState currentState) {
+        FlowLog flowLog = createFlowLog(flowParameters, flowChanId, key, payload, variables, flowType, currentState);
+        FlowLog savedFlowLog = flowLogRepository.save(flowLog);
+        saveRunningFlow(savedFlowLog);
+        return savedFlowLog;
+    }
+
+    /**
+     * Keeps the runningflow table in line with a flow log that was just written: a pending entry registers the flow on its node, a
+     * finalized one removes it. Entries of the flow history that are neither leave the table untouched.
+     */
+    public void saveRunningFlow(FlowLog flowLog) {
+        if (Boolean.TRUE.equals(flowLog.getFinalized())) {
+            runningFlowRepository.deleteByFlowId(flowLog.getFlowId());
+        } else if (StateStatus.PENDING.equals(flowLog.getStateStatus())) {
+            runningFlowRepository.upsert(flowLog.getFlowId(), flowLog.getResourceId(), flowLog.getFlowType().getName(), flowLog.getCloudbreakNodeId());
+        }
+    }
+
+    public FlowLog createFlowLog(FlowParameters flowParameters, String flowChanId, String key, Payload payload, Map<Object, Object> variables,
+            Class<?> flowType, FlowState currentState) {
         String payloadAsString = getSerializedString(payload);
         String variablesJson = getSerializedString(variables);
         FlowLog flowLog = new FlowLog(payload.getResourceId(), flowParameters.getFlowId(), flowChanId, flowParameters.getFlowTriggerUserCrn(), key,
                 payloadAsString, payload.getClass(), variablesJson, flowType, currentState.toString());
         flowLog.setCloudbreakNodeId(nodeConfig.getId());
-        return flowLogRepository.save(flowLog);
+        return flowLog;
     }
 
     public String getSerializedString(Object object) {
-        String objectAsString;
-        try {
-            objectAsString = JsonWriter.objectToJson(object, writeOptions);
-        } catch (Exception e) {
-            LOGGER.debug("Somehow can not serialize object to string, try another method..", e);
-            objectAsString = JsonUtil.writeValueAsStringSilent(object);
-        }
-        return objectAsString;
+        return payloadCodecService.serialize(object);
     }
 
     @Override
     public Iterable<FlowLog> saveAll(Iterable<FlowLog> flowLogs) {
-        return flowLogRepository.saveAll(flowLogs);
+        Iterable<FlowLog> savedFlowLogs = flowLogRepository.saveAll(flowLogs);
+        savedFlowLogs.forEach(this::saveRunningFlow);
+        return savedFlowLogs;
     }
 
     public FlowLog close(Long stackId, String flowId) throws TransactionExecutionException {
@@ -113,14 +137,27 @@ public class FlowLogDBService implements FlowLogService {
             getLastFlowLog(flowId).ifPresent(flowLog -> updateLastFlowLogStatus(flowLog, false));
             FlowLog flowLog = new FlowLog(stackId, flowId, state, Boolean.TRUE, StateStatus.SUCCESSFUL);
             flowLog.setCloudbreakNodeId(nodeConfig.getId());
+            runningFlowRepository.deleteByFlowId(flowId);
             return flowLogRepository.save(flowLog);
         });
     }
 
-    public void saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn) {
+    public FlowChainLog saveChain(String flowChainId, String parentFlowChainId, Queue<Selectable> chain, String flowTriggerUserCrn) {
         String chainJson = JsonWriter.objectToJson(chain);
         FlowChainLog chainLog = new FlowChainLog(flowChainId, parentFlowChainId, chainJson, flowTriggerUserCrn);
-        flowChainLogService.save(chainLog);
+        chainLog.setRemainingEvents(chain.size());
+        return flowChainLogService.save(chainLog);
+    }
+
+    public FlowChainLog saveChainStep(String flowChainId, String parentFlowChainId, Long snapshotId, int remainingEvents, String flowTriggerUserCrn) {
+        FlowChainLog chainLog = new FlowChainLog(flowChainId, parentFlowChainId, "", flowTriggerUserCrn);
+        chainLog.setSnapshotId(snapshotId);
+        chainLog.setRemainingEvents(remainingEvents);
+        return flowChainLogService.save(chainLog);
+    }
+
+    public Queue<Selectable> getChainEvents(FlowChainLog chainLog) {
+        return flowChainLogService.getChainEvents(chainLog);
     }
 
     public void updateLastFlowLogStatus(FlowLog lastFlowLog, boolean failureEvent) {
@@ -128,6 +165,14 @@ public class FlowLogDBService implements FlowLogService {
         flowLogRepository.updateLastLogStatusInFlow(lastFlowLog.getId(), stateStatus);
     }
 
+    /**
+     * Marks the last flow log of a flow that failed outside of its state machine, the flow is not running from then on.
+     */
+    public void failLastFlowLog(FlowLog lastFlowLog) {
+        updateLastFlowLogStatus(lastFlowLog, true);
+        runningFlowRepository.deleteByFlowId(lastFlowLog.getFlowId());
+    }
+
     public void cancelTooOldTerminationFlowForResource(Long resourceId, long olderThan) {
         Set<FlowLogIdWithTypeAndTimestamp> allRunningFlowIdsByResourceId = flowLogRepository.findAllRunningFlowLogByResourceId(resourceId);
         allRunningFlowIdsByResourceId.stream()
@@ -148,28 +193,34 @@ public class FlowLogDBService implements FlowLogService {
     private Set<String> findAllRunningNonTerminationFlowIdsByResourceId(Long resourceId) {
         Set<FlowLogIdWithTypeAndTimestamp> allRunningFlowIdsByResourceId = flowLogRepository.findAllRunningFlowLogByResourceId(resourceId);
         return allRunningFlowIdsByResourceId.stream()
-                .filter(flowLog -> applicationFlowInformation.getTerminationFlow().stream()
-                        .map(Class::getName)
-                        .noneMatch(terminationFlowClassName -> terminationFlowClassName.equals(flowLog.getFlowType().getName())))
+                .filter(flowLog -> isNonTerminationFlow(flowLog.getFlowType()))
                 .map(FlowLogIdWithTypeAndTimestamp::getFlowId)
                 .collect(Collectors.toSet());
     }
 
-    public boolean isOtherNonTerminationFlowRunning(Long resourceId) {
-        Set<String> flowIds = findAllRunningNonTerminationFlowIdsByResourceId(resourceId);
-        return !flowIds.isEmpty();
+    private boolean isNonTerminationFlow(Class<?> flowType) {
+        return applicationFlowInformation.getTerminationFlow().stream()
+                .map(Class::getName)
+                .noneMatch(terminationFlowClassName -> terminationFlowClassName.equals(flowType.getName()));
     }
 
-    private Set<String> findAllRunningFlowIdsByResourceId(Long resourceId) {
-        Set<FlowLogIdWithTypeAndTimestamp> allRunningFlowIdsByResourceId = flowLogRepository.findAllRunningFlowLogByResourceId(resourceId);
-        return allRunningFlowIdsByResourceId.stream()
-                .map(FlowLogIdWithTypeAndTimestamp::getFlowId)
-                .collect(Collectors.toSet());
+    /**
+     * Decides whether a new flow can be accepted, so a miss of the local index is always answered from the runningflow table and never
+     * from the cached answers: a flow that was started on another node since then does not invalidate them.
+     */
+    public boolean isOtherNonTerminationFlowRunning(Long resourceId) {
+        if (runningFlowIndex.isRunningLocally(resourceId, this::isNonTerminationFlow)) {
+            return true;
+        }
+        return runningFlowRepository.findAllByResourceId(resourceId).stream()
+                .anyMatch(runningFlow -> isNonTerminationFlow(runningFlow.getFlowType()));
     }
 
     public boolean isOtherFlowRunning(Long resourceId) {
-        Set<String> flowIds = findAllRunningFlowIdsByResourceId(resourceId);
-        return !flowIds.isEmpty();
+        if (runningFlowIndex.isRunningLocally(resourceId, flowType -> true)) {
+            return true;
+        }
+        return !runningFlowIndex.findRunningFlows(resourceId, runningFlowRepository::findAllByResourceId).isEmpty();
     }
 
     public boolean repeatedFlowState(FlowLog lastFlowLog, String event) {
@@ -177,8 +228,8 @@ public class FlowLogDBService implements FlowLogService {
     }
 
     public void updateLastFlowLogPayload(FlowLog lastFlowLog, Payload payload, Map<Object, Object> variables) {
-        String payloadJson = JsonWriter.objectToJson(payload, writeOptions);
-        String variablesJson = JsonWriter.objectToJson(variables, writeOptions);
+        String payloadJson = getSerializedString(payload);
+        String variablesJson = getSerializedString(variables);
         Optional.ofNullable(lastFlowLog)
                 .ifPresent(flowLog -> {
                     flowLog.setPayload(payloadJson);
@@ -196,6 +247,36 @@ public class FlowLogDBService implements FlowLogService {
         return findAllRunningNonTerminationFlowIdsByResourceId(resourceId);
     }
 
+    @Override
+    public Map<Long, Set<String>> findAllRunningNonTerminationFlowIdsByResourceIds(Collection<Long> resourceIds) {
+        if (resourceIds.isEmpty()) {
+            return Map.of();
+        }
+        return runningFlowRepository.findAllByResourceIdIn(resourceIds).stream()
+                .filter(runningFlow -> isNonTerminationFlow(runningFlow.getFlowType()))
+                .collect(Collectors.groupingBy(RunningFlow::getResourceId, Collectors.mapping(RunningFlow::getFlowId, Collectors.toSet())));
+    }
+
+    /**
+     * Returns the resources that have a termination flow running on another node and none on the given node.
+     */
+    @Override
+    public Set<Long> findAllResourceIdsTerminatedByOtherNodes(String cloudbreakNodeId) {
+        List<Class<?>> terminationFlowTypes = new ArrayList<>(applicationFlowInformation.getTerminationFlow());
+        if (terminationFlowTypes.isEmpty()) {
+            return Set.of();
+        }
+        Set<RunningFlow> terminationFlows = runningFlowRepository.findAllByFlowTypeIn(terminationFlowTypes);
+        Set<Long> terminatedByThisNode = terminationFlows.stream()
+                .filter(runningFlow -> cloudbreakNodeId.equals(runningFlow.getCloudbreakNodeId()))
+                .map(RunningFlow::getResourceId)
+                .collect(Collectors.toSet());
+        return terminationFlows.stream()
+                .map(RunningFlow::getResourceId)
+                .filter(resourceId -> !terminatedByThisNode.contains(resourceId))
+                .collect(Collectors.toSet());
+    }
+
     @Override
     public Optional<FlowLog> findFirstByFlowIdOrderByCreatedDesc(String flowId) {
         return flowLogRepository.findFirstByFlowIdOrderByCreatedDesc(flowId);
@@ -221,6 +302,28 @@ public class FlowLogDBService implements FlowLogService {
         return flowLogRepository.findAllByCloudbreakNodeId(cloudbreakNodeId);
     }
 
+    @Override
+    public Set<String> findAllRunningFlowIdsByCloudbreakNodeId(String cloudbreakNodeId) {
+        return runningFlowRepository.findAllFlowIdsByCloudbreakNodeId(cloudbreakNodeId);
+    }
+
+    @Override
+    public Set<String> findAllCloudbreakNodeIdsWithRunningFlows(Collection<String> cloudbreakNodeIds) {
+        if (cloudbreakNodeIds.isEmpty()) {
+            return Set.of();
+        }
+        return runningFlowRepository.findAllCloudbreakNodeIdsWithRunningFlows(cloudbreakNodeIds);
+    }
+
+    @Override
+    public Map<String, Long> countRunningFlowsByCloudbreakNodeIds(Collection<String> cloudbreakNodeIds) {
+        if (cloudbreakNodeIds.isEmpty()) {
+            return Map.of();
+        }
+        return runningFlowRepository.countByCloudbreakNodeIds(cloudbreakNodeIds).stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
     public List<FlowLog> findAllByResourceIdOrderByCreatedDesc(Long id) {
         return flowLogRepository.findFirstByResourceIdOrderByCreatedDesc(id)
                 .map(FlowLog::getFlowId)
@@ -237,6 +340,11 @@ public class FlowLogDBService implements FlowLogService {
         return flowLogRepository.purgeFinalizedFlowLogs();
     }
 
+    @Override
+    public int purgeFinalizedFlowLogs(int batchSize, boolean archive) {
+        return archive ? flowLogRepository.archiveFinalizedFlowLogs(batchSize) : flowLogRepository.purgeFinalizedFlowLogs(batchSize);
+    }
+
     public List<FlowLog> findAllByFlowIdOrderByCreatedDesc(String flowId) {
         return flowLogRepository.findAllByFlowIdOrderByCreatedDesc(flowId);
     }
@@ -0,0 +1,368 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.core.FlowMetricType;
+import com.sequenceiq.flow.core.FlowParameters;
+import com.sequenceiq.flow.core.FlowState;
+import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.StateStatus;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+import reactor.core.support.NamedDaemonThreadFactory;
+
+/**
+ * Opt-in group commit for the flow log entries written on flow state transitions.
+ * <p>
+ * The writes are not asynchronous: the flow handler calls {@link #awaitCommit(String)} before the action of the new state runs, and before
+ * the flow is finalized, cancelled or terminated, so every transition still waits until its entries are in the database. What changes is
+ * that the entries of concurrent flows are queued and committed together by a single thread in batches, one transaction per batch, keeping
+ * the per-flow order of the entries. A status or payload change of an entry that has not been committed yet is merged into the pending
+ * insert instead of issuing another statement. The saving is fewer transactions under load, not fewer waits.
+ * <p>
+ * Flow creation is not affected, that entry is always written synchronously together with the flow chain. Because every transition waits
+ * for its commit, a node dying with queued entries loses only transitions whose state action has not started yet, and the flow is
+ * restarted from the last committed state by the HA distribution.
+ */
+@Service
+public class FlowLogGroupCommitService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogGroupCommitService.class);
+
+    @Value("${flow.flowlog.groupcommit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${flow.flowlog.groupcommit.batch.size:100}")
+    private int batchSize;
+
+    @Value("${flow.flowlog.groupcommit.flush.interval.ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${flow.flowlog.groupcommit.queue.max.size:10000}")
+    private int maxQueueSize;
+
+    @Inject
+    private FlowLogDBService flowLogDBService;
+
+    @Inject
+    private FlowLogRepository flowLogRepository;
+
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private MetricService metricService;
+
+    private final Object lock = new Object();
+
+    private final Object flushLock = new Object();
+
+    private final Deque<PendingWrite> queue = new ArrayDeque<>();
+
+    private final Map<String, PendingFlow> pendingFlows = new HashMap<>();
+
+    private final Set<FlowLog> unflushedInserts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long enqueuedSequence;
+
+    private long flushedSequence;
+
+    private ScheduledExecutorService flushExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            LOGGER.info("Flow log group commit is enabled, batch size: {}, flush interval: {} ms", batchSize, flushIntervalMs);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(new NamedDaemonThreadFactory("flowLogGroupCommit"));
+            flushExecutor.scheduleWithFixedDelay(this::flushQueue, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushQueue();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the last flow log of the flow. If the flow has entries that are not flushed yet the in-memory entry is returned,
+     * otherwise it is read from the database.
+     */
+    public Optional<FlowLog> getLastFlowLog(String flowId) {
+        synchronized (lock) {
+            PendingFlow pendingFlow = pendingFlows.get(flowId);
+            if (pendingFlow != null) {
+                return Optional.of(pendingFlow.lastFlowLog);
+            }
+        }
+        return flowLogDBService.getLastFlowLog(flowId);
+    }
+
+    public FlowLog save(FlowParameters flowParameters, String flowChainId, String key, Payload payload, Map<Object, Object> variables,
+            Class<?> flowType, FlowState currentState) {
+        FlowLog flowLog = flowLogDBService.createFlowLog(flowParameters, flowChainId, key, payload, variables, flowType, currentState);
+        synchronized (lock) {
+            unflushedInserts.add(flowLog);
+            enqueue(new PendingWrite(flowLog, WriteType.INSERT, null));
+        }
+        applyBackpressure();
+        return flowLog;
+    }
+
+    public void updateLastFlowLogStatus(FlowLog lastFlowLog, boolean failureEvent) {
+        StateStatus stateStatus = failureEvent ? StateStatus.FAILED : StateStatus.SUCCESSFUL;
+        synchronized (lock) {
+            if (unflushedInserts.contains(lastFlowLog)) {
+                lastFlowLog.setStateStatus(stateStatus);
+            } else {
+                checkPersisted(lastFlowLog);
+                enqueue(new PendingWrite(lastFlowLog, WriteType.STATUS, stateStatus));
+            }
+        }
+        applyBackpressure();
+    }
+
+    public void updateLastFlowLogPayload(FlowLog lastFlowLog, Payload payload, Map<Object, Object> variables) {
+        String payloadJson = flowLogDBService.getSerializedString(payload);
+        String variablesJson = flowLogDBService.getSerializedString(variables);
+        synchronized (lock) {
+            if (unflushedInserts.contains(lastFlowLog)) {
+                lastFlowLog.setPayload(payloadJson);
+                lastFlowLog.setVariables(variablesJson);
+            } else {
+                checkPersisted(lastFlowLog);
+                PendingWrite write = new PendingWrite(lastFlowLog, WriteType.PAYLOAD, null);
+                write.payload = payloadJson;
+                write.variables = variablesJson;
+                enqueue(write);
+            }
+        }
+        applyBackpressure();
+    }
+
+    /**
+     * Returns when every entry queued for the flow so far has been committed to the database.
+     *
+     * @return false if any of the queued entries of the flow could not be persisted
+     */
+    public boolean awaitCommit(String flowId) {
+        if (!enabled) {
+            return true;
+        }
+        PendingFlow pendingFlow;
+        long targetSequence;
+        synchronized (lock) {
+            pendingFlow = pendingFlows.get(flowId);
+            if (pendingFlow == null) {
+                return true;
+            }
+            targetSequence = pendingFlow.lastSequence;
+        }
+        synchronized (flushLock) {
+            while (getFlushedSequence() < targetSequence) {
+                flushBatch();
+            }
+        }
+        if (pendingFlow.failed) {
+            LOGGER.error("Some of the flow log entries of flow {} could not be persisted", flowId);
+        }
+        return !pendingFlow.failed;
+    }
+
+    private void checkPersisted(FlowLog flowLog) {
+        if (flowLog.getId() == null) {
+            throw new IllegalStateException("Flow log of flow " + flowLog.getFlowId() + " is neither queued nor persisted, it can not be updated: "
+                    + flowLog.minimizedString());
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        write.sequence = ++enqueuedSequence;
+        queue.add(write);
+        PendingFlow pendingFlow = pendingFlows.computeIfAbsent(write.flowLog.getFlowId(), k -> new PendingFlow());
+        pendingFlow.lastSequence = write.sequence;
+        pendingFlow.lastFlowLog = write.flowLog;
+        pendingFlow.count++;
+    }
+
+    private void applyBackpressure() {
+        int queueSize;
+        synchronized (lock) {
+            queueSize = queue.size();
+        }
+        metricService.submit(FlowMetricType.FLOWLOG_GROUP_COMMIT_QUEUE_SIZE, queueSize);
+        if (queueSize > maxQueueSize) {
+            LOGGER.warn("Flow log group commit queue size {} exceeded the limit {}, flushing on the caller thread", queueSize, maxQueueSize);
+            synchronized (flushLock) {
+                flushBatch();
+            }
+        }
+    }
+
+    private long getFlushedSequence() {
+        synchronized (lock) {
+            return flushedSequence;
+        }
+    }
+
+    private void flushQueue() {
+        try {
+            synchronized (flushLock) {
+                while (flushBatch() > 0) {
+                    LOGGER.trace("Flow log group commit batch flushed");
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error during flow log group commit flush", e);
+        }
+    }
+
+    private int flushBatch() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        synchronized (lock) {
+            while (!queue.isEmpty() && batch.size() < batchSize) {
+                PendingWrite write = queue.poll();
+                if (write.type == WriteType.INSERT) {
+                    unflushedInserts.remove(write.flowLog);
+                }
+                batch.add(write);
+            }
+        }
+        if (!batch.isEmpty()) {
+            long start = System.currentTimeMillis();
+            try {
+                transactionService.required(() -> write(batch));
+            } catch (TransactionExecutionException e) {
+                LOGGER.warn("Failed to flush flow log batch of {} entries, retrying them one by one", batch.size(), e);
+                writeOneByOne(batch);
+            }
+            metricService.submit(FlowMetricType.FLOWLOG_GROUP_COMMIT_FLUSH_TIME, System.currentTimeMillis() - start);
+            metricService.submit(FlowMetricType.FLOWLOG_GROUP_COMMIT_BATCH_SIZE, batch.size());
+            markFlushed(batch);
+        }
+        return batch.size();
+    }
+
+    private void write(List<PendingWrite> batch) {
+        Map<StateStatus, List<Long>> statusUpdates = batch.stream()
+                .filter(write -> write.type == WriteType.STATUS)
+                .collect(Collectors.groupingBy(write -> write.stateStatus, Collectors.mapping(write -> write.flowLog.getId(), Collectors.toList())));
+        statusUpdates.forEach((stateStatus, ids) -> flowLogRepository.updateStateStatusByIds(ids, stateStatus));
+        batch.stream()
+                .filter(write -> write.type == WriteType.PAYLOAD)
+                .forEach(write -> flowLogRepository.updatePayloadAndVariables(write.flowLog.getId(), write.payload, write.variables));
+        List<FlowLog> inserts = batch.stream()
+                .filter(write -> write.type == WriteType.INSERT)
+                .map(write -> write.flowLog)
+                .collect(Collectors.toList());
+        if (!inserts.isEmpty()) {
+            flowLogRepository.saveAll(inserts);
+            inserts.forEach(flowLogDBService::saveRunningFlow);
+        }
+    }
+
+    private void writeOneByOne(List<PendingWrite> batch) {
+        for (PendingWrite write : batch) {
+            if (write.type == WriteType.INSERT) {
+                write.flowLog.setId(null);
+                write.flowLog.setVersion(null);
+            }
+            try {
+                transactionService.required(() -> write(List.of(write)));
+            } catch (TransactionExecutionException e) {
+                LOGGER.error("Failed to persist flow log entry {} of type {}", write.flowLog.minimizedString(), write.type, e);
+                metricService.incrementMetricCounter(FlowMetricType.FLOWLOG_GROUP_COMMIT_FAILED);
+                write.failed = true;
+            }
+        }
+    }
+
+    private void markFlushed(List<PendingWrite> batch) {
+        synchronized (lock) {
+            for (PendingWrite write : batch) {
+                String flowId = write.flowLog.getFlowId();
+                PendingFlow pendingFlow = pendingFlows.get(flowId);
+                if (pendingFlow != null) {
+                    pendingFlow.failed |= write.failed;
+                    pendingFlow.count--;
+                    if (pendingFlow.count == 0) {
+                        pendingFlows.remove(flowId);
+                    }
+                }
+            }
+            flushedSequence = batch.get(batch.size() - 1).sequence;
+        }
+    }
+
+    private enum WriteType {
+        INSERT,
+        STATUS,
+        PAYLOAD
+    }
+
+    private static class PendingWrite {
+
+        private final FlowLog flowLog;
+
+        private final WriteType type;
+
+        private final StateStatus stateStatus;
+
+        private String payload;
+
+        private String variables;
+
+        private long sequence;
+
+        private boolean failed;
+
+        PendingWrite(FlowLog flowLog, WriteType type, StateStatus stateStatus) {
+            this.flowLog = flowLog;
+            this.type = type;
+            this.stateStatus = stateStatus;
+        }
+    }
+
+    private static class PendingFlow {
+
+        private FlowLog lastFlowLog;
+
+        private long lastSequence;
+
+        private int count;
+
+        private volatile boolean failed;
+    }
+}
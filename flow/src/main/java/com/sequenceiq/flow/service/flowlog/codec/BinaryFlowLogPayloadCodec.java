@@ -0,0 +1,697 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.google.common.primitives.Primitives;
+
+/**
+ * Compact, schema tagged binary codec for flow log payloads and variables.
+ * <p>
+ * The object graph is walked reflectively on the same fields json-io uses (every non static, non transient field of the class hierarchy),
+ * so anything that could be restored from the json-io format can be restored from this one as well. The differences are in the encoding:
+ * <ul>
+ *     <li>every class is described once per value with its name and the names of its fields, later occurrences refer to it by index</li>
+ *     <li>repeated strings and shared objects (including cycles) are written once and referenced by index</li>
+ *     <li>numbers are written as variable length integers</li>
+ * </ul>
+ * Fields are matched by name on read, so fields added to or removed from a payload class since the value was written are tolerated.
+ * Exceptions are reduced to their type and message, the same way the flow json-io configuration writes them.
+ */
+@Component
+public class BinaryFlowLogPayloadCodec implements FlowLogPayloadCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryFlowLogPayloadCodec.class);
+
+    private static final int NULL = 0;
+
+    private static final int REFERENCE = 1;
+
+    private static final int STRING = 2;
+
+    private static final int STRING_REFERENCE = 3;
+
+    private static final int INT = 4;
+
+    private static final int LONG = 5;
+
+    private static final int TRUE = 6;
+
+    private static final int FALSE = 7;
+
+    private static final int DOUBLE = 8;
+
+    private static final int FLOAT = 9;
+
+    private static final int SHORT = 10;
+
+    private static final int BYTE = 11;
+
+    private static final int CHAR = 12;
+
+    private static final int ENUM = 13;
+
+    private static final int CLASS = 14;
+
+    private static final int BIG_DECIMAL = 15;
+
+    private static final int BIG_INTEGER = 16;
+
+    private static final int UUID_VALUE = 17;
+
+    private static final int DATE = 18;
+
+    private static final int BYTES = 19;
+
+    private static final int ARRAY = 20;
+
+    private static final int COLLECTION = 21;
+
+    private static final int MAP = 22;
+
+    private static final int THROWABLE = 23;
+
+    private static final int OBJECT = 24;
+
+    private static final int TAG_COUNT = 25;
+
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+
+    private static final int VARINT_PAYLOAD_BITS = 7;
+
+    private static final int LONG_SIGN_SHIFT = Long.SIZE - 1;
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private static final Map<Class<?>, ScalarWriter> SCALAR_WRITERS = createScalarWriters();
+
+    private final Map<Class<?>, ClassSchema> schemas = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object object) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            new Encoder(out).writeValue(object);
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            throw new FlowLogPayloadCodecException("Failed to encode " + (object == null ? null : object.getClass().getName()), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return new Decoder(in).readValue();
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            throw new FlowLogPayloadCodecException("Failed to decode flow log value", e);
+        }
+    }
+
+    private static Map<Class<?>, ScalarWriter> createScalarWriters() {
+        Map<Class<?>, ScalarWriter> writers = new HashMap<>();
+        writers.put(String.class, (encoder, value) -> encoder.writeStringValue((String) value));
+        writers.put(Integer.class, (encoder, value) -> encoder.writeTaggedVarLong(INT, (Integer) value));
+        writers.put(Long.class, (encoder, value) -> encoder.writeTaggedVarLong(LONG, (Long) value));
+        writers.put(Short.class, (encoder, value) -> encoder.writeTaggedVarLong(SHORT, (Short) value));
+        writers.put(Byte.class, (encoder, value) -> encoder.writeTaggedVarLong(BYTE, (Byte) value));
+        writers.put(Character.class, (encoder, value) -> encoder.writeTaggedVarLong(CHAR, (Character) value));
+        writers.put(Boolean.class, (encoder, value) -> encoder.out.writeByte((Boolean) value ? TRUE : FALSE));
+        writers.put(Double.class, (encoder, value) -> {
+            encoder.out.writeByte(DOUBLE);
+            encoder.out.writeDouble((Double) value);
+        });
+        writers.put(Float.class, (encoder, value) -> {
+            encoder.out.writeByte(FLOAT);
+            encoder.out.writeFloat((Float) value);
+        });
+        writers.put(BigDecimal.class, (encoder, value) -> encoder.writeTaggedString(BIG_DECIMAL, value.toString()));
+        writers.put(BigInteger.class, (encoder, value) -> encoder.writeTaggedString(BIG_INTEGER, value.toString()));
+        writers.put(UUID.class, (encoder, value) -> encoder.writeTaggedString(UUID_VALUE, value.toString()));
+        writers.put(Date.class, (encoder, value) -> encoder.writeTaggedVarLong(DATE, ((Date) value).getTime()));
+        writers.put(byte[].class, (encoder, value) -> {
+            encoder.out.writeByte(BYTES);
+            encoder.writeBytes((byte[]) value);
+        });
+        return writers;
+    }
+
+    private ClassSchema getSchema(Class<?> type) {
+        return schemas.computeIfAbsent(type, ClassSchema::new);
+    }
+
+    private static boolean isPlainObject(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isEnum() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+                && !SCALAR_WRITERS.containsKey(type) && !Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type)
+                && !Throwable.class.isAssignableFrom(type) && !Class.class.equals(type);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> LONG_SIGN_SHIFT);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private Object instantiate(Class<?> type) throws ReflectiveOperationException {
+        Constructor<?> cached = constructors.get(type);
+        if (cached != null) {
+            return cached.newInstance(defaultArguments(cached, false));
+        }
+        Constructor<?>[] declaredConstructors = type.getDeclaredConstructors();
+        Arrays.sort(declaredConstructors, Comparator.comparingInt(Constructor::getParameterCount));
+        for (boolean nonNullArguments : new boolean[]{false, true}) {
+            for (Constructor<?> constructor : declaredConstructors) {
+                Object instance = tryInstantiate(constructor, nonNullArguments);
+                if (instance != null) {
+                    if (!nonNullArguments) {
+                        constructors.put(type, constructor);
+                    }
+                    return instance;
+                }
+            }
+        }
+        throw new FlowLogPayloadCodecException("Unable to instantiate " + type.getName());
+    }
+
+    private Object tryInstantiate(Constructor<?> constructor, boolean nonNullArguments) {
+        try {
+            constructor.setAccessible(true);
+            return constructor.newInstance(defaultArguments(constructor, nonNullArguments));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.trace("Constructor {} can not be used for instantiation", constructor, e);
+            return null;
+        }
+    }
+
+    private Object[] defaultArguments(Constructor<?> constructor, boolean nonNullArguments) {
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            arguments[i] = defaultValue(parameterTypes[i], nonNullArguments);
+        }
+        return arguments;
+    }
+
+    private Object defaultValue(Class<?> type, boolean nonNull) {
+        if (type.isPrimitive()) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        } else if (!nonNull) {
+            return null;
+        } else if (type == String.class) {
+            return "";
+        } else if (Primitives.isWrapperType(type)) {
+            return defaultValue(Primitives.unwrap(type), true);
+        } else if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>();
+        } else if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>();
+        } else if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return new LinkedHashMap<>();
+        }
+        return null;
+    }
+
+    private static Object newWithPublicDefaultConstructor(Class<?> type) {
+        if (Modifier.isPublic(type.getModifiers()) && !Modifier.isAbstract(type.getModifiers())) {
+            try {
+                return type.getConstructor().newInstance();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.trace("{} has no usable public default constructor", type, e);
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> newCollection(Class<?> type) {
+        Object instance = newWithPublicDefaultConstructor(type);
+        if (instance instanceof Collection) {
+            return (Collection<Object>) instance;
+        } else if (SortedSet.class.isAssignableFrom(type)) {
+            return new TreeSet<>();
+        } else if (Set.class.isAssignableFrom(type)) {
+            return new LinkedHashSet<>();
+        } else if (Queue.class.isAssignableFrom(type)) {
+            return new LinkedList<>();
+        }
+        return new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> newMap(Class<?> type) {
+        Object instance = newWithPublicDefaultConstructor(type);
+        if (instance instanceof Map) {
+            return (Map<Object, Object>) instance;
+        } else if (SortedMap.class.isAssignableFrom(type)) {
+            return new TreeMap<>();
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private interface ScalarWriter {
+        void write(Encoder encoder, Object value) throws IOException;
+    }
+
+    private interface TagReader {
+        Object read() throws IOException, ReflectiveOperationException;
+    }
+
+    private static class ClassSchema {
+
+        private final List<String> fieldNames = new ArrayList<>();
+
+        private final List<Field> fields = new ArrayList<>();
+
+        private final Map<String, Field> fieldsByName = new HashMap<>();
+
+        ClassSchema(Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    addField(field);
+                }
+            }
+        }
+
+        private void addField(Field field) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                String name = fieldsByName.containsKey(field.getName()) ? field.getDeclaringClass().getName() + '.' + field.getName() : field.getName();
+                field.setAccessible(true);
+                fieldNames.add(name);
+                fields.add(field);
+                fieldsByName.put(name, field);
+            }
+        }
+    }
+
+    private static class ClassEntry {
+
+        private final Class<?> type;
+
+        private final Field[] fields;
+
+        ClassEntry(Class<?> type, Field[] fields) {
+            this.type = type;
+            this.fields = fields;
+        }
+    }
+
+    private final class Encoder {
+
+        private final DataOutputStream out;
+
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private final Map<Object, Integer> objects = new IdentityHashMap<>();
+
+        private Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void writeValue(Object value) throws IOException, ReflectiveOperationException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            ScalarWriter scalarWriter = SCALAR_WRITERS.get(value.getClass());
+            if (scalarWriter != null) {
+                scalarWriter.write(this, value);
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeClass(((Enum<?>) value).getDeclaringClass());
+                writeString(((Enum<?>) value).name());
+            } else if (value instanceof Class) {
+                out.writeByte(CLASS);
+                writeClass((Class<?>) value);
+            } else {
+                writeTrackedValue(value);
+            }
+        }
+
+        private void writeTrackedValue(Object value) throws IOException, ReflectiveOperationException {
+            Integer reference = objects.get(value);
+            if (reference != null) {
+                out.writeByte(REFERENCE);
+                writeVarLong(reference);
+                return;
+            }
+            objects.put(value, objects.size());
+            Class<?> type = value.getClass();
+            if (type.isArray()) {
+                writeArray(value, type);
+            } else if (value instanceof Collection) {
+                writeCollection((Collection<?>) value, type);
+            } else if (value instanceof Map) {
+                writeMap((Map<?, ?>) value, type);
+            } else if (value instanceof Throwable) {
+                out.writeByte(THROWABLE);
+                writeClass(type);
+                writeStringValue(((Throwable) value).getMessage());
+            } else {
+                writeObject(value, type);
+            }
+        }
+
+        private void writeArray(Object array, Class<?> type) throws IOException, ReflectiveOperationException {
+            out.writeByte(ARRAY);
+            writeClass(type.getComponentType());
+            int length = Array.getLength(array);
+            writeVarLong(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(Array.get(array, i));
+            }
+        }
+
+        private void writeCollection(Collection<?> collection, Class<?> type) throws IOException, ReflectiveOperationException {
+            out.writeByte(COLLECTION);
+            writeClass(type);
+            writeVarLong(collection.size());
+            for (Object element : collection) {
+                writeValue(element);
+            }
+        }
+
+        private void writeMap(Map<?, ?> map, Class<?> type) throws IOException, ReflectiveOperationException {
+            out.writeByte(MAP);
+            writeClass(type);
+            writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeObject(Object value, Class<?> type) throws IOException, ReflectiveOperationException {
+            out.writeByte(OBJECT);
+            writeClass(type);
+            for (Field field : getSchema(type).fields) {
+                writeValue(field.get(value));
+            }
+        }
+
+        /**
+         * Writes the index of an already described class, or 0 followed by the class name and its field names.
+         */
+        private void writeClass(Class<?> type) throws IOException {
+            Integer index = classes.get(type);
+            if (index != null) {
+                writeVarLong(index + 1L);
+                return;
+            }
+            classes.put(type, classes.size());
+            writeVarLong(0);
+            writeString(type.getName());
+            if (isPlainObject(type)) {
+                List<String> fieldNames = getSchema(type).fieldNames;
+                writeVarLong(fieldNames.size() + 1L);
+                for (String fieldName : fieldNames) {
+                    writeString(fieldName);
+                }
+            } else {
+                writeVarLong(0);
+            }
+        }
+
+        private void writeStringValue(String value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeByte(STRING_REFERENCE);
+                writeVarLong(index);
+            } else {
+                strings.put(value, strings.size());
+                out.writeByte(STRING);
+                writeString(value);
+            }
+        }
+
+        private void writeTaggedString(int tag, String value) throws IOException {
+            out.writeByte(tag);
+            writeString(value);
+        }
+
+        private void writeTaggedVarLong(int tag, long value) throws IOException {
+            out.writeByte(tag);
+            writeVarLong(zigZag(value));
+        }
+
+        private void writeString(String value) throws IOException {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(byte[] value) throws IOException {
+            writeVarLong(value.length);
+            out.write(value);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+                out.writeByte((int) (remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+                remaining >>>= VARINT_PAYLOAD_BITS;
+            }
+            out.writeByte((int) remaining);
+        }
+    }
+
+    private final class Decoder {
+
+        private final DataInputStream in;
+
+        private final List<ClassEntry> classes = new ArrayList<>();
+
+        private final List<String> strings = new ArrayList<>();
+
+        private final List<Object> objects = new ArrayList<>();
+
+        private final TagReader[] readers = new TagReader[TAG_COUNT];
+
+        private Decoder(DataInputStream in) {
+            this.in = in;
+            registerScalarReaders();
+            registerTrackedReaders();
+        }
+
+        private void registerScalarReaders() {
+            readers[NULL] = () -> null;
+            readers[STRING] = this::readNewString;
+            readers[STRING_REFERENCE] = () -> strings.get(readVarInt());
+            readers[INT] = () -> (int) unZigZag(readVarLong());
+            readers[LONG] = () -> unZigZag(readVarLong());
+            readers[SHORT] = () -> (short) unZigZag(readVarLong());
+            readers[BYTE] = () -> (byte) unZigZag(readVarLong());
+            readers[CHAR] = () -> (char) unZigZag(readVarLong());
+            readers[TRUE] = () -> Boolean.TRUE;
+            readers[FALSE] = () -> Boolean.FALSE;
+            readers[DOUBLE] = in::readDouble;
+            readers[FLOAT] = in::readFloat;
+            readers[BIG_DECIMAL] = () -> new BigDecimal(readString());
+            readers[BIG_INTEGER] = () -> new BigInteger(readString());
+            readers[UUID_VALUE] = () -> UUID.fromString(readString());
+            readers[DATE] = () -> new Date(unZigZag(readVarLong()));
+            readers[BYTES] = this::readBytes;
+        }
+
+        private void registerTrackedReaders() {
+            readers[REFERENCE] = () -> objects.get(readVarInt());
+            readers[ENUM] = this::readEnum;
+            readers[CLASS] = () -> readClass().type;
+            readers[ARRAY] = this::readArray;
+            readers[COLLECTION] = this::readCollection;
+            readers[MAP] = this::readMap;
+            readers[THROWABLE] = this::readThrowable;
+            readers[OBJECT] = this::readObject;
+        }
+
+        private Object readValue() throws IOException, ReflectiveOperationException {
+            int tag = in.readUnsignedByte();
+            if (tag >= readers.length) {
+                throw new FlowLogPayloadCodecException("Unknown value tag: " + tag);
+            }
+            return readers[tag].read();
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() throws IOException {
+            Class enumType = readClass().type;
+            return Enum.valueOf(enumType, readString());
+        }
+
+        private Object readArray() throws IOException, ReflectiveOperationException {
+            Class<?> componentType = readClass().type;
+            int length = readVarInt();
+            Object array = Array.newInstance(componentType, length);
+            objects.add(array);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readValue());
+            }
+            return array;
+        }
+
+        private Object readCollection() throws IOException, ReflectiveOperationException {
+            Collection<Object> collection = newCollection(readClass().type);
+            objects.add(collection);
+            int size = readVarInt();
+            for (int i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+            return collection;
+        }
+
+        private Object readMap() throws IOException, ReflectiveOperationException {
+            Map<Object, Object> map = newMap(readClass().type);
+            objects.add(map);
+            int size = readVarInt();
+            for (int i = 0; i < size; i++) {
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+            return map;
+        }
+
+        private Object readThrowable() throws IOException, ReflectiveOperationException {
+            int index = objects.size();
+            objects.add(null);
+            Class<?> type = readClass().type;
+            String message = (String) readValue();
+            Object throwable;
+            try {
+                throwable = type.getConstructor(String.class).newInstance(message);
+            } catch (NoSuchMethodException e) {
+                throwable = instantiate(type);
+            }
+            objects.set(index, throwable);
+            return throwable;
+        }
+
+        private Object readObject() throws IOException, ReflectiveOperationException {
+            ClassEntry entry = readClass();
+            Object instance = instantiate(entry.type);
+            objects.add(instance);
+            for (Field field : entry.fields) {
+                Object value = readValue();
+                if (field != null) {
+                    setField(instance, field, value);
+                }
+            }
+            return instance;
+        }
+
+        private void setField(Object instance, Field field, Object value) throws IllegalAccessException {
+            try {
+                field.set(instance, value);
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Value of field {} can not be restored, the type of the field has changed", field, e);
+            }
+        }
+
+        private ClassEntry readClass() throws IOException {
+            int index = readVarInt();
+            if (index > 0) {
+                return classes.get(index - 1);
+            }
+            String className = readString();
+            int fieldCount = readVarInt() - 1;
+            Class<?> type;
+            try {
+                type = ClassUtils.forName(className, BinaryFlowLogPayloadCodec.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new FlowLogPayloadCodecException("Class not found: " + className, e);
+            }
+            Field[] fields = new Field[Math.max(fieldCount, 0)];
+            if (fieldCount > 0) {
+                Map<String, Field> localFields = getSchema(type).fieldsByName;
+                for (int i = 0; i < fieldCount; i++) {
+                    fields[i] = localFields.get(readString());
+                }
+            }
+            ClassEntry entry = new ClassEntry(type, fields);
+            classes.add(entry);
+            return entry;
+        }
+
+        private String readNewString() throws IOException {
+            String value = readString();
+            strings.add(value);
+            return value;
+        }
+
+        private String readString() throws IOException {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] value = new byte[readVarInt()];
+            in.readFully(value);
+            return value;
+        }
+
+        private int readVarInt() throws IOException {
+            return Math.toIntExact(readVarLong());
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            int current;
+            do {
+                current = in.readUnsignedByte();
+                value |= (long) (current & VARINT_PAYLOAD_MASK) << shift;
+                shift += VARINT_PAYLOAD_BITS;
+            } while ((current & VARINT_CONTINUATION_BIT) != 0);
+            return value;
+        }
+    }
+}
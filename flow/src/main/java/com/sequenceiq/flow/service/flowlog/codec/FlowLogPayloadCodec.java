@@ -0,0 +1,14 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+/**
+ * Binary codec for the flow log payload and variables columns. Every codec has a unique version that is written as the first byte of the
+ * persisted value, so rows written by different codecs can be read side by side. Version 0 is reserved for the legacy json-io format.
+ */
+public interface FlowLogPayloadCodec {
+
+    byte getVersion();
+
+    byte[] encode(Object object);
+
+    Object decode(byte[] data);
+}
@@ -0,0 +1,12 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+public class FlowLogPayloadCodecException extends RuntimeException {
+
+    public FlowLogPayloadCodecException(String message) {
+        super(message);
+    }
+
+    public FlowLogPayloadCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
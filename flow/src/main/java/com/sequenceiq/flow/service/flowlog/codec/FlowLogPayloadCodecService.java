@@ -0,0 +1,105 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cedarsoftware.util.io.JsonReader;
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+
+/**
+ * Serializes and deserializes the payload and variables of flow logs.
+ * <p>
+ * Values written by a {@link FlowLogPayloadCodec} are stored as {@value #ENCODED_PREFIX} followed by the Base64 form of the codec version
+ * byte and the encoded value. Anything else is a legacy json-io value, so rows written before the codec was switched stay readable.
+ * The codec used for writing is selected by the {@code flow.flowlog.payload.codec.version} property, 0 means json-io.
+ * <p>
+ * The values are kept in the existing text columns, and the Base64 form is a third larger than the encoded bytes. Switching the codec
+ * saves serialization CPU on the flow transitions, it is not meant to shrink the flowlog table.
+ */
+@Service
+public class FlowLogPayloadCodecService {
+
+    public static final byte JSON_IO_VERSION = 0;
+
+    static final String ENCODED_PREFIX = "~";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogPayloadCodecService.class);
+
+    @Value("${flow.flowlog.payload.codec.version:0}")
+    private byte codecVersion;
+
+    @Inject
+    private List<FlowLogPayloadCodec> codecs;
+
+    @Inject
+    @Qualifier("JsonWriterOptions")
+    private Map<String, Object> writeOptions;
+
+    private Map<Byte, FlowLogPayloadCodec> codecsByVersion;
+
+    @PostConstruct
+    public void init() {
+        codecsByVersion = codecs.stream().collect(Collectors.toMap(FlowLogPayloadCodec::getVersion, Function.identity()));
+        if (codecVersion != JSON_IO_VERSION && !codecsByVersion.containsKey(codecVersion)) {
+            throw new IllegalStateException("No flow log payload codec found with version " + codecVersion);
+        }
+        LOGGER.info("Flow log payload codec version: {}, available codecs: {}", codecVersion, codecsByVersion.keySet());
+    }
+
+    public String serialize(Object object) {
+        FlowLogPayloadCodec codec = codecsByVersion.get(codecVersion);
+        if (codec != null && object != null) {
+            try {
+                return encode(codec, object);
+            } catch (FlowLogPayloadCodecException e) {
+                LOGGER.debug("Can not serialize object with codec version {}, falling back to json-io", codecVersion, e);
+            }
+        }
+        return serializeWithJsonIo(object);
+    }
+
+    public Object deserialize(String value) {
+        if (value != null && value.startsWith(ENCODED_PREFIX)) {
+            byte[] encoded = Base64.getDecoder().decode(value.substring(ENCODED_PREFIX.length()));
+            FlowLogPayloadCodec codec = codecsByVersion.get(encoded[0]);
+            if (codec == null) {
+                throw new FlowLogPayloadCodecException("No flow log payload codec found with version " + encoded[0]);
+            }
+            return codec.decode(Arrays.copyOfRange(encoded, 1, encoded.length));
+        }
+        return JsonReader.jsonToJava(value);
+    }
+
+    private String encode(FlowLogPayloadCodec codec, Object object) {
+        byte[] body = codec.encode(object);
+        byte[] encoded = new byte[body.length + 1];
+        encoded[0] = codec.getVersion();
+        System.arraycopy(body, 0, encoded, 1, body.length);
+        return ENCODED_PREFIX + Base64.getEncoder().encodeToString(encoded);
+    }
+
+    private String serializeWithJsonIo(Object object) {
+        String objectAsString;
+        try {
+            objectAsString = JsonWriter.objectToJson(object, writeOptions);
+        } catch (Exception e) {
+            LOGGER.debug("Somehow can not serialize object to string, try another method..", e);
+            objectAsString = JsonUtil.writeValueAsStringSilent(object);
+        }
+        return objectAsString;
+    }
+}
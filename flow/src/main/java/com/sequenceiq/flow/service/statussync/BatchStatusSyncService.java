@@ -0,0 +1,213 @@
+package com.sequenceiq.flow.service.statussync;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Lists;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.batch.BatchStatusChecker;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobService;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+import reactor.core.support.NamedDaemonThreadFactory;
+
+/**
+ * Opt-in replacement of the per resource status checker quartz jobs.
+ * <p>
+ * On every tick the ids of the resources of every {@link BatchStatusChecker} are fetched, and the ones in the shards owned by this node
+ * (see {@link StatusSyncShardService}) are checked if the status checker interval passed since their last check, the most overdue first.
+ * The due resources are loaded in batches with one query per batch, and the resources of a batch are checked on a fixed size thread pool.
+ * The time of the last check is only kept in memory, so after a restart or a shard move the resources are checked again within the random
+ * initial delay, the same way as the quartz jobs are scheduled.
+ */
+@Service
+public class BatchStatusSyncService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchStatusSyncService.class);
+
+    private static final int RANDOM_DELAY_SECONDS = 120;
+
+    private static final Random RANDOM = new SecureRandom();
+
+    private static final String CHECKER_TAG = "checker";
+
+    @Value("${statuschecker.batch.size:50}")
+    private int batchSize;
+
+    @Value("${statuschecker.batch.max.per.tick:1000}")
+    private int maxResourcesPerTick;
+
+    @Value("${statuschecker.batch.threads:10}")
+    private int threads;
+
+    @Inject
+    private StatusCheckerConfig statusCheckerConfig;
+
+    @Inject
+    private StatusSyncShardService statusSyncShardService;
+
+    @Inject
+    private StatusCheckerJobService statusCheckerJobService;
+
+    @Inject
+    private Optional<List<BatchStatusChecker<?>>> batchStatusCheckers;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private MetricService metricService;
+
+    private final Map<String, Map<Long, Long>> lastChecksByChecker = new ConcurrentHashMap<>();
+
+    private ExecutorService checkExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            LOGGER.info("Batched status sync is enabled for {}, batch size: {}, threads: {}",
+                    getEnabledCheckers().stream().map(BatchStatusChecker::getName).collect(Collectors.toList()), batchSize, threads);
+            checkExecutor = Executors.newFixedThreadPool(threads, new NamedDaemonThreadFactory("batchStatusSync"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${statuschecker.batch.tick.millis:10000}", initialDelayString = "${statuschecker.batch.tick.millis:10000}")
+    public void syncDueResources() {
+        if (!isEnabled()) {
+            return;
+        }
+        Predicate<Long> ownedResourceFilter = statusSyncShardService.getOwnedResourceFilter();
+        SyncTick tick = new SyncTick(clock.getCurrentTimeMillis(), TimeUnit.SECONDS.toMillis(statusCheckerConfig.getIntervalInSeconds()));
+        for (BatchStatusChecker<?> checker : getEnabledCheckers()) {
+            try {
+                syncDueResources(checker, ownedResourceFilter, tick);
+            } catch (Exception e) {
+                LOGGER.warn("Batched status sync of {} resources failed", checker.getName(), e);
+            }
+        }
+        metricService.submit(FlowMetricType.STATUS_SYNC_OWNED_RESOURCES, tick.ownedResources);
+        metricService.submit(FlowMetricType.STATUS_SYNC_DUE_RESOURCES, tick.dueResources);
+        metricService.submit(FlowMetricType.STATUS_SYNC_LAG, tick.maxLagMillis);
+    }
+
+    private <T> void syncDueResources(BatchStatusChecker<T> checker, Predicate<Long> ownedResourceFilter, SyncTick tick) {
+        Map<Long, Long> lastChecks = lastChecksByChecker.computeIfAbsent(checker.getName(), name -> new ConcurrentHashMap<>());
+        Set<Long> ownedResourceIds = checker.findAllResourceIds().stream().filter(ownedResourceFilter).collect(Collectors.toSet());
+        lastChecks.keySet().retainAll(ownedResourceIds);
+        ownedResourceIds.stream().filter(resourceId -> !lastChecks.containsKey(resourceId)).forEach(resourceId -> {
+            // the quartz job of the resource might have been scheduled by a node running without the batched sync, e.g. during an upgrade
+            statusCheckerJobService.unschedule(String.valueOf(resourceId));
+            lastChecks.put(resourceId, tick.now - tick.intervalMillis + TimeUnit.SECONDS.toMillis(RANDOM.nextInt(RANDOM_DELAY_SECONDS)));
+        });
+
+        List<Entry<Long, Long>> dueResources = lastChecks.entrySet().stream()
+                .filter(lastCheck -> tick.now - lastCheck.getValue() >= tick.intervalMillis)
+                .sorted(Entry.comparingByValue())
+                .collect(Collectors.toList());
+        tick.ownedResources += ownedResourceIds.size();
+        tick.dueResources += dueResources.size();
+        if (dueResources.isEmpty()) {
+            return;
+        }
+        tick.maxLagMillis = Math.max(tick.maxLagMillis, tick.now - dueResources.get(0).getValue() - tick.intervalMillis);
+        List<Long> resourceIds = dueResources.stream().limit(maxResourcesPerTick).map(Entry::getKey).collect(Collectors.toList());
+        LOGGER.debug("Batched status sync of {} {} resources out of {} due and {} owned", resourceIds.size(), checker.getName(),
+                dueResources.size(), ownedResourceIds.size());
+        for (List<Long> batch : Lists.partition(resourceIds, Math.max(batchSize, 1))) {
+            long start = clock.getCurrentTimeMillis();
+            List<Future<?>> checks = checker.loadResources(batch).stream()
+                    .map(resource -> checkExecutor.submit(() -> check(checker, resource)))
+                    .collect(Collectors.toList());
+            waitForChecks(checker, checks);
+            batch.forEach(resourceId -> lastChecks.replace(resourceId, start));
+            metricService.submit(FlowMetricType.STATUS_SYNC_BATCH_TIME, clock.getCurrentTimeMillis() - start);
+        }
+    }
+
+    private <T> void check(BatchStatusChecker<T> checker, T resource) {
+        MDCBuilder.buildMdcContext(resource);
+        MDCBuilder.addRequestId(UUID.randomUUID().toString());
+        try {
+            checker.check(resource);
+            metricService.incrementMetricCounter(FlowMetricType.STATUS_SYNC_CHECKED, CHECKER_TAG, checker.getName());
+        } catch (Exception e) {
+            LOGGER.info("Status check of {} resource {} failed", checker.getName(), checker.getResourceId(resource), e);
+            metricService.incrementMetricCounter(FlowMetricType.STATUS_SYNC_FAILED, CHECKER_TAG, checker.getName());
+        } finally {
+            MDCBuilder.cleanupMdc();
+        }
+    }
+
+    private void waitForChecks(BatchStatusChecker<?> checker, List<Future<?>> checks) {
+        for (Future<?> check : checks) {
+            try {
+                check.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Batched status sync of " + checker.getName() + " resources was interrupted", e);
+            } catch (ExecutionException e) {
+                LOGGER.info("Status check of a {} resource failed", checker.getName(), e);
+            }
+        }
+    }
+
+    private boolean isEnabled() {
+        return statusCheckerConfig.isAutoSyncEnabled() && statusCheckerConfig.isBatchSyncEnabled() && !getEnabledCheckers().isEmpty();
+    }
+
+    private List<BatchStatusChecker<?>> getEnabledCheckers() {
+        return batchStatusCheckers.stream().flatMap(List::stream).filter(BatchStatusChecker::isEnabled).collect(Collectors.toList());
+    }
+
+    private static class SyncTick {
+
+        private final long now;
+
+        private final long intervalMillis;
+
+        private long ownedResources;
+
+        private long dueResources;
+
+        private long maxLagMillis;
+
+        SyncTick(long now, long intervalMillis) {
+            this.now = now;
+            this.intervalMillis = intervalMillis;
+        }
+    }
+}
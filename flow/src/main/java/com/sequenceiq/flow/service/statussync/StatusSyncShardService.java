@@ -0,0 +1,82 @@
+package com.sequenceiq.flow.service.statussync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.core.FlowMetricType;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+/**
+ * Splits the resources of the batched status sync into a fixed number of shards and assigns every shard to one of the active HA nodes
+ * with rendezvous hashing, so when a node joins or leaves only the shards of that node move. Without a node id every shard is owned by
+ * this instance.
+ */
+@Service
+public class StatusSyncShardService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatusSyncShardService.class);
+
+    @Value("${statuschecker.batch.shards:64}")
+    private int shardCount;
+
+    @Value("${cb.ha.heartbeat.threshold:60000}")
+    private Integer heartbeatThresholdRate;
+
+    @Inject
+    private NodeConfig nodeConfig;
+
+    @Inject
+    private NodeService nodeService;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private MetricService metricService;
+
+    public Predicate<Long> getOwnedResourceFilter() {
+        if (!nodeConfig.isNodeIdSpecified()) {
+            return resourceId -> true;
+        }
+        String nodeId = nodeConfig.getId();
+        long currentTimeMillis = clock.getCurrentTimeMillis();
+        List<String> activeNodeIds = StreamSupport.stream(nodeService.findAll().spliterator(), false)
+                .filter(node -> currentTimeMillis - node.getLastUpdated() <= heartbeatThresholdRate)
+                .map(Node::getUuid)
+                .collect(Collectors.toList());
+        Set<Integer> ownedShards = activeNodeIds.contains(nodeId)
+                ? IntStream.range(0, shardCount).filter(shard -> nodeId.equals(getOwner(shard, activeNodeIds))).boxed().collect(Collectors.toSet())
+                : Set.of();
+        LOGGER.debug("Node {} owns {} status sync shards out of {}, active nodes: {}", nodeId, ownedShards.size(), shardCount, activeNodeIds);
+        metricService.submit(FlowMetricType.STATUS_SYNC_OWNED_SHARDS, ownedShards.size());
+        return resourceId -> ownedShards.contains(getShard(resourceId));
+    }
+
+    int getShard(Long resourceId) {
+        return Math.floorMod(resourceId.hashCode(), shardCount);
+    }
+
+    private String getOwner(int shard, List<String> activeNodeIds) {
+        return activeNodeIds.stream()
+                .max(Comparator.comparingInt(nodeId -> Hashing.murmur3_32().hashString(nodeId + '/' + shard, StandardCharsets.UTF_8).asInt()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,23 @@
+-- // CB-10853 running flow ownership table for HA
+-- Migration SQL that makes the change goes here.
+
+CREATE TABLE IF NOT EXISTS runningflow (
+	flowid varchar(255) NOT NULL,
+	resourceid int8 NOT NULL,
+	flowtype varchar(255) NULL,
+	cloudbreaknodeid varchar(255) NULL,
+	CONSTRAINT pk_runningflow PRIMARY KEY (flowid)
+);
+CREATE INDEX IF NOT EXISTS idx_runningflow_cloudbreaknodeid ON runningflow USING btree (cloudbreaknodeid);
+CREATE INDEX IF NOT EXISTS idx_runningflow_resourceid ON runningflow USING btree (resourceid);
+
+INSERT INTO runningflow (flowid, resourceid, flowtype, cloudbreaknodeid)
+	SELECT DISTINCT ON (flowid) flowid, resourceid, flowtype, cloudbreaknodeid FROM flowlog WHERE statestatus = 'PENDING' ORDER BY flowid, created DESC
+	ON CONFLICT (flowid) DO NOTHING;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP INDEX IF EXISTS idx_runningflow_resourceid;
+DROP INDEX IF EXISTS idx_runningflow_cloudbreaknodeid;
+DROP TABLE IF EXISTS runningflow;
@@ -0,0 +1,52 @@
+-- // CB-10961 flowlog archive tables
+-- Migration SQL that makes the change goes here.
+
+CREATE TABLE IF NOT EXISTS flowlog_archive (
+	id int8 NOT NULL,
+	created int8 NOT NULL,
+	flowid varchar(255) NOT NULL,
+	nextevent varchar(255) NULL,
+	payloadtype varchar(255) NULL,
+	flowtype varchar(255) NULL,
+	currentstate varchar(255) NOT NULL,
+	payload text NULL,
+	resourceid int8 NOT NULL,
+	finalized bool NOT NULL,
+	flowchainid varchar(255) NULL,
+	variables text NULL,
+	cloudbreaknodeid varchar(255) NULL,
+	"version" int8 NULL,
+	statestatus varchar(255) NULL,
+	resourcetype varchar(255) NULL,
+	flowtriggerusercrn varchar(255) NULL,
+	archived int8 NOT NULL DEFAULT (date_part('epoch'::text, now()) * 1000::double precision),
+	CONSTRAINT pk_flowlog_archive PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_flowlog_archive_resourceid_created ON flowlog_archive USING btree (resourceid, created);
+CREATE INDEX IF NOT EXISTS idx_flowlog_archive_flowid ON flowlog_archive USING btree (flowid);
+
+CREATE TABLE IF NOT EXISTS flowchainlog_archive (
+	id int8 NOT NULL,
+	created int8 NOT NULL,
+	flowchainid varchar(255) NOT NULL,
+	parentflowchainid varchar(255) NULL,
+	"chain" text NOT NULL,
+	flowtriggerusercrn varchar(255) NULL,
+	archived int8 NOT NULL DEFAULT (date_part('epoch'::text, now()) * 1000::double precision),
+	CONSTRAINT pk_flowchainlog_archive PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_flowchainlog_archive_flowchainid ON flowchainlog_archive USING btree (flowchainid);
+
+CREATE INDEX IF NOT EXISTS idx_flowlog_flowchainid ON flowlog USING btree (flowchainid) WHERE flowchainid IS NOT NULL;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP INDEX IF EXISTS idx_flowlog_flowchainid;
+
+DROP INDEX IF EXISTS idx_flowchainlog_archive_flowchainid;
+DROP TABLE IF EXISTS flowchainlog_archive;
+
+DROP INDEX IF EXISTS idx_flowlog_archive_flowid;
+DROP INDEX IF EXISTS idx_flowlog_archive_resourceid_created;
+DROP TABLE IF EXISTS flowlog_archive;
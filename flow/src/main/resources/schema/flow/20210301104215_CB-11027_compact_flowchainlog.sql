@@ -0,0 +1,17 @@
+-- // CB-11027 compact flowchainlog
+-- Migration SQL that makes the change goes here.
+
+ALTER TABLE flowchainlog ADD COLUMN IF NOT EXISTS snapshotid int8 NULL;
+ALTER TABLE flowchainlog ADD COLUMN IF NOT EXISTS remainingevents int4 NULL;
+
+ALTER TABLE flowchainlog_archive ADD COLUMN IF NOT EXISTS snapshotid int8 NULL;
+ALTER TABLE flowchainlog_archive ADD COLUMN IF NOT EXISTS remainingevents int4 NULL;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+ALTER TABLE flowchainlog_archive DROP COLUMN IF EXISTS remainingevents;
+ALTER TABLE flowchainlog_archive DROP COLUMN IF EXISTS snapshotid;
+
+ALTER TABLE flowchainlog DROP COLUMN IF EXISTS remainingevents;
+ALTER TABLE flowchainlog DROP COLUMN IF EXISTS snapshotid;
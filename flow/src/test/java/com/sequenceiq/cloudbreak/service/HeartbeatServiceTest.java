@@ -5,12 +5,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,6 +48,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import com.sequenceiq.cloudbreak.cloud.scheduler.PollGroup;
 import com.sequenceiq.cloudbreak.cloud.store.InMemoryStateStore;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.common.service.Clock;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
@@ -59,6 +62,7 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.Flow2Handler;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.RunningFlowIndex;
 import com.sequenceiq.flow.core.config.FlowConfiguration;
 import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
 import com.sequenceiq.flow.domain.FlowLog;
@@ -112,6 +116,12 @@ public class HeartbeatServiceTest {
     @Mock
     private InMemoryCleanup inMemoryCleanup;
 
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private RunningFlowIndex runningFlowIndex;
+
     @Captor
     private ArgumentCaptor<String> stringCaptor;
 
@@ -158,12 +168,12 @@ public class HeartbeatServiceTest {
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
                         suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         Set<FlowLog> myNewFlowLogs = new HashSet<>();
         myNewFlowLogs.addAll(node1FlowLogs);
         myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        mockMyRunningFlows(myNewFlowLogs);
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -210,12 +220,12 @@ public class HeartbeatServiceTest {
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
                         suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         Set<FlowLog> myNewFlowLogs = new HashSet<>();
         myNewFlowLogs.addAll(node1FlowLogs);
         myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        mockMyRunningFlows(myNewFlowLogs);
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -262,12 +272,12 @@ public class HeartbeatServiceTest {
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
                         suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         Set<FlowLog> myNewFlowLogs = new HashSet<>();
         myNewFlowLogs.addAll(node1FlowLogs);
         myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        mockMyRunningFlows(myNewFlowLogs);
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -327,12 +337,12 @@ public class HeartbeatServiceTest {
         distribution.computeIfAbsent(clusterNodes.get(0), v -> new ArrayList<>()).
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(1), suspendedFlows.get(2),
                         suspendedFlows.get(3), suspendedFlows.get(4)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         Set<FlowLog> myNewFlowLogs = new HashSet<>();
         myNewFlowLogs.addAll(node1FlowLogs);
         myNewFlowLogs.addAll(node2FlowLogs);
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        mockMyRunningFlows(myNewFlowLogs);
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -378,12 +388,12 @@ public class HeartbeatServiceTest {
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(2)));
         distribution.computeIfAbsent(clusterNodes.get(2), v -> new ArrayList<>()).
                 addAll(Collections.singletonList(suspendedFlows.get(1)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         Set<FlowLog> myNewFlowLogs = new HashSet<>();
         myNewFlowLogs.addAll(node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(0))).collect(Collectors.toList()));
         myNewFlowLogs.addAll(node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(2))).collect(Collectors.toList()));
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(myNewFlowLogs);
+        mockMyRunningFlows(myNewFlowLogs);
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -420,10 +430,10 @@ public class HeartbeatServiceTest {
                 addAll(Arrays.asList(suspendedFlows.get(0), suspendedFlows.get(2)));
         distribution.computeIfAbsent(clusterNodes.get(2), v -> new ArrayList<>()).
                 addAll(Collections.singletonList(suspendedFlows.get(1)));
-        when(flowDistributor.distribute(any(), any())).thenReturn(distribution);
+        when(flowDistributor.distribute(anyMap(), any(), anyMap())).thenReturn(distribution);
 
         List<FlowLog> myNewFlowLogs = node1FlowLogs.stream().filter(fl -> fl.getFlowId().equalsIgnoreCase(suspendedFlows.get(0))).collect(Collectors.toList());
-        when(flowLogService.findAllByCloudbreakNodeId(MY_ID)).thenReturn(new HashSet<>(myNewFlowLogs));
+        mockMyRunningFlows(new HashSet<>(myNewFlowLogs));
 
         when(runningFlows.get(any())).thenReturn(null);
 
@@ -515,6 +525,23 @@ public class HeartbeatServiceTest {
         verify(inMemoryCleanup, times(1)).cancelEveryFlowWithoutDbUpdate();
     }
 
+    @Test
+    public void testHeartbeatCancelsInvalidFlowsWithOneRunningFlowQuery() {
+        ReflectionTestUtils.setField(heartbeatService, "retryService", mock(Retry.class));
+        when(flowLogService.findAllResourceIdsTerminatedByOtherNodes(MY_ID)).thenReturn(Set.of(1L, 2L));
+        when(flowLogService.findAllRunningNonTerminationFlowIdsByResourceIds(Set.of(1L, 2L))).thenReturn(Map.of(1L, Set.of("flow1")));
+        when(haApplication.isRunningOnThisNode(Set.of("flow1"))).thenReturn(true);
+
+        heartbeatService.heartbeat();
+
+        verify(haApplication).cancelRunningFlow(1L);
+        verify(haApplication).cleanupInMemoryStore(2L);
+        verify(haApplication, never()).cancelRunningFlow(3L);
+        verify(haApplication, never()).cleanupInMemoryStore(3L);
+        verify(flowLogService, never()).findAllRunningNonTerminationFlowIdsByStackId(any());
+        verify(haApplication, never()).getAllDeletingResources();
+    }
+
     private List<Node> getClusterNodes() {
         List<Node> nodes = new ArrayList<>();
         nodes.add(new Node(MY_ID));
@@ -554,7 +581,7 @@ public class HeartbeatServiceTest {
         when(flowLogService.findAllByCloudbreakNodeId(NODE_1_ID)).thenReturn(failedFlowLogs2);
 
         Map<Node, List<String>> flowDistribution = createFlowDistribution(failedFLowLogs1, failedFlowLogs2);
-        when(flowDistributor.distribute(anyList(), eq(clusterNodes.subList(2, clusterNodes.size())))).thenReturn(flowDistribution);
+        when(flowDistributor.distribute(anyMap(), eq(clusterNodes.subList(2, clusterNodes.size())), anyMap())).thenReturn(flowDistribution);
 
         Set<Long> deletedResources = failedFLowLogs1.stream()
                 .map(FlowLog::getResourceId)
@@ -574,6 +601,10 @@ public class HeartbeatServiceTest {
         assertEquals(clusterNodes.subList(0, 2), nodes);
     }
 
+    private void mockMyRunningFlows(Collection<FlowLog> flowLogs) {
+        when(flowLogService.findAllRunningFlowIdsByCloudbreakNodeId(MY_ID)).thenReturn(flowLogs.stream().map(FlowLog::getFlowId).collect(Collectors.toSet()));
+    }
+
     private Map<Node, List<String>> createFlowDistribution(Set<FlowLog> failedFLowLogs1, Set<FlowLog> failedFlowLogs2) {
         Map<Node, List<String>> distribution = new HashMap<>();
 
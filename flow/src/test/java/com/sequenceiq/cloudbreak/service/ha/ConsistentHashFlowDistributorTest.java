@@ -0,0 +1,108 @@
+package com.sequenceiq.cloudbreak.service.ha;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.ConsistentHashFlowDistributor;
+
+public class ConsistentHashFlowDistributorTest {
+
+    private static final String MY_ID = "E80C7BD9-61CD-442E-AFDA-C3B30FEDE88F";
+
+    private static final String NODE_1_ID = "5575B7AD-45CB-487D-BE14-E33C913F9394";
+
+    private static final String NODE_2_ID = "854506AC-A0D5-4C98-A47C-70F6251FC604";
+
+    private static final String NODE_3_ID = "65B623B9-9FE7-41F4-95A5-848DCB0C108E";
+
+    private final ConsistentHashFlowDistributor flowDistributor = new ConsistentHashFlowDistributor();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(flowDistributor, "virtualNodesPerNode", 100);
+        ReflectionTestUtils.setField(flowDistributor, "loadFactor", 1.25);
+    }
+
+    @Test
+    public void testEveryFlowIsDistributedWithinCapacity() {
+        List<Node> nodes = getClusterNodes();
+        Map<String, Long> flows = getFlows(100, 100);
+
+        Map<Node, List<String>> result = flowDistributor.distribute(flows, nodes, Map.of());
+
+        assertEquals(100L, result.values().stream().mapToLong(List::size).sum());
+        result.values().forEach(nodeFlows -> assertTrue(nodeFlows.size() <= 32));
+    }
+
+    @Test
+    public void testFlowsOfTheSameResourceAreKeptTogether() {
+        List<Node> nodes = getClusterNodes();
+        Map<String, Long> flows = getFlows(30, 10);
+
+        Map<Node, List<String>> result = flowDistributor.distribute(flows, nodes, Map.of());
+
+        for (long resourceId = 0; resourceId < 10; resourceId++) {
+            long id = resourceId;
+            List<String> resourceFlows = flows.entrySet().stream().filter(e -> e.getValue() == id).map(Map.Entry::getKey).collect(Collectors.toList());
+            assertEquals(1L, result.values().stream().filter(nodeFlows -> nodeFlows.containsAll(resourceFlows)).count());
+        }
+    }
+
+    @Test
+    public void testLoadedNodeDoesNotGetNewFlows() {
+        List<Node> nodes = getClusterNodes();
+        Map<String, Long> flows = getFlows(20, 20);
+
+        Map<Node, List<String>> result = flowDistributor.distribute(flows, nodes, Map.of(MY_ID, 50L));
+
+        assertFalse(result.containsKey(nodes.get(0)));
+        assertEquals(20L, result.values().stream().mapToLong(List::size).sum());
+    }
+
+    @Test
+    public void testDistributionIsStable() {
+        List<Node> nodes = getClusterNodes();
+        Map<String, Long> flows = getFlows(12, 12);
+
+        assertEquals(flowDistributor.distribute(flows, nodes, Map.of()), flowDistributor.distribute(flows, nodes, Map.of()));
+    }
+
+    @Test
+    public void testFlowDistributionSingleNode() {
+        Node node = new Node(MY_ID);
+        List<String> flows = new ArrayList<>(getFlows(11, 11).keySet());
+
+        Map<Node, List<String>> result = flowDistributor.distribute(flows, List.of(node));
+
+        assertEquals(11L, result.get(node).size());
+    }
+
+    private List<Node> getClusterNodes() {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(MY_ID));
+        nodes.add(new Node(NODE_1_ID));
+        nodes.add(new Node(NODE_2_ID));
+        nodes.add(new Node(NODE_3_ID));
+        return nodes;
+    }
+
+    private Map<String, Long> getFlows(int flowCount, int resourceCount) {
+        Map<String, Long> flows = new LinkedHashMap<>();
+        for (int i = 0; i < flowCount; i++) {
+            flows.put("flow-" + i, (long) (i % resourceCount));
+        }
+        return flows;
+    }
+}
@@ -0,0 +1,94 @@
+package com.sequenceiq.flow.cleanup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+
+import io.opentracing.Tracer;
+
+@ExtendWith(MockitoExtension.class)
+class FlowCleanupJobTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private FlowLogService flowLogService;
+
+    @Mock
+    private FlowChainLogService flowChainLogService;
+
+    @Mock
+    private FlowCleanupConfig flowCleanupConfig;
+
+    @InjectMocks
+    private FlowCleanupJob underTest = new FlowCleanupJob(mock(Tracer.class));
+
+    @BeforeEach
+    void setUp() throws TransactionService.TransactionExecutionException {
+        when(transactionService.required(any(Supplier.class))).thenAnswer(invocation -> ((Supplier) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void testPurgeRunsBatchesUntilABatchIsNotFull() throws TransactionService.TransactionExecutionException {
+        when(flowCleanupConfig.getPurgeBatchSize()).thenReturn(BATCH_SIZE);
+        when(flowCleanupConfig.getPurgeMaxDurationInSeconds()).thenReturn(60);
+        when(flowCleanupConfig.isArchiveEnabled()).thenReturn(true);
+        when(flowCleanupConfig.getFlowChainMinAgeInHours()).thenReturn(1);
+        when(flowLogService.purgeFinalizedFlowLogs(BATCH_SIZE, true)).thenReturn(BATCH_SIZE, BATCH_SIZE, 10);
+        when(flowChainLogService.purgeOrphanFlowChainLogs(eq(BATCH_SIZE), anyLong(), eq(true))).thenReturn(0);
+
+        underTest.purgeFinalisedFlowLogs();
+
+        verify(flowLogService, times(3)).purgeFinalizedFlowLogs(BATCH_SIZE, true);
+        verify(flowChainLogService, times(1)).purgeOrphanFlowChainLogs(eq(BATCH_SIZE), anyLong(), eq(true));
+        verify(transactionService, times(4)).required(any(Supplier.class));
+        verify(flowLogService, never()).purgeFinalizedFlowLogs();
+    }
+
+    @Test
+    void testPurgeStopsWhenTheTimeBudgetIsUsedUp() throws TransactionService.TransactionExecutionException {
+        when(flowCleanupConfig.getPurgeBatchSize()).thenReturn(BATCH_SIZE);
+        when(flowCleanupConfig.getPurgeMaxDurationInSeconds()).thenReturn(0);
+        when(flowLogService.purgeFinalizedFlowLogs(BATCH_SIZE, false)).thenReturn(BATCH_SIZE);
+        when(flowChainLogService.purgeOrphanFlowChainLogs(eq(BATCH_SIZE), anyLong(), eq(false))).thenReturn(BATCH_SIZE);
+
+        underTest.purgeFinalisedFlowLogs();
+
+        verify(flowLogService, times(1)).purgeFinalizedFlowLogs(BATCH_SIZE, false);
+        verify(flowChainLogService, times(1)).purgeOrphanFlowChainLogs(eq(BATCH_SIZE), anyLong(), eq(false));
+    }
+
+    @Test
+    void testUnboundedPurgeWhenBatchingIsDisabled() throws TransactionService.TransactionExecutionException {
+        when(flowCleanupConfig.getPurgeBatchSize()).thenReturn(0);
+
+        underTest.purgeFinalisedFlowLogs();
+
+        verify(flowLogService).purgeFinalizedFlowLogs();
+        verify(flowChainLogService).purgeOrphanFLowChainLogs();
+        verify(flowLogService, never()).purgeFinalizedFlowLogs(anyInt(), anyBoolean());
+    }
+}
@@ -41,6 +41,7 @@ import org.springframework.statemachine.access.StateMachineAccessor;
 import org.springframework.statemachine.config.StateMachineFactory;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.cedarsoftware.util.io.JsonReader;
 import com.cedarsoftware.util.io.JsonWriter;
 import com.google.common.collect.Lists;
 import com.sequenceiq.cloudbreak.common.event.Payload;
@@ -55,6 +56,8 @@ import com.sequenceiq.flow.core.restart.DefaultRestartAction;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitService;
+import com.sequenceiq.flow.service.flowlog.codec.FlowLogPayloadCodecService;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.opentracing.Scope;
@@ -158,6 +161,12 @@ public class Flow2HandlerTest {
     @Mock
     private InMemoryCleanup inMemoryCleanup;
 
+    @Mock
+    private FlowLogGroupCommitService flowLogGroupCommitService;
+
+    @Mock
+    private FlowLogPayloadCodecService payloadCodecService;
+
     private FlowState flowState;
 
     private Event<? extends Payload> dummyEvent;
@@ -176,12 +185,14 @@ public class Flow2HandlerTest {
             ((Runnable) invocation.getArgument(0)).run();
             return null;
         }).when(transactionService).required(any(Runnable.class));
+        when(payloadCodecService.deserialize(anyString())).thenAnswer(invocation -> JsonReader.jsonToJava(invocation.getArgument(0)));
         when(tracer.buildSpan(anyString())).thenReturn(spanBuilder);
         when(spanBuilder.addReference(anyString(), any())).thenReturn(spanBuilder);
         when(spanBuilder.ignoreActiveSpan()).thenReturn(spanBuilder);
         when(spanBuilder.start()).thenReturn(span);
         when(tracer.activateSpan(span)).thenReturn(scope);
         when(span.context()).thenReturn(spanContext);
+        when(flowLogGroupCommitService.awaitCommit(anyString())).thenReturn(true);
     }
 
     @Test
@@ -195,7 +206,7 @@ public class Flow2HandlerTest {
         event.setKey("KEY");
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), any());
         verify(flowLogService, times(1))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(flow, times(1)).sendEvent(anyString(), isNull(), any(), any());
@@ -214,7 +225,7 @@ public class Flow2HandlerTest {
                 eq(flowConfig.getClass()), eq(flowState))).thenThrow(new RuntimeException("Can't save flow log"));
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), any());
         verify(flowLogService, times(1))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(runningFlows, times(1)).remove(anyString());
@@ -236,7 +247,7 @@ public class Flow2HandlerTest {
         event.getHeaders().set(FlowConstants.FLOW_TRIGGER_USERCRN, FLOW_TRIGGER_USERCRN);
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), any());
         verify(flowLogService, times(1)).save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(),
                 ArgumentMatchers.eq(helloWorldFlowConfig.getClass()), eq(flowState));
         verify(flow, times(1)).sendEvent(anyString(), anyString(), any(), any());
@@ -248,7 +259,7 @@ public class Flow2HandlerTest {
         event.setKey("KEY");
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any());
         verify(flowLogService, never()).save(any(FlowParameters.class), anyString(), anyString(), any(Payload.class), anyMap(), any(), any(FlowState.class));
     }
 
@@ -347,6 +358,41 @@ public class Flow2HandlerTest {
         verify(flow, never()).sendEvent(anyString(), anyString(), any(), any());
     }
 
+    @Test
+    public void testExistingFlowGroupCommitNotPersisted() throws TransactionExecutionException {
+        FlowLog lastFlowLog = new FlowLog();
+        lastFlowLog.setNextEvent("KEY");
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(runningFlows.get(anyString())).willReturn(flow);
+        given(flow.getCurrentState()).willReturn(flowState);
+        given(flow.getFlowId()).willReturn(FLOW_ID);
+        given(flowLogGroupCommitService.isEnabled()).willReturn(true);
+        given(flowLogGroupCommitService.getLastFlowLog(FLOW_ID)).willReturn(Optional.of(lastFlowLog));
+        given(flowLogGroupCommitService.awaitCommit(FLOW_ID)).willReturn(false);
+
+        dummyEvent.setKey("KEY");
+        underTest.accept(dummyEvent);
+
+        verify(flowLogGroupCommitService, times(1))
+                .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), anyMap(), nullable(Class.class), eq(flowState));
+        verify(flow, never()).sendEvent(anyString(), any(), any(), any());
+        verify(flowLogService, times(1)).terminate(1L, FLOW_ID);
+        verify(runningFlows, times(1)).remove(FLOW_ID);
+    }
+
+    @Test
+    public void testFlowFinalFlowLogNotPersisted() throws TransactionExecutionException {
+        given(runningFlows.remove(FLOW_ID)).willReturn(flow);
+        given(flowLogGroupCommitService.awaitCommit(FLOW_ID)).willReturn(false);
+        dummyEvent.setKey(Flow2Handler.FLOW_FINAL);
+        dummyEvent.getHeaders().set(Flow2Handler.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+        underTest.accept(dummyEvent);
+        verify(flowLogService, never()).close(anyLong(), eq(FLOW_ID));
+        verify(flowLogService, times(1)).terminate(anyLong(), eq(FLOW_ID));
+        verify(flowChains, times(1)).removeFullFlowChain(FLOW_CHAIN_ID);
+        verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class));
+    }
+
     @Test
     public void testFlowFinalFlowNotChained() throws TransactionExecutionException {
         given(runningFlows.remove(FLOW_ID)).willReturn(flow);
@@ -355,7 +401,7 @@ public class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID));
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any());
         verify(flowChains, never()).removeFlowChain(anyString());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class));
     }
@@ -370,7 +416,7 @@ public class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID));
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any());
         verify(flowChains, never()).removeFlowChain(anyString());
         verify(flowChains, times(1)).triggerNextFlow(eq(FLOW_CHAIN_ID), eq(FLOW_TRIGGER_USERCRN), any(Map.class));
     }
@@ -385,7 +431,7 @@ public class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID));
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any());
         verify(flowChains, never()).removeFullFlowChain(anyString());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class));
     }
@@ -401,7 +447,7 @@ public class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID));
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any());
         verify(flowChains, times(1)).removeFullFlowChain(anyString());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class));
     }
@@ -0,0 +1,91 @@
+package com.sequenceiq.flow.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
+import com.sequenceiq.flow.domain.RunningFlow;
+
+class RunningFlowIndexTest {
+
+    private static final Long RESOURCE_ID = 1L;
+
+    private static final String FLOW_ID = "flowId";
+
+    private final MetricService metricService = mock(MetricService.class);
+
+    private final RunningFlowIndex underTest = new RunningFlowIndex();
+
+    private final AtomicInteger dbLookups = new AtomicInteger();
+
+    private final Function<Long, Set<RunningFlow>> dbLookup = resourceId -> {
+        dbLookups.incrementAndGet();
+        return Set.of();
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "dbCacheTtlMs", 60000L);
+        ReflectionTestUtils.setField(underTest, "metricService", metricService);
+        underTest.init();
+    }
+
+    @Test
+    void testRunningFlowIsFoundLocally() {
+        underTest.add(FLOW_ID, RESOURCE_ID, HelloWorldFlowConfig.class);
+
+        assertTrue(underTest.isRunningLocally(RESOURCE_ID, flowType -> true));
+        assertFalse(underTest.isRunningLocally(RESOURCE_ID, flowType -> false));
+        assertFalse(underTest.isRunningLocally(2L, flowType -> true));
+        verify(metricService).incrementMetricCounter(FlowMetricType.RUNNING_FLOW_INDEX_HIT);
+    }
+
+    @Test
+    void testRemovedFlowIsNotFoundLocally() {
+        underTest.add(FLOW_ID, RESOURCE_ID, HelloWorldFlowConfig.class);
+        underTest.remove(FLOW_ID);
+
+        assertFalse(underTest.isRunningLocally(RESOURCE_ID, flowType -> true));
+        verify(metricService).incrementMetricCounter(FlowMetricType.RUNNING_FLOW_INDEX_MISS);
+    }
+
+    @Test
+    void testDatabaseAnswerIsCachedUntilAFlowOfTheResourceChanges() {
+        underTest.findRunningFlows(RESOURCE_ID, dbLookup);
+        underTest.findRunningFlows(RESOURCE_ID, dbLookup);
+        assertEquals(1, dbLookups.get());
+
+        underTest.add(FLOW_ID, RESOURCE_ID, HelloWorldFlowConfig.class);
+        underTest.findRunningFlows(RESOURCE_ID, dbLookup);
+        assertEquals(2, dbLookups.get());
+
+        underTest.invalidateAll();
+        underTest.findRunningFlows(RESOURCE_ID, dbLookup);
+        assertEquals(3, dbLookups.get());
+    }
+
+    @Test
+    void testDatabaseAnswerIsNotCachedWithoutTtl() {
+        RunningFlowIndex index = new RunningFlowIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.init();
+
+        index.findRunningFlows(RESOURCE_ID, dbLookup);
+        index.findRunningFlows(RESOURCE_ID, dbLookup);
+
+        assertEquals(2, dbLookups.get());
+    }
+}
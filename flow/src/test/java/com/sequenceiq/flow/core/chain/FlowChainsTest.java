@@ -0,0 +1,89 @@
+package com.sequenceiq.flow.core.chain;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.event.Selectable;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.flow.domain.FlowChainLog;
+
+@ExtendWith(MockitoExtension.class)
+class FlowChainsTest {
+
+    private static final String FLOW_CHAIN_ID = "flowChainId";
+
+    private static final String USER_CRN = "userCrn";
+
+    private static final Long SNAPSHOT_ID = 10L;
+
+    @Mock
+    private FlowLogService flowLogService;
+
+    @InjectMocks
+    private FlowChains underTest;
+
+    @Test
+    void testWholeChainIsSavedOnEveryStepByDefault() {
+        underTest.putFlowChain(FLOW_CHAIN_ID, null, chain(3));
+
+        underTest.removeLastTriggerEvent(FLOW_CHAIN_ID, USER_CRN);
+        underTest.removeLastTriggerEvent(FLOW_CHAIN_ID, USER_CRN);
+
+        verify(flowLogService, times(2)).saveChain(eq(FLOW_CHAIN_ID), any(), any(), eq(USER_CRN));
+        verify(flowLogService, never()).saveChainStep(anyString(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testOnlyTheStepIsSavedAfterTheSnapshotWhenCompact() {
+        ReflectionTestUtils.setField(underTest, "compactChainLog", true);
+        FlowChainLog snapshot = new FlowChainLog();
+        snapshot.setId(SNAPSHOT_ID);
+        when(flowLogService.saveChain(eq(FLOW_CHAIN_ID), any(), any(), eq(USER_CRN))).thenReturn(snapshot);
+        underTest.putFlowChain(FLOW_CHAIN_ID, null, chain(3));
+
+        underTest.removeLastTriggerEvent(FLOW_CHAIN_ID, USER_CRN);
+        underTest.removeLastTriggerEvent(FLOW_CHAIN_ID, USER_CRN);
+        underTest.removeLastTriggerEvent(FLOW_CHAIN_ID, USER_CRN);
+
+        verify(flowLogService, times(1)).saveChain(eq(FLOW_CHAIN_ID), any(), any(), eq(USER_CRN));
+        verify(flowLogService).saveChainStep(FLOW_CHAIN_ID, null, SNAPSHOT_ID, 1, USER_CRN);
+        verify(flowLogService).saveChainStep(FLOW_CHAIN_ID, null, SNAPSHOT_ID, 0, USER_CRN);
+    }
+
+    private Queue<Selectable> chain(int size) {
+        Queue<Selectable> chain = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < size; i++) {
+            chain.add(new TestEvent());
+        }
+        return chain;
+    }
+
+    private static class TestEvent implements Selectable {
+
+        @Override
+        public String selector() {
+            return "test";
+        }
+
+        @Override
+        public Long getResourceId() {
+            return 1L;
+        }
+    }
+}
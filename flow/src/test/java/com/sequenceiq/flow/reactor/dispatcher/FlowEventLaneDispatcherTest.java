@@ -0,0 +1,175 @@
+package com.sequenceiq.flow.reactor.dispatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+import reactor.bus.Event;
+
+class FlowEventLaneDispatcherTest {
+
+    private static final long TIMEOUT_SEC = 10L;
+
+    private final MetricService metricService = mock(MetricService.class);
+
+    private FlowEventLaneDispatcher underTest;
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testEventsOfTheSameResourceAreHandledInOrder() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(4, 2, 1, 1000, 1000L, "FLOWCANCEL", metricService);
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            underTest.dispatch(event("STEP", 1L), e -> {
+                handled.add(index);
+                done.countDown();
+            }, null);
+        }
+
+        assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), handled);
+    }
+
+    @Test
+    void testSlowResourceDoesNotBlockOtherResourcesOfTheLane() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(1, 2, 1, 100, 1000L, "FLOWCANCEL", metricService);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+        List<String> handled = new CopyOnWriteArrayList<>();
+
+        underTest.dispatch(event("STEP", 1L), e -> {
+            try {
+                blocker.await(TIMEOUT_SEC, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add("slow");
+        }, null);
+        underTest.dispatch(event("STEP", 1L), e -> handled.add("next"), null);
+        underTest.dispatch(event("STEP", 2L), e -> otherHandled.countDown(), null);
+
+        assertTrue(otherHandled.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertTrue(handled.isEmpty());
+        blocker.countDown();
+    }
+
+    @Test
+    void testPrioritySelectorsGoToThePriorityLanes() {
+        underTest = new FlowEventLaneDispatcher(4, 1, 2, 10, 1000L, "FLOWCANCEL|.*TERMINAT.*", metricService);
+
+        assertTrue(underTest.selectLane(event("FLOWCANCEL", 1L)).getName().startsWith("priority-"));
+        assertTrue(underTest.selectLane(event("STACK_TERMINATION_EVENT", 1L)).getName().startsWith("priority-"));
+        assertEquals(underTest.selectLane(event("STEP", 1L)).getName(), underTest.selectLane(event("OTHER_STEP", 1L)).getName());
+    }
+
+    @Test
+    void testEventsAreNotDroppedWhenTheLaneIsFull() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(1, 2, 1, 1, 10L, "FLOWCANCEL", metricService);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        underTest.dispatch(event("STEP", 1L), e -> {
+            try {
+                blocker.await(TIMEOUT_SEC, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }, null);
+        underTest.dispatch(event("STEP", 1L), e -> done.countDown(), null);
+        underTest.dispatch(event("STEP", 1L), e -> done.countDown(), null);
+        blocker.countDown();
+
+        assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        verify(metricService, atLeastOnce()).incrementMetricCounter(FlowMetricType.EVENTBUS_LANE_OVERFLOW);
+    }
+
+    @Test
+    void testErrorsArePassedToTheErrorConsumer() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(1, 1, 1, 10, 1000L, "FLOWCANCEL", metricService);
+        CountDownLatch failed = new CountDownLatch(1);
+
+        underTest.dispatch(event("STEP", 1L), e -> {
+            throw new IllegalStateException("handler failed");
+        }, t -> failed.countDown());
+
+        assertTrue(failed.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testHandlerCanWaitForARequestOfItsOwnResource() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(1, 2, 1, 10, 1000L, "FLOWCANCEL", metricService);
+        CountDownLatch done = new CountDownLatch(1);
+
+        underTest.dispatch(event("STEP", 1L), e -> {
+            CountDownLatch requestHandled = new CountDownLatch(1);
+            underTest.dispatch(request("CHECKIMAGEREQUEST", 1L), r -> requestHandled.countDown(), null);
+            awaitAndCountDown(requestHandled, done);
+        }, null);
+
+        assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testHandlerCanWaitForAnEventOfItsOwnFlow() throws InterruptedException {
+        underTest = new FlowEventLaneDispatcher(1, 2, 1, 10, 1000L, "FLOWCANCEL", metricService);
+        CountDownLatch done = new CountDownLatch(1);
+
+        underTest.dispatch(event("STEP", 1L), e -> {
+            CountDownLatch nextHandled = new CountDownLatch(1);
+            underTest.dispatch(event("NEXT_STEP", 1L), r -> nextHandled.countDown(), null);
+            awaitAndCountDown(nextHandled, done);
+        }, null);
+
+        assertTrue(done.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+    }
+
+    private void awaitAndCountDown(CountDownLatch awaited, CountDownLatch done) {
+        try {
+            if (awaited.await(TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                done.countDown();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Event<Payload> event(String selector, Long resourceId) {
+        Payload payload = () -> resourceId;
+        Event<Payload> event = new Event<>(new Event.Headers(Map.of(FlowConstants.FLOW_ID, "flow-" + resourceId)), payload);
+        event.setKey(selector);
+        return event;
+    }
+
+    private Event<Payload> request(String selector, Long resourceId) {
+        Payload payload = () -> resourceId;
+        Event<Payload> event = new Event<>(payload);
+        event.setKey(selector);
+        return event;
+    }
+}
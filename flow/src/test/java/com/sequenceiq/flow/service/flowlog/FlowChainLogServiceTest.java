@@ -102,6 +102,32 @@ public class FlowChainLogServiceTest {
         assertTrue(underTest.hasEventInFlowChainQueue(flowChains));
     }
 
+    @Test
+    public void testCheckIfThereIsEventInQueuesBasedOnRemainingEvents() {
+        FlowChainLog step = flowChainLog("1", NO_PARENT, 2L);
+        step.setRemainingEvents(0);
+        FlowChainLog otherStep = flowChainLog("2", NO_PARENT, 2L);
+        otherStep.setRemainingEvents(1);
+
+        assertFalse(underTest.hasEventInFlowChainQueue(List.of(flowChainLog("1", true, 1L), step)));
+        assertTrue(underTest.hasEventInFlowChainQueue(List.of(flowChainLog("2", false, 1L), otherStep)));
+    }
+
+    @Test
+    public void testChainEventsAreReadFromTheSnapshotOfAStep() {
+        FlowChainLog snapshot = flowChainLog("1", NO_PARENT, 1L);
+        Queue<Selectable> flowEventChain = new ConcurrentLinkedQueue<>(List.of(new TestEvent(), new TestEvent(), new TestEvent()));
+        snapshot.setChain(JsonWriter.objectToJson(flowEventChain));
+        snapshot.setId(10L);
+        FlowChainLog step = flowChainLog("1", NO_PARENT, 2L);
+        step.setSnapshotId(10L);
+        step.setRemainingEvents(1);
+        when(flowLogRepository.findById(10L)).thenReturn(Optional.of(snapshot));
+
+        assertEquals(1, underTest.getChainEvents(step).size());
+        assertEquals(3, underTest.getChainEvents(snapshot).size());
+    }
+
     private FlowChainLog flowChainLog(String flowChainId, String parentFlowChainId, long created) {
         FlowChainLog flowChainLog = new FlowChainLog();
         flowChainLog.setFlowChainId(flowChainId);
@@ -1,6 +1,8 @@
 package com.sequenceiq.flow.service.flowlog;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -18,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.assertj.core.util.Lists;
@@ -41,12 +44,16 @@ import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.FlowEvent;
 import com.sequenceiq.flow.core.FlowState;
 import com.sequenceiq.flow.core.ResourceIdProvider;
+import com.sequenceiq.flow.core.RunningFlowIndex;
 import com.sequenceiq.flow.core.config.AbstractFlowConfiguration;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.RunningFlow;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.repository.FlowLogRepository;
+import com.sequenceiq.flow.repository.RunningFlowRepository;
+import com.sequenceiq.flow.service.flowlog.codec.FlowLogPayloadCodecService;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FlowLogDBServiceTest {
@@ -81,6 +88,15 @@ public class FlowLogDBServiceTest {
     @Mock
     private NodeConfig nodeConfig;
 
+    @Mock
+    private FlowLogPayloadCodecService payloadCodecService;
+
+    @Mock
+    private RunningFlowRepository runningFlowRepository;
+
+    @Mock
+    private RunningFlowIndex runningFlowIndex;
+
     @Test
     public void updateLastFlowLogStatus() {
         runUpdateLastFlowLogStatusTest(false, StateStatus.SUCCESSFUL);
@@ -100,6 +116,22 @@ public class FlowLogDBServiceTest {
         verify(flowLogRepository, times(1)).updateLastLogStatusInFlow(ID, successful);
     }
 
+    @Test
+    public void countRunningFlowsByCloudbreakNodeIds() {
+        when(runningFlowRepository.countByCloudbreakNodeIds(Set.of("node1", "node2"))).thenReturn(Collections.singletonList(new Object[]{"node1", 3L}));
+
+        Map<String, Long> result = underTest.countRunningFlowsByCloudbreakNodeIds(Set.of("node1", "node2"));
+
+        assertEquals(Map.of("node1", 3L), result);
+    }
+
+    @Test
+    public void countRunningFlowsWithoutNodes() {
+        assertEquals(Map.of(), underTest.countRunningFlowsByCloudbreakNodeIds(Set.of()));
+
+        verify(runningFlowRepository, never()).countByCloudbreakNodeIds(any());
+    }
+
     @Test
     public void getLastFlowLog() {
         FlowLog flowLog = new FlowLog();
@@ -119,6 +151,10 @@ public class FlowLogDBServiceTest {
 
         Payload payload = mock(Selectable.class);
         Map<Object, Object> variables = Map.of("repeated", 2);
+        String payloadJson = JsonWriter.objectToJson(payload, Map.of());
+        String variablesJson = JsonWriter.objectToJson(variables, Map.of());
+        when(payloadCodecService.serialize(payload)).thenReturn(payloadJson);
+        when(payloadCodecService.serialize(variables)).thenReturn(variablesJson);
 
         underTest.updateLastFlowLogPayload(flowLog, payload, variables);
 
@@ -128,8 +164,6 @@ public class FlowLogDBServiceTest {
         FlowLog savedFlowLog = flowLogCaptor.getValue();
         assertEquals(flowLog.getId(), savedFlowLog.getId());
 
-        String payloadJson = JsonWriter.objectToJson(payload, Map.of());
-        String variablesJson = JsonWriter.objectToJson(variables, Map.of());
         assertEquals(payloadJson, savedFlowLog.getPayload());
         assertEquals(variablesJson, savedFlowLog.getVariables());
     }
@@ -219,6 +253,7 @@ public class FlowLogDBServiceTest {
         verify(flowLogRepository).finalizeByFlowId(eq("flow1"));
         verify(flowLogRepository, times(0)).finalizeByFlowId(eq("flow2"));
         verify(flowLogRepository).updateLastLogStatusInFlow(eq(10L), eq(StateStatus.SUCCESSFUL));
+        verify(runningFlowRepository).deleteByFlowId(eq("flow1"));
     }
 
     @Test
@@ -241,6 +276,85 @@ public class FlowLogDBServiceTest {
         verify(flowLogRepository, times(0)).updateLastLogStatusInFlow(eq(10L), eq(StateStatus.SUCCESSFUL));
     }
 
+    @Test
+    public void otherNonTerminationFlowRunningOnAnotherNode() {
+        RunningFlow otherFlow = mock(RunningFlow.class);
+        Class flowClass = Class.class;
+        when(otherFlow.getFlowType()).thenReturn(flowClass);
+        when(runningFlowIndex.isRunningLocally(eq(1L), any())).thenReturn(false);
+        when(runningFlowRepository.findAllByResourceId(1L)).thenReturn(Set.of(otherFlow));
+        when(applicationFlowInformation.getTerminationFlow()).thenReturn(Collections.singletonList(TerminationFlowConfig.class));
+
+        assertTrue(underTest.isOtherNonTerminationFlowRunning(1L));
+        verify(flowLogRepository, never()).findAllRunningFlowLogByResourceId(anyLong());
+        verify(runningFlowIndex, never()).findRunningFlows(anyLong(), any());
+    }
+
+    @Test
+    public void onlyTerminationFlowRunningOnAnotherNode() {
+        RunningFlow terminationFlow = mock(RunningFlow.class);
+        Class termFlowClass = TerminationFlowConfig.class;
+        when(terminationFlow.getFlowType()).thenReturn(termFlowClass);
+        when(runningFlowIndex.isRunningLocally(eq(1L), any())).thenReturn(false);
+        when(runningFlowRepository.findAllByResourceId(1L)).thenReturn(Set.of(terminationFlow));
+        when(applicationFlowInformation.getTerminationFlow()).thenReturn(Collections.singletonList(TerminationFlowConfig.class));
+
+        assertFalse(underTest.isOtherNonTerminationFlowRunning(1L));
+        verify(flowLogRepository, never()).findAllRunningFlowLogByResourceId(anyLong());
+    }
+
+    @Test
+    public void noFlowRunningIsAnsweredFromTheRunningFlowTable() {
+        mockRunningFlowLookup(Set.of());
+
+        assertFalse(underTest.isOtherFlowRunning(1L));
+        verify(flowLogRepository, never()).findAllRunningFlowLogByResourceId(anyLong());
+    }
+
+    @Test
+    public void saveAllRegistersPendingFlowsAndRemovesFinalizedOnes() {
+        FlowLog pendingFlowLog = createFlowLog(true, "flow1");
+        pendingFlowLog.setResourceId(1L);
+        pendingFlowLog.setFlowType(TerminationFlowConfig.class);
+        pendingFlowLog.setCloudbreakNodeId("node1");
+        FlowLog finalizedFlowLog = createFlowLog(false, "flow2");
+        FlowLog historyFlowLog = createFlowLog(true, "flow3");
+        historyFlowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        List<FlowLog> flowLogs = List.of(pendingFlowLog, finalizedFlowLog, historyFlowLog);
+        when(flowLogRepository.saveAll(flowLogs)).thenReturn(flowLogs);
+
+        underTest.saveAll(flowLogs);
+
+        verify(runningFlowRepository).upsert("flow1", 1L, TerminationFlowConfig.class.getName(), "node1");
+        verify(runningFlowRepository).deleteByFlowId("flow2");
+        verify(runningFlowRepository, never()).upsert(eq("flow3"), any(), any(), any());
+        verify(runningFlowRepository, never()).deleteByFlowId("flow3");
+    }
+
+    @Test
+    public void failLastFlowLogRemovesTheRunningFlow() {
+        FlowLog flowLog = createFlowLog(true, FLOW_ID);
+        flowLog.setId(ID);
+
+        underTest.failLastFlowLog(flowLog);
+
+        verify(flowLogRepository).updateLastLogStatusInFlow(ID, StateStatus.FAILED);
+        verify(runningFlowRepository).deleteByFlowId(FLOW_ID);
+    }
+
+    @Test
+    public void resourcesTerminatedByOtherNodes() {
+        RunningFlow terminationOnOtherNode = mockTerminationFlow(1L, "node2");
+        RunningFlow terminationOnThisNode = mockTerminationFlow(2L, "node1");
+        RunningFlow terminationOnBothNodes = mockTerminationFlow(3L, "node2");
+        RunningFlow terminationOnBothNodesHere = mockTerminationFlow(3L, "node1");
+        when(applicationFlowInformation.getTerminationFlow()).thenReturn(Collections.singletonList(TerminationFlowConfig.class));
+        when(runningFlowRepository.findAllByFlowTypeIn(List.of(TerminationFlowConfig.class)))
+                .thenReturn(Set.of(terminationOnOtherNode, terminationOnThisNode, terminationOnBothNodes, terminationOnBothNodesHere));
+
+        assertEquals(Set.of(1L), underTest.findAllResourceIdsTerminatedByOtherNodes("node1"));
+    }
+
     @Test
     public void testNoPendingFlowEvent() {
         Boolean actual = underTest.hasPendingFlowEvent(Lists.newArrayList(createFlowLog(false, "1"), createFlowLog(false, "2")));
@@ -267,6 +381,20 @@ public class FlowLogDBServiceTest {
         return flowLog;
     }
 
+    private RunningFlow mockTerminationFlow(Long resourceId, String cloudbreakNodeId) {
+        RunningFlow runningFlow = mock(RunningFlow.class);
+        when(runningFlow.getResourceId()).thenReturn(resourceId);
+        when(runningFlow.getCloudbreakNodeId()).thenReturn(cloudbreakNodeId);
+        return runningFlow;
+    }
+
+        private void mockRunningFlowLookup(Set<RunningFlow> runningFlows) {
+        when(runningFlowIndex.isRunningLocally(eq(1L), any())).thenReturn(false);
+        when(runningFlowIndex.findRunningFlows(eq(1L), any()))
+                .thenAnswer(invocation -> ((Function<Long, Set<RunningFlow>>) invocation.getArgument(1)).apply(1L));
+        when(runningFlowRepository.findAllByResourceId(1L)).thenReturn(runningFlows);
+    }
+
     public static class TerminationFlowConfig extends AbstractFlowConfiguration<MockFlowState, MockFlowEvent> {
         protected TerminationFlowConfig(Class<MockFlowState> stateType, Class<MockFlowEvent> eventType) {
             super(stateType, eventType);
@@ -0,0 +1,157 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.flow.core.FlowMetricType;
+import com.sequenceiq.flow.core.FlowParameters;
+import com.sequenceiq.flow.core.FlowState;
+import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.StateStatus;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FlowLogGroupCommitServiceTest {
+
+    private static final String FLOW_ID = "flowId";
+
+    private static final String KEY = "KEY";
+
+    @InjectMocks
+    private FlowLogGroupCommitService underTest;
+
+    @Mock
+    private FlowLogDBService flowLogDBService;
+
+    @Mock
+    private FlowLogRepository flowLogRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private Payload payload;
+
+    @Mock
+    private FlowState flowState;
+
+    private final FlowParameters flowParameters = new FlowParameters(FLOW_ID, "userCrn", null);
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "batchSize", 100);
+        ReflectionTestUtils.setField(underTest, "maxQueueSize", 1000);
+    }
+
+    @Test
+    public void testStatusUpdateIsMergedIntoPendingInsert() throws Exception {
+        mockTransaction();
+        FlowLog flowLog = createFlowLog();
+        when(flowLogDBService.createFlowLog(flowParameters, null, KEY, payload, Map.of(), Object.class, flowState)).thenReturn(flowLog);
+
+        FlowLog saved = underTest.save(flowParameters, null, KEY, payload, Map.of(), Object.class, flowState);
+        underTest.updateLastFlowLogStatus(saved, false);
+        assertSame(flowLog, underTest.getLastFlowLog(FLOW_ID).get());
+        assertTrue(underTest.awaitCommit(FLOW_ID));
+
+        ArgumentCaptor<List<FlowLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(flowLogRepository).saveAll(captor.capture());
+        assertEquals(List.of(flowLog), captor.getValue());
+        assertEquals(StateStatus.SUCCESSFUL, flowLog.getStateStatus());
+        verify(flowLogDBService).saveRunningFlow(flowLog);
+        verify(flowLogRepository, never()).updateStateStatusByIds(anyCollection(), any());
+    }
+
+    @Test
+    public void testStatusUpdateOfPersistedFlowLogIsBatched() throws Exception {
+        mockTransaction();
+        FlowLog flowLog = createFlowLog();
+        flowLog.setId(1L);
+
+        underTest.updateLastFlowLogStatus(flowLog, true);
+        assertTrue(underTest.awaitCommit(FLOW_ID));
+
+        verify(flowLogRepository).updateStateStatusByIds(List.of(1L), StateStatus.FAILED);
+        verify(flowLogRepository, never()).saveAll(anyList());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStatusUpdateOfFlowLogWithoutIdFails() {
+        underTest.updateLastFlowLogStatus(createFlowLog(), false);
+    }
+
+    @Test
+    public void testLastFlowLogIsReadFromDatabaseWhenNothingIsPending() {
+        FlowLog flowLog = createFlowLog();
+        when(flowLogDBService.getLastFlowLog(FLOW_ID)).thenReturn(Optional.of(flowLog));
+
+        assertSame(flowLog, underTest.getLastFlowLog(FLOW_ID).get());
+    }
+
+    @Test
+    public void testAwaitCommitWhenDisabled() {
+        ReflectionTestUtils.setField(underTest, "enabled", false);
+
+        assertTrue(underTest.awaitCommit(FLOW_ID));
+
+        verifyNoInteractions(flowLogRepository, transactionService);
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedOneByOne() throws Exception {
+        FlowLog flowLog = createFlowLog();
+        when(flowLogDBService.createFlowLog(flowParameters, null, KEY, payload, Map.of(), Object.class, flowState)).thenReturn(flowLog);
+        doAnswer(invocation -> {
+            throw new TransactionService.TransactionExecutionException("failed", new RuntimeException());
+        }).when(transactionService).required(any(Runnable.class));
+
+        underTest.save(flowParameters, null, KEY, payload, Map.of(), Object.class, flowState);
+
+        assertFalse(underTest.awaitCommit(FLOW_ID));
+        verify(metricService).incrementMetricCounter(eq(FlowMetricType.FLOWLOG_GROUP_COMMIT_FAILED));
+    }
+
+    private void mockTransaction() throws Exception {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(transactionService).required(any(Runnable.class));
+    }
+
+    private FlowLog createFlowLog() {
+        FlowLog flowLog = new FlowLog();
+        flowLog.setFlowId(FLOW_ID);
+        return flowLog;
+    }
+}
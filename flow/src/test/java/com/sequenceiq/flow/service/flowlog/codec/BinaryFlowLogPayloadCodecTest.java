@@ -0,0 +1,143 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.flow.domain.StateStatus;
+
+class BinaryFlowLogPayloadCodecTest {
+
+    private final BinaryFlowLogPayloadCodec underTest = new BinaryFlowLogPayloadCodec();
+
+    @Test
+    void testScalarsRoundTrip() {
+        UUID uuid = UUID.randomUUID();
+        Date date = new Date();
+        List<Object> values = List.of("text", 1, Long.MAX_VALUE, Long.MIN_VALUE, -1, true, false, 1.5d, 2.5f, (short) 3, (byte) 4, 'c',
+                StateStatus.PENDING, String.class, new BigDecimal("1.25"), uuid, date);
+
+        for (Object value : values) {
+            assertEquals(value, roundTrip(value));
+        }
+        assertNull(roundTrip(null));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) roundTrip(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void testObjectWithFinalFieldsAndWithoutDefaultConstructor() {
+        Payload payload = new Payload(1L, "selector", StateStatus.SUCCESSFUL, List.of("a", "b"), Map.of("key", 2));
+
+        Payload result = (Payload) roundTrip(payload);
+
+        assertEquals(payload.resourceId, result.resourceId);
+        assertEquals(payload.selector, result.selector);
+        assertEquals(payload.status, result.status);
+        assertEquals(payload.items, result.items);
+        assertEquals(payload.attributes, result.attributes);
+    }
+
+    @Test
+    void testCollectionTypesArePreservedWhenPossible() {
+        Set<String> set = new TreeSet<>(List.of("b", "a"));
+        Map<String, Object> map = new HashMap<>();
+        map.put("set", set);
+        map.put("list", new ArrayList<>(List.of(1, 2)));
+        map.put("immutable", List.of(3));
+
+        Map<String, Object> result = (Map<String, Object>) roundTrip(map);
+
+        assertEquals(map, result);
+        assertTrue(result.get("set") instanceof TreeSet);
+        assertTrue(result.get("list") instanceof ArrayList);
+    }
+
+    @Test
+    void testSharedAndCyclicReferences() {
+        Node first = new Node("first");
+        Node second = new Node("second");
+        first.next = second;
+        second.next = first;
+        List<Node> nodes = List.of(first, first, second);
+
+        List<Node> result = (List<Node>) roundTrip(nodes);
+
+        assertSame(result.get(0), result.get(1));
+        assertSame(result.get(0), result.get(2).next);
+        assertSame(result.get(2), result.get(0).next);
+        assertEquals("second", result.get(0).next.name);
+    }
+
+    @Test
+    void testThrowableKeepsTypeAndMessage() {
+        Object result = roundTrip(new IllegalStateException("failure"));
+
+        assertTrue(result instanceof IllegalStateException);
+        assertEquals("failure", ((IllegalStateException) result).getMessage());
+    }
+
+    @Test
+    void testEncodedPayloadIsSmallerThanJsonIo() {
+        Payload payload = new Payload(1L, "selector", StateStatus.SUCCESSFUL, List.of("a", "b"), Map.of("key", 2));
+        List<Payload> payloads = List.of(payload, new Payload(2L, "selector", StateStatus.FAILED, List.of(), Map.of()));
+
+        assertTrue(underTest.encode(payloads).length < JsonWriter.objectToJson(payloads).length());
+    }
+
+    @Test
+    void testCorruptedDataIsReported() {
+        assertThrows(FlowLogPayloadCodecException.class, () -> underTest.decode(new byte[]{(byte) 0xFF}));
+    }
+
+    private Object roundTrip(Object value) {
+        return underTest.decode(underTest.encode(value));
+    }
+
+    static class Payload {
+
+        private final Long resourceId;
+
+        private final String selector;
+
+        private final StateStatus status;
+
+        private final List<String> items;
+
+        private final Map<String, Integer> attributes;
+
+        Payload(Long resourceId, String selector, StateStatus status, List<String> items, Map<String, Integer> attributes) {
+            this.resourceId = resourceId;
+            this.selector = selector;
+            this.status = status;
+            this.items = items;
+            this.attributes = attributes;
+        }
+    }
+
+    static class Node {
+
+        private final String name;
+
+        private Node next;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sequenceiq.flow.service.flowlog.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cedarsoftware.util.io.JsonWriter;
+
+class FlowLogPayloadCodecServiceTest {
+
+    private final FlowLogPayloadCodecService underTest = new FlowLogPayloadCodecService();
+
+    @Test
+    void testJsonIoIsUsedByDefault() {
+        init(FlowLogPayloadCodecService.JSON_IO_VERSION, new BinaryFlowLogPayloadCodec());
+
+        String serialized = underTest.serialize(new HashMap<>(Map.of("key", "value")));
+
+        assertFalse(serialized.startsWith(FlowLogPayloadCodecService.ENCODED_PREFIX));
+        assertEquals(Map.of("key", "value"), underTest.deserialize(serialized));
+    }
+
+    @Test
+    void testBinaryCodecRoundTrip() {
+        init(BinaryFlowLogPayloadCodec.VERSION, new BinaryFlowLogPayloadCodec());
+
+        String serialized = underTest.serialize(Map.of("key", List.of(1L, 2L)));
+
+        assertTrue(serialized.startsWith(FlowLogPayloadCodecService.ENCODED_PREFIX));
+        assertEquals(BinaryFlowLogPayloadCodec.VERSION, Base64.getDecoder().decode(serialized.substring(1))[0]);
+        assertEquals(Map.of("key", List.of(1L, 2L)), underTest.deserialize(serialized));
+    }
+
+    @Test
+    void testLegacyJsonIoValueIsReadWhenBinaryCodecIsEnabled() {
+        init(BinaryFlowLogPayloadCodec.VERSION, new BinaryFlowLogPayloadCodec());
+
+        assertEquals(Map.of("key", "value"), underTest.deserialize(JsonWriter.objectToJson(new HashMap<>(Map.of("key", "value")))));
+    }
+
+    @Test
+    void testFallbackToJsonIoWhenCodecFails() {
+        FlowLogPayloadCodec codec = mock(FlowLogPayloadCodec.class);
+        when(codec.getVersion()).thenReturn((byte) 2);
+        when(codec.encode(any())).thenThrow(new FlowLogPayloadCodecException("failed"));
+        init((byte) 2, codec);
+
+        String serialized = underTest.serialize(new HashMap<>(Map.of("key", "value")));
+
+        assertEquals(Map.of("key", "value"), underTest.deserialize(serialized));
+    }
+
+    @Test
+    void testUnknownCodecVersionIsRejected() {
+        init(BinaryFlowLogPayloadCodec.VERSION, new BinaryFlowLogPayloadCodec());
+        String unknown = FlowLogPayloadCodecService.ENCODED_PREFIX + Base64.getEncoder().encodeToString(new byte[]{42, 0});
+
+        assertThrows(FlowLogPayloadCodecException.class, () -> underTest.deserialize(unknown));
+    }
+
+    @Test
+    void testInitFailsWhenConfiguredCodecIsMissing() {
+        assertThrows(IllegalStateException.class, () -> init((byte) 42, new BinaryFlowLogPayloadCodec()));
+    }
+
+    private void init(byte version, FlowLogPayloadCodec codec) {
+        ReflectionTestUtils.setField(underTest, "codecVersion", version);
+        ReflectionTestUtils.setField(underTest, "codecs", List.of(codec));
+        ReflectionTestUtils.setField(underTest, "writeOptions", Map.of());
+        underTest.init();
+    }
+}
@@ -0,0 +1,190 @@
+package com.sequenceiq.flow.service.statussync;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.batch.BatchStatusChecker;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.job.StatusCheckerJob;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobService;
+import com.sequenceiq.flow.core.FlowMetricType;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchStatusSyncServiceTest {
+
+    private static final int INTERVAL_SECONDS = 180;
+
+    private static final long START = 1_000_000_000L;
+
+    @InjectMocks
+    private BatchStatusSyncService underTest;
+
+    @Mock
+    private StatusCheckerConfig statusCheckerConfig;
+
+    @Mock
+    private StatusSyncShardService statusSyncShardService;
+
+    @Mock
+    private StatusCheckerJobService statusCheckerJobService;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private MetricService metricService;
+
+    private final TestChecker checker = new TestChecker();
+
+    private long now = START;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "batchSize", 2);
+        ReflectionTestUtils.setField(underTest, "maxResourcesPerTick", 1000);
+        ReflectionTestUtils.setField(underTest, "threads", 2);
+        ReflectionTestUtils.setField(underTest, "batchStatusCheckers", Optional.of(List.of(checker)));
+        when(statusCheckerConfig.isAutoSyncEnabled()).thenReturn(true);
+        when(statusCheckerConfig.isBatchSyncEnabled()).thenReturn(true);
+        lenient().when(statusCheckerConfig.getIntervalInSeconds()).thenReturn(INTERVAL_SECONDS);
+        lenient().when(statusSyncShardService.getOwnedResourceFilter()).thenReturn(resourceId -> resourceId % 2 == 0);
+        lenient().when(clock.getCurrentTimeMillis()).thenAnswer(invocation -> now);
+        underTest.init();
+    }
+
+    @After
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void testOwnedResourcesAreCheckedInBatchesOncePerInterval() {
+        underTest.syncDueResources();
+        now += TimeUnit.SECONDS.toMillis(INTERVAL_SECONDS + 20);
+        checker.checkedResourceIds.clear();
+        checker.loadedBatches.clear();
+
+        underTest.syncDueResources();
+
+        assertEquals(Set.of(2L, 4L, 6L), Set.copyOf(checker.checkedResourceIds));
+        assertEquals(2, checker.loadedBatches.size());
+        assertEquals(3, checker.loadedBatches.stream().mapToInt(Collection::size).sum());
+
+        now += TimeUnit.SECONDS.toMillis(INTERVAL_SECONDS / 2);
+        checker.checkedResourceIds.clear();
+
+        underTest.syncDueResources();
+
+        assertEquals(List.of(), checker.checkedResourceIds);
+    }
+
+    @Test
+    public void testFailedCheckDoesNotStopTheBatch() {
+        checker.failingResourceId = 4L;
+        underTest.syncDueResources();
+        now += TimeUnit.SECONDS.toMillis(INTERVAL_SECONDS + 20);
+        checker.checkedResourceIds.clear();
+
+        underTest.syncDueResources();
+
+        assertEquals(Set.of(2L, 6L), Set.copyOf(checker.checkedResourceIds));
+        verify(metricService, atLeastOnce()).incrementMetricCounter(FlowMetricType.STATUS_SYNC_FAILED, "checker", TestChecker.NAME);
+    }
+
+    @Test
+    public void testQuartzJobsOfNewlyOwnedResourcesAreUnscheduled() {
+        underTest.syncDueResources();
+        underTest.syncDueResources();
+
+        verify(statusCheckerJobService).unschedule("2");
+        verify(statusCheckerJobService).unschedule("4");
+        verify(statusCheckerJobService).unschedule("6");
+        verify(statusCheckerJobService, never()).unschedule("1");
+    }
+
+    @Test
+    public void testDisabledCheckerIsSkipped() {
+        checker.enabled = false;
+        now += TimeUnit.SECONDS.toMillis(INTERVAL_SECONDS + 20);
+
+        underTest.syncDueResources();
+
+        assertEquals(List.of(), checker.checkedResourceIds);
+        verifyNoInteractions(statusSyncShardService, statusCheckerJobService);
+    }
+
+    private static class TestChecker implements BatchStatusChecker<Long> {
+
+        private static final String NAME = "test";
+
+        private final List<Long> checkedResourceIds = new ArrayList<>();
+
+        private final List<Collection<Long>> loadedBatches = new ArrayList<>();
+
+        private Long failingResourceId;
+
+        private boolean enabled = true;
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public Class<? extends StatusCheckerJob> getReplacedJobClass() {
+            return StatusCheckerJob.class;
+        }
+
+        @Override
+        public List<Long> findAllResourceIds() {
+            return List.of(1L, 2L, 3L, 4L, 5L, 6L);
+        }
+
+        @Override
+        public List<Long> loadResources(Collection<Long> resourceIds) {
+            loadedBatches.add(List.copyOf(resourceIds));
+            return List.copyOf(resourceIds);
+        }
+
+        @Override
+        public Long getResourceId(Long resource) {
+            return resource;
+        }
+
+        @Override
+        public synchronized void check(Long resource) {
+            if (resource.equals(failingResourceId)) {
+                throw new IllegalStateException("check failed");
+            }
+            checkedResourceIds.add(resource);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sequenceiq.flow.service.statussync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.cloudbreak.ha.domain.Node;
+import com.sequenceiq.cloudbreak.ha.service.NodeService;
+import com.sequenceiq.flow.ha.NodeConfig;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatusSyncShardServiceTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @InjectMocks
+    private StatusSyncShardService underTest;
+
+    @Mock
+    private NodeConfig nodeConfig;
+
+    @Mock
+    private NodeService nodeService;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private MetricService metricService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(underTest, "shardCount", 64);
+        ReflectionTestUtils.setField(underTest, "heartbeatThresholdRate", 60000);
+    }
+
+    @Test
+    public void testEveryResourceIsOwnedWithoutNodeId() {
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(false);
+
+        Predicate<Long> ownedResourceFilter = underTest.getOwnedResourceFilter();
+
+        assertTrue(LongStream.range(0, 1000).allMatch(ownedResourceFilter::test));
+        verifyNoInteractions(nodeService);
+    }
+
+    @Test
+    public void testEveryResourceIsOwnedByExactlyOneActiveNode() {
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(nodeService.findAll()).thenReturn(List.of(node("node1", NOW), node("node2", NOW - 1000), node("failed", NOW - 120000)));
+
+        Predicate<Long> node1 = ownedResourceFilterOf("node1");
+        Predicate<Long> node2 = ownedResourceFilterOf("node2");
+        Predicate<Long> failedNode = ownedResourceFilterOf("failed");
+
+        LongStream.range(0, 1000).forEach(resourceId -> {
+            assertTrue(node1.test(resourceId) ^ node2.test(resourceId));
+            assertFalse(failedNode.test(resourceId));
+        });
+        long ownedByNode1 = LongStream.range(0, 1000).filter(node1::test).count();
+        assertTrue(ownedByNode1 > 0 && ownedByNode1 < 1000);
+    }
+
+    @Test
+    public void testOnlyTheShardsOfTheLeavingNodeMove() {
+        when(nodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(nodeService.findAll()).thenReturn(List.of(node("node1", NOW), node("node2", NOW), node("node3", NOW)));
+        Predicate<Long> node1WithThreeNodes = ownedResourceFilterOf("node1");
+
+        when(nodeService.findAll()).thenReturn(List.of(node("node1", NOW), node("node2", NOW)));
+        Predicate<Long> node1WithTwoNodes = ownedResourceFilterOf("node1");
+
+        assertEquals(0, LongStream.range(0, 1000).filter(resourceId -> node1WithThreeNodes.test(resourceId) && !node1WithTwoNodes.test(resourceId))
+                .count());
+    }
+
+    private Predicate<Long> ownedResourceFilterOf(String nodeId) {
+        when(nodeConfig.getId()).thenReturn(nodeId);
+        return underTest.getOwnedResourceFilter();
+    }
+
+    private Node node(String nodeId, long lastUpdated) {
+        Node node = new Node(nodeId);
+        node.setLastUpdated(lastUpdated);
+        return node;
+    }
+}
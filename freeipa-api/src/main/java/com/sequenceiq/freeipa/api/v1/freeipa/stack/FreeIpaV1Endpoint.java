@@ -1,6 +1,7 @@
 package com.sequenceiq.freeipa.api.v1.freeipa.stack;
 
 import java.util.List;
+import java.util.Set;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
@@ -28,6 +29,7 @@ import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.health.HealthDetailsFre
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.list.ListFreeIpaResponse;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.reboot.RebootInstancesRequest;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.repair.RepairInstancesRequest;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status.EnvironmentFreeIpaStatusResponse;
 import com.sequenceiq.freeipa.api.v1.operation.model.OperationStatus;
 
 import io.swagger.annotations.Api;
@@ -87,6 +89,14 @@ public interface FreeIpaV1Endpoint {
             nickname = "internalListFreeIpaClustersByAccountV1")
     List<ListFreeIpaResponse> listInternal(@QueryParam("accountId") @AccountId String accountId);
 
+    @POST
+    @Path("internal/status")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = FreeIpaOperationDescriptions.INTERNAL_STATUS_BY_ENVIRONMENTS, produces = MediaType.APPLICATION_JSON,
+            notes = FreeIpaNotes.FREEIPA_NOTES, nickname = "internalGetFreeIpaStatusByEnvironmentsV1")
+    List<EnvironmentFreeIpaStatusResponse> getStatusesInternal(@NotEmpty Set<String> environmentCrns,
+            @QueryParam("accountId") @AccountId String accountId);
+
     @GET
     @Path("health")
     @Produces(MediaType.APPLICATION_JSON)
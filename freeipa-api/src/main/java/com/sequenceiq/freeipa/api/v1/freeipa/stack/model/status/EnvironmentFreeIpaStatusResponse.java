@@ -0,0 +1,55 @@
+package com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status;
+
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
+import com.sequenceiq.service.api.doc.ModelDescriptions;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+@ApiModel("EnvironmentFreeIpaStatusV1Response")
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnvironmentFreeIpaStatusResponse {
+
+    @NotNull
+    @ApiModelProperty(value = ModelDescriptions.ENVIRONMENT_CRN, required = true)
+    private String environmentCrn;
+
+    private Status status;
+
+    public EnvironmentFreeIpaStatusResponse() {
+    }
+
+    public EnvironmentFreeIpaStatusResponse(String environmentCrn, Status status) {
+        this.environmentCrn = environmentCrn;
+        this.status = status;
+    }
+
+    public String getEnvironmentCrn() {
+        return environmentCrn;
+    }
+
+    public void setEnvironmentCrn(String environmentCrn) {
+        this.environmentCrn = environmentCrn;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentFreeIpaStatusResponse{"
+                + "environmentCrn='" + environmentCrn + '\''
+                + ", status=" + status
+                + '}';
+    }
+}
@@ -14,6 +14,8 @@ public class UserModelDescriptions {
     public static final String USERSYNC_ENDTIME = "User synchronization operation end time";
     public static final String USERSYNC_ERROR = "error information about operation failure";
     public static final String USERSYNC_ACCOUNT_ID = "The id of the account to run sync on";
+    public static final String USERSYNC_FORCE_CREDENTIALS_UPDATE = "Optional flag to push the workload credentials of every user during a full sync, "
+            + "even the ones which did not change since the last successful full sync";
     public static final String SUCCESS_ENVIRONMENTS = "details about environments where operation succeeded";
     public static final String FAILURE_ENVIRONMENTS = "details about environments where operation failed";
     public static final String USER_PASSWORD = "the user's password";
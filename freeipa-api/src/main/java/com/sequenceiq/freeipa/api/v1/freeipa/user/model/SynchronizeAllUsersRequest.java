@@ -24,6 +24,9 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
     @ApiModelProperty(value = UserModelDescriptions.USERSYNC_ACCOUNT_ID)
     private String accountId;
 
+    @ApiModelProperty(value = UserModelDescriptions.USERSYNC_FORCE_CREDENTIALS_UPDATE)
+    private boolean forceCredentialsUpdate;
+
     public SynchronizeAllUsersRequest() {
     }
 
@@ -64,6 +67,14 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
         this.deletedWorkloadUsers = deletedWorkloadUsers;
     }
 
+    public boolean isForceCredentialsUpdate() {
+        return forceCredentialsUpdate;
+    }
+
+    public void setForceCredentialsUpdate(boolean forceCredentialsUpdate) {
+        this.forceCredentialsUpdate = forceCredentialsUpdate;
+    }
+
     @Override
     public String toString() {
         return "SynchronizeAllUsersRequest{"
@@ -71,6 +82,7 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
                 + ", users=" + users
                 + ", deletedWorkloadUsers=" + deletedWorkloadUsers
                 + ", accountId=" + accountId
+                + ", forceCredentialsUpdate=" + forceCredentialsUpdate
                 + ", " + super.fieldsToString()
                 + '}';
     }
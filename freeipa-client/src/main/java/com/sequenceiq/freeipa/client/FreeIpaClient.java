@@ -99,6 +99,10 @@ public class FreeIpaClient {
         return hostname;
     }
 
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        jsonRpcHttpClient.setReadTimeoutMillis(readTimeoutMillis);
+    }
+
     public User userShow(String user) throws FreeIpaClientException {
         List<Object> flags = List.of(user);
         Map<String, Object> params = Map.of();
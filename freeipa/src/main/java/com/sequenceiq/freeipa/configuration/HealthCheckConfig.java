@@ -0,0 +1,38 @@
+package com.sequenceiq.freeipa.configuration;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.sequenceiq.cloudbreak.concurrent.ActorCrnTaskDecorator;
+import com.sequenceiq.cloudbreak.concurrent.CompositeTaskDecorator;
+import com.sequenceiq.cloudbreak.concurrent.MDCCleanerTaskDecorator;
+
+@Configuration
+public class HealthCheckConfig {
+
+    public static final String HEALTH_CHECK_TASK_EXECUTOR = "HEALTH_CHECK_TASK_EXECUTOR";
+
+    @Value("${freeipa.autosync.health.threadpool.core.size:20}")
+    private int healthCheckCorePoolSize;
+
+    @Value("${freeipa.autosync.health.threadpool.capacity.size:1000}")
+    private int healthCheckQueueCapacity;
+
+    @Bean(name = HEALTH_CHECK_TASK_EXECUTOR)
+    public AsyncTaskExecutor healthCheckTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(healthCheckCorePoolSize);
+        executor.setQueueCapacity(healthCheckQueueCapacity);
+        executor.setThreadNamePrefix("healthCheckExecutor-");
+        executor.setTaskDecorator(
+                new CompositeTaskDecorator(
+                        List.of(new MDCCleanerTaskDecorator(), new ActorCrnTaskDecorator())));
+        executor.initialize();
+        return executor;
+    }
+}
@@ -5,6 +5,7 @@ import static com.sequenceiq.authorization.resource.AuthorizationResourceAction.
 import static com.sequenceiq.authorization.resource.AuthorizationVariableType.CRN;
 
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
@@ -36,6 +37,7 @@ import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.health.HealthDetailsFre
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.list.ListFreeIpaResponse;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.reboot.RebootInstancesRequest;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.repair.RepairInstancesRequest;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status.EnvironmentFreeIpaStatusResponse;
 import com.sequenceiq.freeipa.api.v1.operation.model.OperationStatus;
 import com.sequenceiq.freeipa.client.FreeIpaClientException;
 import com.sequenceiq.freeipa.client.FreeIpaClientExceptionWrapper;
@@ -166,6 +168,12 @@ public class FreeIpaV1Controller implements FreeIpaV1Endpoint {
         return freeIpaListService.list(accountId);
     }
 
+    @Override
+    @InternalOnly
+    public List<EnvironmentFreeIpaStatusResponse> getStatusesInternal(@NotEmpty Set<String> environmentCrns, @AccountId String accountId) {
+        return freeIpaListService.getStatusesByEnvironmentCrns(environmentCrns, accountId);
+    }
+
     @Override
     @CheckPermissionByResourceCrn(action = AuthorizationResourceAction.DESCRIBE_ENVIRONMENT)
     public HealthDetailsFreeIpaResponse healthDetails(@ResourceCrn String environmentCrn) {
@@ -97,7 +97,7 @@ public class UserV1Controller implements UserV1Endpoint {
 
         UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(nullToEmpty(request.getUsers()),
                 nullToEmpty(request.getMachineUsers()),
-                getOptionalDeletedWorkloadUser(request.getDeletedWorkloadUsers()));
+                getOptionalDeletedWorkloadUser(request.getDeletedWorkloadUsers()), request.isForceCredentialsUpdate());
         Operation syncOperation = userSyncService.synchronizeUsersWithCustomPermissionCheck(accountId, userCrn,
                 nullToEmpty(request.getEnvironments()), userSyncFilter, AuthorizationResourceAction.DESCRIBE_ENVIRONMENT);
         return checkOperationRejected(operationToSyncOperationStatus.convert(syncOperation));
@@ -0,0 +1,23 @@
+package com.sequenceiq.freeipa.dto;
+
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
+
+public class EnvironmentCrnWithStatus {
+
+    private final String environmentCrn;
+
+    private final Status status;
+
+    public EnvironmentCrnWithStatus(String environmentCrn, Status status) {
+        this.environmentCrn = environmentCrn;
+        this.status = status;
+    }
+
+    public String getEnvironmentCrn() {
+        return environmentCrn;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
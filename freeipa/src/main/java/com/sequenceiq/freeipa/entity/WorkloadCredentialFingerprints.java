@@ -0,0 +1,70 @@
+package com.sequenceiq.freeipa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
+
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.json.JsonToString;
+import com.sequenceiq.cloudbreak.service.secret.domain.AccountIdAwareResource;
+
+/**
+ * The workload credential fingerprints of the last successful full user sync of a stack. Kept apart from {@link UserSyncStatus}, as it holds an entry
+ * for every user of the environment and is only needed by the full sync itself.
+ */
+@Entity
+public class WorkloadCredentialFingerprints implements AccountIdAwareResource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "workloadcredentialfingerprints_generator")
+    @SequenceGenerator(name = "workloadcredentialfingerprints_generator", sequenceName = "workloadcredentialfingerprints_id_seq", allocationSize = 1)
+    private Long id;
+
+    @OneToOne
+    private Stack stack;
+
+    @Convert(converter = JsonToString.class)
+    @Column(columnDefinition = "TEXT")
+    private Json fingerprints;
+
+    public WorkloadCredentialFingerprints() {
+    }
+
+    public WorkloadCredentialFingerprints(Stack stack) {
+        this.stack = stack;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Stack getStack() {
+        return stack;
+    }
+
+    public void setStack(Stack stack) {
+        this.stack = stack;
+    }
+
+    public Json getFingerprints() {
+        return fingerprints;
+    }
+
+    public void setFingerprints(Json fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    @Override
+    public String getAccountId() {
+        return stack.getAccountId();
+    }
+}
@@ -26,6 +26,12 @@ public class FreeIpaMetricService extends AbstractMetricService {
                 MetricTag.CLOUD_PROVIDER.name(), stack.getCloudPlatform());
     }
 
+    public void recordHealthProbe(Stack stack, long millis, String result) {
+        recordTimer(millis, MetricType.FREEIPA_HEALTH_PROBE,
+                MetricTag.CLOUD_PROVIDER.name(), stack.getCloudPlatform(),
+                FreeIpaMetricTag.HEALTH_PROBE_RESULT.name(), result);
+    }
+
     private String getMetricNameWithPlatform(MetricType metric, String cloudPlatform) {
         return String.format("%s.%s.%s", METRIC_PREFIX, metric.getMetricName(), cloudPlatform.toLowerCase());
     }
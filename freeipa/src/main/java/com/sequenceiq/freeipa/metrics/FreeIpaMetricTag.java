@@ -1,5 +1,6 @@
 package com.sequenceiq.freeipa.metrics;
 
 public enum FreeIpaMetricTag {
-    CCM_ENABLED
+    CCM_ENABLED,
+    HEALTH_PROBE_RESULT
 }
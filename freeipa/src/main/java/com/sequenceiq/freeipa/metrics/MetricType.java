@@ -4,7 +4,9 @@ import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
 
 public enum MetricType implements Metric {
     FREEIPA_CREATION_FINISHED("freeipa.creation.finished"),
-    FREEIPA_CREATION_FAILED("freeipa.creation.failed");
+    FREEIPA_CREATION_FAILED("freeipa.creation.failed"),
+    FREEIPA_HEALTH_PROBE("freeipa.health.probe"),
+    FREEIPA_HEALTH_PROBE_TIMEOUT("freeipa.health.probe.timeout");
 
     private final String metricName;
 
@@ -14,6 +14,7 @@ import com.sequenceiq.authorization.service.model.projection.ResourceCrnAndNameV
 import com.sequenceiq.cloudbreak.structuredevent.repository.AccountAwareResourceRepository;
 import com.sequenceiq.cloudbreak.workspace.repository.EntityType;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
+import com.sequenceiq.freeipa.dto.EnvironmentCrnWithStatus;
 import com.sequenceiq.freeipa.dto.StackIdWithStatus;
 import com.sequenceiq.freeipa.entity.Stack;
 
@@ -27,9 +28,15 @@ public interface StackRepository extends AccountAwareResourceRepository<Stack, L
     @Query("SELECT s FROM Stack s WHERE s.terminated = -1 and s.stackStatus.status in (:statuses)")
     List<Stack> findAllRunningAndStatusIn(@Param("statuses") Collection<Status> statuses);
 
+    @Query("SELECT s.id FROM Stack s WHERE s.terminated = -1 and s.stackStatus.status in (:statuses)")
+    List<Long> findAllIdsRunningAndStatusIn(@Param("statuses") Collection<Status> statuses);
+
     @Query("SELECT s FROM Stack s LEFT JOIN FETCH s.instanceGroups ig LEFT JOIN FETCH ig.instanceMetaData WHERE s.id= :id ")
     Optional<Stack> findOneWithLists(@Param("id") Long id);
 
+    @Query("SELECT DISTINCT s FROM Stack s LEFT JOIN FETCH s.instanceGroups ig LEFT JOIN FETCH ig.instanceMetaData WHERE s.id IN (:ids)")
+    List<Stack> findAllWithListsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT s FROM Stack s WHERE s.accountId = :accountId AND s.environmentCrn = :environmentCrn AND s.name = :name AND s.terminated = -1")
     Optional<Stack> findByAccountIdEnvironmentCrnAndName(
             @Param("accountId") String accountId,
@@ -65,6 +72,16 @@ public interface StackRepository extends AccountAwareResourceRepository<Stack, L
             + "LEFT JOIN FETCH ig.instanceMetaData WHERE c.environmentCrn = :environmentCrn AND s.accountId = :accountId AND s.terminated = -1")
     Optional<Stack> findByChildEnvironmentCrnAndAccountIdWithList(@Param("environmentCrn") String environmentCrn, @Param("accountId") String accountId);
 
+    @Query("SELECT new com.sequenceiq.freeipa.dto.EnvironmentCrnWithStatus(s.environmentCrn, s.stackStatus.status) FROM Stack s "
+            + "WHERE s.accountId = :accountId AND s.environmentCrn IN :environmentCrns AND s.terminated = -1")
+    List<EnvironmentCrnWithStatus> findStatusesByEnvironmentCrnsAndAccountId(@Param("environmentCrns") Collection<String> environmentCrns,
+            @Param("accountId") String accountId);
+
+    @Query("SELECT new com.sequenceiq.freeipa.dto.EnvironmentCrnWithStatus(c.environmentCrn, s.stackStatus.status) FROM ChildEnvironment c "
+            + "JOIN c.stack s WHERE s.accountId = :accountId AND c.environmentCrn IN :environmentCrns AND s.terminated = -1")
+    List<EnvironmentCrnWithStatus> findStatusesByChildEnvironmentCrnsAndAccountId(@Param("environmentCrns") Collection<String> environmentCrns,
+            @Param("accountId") String accountId);
+
     @Query("SELECT new com.sequenceiq.freeipa.dto.StackIdWithStatus(s.id,s.stackStatus.status) FROM Stack s WHERE s.id IN (:ids)")
     List<StackIdWithStatus> findStackStatusesWithoutAuth(@Param("ids") Set<Long> ids);
 
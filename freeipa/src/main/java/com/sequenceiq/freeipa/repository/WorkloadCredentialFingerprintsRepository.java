@@ -0,0 +1,17 @@
+package com.sequenceiq.freeipa.repository;
+
+import java.util.Optional;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.WorkloadCredentialFingerprints;
+
+@Transactional(Transactional.TxType.REQUIRED)
+public interface WorkloadCredentialFingerprintsRepository extends CrudRepository<WorkloadCredentialFingerprints, Long> {
+
+    Optional<WorkloadCredentialFingerprints> getByStack(Stack stack);
+
+}
@@ -1,6 +1,8 @@
 package com.sequenceiq.freeipa.service.freeipa;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,7 +16,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.cloudera.thunderhead.service.usermanagement.UserManagementProto;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.sequenceiq.freeipa.client.FreeIpaClient;
 import com.sequenceiq.freeipa.client.FreeIpaClientException;
 import com.sequenceiq.freeipa.client.operation.SetWlCredentialOperation;
@@ -63,6 +68,25 @@ public class WorkloadCredentialService {
         }
     }
 
+    /**
+     * Calculates a fingerprint of the workload credentials of every user, so a full sync can tell which credentials changed since the last one
+     * without encoding the kerberos keys and calling FreeIPA for every user.
+     */
+    public Map<String, String> getFingerprints(Map<String, WorkloadCredential> workloadCredentials) {
+        return workloadCredentials.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> getFingerprint(entry.getValue())));
+    }
+
+    private String getFingerprint(WorkloadCredential workloadCredential) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(Strings.nullToEmpty(workloadCredential.getHashedPassword()), StandardCharsets.UTF_8);
+        hasher.putInt(workloadCredential.getKeys().size());
+        workloadCredential.getKeys().forEach(key -> hasher.putBytes(key.toByteArray()));
+        hasher.putLong(workloadCredential.getExpirationDate().map(Instant::toEpochMilli).orElse(Long.MIN_VALUE));
+        hasher.putInt(workloadCredential.getSshPublicKeys().size());
+        workloadCredential.getSshPublicKeys().forEach(sshPublicKey -> hasher.putBytes(sshPublicKey.toByteArray()));
+        return hasher.hash().toString();
+    }
+
     private SetWlCredentialOperation getOperation(String user, WorkloadCredential workloadCredential, FreeIpaClient freeIpaClient) throws IOException {
         String expiration = freeIpaClient.formatDate(workloadCredential.getExpirationDate());
         String asnEncodedKrbPrincipalKey = KrbKeySetEncoder.getASNEncodedKrbPrincipalKey(workloadCredential.getKeys());
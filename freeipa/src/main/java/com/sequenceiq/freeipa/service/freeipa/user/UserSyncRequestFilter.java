@@ -14,10 +14,18 @@ public class UserSyncRequestFilter {
 
     private final Optional<String> deletedWorkloadUser;
 
+    private final boolean forceCredentialsUpdate;
+
     public UserSyncRequestFilter(Set<String> userCrnFilter, Set<String> machineUserCrnFilter, Optional<String> deletedWorkloadUser) {
+        this(userCrnFilter, machineUserCrnFilter, deletedWorkloadUser, false);
+    }
+
+    public UserSyncRequestFilter(Set<String> userCrnFilter, Set<String> machineUserCrnFilter, Optional<String> deletedWorkloadUser,
+            boolean forceCredentialsUpdate) {
         this.userCrnFilter = ImmutableSet.copyOf(userCrnFilter);
         this.machineUserCrnFilter = ImmutableSet.copyOf(machineUserCrnFilter);
         this.deletedWorkloadUser = deletedWorkloadUser;
+        this.forceCredentialsUpdate = forceCredentialsUpdate;
     }
 
     public static UserSyncRequestFilter newFullSync() {
@@ -40,6 +48,10 @@ public class UserSyncRequestFilter {
         return deletedWorkloadUser;
     }
 
+    public boolean isForceCredentialsUpdate() {
+        return forceCredentialsUpdate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -51,11 +63,12 @@ public class UserSyncRequestFilter {
         UserSyncRequestFilter that = (UserSyncRequestFilter) o;
         return userCrnFilter.equals(that.userCrnFilter) &&
                 machineUserCrnFilter.equals(that.machineUserCrnFilter) &&
-                deletedWorkloadUser.equals(that.deletedWorkloadUser);
+                deletedWorkloadUser.equals(that.deletedWorkloadUser) &&
+                forceCredentialsUpdate == that.forceCredentialsUpdate;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(userCrnFilter, machineUserCrnFilter, deletedWorkloadUser);
+        return Objects.hash(userCrnFilter, machineUserCrnFilter, deletedWorkloadUser, forceCredentialsUpdate);
     }
 }
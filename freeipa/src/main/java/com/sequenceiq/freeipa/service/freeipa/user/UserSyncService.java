@@ -71,6 +71,7 @@ import com.sequenceiq.freeipa.service.freeipa.user.model.UmsEventGenerationIds;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UsersStateDifference;
+import com.sequenceiq.freeipa.service.freeipa.user.model.WorkloadCredential;
 import com.sequenceiq.freeipa.service.freeipa.user.ums.UmsEventGenerationIdsProvider;
 import com.sequenceiq.freeipa.service.freeipa.user.ums.UmsUsersStateProviderDispatcher;
 import com.sequenceiq.freeipa.service.operation.OperationService;
@@ -105,6 +106,9 @@ public class UserSyncService {
     @Value("${freeipa.usersync.max-subjects-per-request}")
     int maxSubjectsPerRequest;
 
+    @Value("${freeipa.usersync.workload-credentials.skip-unchanged:false}")
+    private boolean skipUnchangedWorkloadCredentials;
+
     @Inject
     private StackService stackService;
 
@@ -133,6 +137,9 @@ public class UserSyncService {
     @Inject
     private WorkloadCredentialService workloadCredentialService;
 
+    @Inject
+    private WorkloadCredentialFingerprintsService workloadCredentialFingerprintsService;
+
     @Inject
     private CommonPermissionCheckingUtils commonPermissionCheckingUtils;
 
@@ -269,7 +276,7 @@ public class UserSyncService {
                 statusFutures = stacks.stream()
                         .collect(Collectors.toMap(Stack::getEnvironmentCrn,
                                 stack -> asyncSynchronizeStack(stack, envToUmsStateMap.get(stack.getEnvironmentCrn()), umsEventGenerationIds, fullSync,
-                                        operationId, accountId)));
+                                        userSyncFilter.isForceCredentialsUpdate(), operationId, accountId)));
             } else {
                 String deletedWorkloadUser = userSyncFilter.getDeletedWorkloadUser().get();
                 statusFutures = stacks.stream()
@@ -316,25 +323,46 @@ public class UserSyncService {
     }
 
     private Future<SyncStatusDetail> asyncSynchronizeStack(Stack stack, UmsUsersState umsUsersState, UmsEventGenerationIds umsEventGenerationIds,
-            boolean fullSync, String operationId, String accountId) {
+            boolean fullSync, boolean forceCredentialsUpdate, String operationId, String accountId) {
         return asyncTaskExecutor.submit(() -> {
-            SyncStatusDetail statusDetail = internalSynchronizeStack(stack, umsUsersState, fullSync);
+            Map<String, String> credentialFingerprints = fullSync && skipUnchangedWorkloadCredentials ?
+                    workloadCredentialService.getFingerprints(umsUsersState.getUsersWorkloadCredentialMap()) : Map.of();
+            Set<String> unchangedCredentialUsers = getUnchangedCredentialUsers(stack, credentialFingerprints, forceCredentialsUpdate);
+            SyncStatusDetail statusDetail = internalSynchronizeStack(stack, umsUsersState, fullSync, unchangedCredentialUsers);
             if (fullSync && statusDetail.getStatus() == SynchronizationStatus.COMPLETED) {
                 UserSyncStatus userSyncStatus = userSyncStatusService.getOrCreateForStack(stack);
                 userSyncStatus.setUmsEventGenerationIds(new Json(umsEventGenerationIds));
                 userSyncStatus.setLastSuccessfulFullSync(operationService.getOperationForAccountIdAndOperationId(accountId, operationId));
                 userSyncStatusService.save(userSyncStatus);
+                if (skipUnchangedWorkloadCredentials) {
+                    workloadCredentialFingerprintsService.saveForStack(stack, credentialFingerprints);
+                }
             }
             return statusDetail;
         });
 
     }
 
+    @VisibleForTesting
+    Set<String> getUnchangedCredentialUsers(Stack stack, Map<String, String> credentialFingerprints, boolean forceCredentialsUpdate) {
+        if (forceCredentialsUpdate || credentialFingerprints.isEmpty()) {
+            return Set.of();
+        }
+        Map<String, String> lastFingerprints = workloadCredentialFingerprintsService.getForStack(stack);
+        Set<String> unchangedCredentialUsers = credentialFingerprints.entrySet().stream()
+                .filter(fingerprint -> fingerprint.getValue().equals(lastFingerprints.get(fingerprint.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        LOGGER.debug("Workload credentials of {} users out of {} did not change since the last successful full sync",
+                unchangedCredentialUsers.size(), credentialFingerprints.size());
+        return unchangedCredentialUsers;
+    }
+
     private Future<SyncStatusDetail> asyncSynchronizeStackForDeleteUser(Stack stack, String deletedWorkloadUser) {
         return asyncTaskExecutor.submit(() -> internalSynchronizeStackForDeleteUser(stack, deletedWorkloadUser, false));
     }
 
-    private SyncStatusDetail internalSynchronizeStack(Stack stack, UmsUsersState umsUsersState, boolean fullSync) {
+    private SyncStatusDetail internalSynchronizeStack(Stack stack, UmsUsersState umsUsersState, boolean fullSync, Set<String> unchangedCredentialUsers) {
         MDCBuilder.buildMdcContext(stack);
         String environmentCrn = stack.getEnvironmentCrn();
         Multimap<String, String> warnings = ArrayListMultimap.create();
@@ -342,10 +370,11 @@ public class UserSyncService {
             FreeIpaClient freeIpaClient = freeIpaClientFactory.getFreeIpaClientForStack(stack);
             boolean fmsToFreeipaBatchCallEnabled = entitlementService.isFmsToFreeipaBatchCallEnabled(Crn.fromString(environmentCrn).getAccountId());
             UsersStateDifference usersStateDifferenceBeforeSync = compareUmsAndFreeIpa(umsUsersState, fullSync, freeIpaClient);
-            applyDifference(umsUsersState, environmentCrn, warnings, usersStateDifferenceBeforeSync, freeIpaClient, fmsToFreeipaBatchCallEnabled);
+            applyDifference(umsUsersState, environmentCrn, warnings, usersStateDifferenceBeforeSync, freeIpaClient, fmsToFreeipaBatchCallEnabled,
+                    unchangedCredentialUsers);
 
             retrySyncIfBatchCallHasWarnings(stack, umsUsersState, fullSync, warnings, freeIpaClient,
-                    fmsToFreeipaBatchCallEnabled, usersStateDifferenceBeforeSync);
+                    fmsToFreeipaBatchCallEnabled, usersStateDifferenceBeforeSync, unchangedCredentialUsers);
 
             // TODO For now we only sync cloud ids during full sync. We should eventually allow more granular syncs (actor level and group level sync).
             if (fullSync && entitlementService.cloudIdentityMappingEnabled(stack.getAccountId())) {
@@ -362,8 +391,8 @@ public class UserSyncService {
     }
 
     private void retrySyncIfBatchCallHasWarnings(Stack stack, UmsUsersState umsUsersState, boolean fullSync, Multimap<String, String> warnings,
-            FreeIpaClient freeIpaClient, boolean fmsToFreeipaBatchCallEnabled, UsersStateDifference usersStateDifferenceBeforeSync)
-            throws FreeIpaClientException, IOException {
+            FreeIpaClient freeIpaClient, boolean fmsToFreeipaBatchCallEnabled, UsersStateDifference usersStateDifferenceBeforeSync,
+            Set<String> unchangedCredentialUsers) throws FreeIpaClientException, IOException {
         if (fullSync && !warnings.isEmpty() && fmsToFreeipaBatchCallEnabled) {
             UsersStateDifference usersStateDifferenceAfterSync = compareUmsAndFreeIpa(umsUsersState, fullSync, freeIpaClient);
             if (usersStateDifferenceChanged(usersStateDifferenceBeforeSync, usersStateDifferenceAfterSync)) {
@@ -371,7 +400,7 @@ public class UserSyncService {
                 try {
                     LOGGER.info(String.format("Sync was partially successful for %s, thus we are trying it once again", stack.getResourceCrn()));
                     applyDifference(umsUsersState, stack.getEnvironmentCrn(), retryWarnings, usersStateDifferenceAfterSync,
-                            freeIpaClient, fmsToFreeipaBatchCallEnabled);
+                            freeIpaClient, fmsToFreeipaBatchCallEnabled, unchangedCredentialUsers);
                     warnings.clear();
                 } finally {
                     warnings.putAll(retryWarnings);
@@ -405,8 +434,8 @@ public class UserSyncService {
     }
 
     private void applyDifference(UmsUsersState umsUsersState, String environmentCrn, Multimap<String, String> warnings,
-            UsersStateDifference usersStateDifference, FreeIpaClient freeIpaClient, boolean fmsToFreeipaBatchCallEnabled)
-            throws FreeIpaClientException, IOException {
+            UsersStateDifference usersStateDifference, FreeIpaClient freeIpaClient, boolean fmsToFreeipaBatchCallEnabled,
+            Set<String> unchangedCredentialUsers) throws FreeIpaClientException, IOException {
         LOGGER.debug("Starting {} ...", LogEvent.APPLY_DIFFERENCE_TO_IPA);
         applyStateDifferenceToIpa(environmentCrn, freeIpaClient, usersStateDifference, warnings::put, fmsToFreeipaBatchCallEnabled);
         LOGGER.debug("Finished {}.", LogEvent.APPLY_DIFFERENCE_TO_IPA);
@@ -414,14 +443,25 @@ public class UserSyncService {
         if (!FreeIpaCapabilities.hasSetPasswordHashSupport(freeIpaClient.getConfig())) {
             LOGGER.debug("IPA doesn't have password hash support, no credentials sync required for env:{}", environmentCrn);
         } else {
-            // Sync credentials for all users and not just diff. At present there is no way to identify that there is a change in password for a user
-            LOGGER.debug("Starting {} for {} users ...", LogEvent.SET_WORKLOAD_CREDENTIALS, umsUsersState.getUsersWorkloadCredentialMap().size());
-            workloadCredentialService.setWorkloadCredentials(fmsToFreeipaBatchCallEnabled, freeIpaClient,
-                    umsUsersState.getUsersWorkloadCredentialMap(), warnings::put);
+            // Sync credentials for all users and not just diff, except the ones whose credentials did not change since the last successful full sync.
+            Map<String, WorkloadCredential> workloadCredentials = getWorkloadCredentialsToSet(umsUsersState, usersStateDifference, unchangedCredentialUsers);
+            LOGGER.debug("Starting {} for {} users, skipping {} users with unchanged credentials ...", LogEvent.SET_WORKLOAD_CREDENTIALS,
+                    workloadCredentials.size(), umsUsersState.getUsersWorkloadCredentialMap().size() - workloadCredentials.size());
+            workloadCredentialService.setWorkloadCredentials(fmsToFreeipaBatchCallEnabled, freeIpaClient, workloadCredentials, warnings::put);
             LOGGER.debug("Finished {}.", LogEvent.SET_WORKLOAD_CREDENTIALS);
         }
     }
 
+    @VisibleForTesting
+    Map<String, WorkloadCredential> getWorkloadCredentialsToSet(UmsUsersState umsUsersState, UsersStateDifference usersStateDifference,
+            Set<String> unchangedCredentialUsers) {
+        // Newly added users always get their credentials, as they do not have any in FreeIPA yet.
+        Set<String> addedUsers = usersStateDifference.getUsersToAdd().stream().map(FmsUser::getName).collect(Collectors.toSet());
+        return umsUsersState.getUsersWorkloadCredentialMap().entrySet().stream()
+                .filter(entry -> !unchangedCredentialUsers.contains(entry.getKey()) || addedUsers.contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     private SyncStatusDetail internalSynchronizeStackForDeleteUser(Stack stack, String deletedWorkloadUser, boolean fmsToFreeipaBatchCallEnabled) {
         MDCBuilder.buildMdcContext(stack);
         String environmentCrn = stack.getEnvironmentCrn();
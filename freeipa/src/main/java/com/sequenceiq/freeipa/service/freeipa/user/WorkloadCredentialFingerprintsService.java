@@ -0,0 +1,48 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.WorkloadCredentialFingerprints;
+import com.sequenceiq.freeipa.repository.WorkloadCredentialFingerprintsRepository;
+
+@Service
+public class WorkloadCredentialFingerprintsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkloadCredentialFingerprintsService.class);
+
+    @Inject
+    private WorkloadCredentialFingerprintsRepository workloadCredentialFingerprintsRepository;
+
+    public Map<String, String> getForStack(Stack stack) {
+        return workloadCredentialFingerprintsRepository.getByStack(stack)
+                .map(WorkloadCredentialFingerprints::getFingerprints)
+                .map(this::readFingerprints)
+                .orElse(Map.of());
+    }
+
+    public void saveForStack(Stack stack, Map<String, String> fingerprints) {
+        WorkloadCredentialFingerprints workloadCredentialFingerprints = workloadCredentialFingerprintsRepository.getByStack(stack)
+                .orElseGet(() -> new WorkloadCredentialFingerprints(stack));
+        workloadCredentialFingerprints.setFingerprints(fingerprints.isEmpty() ? null : new Json(fingerprints));
+        workloadCredentialFingerprintsRepository.save(workloadCredentialFingerprints);
+    }
+
+    private Map<String, String> readFingerprints(Json fingerprints) {
+        try {
+            return fingerprints.get(new TypeReference<Map<String, String>>() { });
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read the workload credential fingerprints of the last full sync, every credential will be set", e);
+            return Map.of();
+        }
+    }
+}
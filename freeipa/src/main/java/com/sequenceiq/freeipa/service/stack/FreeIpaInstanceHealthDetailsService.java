@@ -10,6 +10,7 @@ import javax.ws.rs.core.Response;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
@@ -26,6 +27,7 @@ import com.sequenceiq.freeipa.client.model.RPCResponse;
 import com.sequenceiq.freeipa.entity.InstanceMetaData;
 import com.sequenceiq.freeipa.entity.Stack;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
+import com.sequenceiq.freeipa.sync.AutoSyncConfig;
 import com.sequenceiq.freeipa.util.HealthCheckAvailabilityChecker;
 
 @Service
@@ -54,6 +56,12 @@ public class FreeIpaInstanceHealthDetailsService {
     @Inject
     private FreeIpaHealthCheckClientFactory freeIpaHealthCheckClientFactory;
 
+    @Inject
+    private AutoSyncConfig autoSyncConfig;
+
+    @Value("${freeipa.healthcheck.readTimeoutMs}")
+    private int healthCheckReadTimeoutMillis;
+
     @Retryable(value = RetryableFreeIpaClientException.class,
             // Having 3 retries exceeds the RPC timeout for the CDP CLI in the worst case scenario with FreeIPA HA.
             maxAttempts = 2
@@ -92,6 +100,10 @@ public class FreeIpaInstanceHealthDetailsService {
 
     private RPCResponse<Boolean> legacyFreeIpaHealthCheck(Stack stack, InstanceMetaData instance) throws FreeIpaClientException {
         FreeIpaClient freeIpaClient = freeIpaClientFactory.getFreeIpaClientForStackForLegacyHealthCheck(stack, instance.getDiscoveryFQDN());
+        if (autoSyncConfig.isParallelHealthCheck()) {
+            // The parallel checker relies on the client read timeout to end a probe, otherwise the client default is kept
+            freeIpaClient.setReadTimeoutMillis(healthCheckReadTimeoutMillis);
+        }
         return freeIpaClient.serverConnCheck(freeIpaClient.getHostname(), instance.getDiscoveryFQDN());
     }
 
@@ -1,12 +1,15 @@
 package com.sequenceiq.freeipa.service.stack;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.springframework.stereotype.Service;
 
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.list.ListFreeIpaResponse;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status.EnvironmentFreeIpaStatusResponse;
 import com.sequenceiq.freeipa.converter.stack.FreeIpaToListFreeIpaResponseConverter;
 import com.sequenceiq.freeipa.entity.FreeIpa;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaService;
@@ -17,6 +20,9 @@ public class FreeIpaListService {
     @Inject
     private FreeIpaService freeIpaService;
 
+    @Inject
+    private StackService stackService;
+
     @Inject
     private FreeIpaToListFreeIpaResponseConverter freeIpaToListFreeIpaResponseConverter;
 
@@ -24,4 +30,10 @@ public class FreeIpaListService {
         List<FreeIpa> stackList = freeIpaService.getAllByAccountId(accountId);
         return freeIpaToListFreeIpaResponseConverter.convertList(stackList);
     }
+
+    public List<EnvironmentFreeIpaStatusResponse> getStatusesByEnvironmentCrns(Collection<String> environmentCrns, String accountId) {
+        return stackService.findStatusesByEnvironmentCrnsAndAccountId(environmentCrns, accountId).stream()
+                .map(status -> new EnvironmentFreeIpaStatusResponse(status.getEnvironmentCrn(), status.getStatus()))
+                .collect(Collectors.toList());
+    }
 }
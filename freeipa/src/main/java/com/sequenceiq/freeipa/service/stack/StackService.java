@@ -1,5 +1,6 @@
 package com.sequenceiq.freeipa.service.stack;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -19,6 +20,7 @@ import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
 import com.sequenceiq.cloudbreak.auth.altus.Crn;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
 import com.sequenceiq.freeipa.controller.exception.NotFoundException;
+import com.sequenceiq.freeipa.dto.EnvironmentCrnWithStatus;
 import com.sequenceiq.freeipa.dto.StackIdWithStatus;
 import com.sequenceiq.freeipa.entity.Stack;
 import com.sequenceiq.freeipa.repository.StackRepository;
@@ -26,6 +28,16 @@ import com.sequenceiq.freeipa.repository.StackRepository;
 @Service
 public class StackService implements ResourceCrnAndNameProvider {
 
+    private static final List<Status> AUTO_SYNC_STATUSES = List.of(
+            Status.AVAILABLE,
+            Status.UPDATE_FAILED,
+            Status.START_FAILED,
+            Status.STOP_FAILED,
+            Status.UNREACHABLE,
+            Status.UNHEALTHY,
+            Status.UNKNOWN,
+            Status.STOPPED);
+
     @Inject
     private StackRepository stackRepository;
 
@@ -37,15 +49,15 @@ public class StackService implements ResourceCrnAndNameProvider {
     }
 
     public List<Stack> findAllForAutoSync() {
-        return stackRepository.findAllRunningAndStatusIn(List.of(
-                Status.AVAILABLE,
-                Status.UPDATE_FAILED,
-                Status.START_FAILED,
-                Status.STOP_FAILED,
-                Status.UNREACHABLE,
-                Status.UNHEALTHY,
-                Status.UNKNOWN,
-                Status.STOPPED));
+        return stackRepository.findAllRunningAndStatusIn(AUTO_SYNC_STATUSES);
+    }
+
+    public List<Long> findAllIdsForAutoSync() {
+        return stackRepository.findAllIdsRunningAndStatusIn(AUTO_SYNC_STATUSES);
+    }
+
+    public List<Stack> findAllWithListsByIds(Collection<Long> ids) {
+        return stackRepository.findAllWithListsByIdIn(ids);
     }
 
     public Stack getByIdWithListsInTransaction(Long id) {
@@ -88,6 +100,12 @@ public class StackService implements ResourceCrnAndNameProvider {
         }
     }
 
+    public List<EnvironmentCrnWithStatus> findStatusesByEnvironmentCrnsAndAccountId(Collection<String> environmentCrns, String accountId) {
+        List<EnvironmentCrnWithStatus> statuses = new ArrayList<>(stackRepository.findStatusesByEnvironmentCrnsAndAccountId(environmentCrns, accountId));
+        statuses.addAll(stackRepository.findStatusesByChildEnvironmentCrnsAndAccountId(environmentCrns, accountId));
+        return statuses;
+    }
+
     public List<Stack> findAllByEnvironmentCrnAndAccountId(String environmentCrn, String accountId) {
         return stackRepository.findAllByEnvironmentCrnAndAccountId(environmentCrn, accountId);
     }
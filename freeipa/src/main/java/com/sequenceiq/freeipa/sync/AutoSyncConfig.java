@@ -18,10 +18,17 @@ public class AutoSyncConfig {
     @Value("${freeipa.autosync.enabled:true}")
     private boolean enabled;
 
+    @Value("${freeipa.autosync.health.parallel.enabled:false}")
+    private boolean parallelHealthCheck;
+
+    @Value("${freeipa.autosync.health.deadline.seconds:60}")
+    private long healthCheckDeadlineSeconds;
+
     @PostConstruct
     void logEnablement() {
         LOGGER.info("Status update is {} by auto sync ", updateStatus ? "enabled" : "disabled");
         LOGGER.info("Auto sync is {}", enabled ? "enabled" : "disabled");
+        LOGGER.info("Parallel health check is {} by auto sync", parallelHealthCheck ? "enabled" : "disabled");
     }
 
     public boolean isUpdateStatus() {
@@ -31,4 +38,12 @@ public class AutoSyncConfig {
     public boolean isEnabled() {
         return enabled;
     }
+
+    public boolean isParallelHealthCheck() {
+        return parallelHealthCheck;
+    }
+
+    public long getHealthCheckDeadlineSeconds() {
+        return healthCheckDeadlineSeconds;
+    }
 }
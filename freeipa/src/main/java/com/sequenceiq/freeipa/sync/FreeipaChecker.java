@@ -7,7 +7,12 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -15,13 +20,18 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.DetailedStackStatus;
 import com.sequenceiq.freeipa.client.model.RPCResponse;
+import com.sequenceiq.freeipa.configuration.HealthCheckConfig;
 import com.sequenceiq.freeipa.entity.InstanceMetaData;
 import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.metrics.FreeIpaMetricService;
+import com.sequenceiq.freeipa.metrics.MetricType;
 import com.sequenceiq.freeipa.service.stack.FreeIpaInstanceHealthDetailsService;
 
 @Component
@@ -32,23 +42,30 @@ public class FreeipaChecker {
     @Inject
     private FreeIpaInstanceHealthDetailsService freeIpaInstanceHealthDetailsService;
 
+    @Inject
+    private AutoSyncConfig autoSyncConfig;
+
+    @Inject
+    private FreeIpaMetricService metricService;
+
+    @Inject
+    @Qualifier(HealthCheckConfig.HEALTH_CHECK_TASK_EXECUTOR)
+    private AsyncTaskExecutor healthCheckTaskExecutor;
+
     private Pair<Map<InstanceMetaData, DetailedStackStatus>, String> checkStatus(Stack stack, Set<InstanceMetaData> checkableInstances) throws Exception {
         return checkedMeasure(() -> {
             Map<InstanceMetaData, DetailedStackStatus> statuses = new HashMap<>();
             List<RPCResponse<Boolean>> responses = new LinkedList<>();
-            for (InstanceMetaData instanceMetaData : checkableInstances) {
-                try {
-                    RPCResponse<Boolean> response = checkedMeasure(() -> freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, instanceMetaData), LOGGER,
-                            ":::Auto sync::: FreeIPA health check ran in {}ms");
-                    responses.add(response);
-                    if (response.getResult()) {
-                        statuses.put(instanceMetaData, DetailedStackStatus.AVAILABLE);
-                    } else {
-                        statuses.put(instanceMetaData, DetailedStackStatus.UNHEALTHY);
+            if (autoSyncConfig.isParallelHealthCheck()) {
+                checkInParallel(stack, checkableInstances, statuses, responses);
+            } else {
+                for (InstanceMetaData instanceMetaData : checkableInstances) {
+                    try {
+                        addResponse(instanceMetaData, probe(stack, instanceMetaData), statuses, responses);
+                    } catch (Exception e) {
+                        LOGGER.info("FreeIpaClientException occurred during status fetch: " + e.getMessage(), e);
+                        statuses.put(instanceMetaData, DetailedStackStatus.UNREACHABLE);
                     }
-                } catch (Exception e) {
-                    LOGGER.info("FreeIpaClientException occurred during status fetch: " + e.getMessage(), e);
-                    statuses.put(instanceMetaData, DetailedStackStatus.UNREACHABLE);
                 }
             }
             String message = getMessages(responses);
@@ -56,6 +73,63 @@ public class FreeipaChecker {
         }, LOGGER, ":::Auto sync::: freeipa server status is checked in {}ms");
     }
 
+    /**
+     * Probes every instance at the same time. A single probe is bounded by the read timeout of the health check client
+     * ({@code freeipa.healthcheck.readTimeoutMs}), so it ends on its own. The deadline of the stack bounds the whole check including the
+     * time the probes wait for a free executor thread: an instance whose probe is not done by then is considered unreachable, so a
+     * single unresponsive replica can not hold back the status of the others.
+     */
+    private void checkInParallel(Stack stack, Set<InstanceMetaData> checkableInstances, Map<InstanceMetaData, DetailedStackStatus> statuses,
+            List<RPCResponse<Boolean>> responses) throws InterruptedException {
+        long submitted = System.currentTimeMillis();
+        long probeDeadline = submitted + TimeUnit.SECONDS.toMillis(autoSyncConfig.getHealthCheckDeadlineSeconds());
+        Map<InstanceMetaData, Future<RPCResponse<Boolean>>> probes = new HashMap<>();
+        for (InstanceMetaData instanceMetaData : checkableInstances) {
+            probes.put(instanceMetaData, healthCheckTaskExecutor.submit(() -> probe(stack, instanceMetaData)));
+        }
+        try {
+            for (Entry<InstanceMetaData, Future<RPCResponse<Boolean>>> probe : probes.entrySet()) {
+                InstanceMetaData instanceMetaData = probe.getKey();
+                try {
+                    long timeout = Math.max(probeDeadline - System.currentTimeMillis(), 0L);
+                    addResponse(instanceMetaData, probe.getValue().get(timeout, TimeUnit.MILLISECONDS), statuses, responses);
+                } catch (TimeoutException e) {
+                    LOGGER.info("FreeIPA health check of {} did not finish in {}ms", instanceMetaData.getInstanceId(), System.currentTimeMillis() - submitted);
+                    metricService.incrementMetricCounter(MetricType.FREEIPA_HEALTH_PROBE_TIMEOUT, stack);
+                    statuses.put(instanceMetaData, DetailedStackStatus.UNREACHABLE);
+                } catch (ExecutionException e) {
+                    LOGGER.info("FreeIpaClientException occurred during status fetch: " + e.getCause().getMessage(), e.getCause());
+                    statuses.put(instanceMetaData, DetailedStackStatus.UNREACHABLE);
+                }
+            }
+        } finally {
+            probes.values().forEach(probe -> probe.cancel(false));
+        }
+    }
+
+    private RPCResponse<Boolean> probe(Stack stack, InstanceMetaData instanceMetaData) throws Exception {
+        long start = System.currentTimeMillis();
+        String result = "failed";
+        try {
+            RPCResponse<Boolean> response = checkedMeasure(() -> freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, instanceMetaData), LOGGER,
+                    ":::Auto sync::: FreeIPA health check ran in {}ms");
+            result = response.getResult() ? "healthy" : "unhealthy";
+            return response;
+        } finally {
+            metricService.recordHealthProbe(stack, System.currentTimeMillis() - start, result);
+        }
+    }
+
+    private void addResponse(InstanceMetaData instanceMetaData, RPCResponse<Boolean> response, Map<InstanceMetaData, DetailedStackStatus> statuses,
+            List<RPCResponse<Boolean>> responses) {
+        responses.add(response);
+        if (response.getResult()) {
+            statuses.put(instanceMetaData, DetailedStackStatus.AVAILABLE);
+        } else {
+            statuses.put(instanceMetaData, DetailedStackStatus.UNHEALTHY);
+        }
+    }
+
     public SyncResult getStatus(Stack stack, Set<InstanceMetaData> checkableInstances) {
         try {
             if (checkableInstances.isEmpty()) {
@@ -0,0 +1,61 @@
+package com.sequenceiq.freeipa.sync;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.quartz.statuschecker.batch.BatchStatusChecker;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.job.StatusCheckerJob;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.service.stack.StackService;
+
+@Component
+public class StackBatchStatusChecker implements BatchStatusChecker<Stack> {
+
+    @Inject
+    private StackService stackService;
+
+    @Inject
+    private StackStatusCheckerJob stackStatusCheckerJob;
+
+    @Inject
+    private AutoSyncConfig autoSyncConfig;
+
+    @Override
+    public String getName() {
+        return "freeipa";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return autoSyncConfig.isEnabled();
+    }
+
+    @Override
+    public Class<? extends StatusCheckerJob> getReplacedJobClass() {
+        return StackStatusCheckerJob.class;
+    }
+
+    @Override
+    public List<Long> findAllResourceIds() {
+        return stackService.findAllIdsForAutoSync();
+    }
+
+    @Override
+    public List<Stack> loadResources(Collection<Long> resourceIds) {
+        return stackService.findAllWithListsByIds(resourceIds);
+    }
+
+    @Override
+    public Long getResourceId(Stack resource) {
+        return resource.getId();
+    }
+
+    @Override
+    public void check(Stack resource) {
+        stackStatusCheckerJob.syncAStackIfNoFlowRunning(resource);
+    }
+}
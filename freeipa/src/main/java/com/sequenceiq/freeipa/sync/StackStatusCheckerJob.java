@@ -75,11 +75,17 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
 
     @Override
     protected void executeTracedJob(JobExecutionContext context) throws JobExecutionException {
-        Long stackId = getStackId();
-        Stack stack = stackService.getByIdWithListsInTransaction(stackId);
+        syncAStackIfNoFlowRunning(stackService.getByIdWithListsInTransaction(getStackId()));
+    }
+
+    private Long getStackId() {
+        return Long.valueOf(getLocalId());
+    }
+
+    public void syncAStackIfNoFlowRunning(Stack stack) {
         try {
-            if (flowLogService.isOtherFlowRunning(stackId)) {
-                LOGGER.debug("StackStatusCheckerJob cannot run, because flow is running for freeipa stack: {}", stackId);
+            if (flowLogService.isOtherFlowRunning(stack.getId())) {
+                LOGGER.debug("StackStatusCheckerJob cannot run, because flow is running for freeipa stack: {}", stack.getId());
             } else {
                 LOGGER.debug("No flows running, trying to sync freeipa");
                 syncAStack(stack);
@@ -89,10 +95,6 @@ public class StackStatusCheckerJob extends StatusCheckerJob {
         }
     }
 
-    private Long getStackId() {
-        return Long.valueOf(getLocalId());
-    }
-
     public void syncAStack(Stack stack) {
         try {
             checkedMeasure(() -> {
@@ -0,0 +1,27 @@
+-- // CB-10601 create workloadcredentialfingerprints table to store the fingerprints of the last successful full user sync
+
+CREATE SEQUENCE IF NOT EXISTS workloadcredentialfingerprints_id_seq START WITH 1
+  INCREMENT BY 1
+  NO MINVALUE
+  NO MAXVALUE
+  CACHE 1;
+
+CREATE TABLE IF NOT EXISTS workloadcredentialfingerprints
+(
+  id bigint default nextval('workloadcredentialfingerprints_id_seq'::regclass) not null
+    constraint workloadcredentialfingerprints_pkey
+      primary key,
+  stack_id bigint not null
+    constraint fk_workloadcredentialfingerprints_stack_id
+      references stack,
+  fingerprints text
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS workloadcredentialfingerprints_stack_id_idx
+  on workloadcredentialfingerprints (stack_id);
+
+-- //@UNDO
+
+DROP TABLE IF EXISTS workloadcredentialfingerprints;
+
+DROP SEQUENCE IF EXISTS workloadcredentialfingerprints_id_seq;
@@ -0,0 +1,50 @@
+package com.sequenceiq.freeipa.flow.stack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cedarsoftware.util.io.JsonWriter;
+import com.sequenceiq.flow.conf.JsonIoConfig;
+import com.sequenceiq.flow.service.flowlog.codec.BinaryFlowLogPayloadCodec;
+import com.sequenceiq.freeipa.flow.freeipa.upscale.event.UpscaleEvent;
+import com.sequenceiq.freeipa.flow.freeipa.upscale.event.UpscaleFailureEvent;
+import com.sequenceiq.freeipa.flow.stack.termination.event.TerminationEvent;
+
+class FlowLogPayloadCodecRoundTripTest {
+
+    private final BinaryFlowLogPayloadCodec codec = new BinaryFlowLogPayloadCodec();
+
+    private Map<String, Object> jsonWriterOptions;
+
+    @BeforeEach
+    void setUp() {
+        JsonIoConfig jsonIoConfig = new JsonIoConfig();
+        jsonIoConfig.setupJsonReader();
+        jsonWriterOptions = jsonIoConfig.getCustomWriteOptions();
+    }
+
+    @Test
+    void testFlowPayloadsSurviveBinaryRoundTrip() {
+        List<Object> values = List.of(
+                new StackEvent("STACK_PROVISION_EVENT", 1L),
+                new TerminationEvent("TERMINATION_EVENT", 1L, Boolean.FALSE),
+                new UpscaleEvent("UPSCALE_EVENT", 1L, 3, Boolean.FALSE, "operationId"),
+                new UpscaleFailureEvent(1L, "phase", new HashSet<>(Set.of("host-1")), new HashMap<>(Map.of("host-2", "failed")),
+                        new IllegalStateException("failure")),
+                new HashMap<>(Map.of("STACK_ID", 1L, "RETRY", Boolean.FALSE)));
+
+        for (Object value : values) {
+            Object decoded = codec.decode(codec.encode(value));
+            assertEquals(JsonWriter.objectToJson(value, jsonWriterOptions), JsonWriter.objectToJson(decoded, jsonWriterOptions),
+                    value.getClass().getSimpleName() + " changed during the binary round trip");
+        }
+    }
+}
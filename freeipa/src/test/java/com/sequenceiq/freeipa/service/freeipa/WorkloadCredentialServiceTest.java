@@ -1,11 +1,13 @@
 package com.sequenceiq.freeipa.service.freeipa;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -110,6 +112,27 @@ class WorkloadCredentialServiceTest {
         assertEquals(4, warnings.size());
     }
 
+    @Test
+    void testFingerprintsOnlyDifferForChangedCredentials() {
+        Instant expiration = Instant.now();
+        WorkloadCredential credential = new WorkloadCredential("hashedpassword", List.of(), Optional.of(expiration), List.of());
+        WorkloadCredential sameCredential = new WorkloadCredential("hashedpassword", List.of(), Optional.of(expiration), List.of());
+        WorkloadCredential changedPassword = new WorkloadCredential("newhashedpassword", List.of(), Optional.of(expiration), List.of());
+        WorkloadCredential changedSshKey = new WorkloadCredential("hashedpassword", List.of(), Optional.of(expiration),
+                List.of(UserManagementProto.SshPublicKey.newBuilder().setPublicKey("fakepublickey").build()));
+
+        Map<String, String> fingerprints = underTest.getFingerprints(Map.of(
+                "user1", credential,
+                "user2", sameCredential,
+                "user3", changedPassword,
+                "user4", changedSshKey));
+
+        assertEquals(fingerprints.get("user1"), fingerprints.get("user2"));
+        assertNotEquals(fingerprints.get("user1"), fingerprints.get("user3"));
+        assertNotEquals(fingerprints.get("user1"), fingerprints.get("user4"));
+        verifyNoInteractions(freeIpaClient);
+    }
+
     private Map<String, WorkloadCredential> getCredentialMap() {
         return Map.of(
                 "user1", getWorkloadCredential(),
@@ -16,10 +16,12 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -50,7 +52,9 @@ import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UsersStateDifference;
+import com.sequenceiq.freeipa.service.freeipa.user.model.WorkloadCredential;
 import com.sequenceiq.freeipa.service.operation.OperationService;
 import com.sequenceiq.freeipa.service.stack.StackService;
 
@@ -90,6 +94,9 @@ class UserSyncServiceTest {
     @Mock
     BatchPartitionSizeProperties batchPartitionSizeProperties;
 
+    @Mock
+    WorkloadCredentialFingerprintsService workloadCredentialFingerprintsService;
+
     @InjectMocks
     UserSyncService underTest;
 
@@ -220,6 +227,56 @@ class UserSyncServiceTest {
         verifyNoMoreInteractions(freeIpaClient);
     }
 
+    @Test
+    void testUnchangedCredentialUsersAreSkipped() {
+        Stack stack = mock(Stack.class);
+        when(workloadCredentialFingerprintsService.getForStack(stack)).thenReturn(Map.of("user1", "fingerprint1", "user2", "fingerprint2"));
+
+        Set<String> unchangedCredentialUsers = underTest.getUnchangedCredentialUsers(stack,
+                Map.of("user1", "fingerprint1", "user2", "changedFingerprint2", "user3", "fingerprint3"), false);
+
+        assertEquals(Set.of("user1"), unchangedCredentialUsers);
+        Map<String, WorkloadCredential> workloadCredentials = underTest.getWorkloadCredentialsToSet(createUmsUsersState("user1", "user2", "user3"),
+                createUsersStateDifference(ImmutableSet.of()), unchangedCredentialUsers);
+        assertEquals(Set.of("user2", "user3"), workloadCredentials.keySet());
+    }
+
+    @Test
+    void testForceCredentialsUpdateIgnoresStoredFingerprints() {
+        Stack stack = mock(Stack.class);
+
+        Set<String> unchangedCredentialUsers = underTest.getUnchangedCredentialUsers(stack,
+                Map.of("user1", "fingerprint1", "user2", "fingerprint2"), true);
+
+        assertTrue(unchangedCredentialUsers.isEmpty());
+        verifyNoInteractions(workloadCredentialFingerprintsService);
+        Map<String, WorkloadCredential> workloadCredentials = underTest.getWorkloadCredentialsToSet(createUmsUsersState("user1", "user2"),
+                createUsersStateDifference(ImmutableSet.of()), unchangedCredentialUsers);
+        assertEquals(Set.of("user1", "user2"), workloadCredentials.keySet());
+    }
+
+    @Test
+    void testNewlyAddedUsersGetCredentialsEvenIfUnchanged() {
+        UsersStateDifference usersStateDifference = createUsersStateDifference(ImmutableSet.of(new FmsUser().withName("user1")));
+
+        Map<String, WorkloadCredential> workloadCredentials = underTest.getWorkloadCredentialsToSet(createUmsUsersState("user1", "user2", "user3"),
+                usersStateDifference, Set.of("user1", "user2"));
+
+        assertEquals(Set.of("user1", "user3"), workloadCredentials.keySet());
+    }
+
+    private UmsUsersState createUmsUsersState(String... userNames) {
+        UmsUsersState.Builder builder = UmsUsersState.newBuilder().setUsersState(mock(UsersState.class));
+        for (String userName : userNames) {
+            builder.addWorkloadCredentials(userName, mock(WorkloadCredential.class));
+        }
+        return builder.build();
+    }
+
+    private UsersStateDifference createUsersStateDifference(ImmutableSet<FmsUser> usersToAdd) {
+        return new UsersStateDifference(ImmutableSet.of(), ImmutableSet.of(), usersToAdd, ImmutableSet.of(), ImmutableMultimap.of(), ImmutableMultimap.of());
+    }
+
     private Multimap<String, String> setupGroupMapping(int numGroups, int numPerGroup) {
         Multimap<String, String> groupMapping = HashMultimap.create();
         for (int i = 0; i < numGroups; ++i) {
@@ -1,6 +1,7 @@
 package com.sequenceiq.freeipa.service.stack;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.instance.InstanceGroupType;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.instance.InstanceStatus;
@@ -30,6 +32,7 @@ import com.sequenceiq.freeipa.entity.InstanceGroup;
 import com.sequenceiq.freeipa.entity.InstanceMetaData;
 import com.sequenceiq.freeipa.entity.Stack;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
+import com.sequenceiq.freeipa.sync.AutoSyncConfig;
 import com.sequenceiq.freeipa.util.HealthCheckAvailabilityChecker;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +54,9 @@ public class FreeIpaInstanceHealthDetailsServiceTest {
     @Mock
     private FreeIpaHealthCheckClientFactory freeIpaHealthCheckClientFactory;
 
+    @Mock
+    private AutoSyncConfig autoSyncConfig;
+
     @InjectMocks
     private FreeIpaInstanceHealthDetailsService underTest;
 
@@ -171,6 +177,36 @@ public class FreeIpaInstanceHealthDetailsServiceTest {
         Assert.assertTrue(response.getIssues().isEmpty());
     }
 
+    @Test
+    public void testLegacyHealthCheckKeepsTheClientReadTimeoutInSequentialMode() throws Exception {
+        FreeIpaClient mockIpaClient = Mockito.mock(FreeIpaClient.class);
+        Mockito.when(healthCheckAvailabilityChecker.isCdpFreeIpaHeathAgentAvailable(any())).thenReturn(false);
+        Mockito.when(mockIpaClient.getHostname()).thenReturn(HOST);
+        Mockito.when(freeIpaClientFactory.getFreeIpaClientForStackForLegacyHealthCheck(any(), any())).thenReturn(mockIpaClient);
+        Mockito.when(mockIpaClient.serverConnCheck(anyString(), anyString())).thenReturn(getLegacyGoodPayload(HOST));
+
+        InstanceMetaData instanceMetaData = getInstance();
+        underTest.checkFreeIpaHealth(getStack(Set.of(instanceMetaData)), instanceMetaData);
+
+        Mockito.verify(mockIpaClient, Mockito.never()).setReadTimeoutMillis(anyInt());
+    }
+
+    @Test
+    public void testLegacyHealthCheckUsesTheHealthCheckReadTimeoutInParallelMode() throws Exception {
+        FreeIpaClient mockIpaClient = Mockito.mock(FreeIpaClient.class);
+        ReflectionTestUtils.setField(underTest, "healthCheckReadTimeoutMillis", 5000);
+        Mockito.when(autoSyncConfig.isParallelHealthCheck()).thenReturn(true);
+        Mockito.when(healthCheckAvailabilityChecker.isCdpFreeIpaHeathAgentAvailable(any())).thenReturn(false);
+        Mockito.when(mockIpaClient.getHostname()).thenReturn(HOST);
+        Mockito.when(freeIpaClientFactory.getFreeIpaClientForStackForLegacyHealthCheck(any(), any())).thenReturn(mockIpaClient);
+        Mockito.when(mockIpaClient.serverConnCheck(anyString(), anyString())).thenReturn(getLegacyGoodPayload(HOST));
+
+        InstanceMetaData instanceMetaData = getInstance();
+        underTest.checkFreeIpaHealth(getStack(Set.of(instanceMetaData)), instanceMetaData);
+
+        Mockito.verify(mockIpaClient).setReadTimeoutMillis(5000);
+    }
+
     @Test
     public void testGetInstanceHealthDetailsLegacyUnhealthyNode() throws Exception {
         FreeIpaClient mockIpaClient = Mockito.mock(FreeIpaClient.class);
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.Status;
 import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.list.ListFreeIpaResponse;
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.status.EnvironmentFreeIpaStatusResponse;
 import com.sequenceiq.freeipa.converter.stack.FreeIpaToListFreeIpaResponseConverter;
+import com.sequenceiq.freeipa.dto.EnvironmentCrnWithStatus;
 import com.sequenceiq.freeipa.entity.FreeIpa;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaService;
 
@@ -29,6 +33,9 @@ class FreeIpaListServiceTest {
     @Mock
     private FreeIpaService freeIpaService;
 
+    @Mock
+    private StackService stackService;
+
     @Mock
     private FreeIpaToListFreeIpaResponseConverter freeIpaToListFreeIpaResponseConverter;
 
@@ -47,6 +54,21 @@ class FreeIpaListServiceTest {
         verify(freeIpaToListFreeIpaResponseConverter).convertList(freeIpaList);
     }
 
+    @Test
+    void testGetStatusesByEnvironmentCrns() {
+        Set<String> environmentCrns = Set.of("env1", "env2", "env3");
+        when(stackService.findStatusesByEnvironmentCrnsAndAccountId(environmentCrns, ACCOUNT_ID))
+                .thenReturn(List.of(new EnvironmentCrnWithStatus("env1", Status.AVAILABLE), new EnvironmentCrnWithStatus("env2", Status.STOPPED)));
+
+        List<EnvironmentFreeIpaStatusResponse> actual = underTest.getStatusesByEnvironmentCrns(environmentCrns, ACCOUNT_ID);
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals("env1", actual.get(0).getEnvironmentCrn());
+        Assertions.assertEquals(Status.AVAILABLE, actual.get(0).getStatus());
+        Assertions.assertEquals("env2", actual.get(1).getEnvironmentCrn());
+        Assertions.assertEquals(Status.STOPPED, actual.get(1).getStatus());
+    }
+
     private List<FreeIpa> createSFreeIpaList() {
         return Collections.singletonList(new FreeIpa());
     }
@@ -0,0 +1,113 @@
+package com.sequenceiq.freeipa.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import com.sequenceiq.freeipa.api.v1.freeipa.stack.model.common.DetailedStackStatus;
+import com.sequenceiq.freeipa.client.model.RPCResponse;
+import com.sequenceiq.freeipa.entity.InstanceMetaData;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.metrics.FreeIpaMetricService;
+import com.sequenceiq.freeipa.metrics.MetricType;
+import com.sequenceiq.freeipa.service.stack.FreeIpaInstanceHealthDetailsService;
+
+@ExtendWith(MockitoExtension.class)
+class FreeipaCheckerTest {
+
+    private final CountDownLatch unresponsiveReplica = new CountDownLatch(1);
+
+    @Mock
+    private FreeIpaInstanceHealthDetailsService freeIpaInstanceHealthDetailsService;
+
+    @Mock
+    private AutoSyncConfig autoSyncConfig;
+
+    @Mock
+    private FreeIpaMetricService metricService;
+
+    @Spy
+    private AsyncTaskExecutor healthCheckTaskExecutor = new SimpleAsyncTaskExecutor();
+
+    @Mock
+    private Stack stack;
+
+    @InjectMocks
+    private FreeipaChecker underTest;
+
+    @AfterEach
+    void tearDown() {
+        unresponsiveReplica.countDown();
+    }
+
+    @Test
+    void testInstancesAreCheckedOneByOneByDefault() throws Exception {
+        InstanceMetaData primary = instance("primary");
+        InstanceMetaData replica = instance("replica");
+        when(stack.getAllInstanceMetaDataList()).thenReturn(List.of(primary, replica));
+        when(freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, primary)).thenReturn(response(true));
+        when(freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, replica)).thenReturn(response(true));
+
+        SyncResult result = underTest.getStatus(stack, Set.of(primary, replica));
+
+        assertEquals(DetailedStackStatus.AVAILABLE, result.getStatus());
+        verify(metricService, times(2)).recordHealthProbe(eq(stack), anyLong(), eq("healthy"));
+        verifyNoInteractions(healthCheckTaskExecutor);
+    }
+
+    @Test
+    void testUnresponsiveReplicaIsUnreachableAfterTheDeadlineInParallelMode() throws Exception {
+        InstanceMetaData primary = instance("primary");
+        InstanceMetaData replica = instance("replica");
+        when(autoSyncConfig.isParallelHealthCheck()).thenReturn(true);
+        when(autoSyncConfig.getHealthCheckDeadlineSeconds()).thenReturn(1L);
+        when(stack.getAllInstanceMetaDataList()).thenReturn(List.of(primary, replica));
+        when(freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, primary)).thenReturn(response(true));
+        when(freeIpaInstanceHealthDetailsService.checkFreeIpaHealth(stack, replica)).thenAnswer(invocation -> {
+            unresponsiveReplica.await(30, TimeUnit.SECONDS);
+            return response(true);
+        });
+
+        long start = System.currentTimeMillis();
+        SyncResult result = underTest.getStatus(stack, Set.of(primary, replica));
+
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(10));
+        assertEquals(DetailedStackStatus.UNHEALTHY, result.getStatus());
+        assertEquals(DetailedStackStatus.AVAILABLE, result.getInstanceStatusMap().get(primary));
+        assertEquals(DetailedStackStatus.UNREACHABLE, result.getInstanceStatusMap().get(replica));
+        verify(metricService).incrementMetricCounter(MetricType.FREEIPA_HEALTH_PROBE_TIMEOUT, stack);
+    }
+
+    private InstanceMetaData instance(String instanceId) {
+        InstanceMetaData instanceMetaData = new InstanceMetaData();
+        instanceMetaData.setInstanceId(instanceId);
+        return instanceMetaData;
+    }
+
+    private RPCResponse<Boolean> response(boolean healthy) {
+        RPCResponse<Boolean> response = new RPCResponse<>();
+        response.setResult(healthy);
+        response.setMessages(List.of());
+        return response;
+    }
+}
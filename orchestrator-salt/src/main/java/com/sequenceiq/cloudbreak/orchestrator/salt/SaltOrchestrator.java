@@ -6,7 +6,10 @@ import static com.sequenceiq.cloudbreak.common.type.RecipeExecutionPhase.convert
 import static com.sequenceiq.cloudbreak.util.FileReaderUtils.readFileFromClasspath;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -20,6 +23,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -33,10 +37,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
 import com.sequenceiq.cloudbreak.common.exception.CloudbreakServiceException;
 import com.sequenceiq.cloudbreak.common.exception.NotFoundException;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.common.type.RecipeExecutionPhase;
 import com.sequenceiq.cloudbreak.orchestrator.OrchestratorBootstrap;
 import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorException;
@@ -54,13 +63,16 @@ import com.sequenceiq.cloudbreak.orchestrator.model.RecipeModel;
 import com.sequenceiq.cloudbreak.orchestrator.model.SaltConfig;
 import com.sequenceiq.cloudbreak.orchestrator.model.SaltPillarProperties;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltUploadHashCache;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.Glob;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.HostList;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.RoleTarget;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.Target;
 import com.sequenceiq.cloudbreak.orchestrator.salt.domain.MinionIpAddressesResponse;
 import com.sequenceiq.cloudbreak.orchestrator.salt.domain.MinionStatusSaltResponse;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainTransaction;
 import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainUploader;
+import com.sequenceiq.cloudbreak.orchestrator.salt.metrics.SaltMetricType;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.BaseSaltJobRunner;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.PillarSave;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.SaltBootstrap;
@@ -124,6 +136,8 @@ SaltOrchestrator implements HostOrchestrator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SaltOrchestrator.class);
 
+    private static final ObjectMapper PILLAR_CONTENT_MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
     @Value("${cb.max.salt.new.service.retry}")
     private int maxRetry;
 
@@ -163,6 +177,12 @@ SaltOrchestrator implements HostOrchestrator {
     @Inject
     private SaltService saltService;
 
+    @Inject
+    private SaltUploadHashCache saltUploadHashCache;
+
+    @Inject
+    private MetricService metricService;
+
     @Override
     public void bootstrap(List<GatewayConfig> allGatewayConfigs, Set<Node> targets, BootstrapParams params,
             ExitCriteriaModel exitModel) throws CloudbreakOrchestratorException {
@@ -170,7 +190,7 @@ SaltOrchestrator implements HostOrchestrator {
         GatewayConfig primaryGateway = saltService.getPrimaryGatewayConfig(allGatewayConfigs);
         Set<String> gatewayTargets = getGatewayPrivateIps(allGatewayConfigs);
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
-            uploadSaltConfig(sc, gatewayTargets, exitModel);
+            uploadSaltConfig(sc, getGatewayInstanceIds(allGatewayConfigs, gatewayTargets), exitModel);
             Set<String> allTargets = targets.stream().map(Node::getPrivateIp).collect(Collectors.toSet());
             uploadSignKey(sc, primaryGateway, gatewayTargets, allTargets, exitModel);
             OrchestratorBootstrap saltBootstrap = new SaltBootstrap(sc, allGatewayConfigs, targets, params);
@@ -272,6 +292,8 @@ SaltOrchestrator implements HostOrchestrator {
 
     private void uploadMountScriptsAndMakeThemExecutable(Set<Node> nodes, ExitCriteriaModel exitModel, Set<String> allTargets, Target<String> allHosts,
             SaltConnector sc) throws IOException {
+        Map<String, String> hostnameInstanceIds = new HashMap<>();
+        nodes.forEach(node -> hostnameInstanceIds.put(node.getHostname(), node.getInstanceId()));
         Map.of(
                 DISK_INITIALIZE, readFileFromClasspath(DISK_SCRIPT_PATH + DISK_INITIALIZE).getBytes(),
                 DISK_COMMON, readFileFromClasspath(DISK_SCRIPT_PATH + DISK_COMMON).getBytes(),
@@ -283,7 +305,7 @@ SaltOrchestrator implements HostOrchestrator {
                     String scriptName = script.getKey();
                     try {
                         LOGGER.debug("Uploading script {} to targets {}", scriptName, nodes);
-                        uploadFileToTargets(sc, allTargets, exitModel, SRV_SALT_DISK, scriptName, script.getValue());
+                        uploadIdempotentFileToTargets(sc, hostnameInstanceIds, exitModel, SRV_SALT_DISK, scriptName, script.getValue());
                         return SRV_SALT_DISK + '/' + scriptName;
                     } catch (CloudbreakOrchestratorFailedException e) {
                         String message = String.format("Failed to upload file %s, to targets %s", scriptName, allTargets.toString());
@@ -304,7 +326,7 @@ SaltOrchestrator implements HostOrchestrator {
                 .map(GatewayConfig::getPrivateAddress).collect(Collectors.toSet());
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
             if (!gatewayTargets.isEmpty()) {
-                uploadSaltConfig(sc, gatewayTargets, stateConfigZip, exitModel);
+                uploadSaltConfig(sc, getGatewayInstanceIds(allGatewayConfigs, gatewayTargets), stateConfigZip, exitModel);
                 params.setRestartNeeded(true);
             }
             uploadSignKey(sc, primaryGateway, gatewayTargets, targets.stream().map(Node::getPrivateIp).collect(Collectors.toSet()), exitModel);
@@ -333,28 +355,27 @@ SaltOrchestrator implements HostOrchestrator {
             Callable<Boolean> saltPillarRunner = saltRunner.runner(hostSave, exitCriteria, exitModel);
             saltPillarRunner.call();
 
-            for (Entry<String, SaltPillarProperties> propertiesEntry : saltConfig.getServicePillarConfig().entrySet()) {
-                OrchestratorBootstrap pillarSave = new PillarSave(sc, gatewayTargetIpAddresses, propertiesEntry.getValue());
-                saltPillarRunner = saltRunner.runner(pillarSave, exitCriteria, exitModel);
-                saltPillarRunner.call();
-            }
+            saveServicePillars(sc, getGatewayInstanceIds(allGateway), saltConfig.getServicePillarConfig(), "initServiceRun",
+                    pillarSave -> saltRunner.runner(pillarSave, exitCriteria, exitModel));
 
-            setAdMemberRoleIfNeeded(allNodes, saltConfig, exitModel, sc, allNodeHostname);
-            setIpaMemberRoleIfNeeded(allNodes, saltConfig, exitModel, sc, allNodeHostname);
+            GrainTransaction roles = new GrainTransaction();
+            setAdMemberRoleIfNeeded(saltConfig, roles, allNodeHostname);
+            setIpaMemberRoleIfNeeded(saltConfig, roles, allNodeHostname);
 
             // knox
             if (primaryGateway.getKnoxGatewayEnabled()) {
-                saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(gatewayTargetHostnames, allNodes, "gateway"), exitModel, exitCriteria);
+                roles.addRole(gatewayTargetHostnames, "gateway");
             }
 
-            setPostgreRoleIfNeeded(allNodes, saltConfig, exitModel, sc, serverHostname);
+            setPostgreRoleIfNeeded(saltConfig, roles, serverHostname);
 
-            addClusterManagerRoles(allNodes, exitModel, sc, serverHostname, allNodeHostname);
+            addClusterManagerRoles(roles, serverHostname, allNodeHostname);
 
             // kerberos
             if (saltConfig.getServicePillarConfig().containsKey("kerberos")) {
-                saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(allNodeHostname, allNodes, "kerberized"), exitModel, exitCriteria);
+                roles.addRole(allNodeHostname, "kerberized");
             }
+            saltCommandRunner.runGrainTransaction(sc, roles, allNodes, exitModel, exitCriteria);
             grainUploader.uploadGrains(allNodes, saltConfig.getGrainsProperties(), exitModel, sc, exitCriteria);
 
             runSyncAll(sc, allNodeHostname, allNodes, exitModel);
@@ -382,11 +403,8 @@ SaltOrchestrator implements HostOrchestrator {
             Callable<Boolean> saltPillarRunner = saltRunner.runner(hostSave, exitCriteria, exitModel);
             saltPillarRunner.call();
 
-            for (Entry<String, SaltPillarProperties> propertiesEntry : saltConfig.getServicePillarConfig().entrySet()) {
-                OrchestratorBootstrap pillarSave = new PillarSave(sc, gatewayTargets, propertiesEntry.getValue());
-                saltPillarRunner = saltRunner.runner(pillarSave, exitCriteria, exitModel);
-                saltPillarRunner.call();
-            }
+            saveServicePillars(sc, getGatewayInstanceIds(allGateway), saltConfig.getServicePillarConfig(), "initSaltConfig",
+                    pillarSave -> saltRunner.runner(pillarSave, exitCriteria, exitModel));
         } catch (ExecutionException e) {
             LOGGER.warn("Error occurred during bootstrap", e);
             if (e.getCause() instanceof CloudbreakOrchestratorFailedException) {
@@ -400,23 +418,20 @@ SaltOrchestrator implements HostOrchestrator {
         }
     }
 
-    private void addClusterManagerRoles(Set<Node> allNodes, ExitCriteriaModel exitModel,
-            SaltConnector sc, Set<String> serverHostnames, Set<String> allNodeHostname) throws Exception {
-        saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(allNodeHostname, allNodes, "manager_agent"), exitModel, exitCriteria);
-        saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(serverHostnames, allNodes, "manager_server"), exitModel, exitCriteria);
+    private void addClusterManagerRoles(GrainTransaction roles, Set<String> serverHostnames, Set<String> allNodeHostname) {
+        roles.addRole(allNodeHostname, "manager_agent");
+        roles.addRole(serverHostnames, "manager_server");
     }
 
-    private void setAdMemberRoleIfNeeded(Set<Node> allNodes, SaltConfig saltConfig, ExitCriteriaModel exitModel, SaltConnector sc, Set<String> allHostnames)
-            throws Exception {
+    private void setAdMemberRoleIfNeeded(SaltConfig saltConfig, GrainTransaction roles, Set<String> allHostnames) {
         if (saltConfig.getServicePillarConfig().containsKey("sssd-ad")) {
-            saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(allHostnames, allNodes, "ad_member"), exitModel, exitCriteria);
+            roles.addRole(allHostnames, "ad_member");
         }
     }
 
-    private void setIpaMemberRoleIfNeeded(Set<Node> allNodes, SaltConfig saltConfig, ExitCriteriaModel exitModel, SaltConnector sc, Set<String> allHostnames)
-            throws Exception {
+    private void setIpaMemberRoleIfNeeded(SaltConfig saltConfig, GrainTransaction roles, Set<String> allHostnames) {
         if (saltConfig.getServicePillarConfig().containsKey("sssd-ipa")) {
-            saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(allHostnames, allNodes, "ipa_member"), exitModel, exitCriteria);
+            roles.addRole(allHostnames, "ipa_member");
         }
     }
 
@@ -455,10 +470,9 @@ SaltOrchestrator implements HostOrchestrator {
         }
     }
 
-    private void setPostgreRoleIfNeeded(Set<Node> allNodes, SaltConfig saltConfig, ExitCriteriaModel exitModel, SaltConnector sc, Set<String> serverHostname)
-            throws Exception {
+    private void setPostgreRoleIfNeeded(SaltConfig saltConfig, GrainTransaction roles, Set<String> serverHostname) {
         if (saltConfig.getServicePillarConfig().containsKey("postgresql-server")) {
-            saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(serverHostname, allNodes, "postgresql_server"), exitModel, exitCriteria);
+            roles.addRole(serverHostname, "postgresql_server");
         }
     }
 
@@ -631,11 +645,8 @@ SaltOrchestrator implements HostOrchestrator {
     public void upgradeClusterManager(GatewayConfig gatewayConfig, Set<String> target, Set<Node> allNodes, SaltConfig pillarConfig,
             ExitCriteriaModel exitCriteriaModel) throws CloudbreakOrchestratorFailedException {
         try (SaltConnector sc = saltService.createSaltConnector(gatewayConfig)) {
-            for (Entry<String, SaltPillarProperties> propertiesEntry : pillarConfig.getServicePillarConfig().entrySet()) {
-                OrchestratorBootstrap pillarSave = new PillarSave(sc, Sets.newHashSet(gatewayConfig.getPrivateAddress()), propertiesEntry.getValue());
-                Callable<Boolean> saltPillarRunner = saltRunner.runner(pillarSave, exitCriteria, exitCriteriaModel);
-                saltPillarRunner.call();
-            }
+            saveServicePillars(sc, getGatewayInstanceIds(List.of(gatewayConfig)), pillarConfig.getServicePillarConfig(), "upgradeClusterManager",
+                    pillarSave -> saltRunner.runner(pillarSave, exitCriteria, exitCriteriaModel));
 
             // add 'manager_upgrade' role to all nodes
             Set<String> targetHostnames = allNodes.stream().map(Node::getHostname).collect(Collectors.toSet());
@@ -858,30 +869,26 @@ SaltOrchestrator implements HostOrchestrator {
             if (!responsiveNodes.isEmpty()) {
                 LOGGER.debug("Applying role 'cloudera_manager_agent_stop' on nodes: [{}]", responsiveNodes);
                 Set<String> targetHostnames = responsiveNodes.stream().map(Node::getHostname).collect(Collectors.toSet());
-                saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(targetHostnames, responsiveNodes, "roles", "cloudera_manager_agent_stop"),
-                        exitCriteriaModel, exitCriteria);
+                GrainTransaction stopRoles = new GrainTransaction().addRole(targetHostnames, "cloudera_manager_agent_stop");
                 if (adJoinable || ipaJoinable) {
                     String identityRole = adJoinable ? "ad_leave" : "ipa_leave";
                     LOGGER.debug("Applying role '{}' on nodes: [{}]", identityRole, responsiveNodes);
-                    saltCommandRunner.runModifyGrainCommand(sc, new GrainAddRunner(targetHostnames, responsiveNodes, "roles", identityRole), exitCriteriaModel,
-                            exitCriteria);
+                    stopRoles.addRole(targetHostnames, identityRole);
                     String removeIdentityRole = adJoinable ? "ad_member" : "ipa_member";
                     LOGGER.debug("Removing role '{}' on nodes: [{}]", removeIdentityRole, responsiveNodes);
-                    saltCommandRunner.runModifyGrainCommand(sc, new GrainRemoveRunner(targetHostnames, responsiveNodes, "roles", removeIdentityRole),
-                            exitCriteriaModel, exitCriteria);
+                    stopRoles.removeRole(targetHostnames, removeIdentityRole);
                 }
+                saltCommandRunner.runGrainTransaction(sc, stopRoles, responsiveNodes, exitCriteriaModel, exitCriteria);
 
                 Set<String> allHostnames = responsiveNodes.stream().map(Node::getHostname).collect(Collectors.toSet());
                 runSyncAll(sc, allHostnames, responsiveNodes, exitCriteriaModel);
                 runNewService(sc, new HighStateAllRunner(allHostnames, responsiveNodes), exitCriteriaModel, maxRetry, true);
 
-                saltCommandRunner.runModifyGrainCommand(sc, new GrainRemoveRunner(targetHostnames, responsiveNodes, "roles", "cloudera_manager_agent_stop"),
-                        exitCriteriaModel, exitCriteria);
+                GrainTransaction cleanupRoles = new GrainTransaction().removeRole(targetHostnames, "cloudera_manager_agent_stop");
                 if (adJoinable || ipaJoinable) {
-                    String identityRole = adJoinable ? "ad_leave" : "ipa_leave";
-                    saltCommandRunner.runModifyGrainCommand(sc,
-                            new GrainRemoveRunner(targetHostnames, responsiveNodes, "roles", identityRole), exitCriteriaModel, exitCriteria);
+                    cleanupRoles.removeRole(targetHostnames, adJoinable ? "ad_leave" : "ipa_leave");
                 }
+                saltCommandRunner.runGrainTransaction(sc, cleanupRoles, responsiveNodes, exitCriteriaModel, exitCriteria);
             }
         } catch (Exception e) {
             LOGGER.info("Error occurred during executing highstate (for cluster manager agent stop).", e);
@@ -1026,11 +1033,8 @@ SaltOrchestrator implements HostOrchestrator {
     private void callBackupRestore(GatewayConfig primaryGateway, Set<String> target, Set<Node> allNodes, SaltConfig saltConfig,
             ExitCriteriaModel exitModel, String state) throws CloudbreakOrchestratorFailedException {
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
-            for (Entry<String, SaltPillarProperties> propertiesEntry : saltConfig.getServicePillarConfig().entrySet()) {
-                OrchestratorBootstrap pillarSave = new PillarSave(sc, Sets.newHashSet(primaryGateway.getPrivateAddress()), propertiesEntry.getValue());
-                Callable<Boolean> saltPillarRunner = saltRunner.runner(pillarSave, exitCriteria, exitModel, maxDatabaseDrRetry, maxDatabaseDrRetryOnError);
-                saltPillarRunner.call();
-            }
+            saveServicePillars(sc, getGatewayInstanceIds(List.of(primaryGateway)), saltConfig.getServicePillarConfig(), state,
+                    pillarSave -> saltRunner.runner(pillarSave, exitCriteria, exitModel, maxDatabaseDrRetry, maxDatabaseDrRetryOnError));
 
             StateRunner stateRunner = new StateRunner(target, allNodes, state);
             OrchestratorBootstrap saltJobIdTracker = new SaltJobIdTracker(sc, stateRunner);
@@ -1047,6 +1051,18 @@ SaltOrchestrator implements HostOrchestrator {
         return allGatewayConfigs.stream().map(GatewayConfig::getPrivateAddress).collect(Collectors.toSet());
     }
 
+    private Map<String, String> getGatewayInstanceIds(Collection<GatewayConfig> allGatewayConfigs) {
+        return getGatewayInstanceIds(allGatewayConfigs, getGatewayPrivateIps(allGatewayConfigs));
+    }
+
+    private Map<String, String> getGatewayInstanceIds(Collection<GatewayConfig> allGatewayConfigs, Set<String> gatewayTargets) {
+        Map<String, String> gatewayInstanceIds = new HashMap<>();
+        allGatewayConfigs.stream()
+                .filter(gatewayConfig -> gatewayTargets.contains(gatewayConfig.getPrivateAddress()))
+                .forEach(gatewayConfig -> gatewayInstanceIds.put(gatewayConfig.getPrivateAddress(), gatewayConfig.getInstanceId()));
+        return gatewayInstanceIds;
+    }
+
     private Set<String> getGatewayHostnames(Collection<GatewayConfig> allGatewayConfigs) {
         return allGatewayConfigs.stream().map(GatewayConfig::getHostname).collect(Collectors.toSet());
     }
@@ -1112,17 +1128,28 @@ SaltOrchestrator implements HostOrchestrator {
         }
     }
 
-    private void uploadSaltConfig(SaltConnector saltConnector, Set<String> targets, ExitCriteriaModel exitCriteriaModel)
+    private void uploadSaltConfig(SaltConnector saltConnector, Map<String, String> targetInstanceIds, ExitCriteriaModel exitCriteriaModel)
             throws CloudbreakOrchestratorFailedException, IOException {
-        uploadSaltConfig(saltConnector, targets, null, exitCriteriaModel);
+        uploadSaltConfig(saltConnector, targetInstanceIds, null, exitCriteriaModel);
     }
 
-    private void uploadSaltConfig(SaltConnector saltConnector, Set<String> targets, byte[] stateConfigZip, ExitCriteriaModel exitCriteriaModel)
-            throws CloudbreakOrchestratorFailedException, IOException {
-        byte[] byteArray;
-        byteArray = stateConfigZip == null || stateConfigZip.length == 0 ? getStateConfigZip() : stateConfigZip;
-        LOGGER.debug("Upload salt.zip to gateways");
-        uploadFileToTargets(saltConnector, targets, exitCriteriaModel, "/srv", "salt.zip", byteArray);
+    private void uploadSaltConfig(SaltConnector saltConnector, Map<String, String> targetInstanceIds, byte[] stateConfigZip,
+            ExitCriteriaModel exitCriteriaModel) throws CloudbreakOrchestratorFailedException, IOException {
+        if (stateConfigZip == null || stateConfigZip.length == 0) {
+            Path stateConfigZipFile = Files.createTempFile("salt", ".zip");
+            try {
+                try (OutputStream outputStream = Files.newOutputStream(stateConfigZipFile)) {
+                    CompressUtil.writeCompressedOutputFromFolders(outputStream, "salt-common", "salt");
+                }
+                LOGGER.debug("Upload salt.zip to gateways");
+                uploadIdempotentFileToTargets(saltConnector, targetInstanceIds, exitCriteriaModel, "/srv", "salt.zip", stateConfigZipFile);
+            } finally {
+                Files.deleteIfExists(stateConfigZipFile);
+            }
+        } else {
+            LOGGER.debug("Upload salt.zip to gateways");
+            uploadIdempotentFileToTargets(saltConnector, targetInstanceIds, exitCriteriaModel, "/srv", "salt.zip", stateConfigZip);
+        }
     }
 
     private void uploadSignKey(SaltConnector saltConnector, GatewayConfig gateway, Set<String> gatewayTargets,
@@ -1166,6 +1193,90 @@ SaltOrchestrator implements HostOrchestrator {
         }
     }
 
+    /**
+     * Uploads a file that is safe to skip when the target instance already got the same content: it has to be idempotent to apply and
+     * must not hold secrets, because the upload is not repeated until the recorded content hash expires.
+     */
+    private void uploadIdempotentFileToTargets(SaltConnector saltConnector, Map<String, String> targetInstanceIds, ExitCriteriaModel exitCriteriaModel,
+            String path, String fileName, byte[] content) throws CloudbreakOrchestratorFailedException {
+        String contentHash = saltUploadHashCache.isEnabled() ? Hashing.sha256().hashBytes(content).toString() : null;
+        uploadIdempotentFileToTargets(saltConnector, targetInstanceIds, exitCriteriaModel, path, fileName, contentHash,
+                uploadTargets -> new SaltUpload(saltConnector, uploadTargets, path, fileName, content));
+    }
+
+    private void uploadIdempotentFileToTargets(SaltConnector saltConnector, Map<String, String> targetInstanceIds, ExitCriteriaModel exitCriteriaModel,
+            String path, String fileName, Path file) throws CloudbreakOrchestratorFailedException, IOException {
+        String contentHash = saltUploadHashCache.isEnabled() ? MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString() : null;
+        uploadIdempotentFileToTargets(saltConnector, targetInstanceIds, exitCriteriaModel, path, fileName, contentHash,
+                uploadTargets -> new SaltUpload(saltConnector, uploadTargets, path, fileName, file));
+    }
+
+    private void uploadIdempotentFileToTargets(SaltConnector saltConnector, Map<String, String> targetInstanceIds, ExitCriteriaModel exitCriteriaModel,
+            String path, String fileName, String contentHash, Function<Set<String>, OrchestratorBootstrap> saltUploadFactory)
+            throws CloudbreakOrchestratorFailedException {
+        Set<String> uploadTargets = contentHash == null
+                ? targetInstanceIds.keySet()
+                : saltUploadHashCache.targetsWithoutContent(targetInstanceIds, path, fileName, contentHash);
+        if (uploadTargets.isEmpty()) {
+            LOGGER.debug("{}/{} is already uploaded to every target: {}", path, fileName, targetInstanceIds.keySet());
+            return;
+        }
+        try {
+            OrchestratorBootstrap saltUpload = saltUploadFactory.apply(uploadTargets);
+            Callable<Boolean> saltUploadRunner = saltRunner.runner(saltUpload, exitCriteria, exitCriteriaModel);
+            saltUploadRunner.call();
+            if (contentHash != null) {
+                saltUploadHashCache.contentUploaded(targetInstanceIds, uploadTargets, path, fileName, contentHash);
+            }
+        } catch (Exception e) {
+            if (contentHash != null) {
+                saltUploadHashCache.contentUploadFailed(targetInstanceIds, uploadTargets, path, fileName);
+            }
+            LOGGER.info("Error occurred during file distribute to gateway nodes", e);
+            throw new CloudbreakOrchestratorFailedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Saves the service pillars one by one, each with its own bootstrap task. When pillar deduplication is enabled, the pillars whose
+     * content is already on every target instance are skipped, and the calls and bytes this saved are reported for the given operation.
+     */
+    private void saveServicePillars(SaltConnector sc, Map<String, String> targetInstanceIds, Map<String, SaltPillarProperties> servicePillars,
+            String operation, Function<OrchestratorBootstrap, Callable<Boolean>> runnerFactory) throws Exception {
+        boolean dedup = saltUploadHashCache.isPillarDedupEnabled();
+        Set<String> targets = targetInstanceIds.keySet();
+        int skippedPillars = 0;
+        long skippedBytes = 0;
+        for (SaltPillarProperties pillarProperties : servicePillars.values()) {
+            String contentHash = null;
+            if (dedup) {
+                byte[] content = PILLAR_CONTENT_MAPPER.writeValueAsBytes(pillarProperties.getProperties());
+                contentHash = Hashing.sha256().hashBytes(content).toString();
+                if (saltUploadHashCache.targetsWithoutPillar(targetInstanceIds, pillarProperties.getPath(), contentHash).isEmpty()) {
+                    skippedPillars++;
+                    skippedBytes += content.length;
+                    continue;
+                }
+            }
+            OrchestratorBootstrap pillarSave = new PillarSave(sc, new HashSet<>(targets), pillarProperties);
+            try {
+                runnerFactory.apply(pillarSave).call();
+            } catch (Exception e) {
+                if (contentHash != null) {
+                    saltUploadHashCache.pillarSaveFailed(targetInstanceIds, pillarProperties.getPath());
+                }
+                throw e;
+            }
+            if (contentHash != null) {
+                saltUploadHashCache.pillarSaved(targetInstanceIds, pillarProperties.getPath(), contentHash);
+            }
+        }
+        if (skippedPillars > 0) {
+            LOGGER.info("{} of {} pillars are unchanged for {}, {} bytes are not sent", skippedPillars, servicePillars.size(), operation, skippedBytes);
+            metricService.incrementMetricCounter(SaltMetricType.PILLAR_DEDUP_SKIPPED, skippedPillars, "operation", operation);
+        }
+    }
+
     private void uploadFileToTargetsWithPermission(SaltConnector saltConnector, Set<String> targets, ExitCriteriaModel exitCriteriaModel,
             String path, String fileName, byte[] content) throws CloudbreakOrchestratorFailedException {
         try {
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
 import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltClientPool;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
 
 import io.opentracing.Tracer;
@@ -27,11 +28,14 @@ public class SaltService {
     @Inject
     private Tracer tracer;
 
+    @Inject
+    private SaltClientPool saltClientPool;
+
     @Value("${rest.debug}")
     private boolean restDebug;
 
     public SaltConnector createSaltConnector(GatewayConfig gatewayConfig) {
-        return new SaltConnector(gatewayConfig, saltErrorResolver, restDebug, tracer);
+        return new SaltConnector(gatewayConfig, saltErrorResolver, restDebug, tracer, saltClientPool.isEnabled() ? saltClientPool : null);
     }
 
     public GatewayConfig getPrimaryGatewayConfig(List<GatewayConfig> allGatewayConfigs) throws CloudbreakOrchestratorFailedException {
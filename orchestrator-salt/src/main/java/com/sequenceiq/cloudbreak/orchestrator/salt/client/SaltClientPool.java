@@ -0,0 +1,192 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.ws.rs.client.Client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.client.RestClientUtil;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.salt.metrics.SaltMetricType;
+
+/**
+ * Keeps the JAX-RS clients of the salt gateways so that {@link SaltConnector}s created for the same gateway share one client instead of
+ * parsing the PEM material and building a new SSL context every time. Sharing the SSL context lets the connections be kept alive and the
+ * TLS sessions be resumed between operations. The clients are keyed by the gateway address and the fingerprint of the certificates, so a
+ * rotated certificate always gets a new client, and the clients that are not leased by any connector are closed after an idle timeout.
+ */
+@Component
+public class SaltClientPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltClientPool.class);
+
+    @Value("${cb.salt.client.pool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.salt.client.pool.idle.timeout.ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${cb.salt.client.pool.max.size:1000}")
+    private int maxSize;
+
+    @Inject
+    private MetricService metricService;
+
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService evictionExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            LOGGER.info("Salt client pool is enabled, idle timeout: {} ms, max size: {}", idleTimeoutMs, maxSize);
+            metricService.gaugeMapSize(SaltMetricType.CLIENT_POOL_SIZE, clients);
+            evictionExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("salt-client-pool-eviction")
+                    .setDaemon(true).build());
+            long evictionPeriod = Math.max(idleTimeoutMs / 2, 1L);
+            evictionExecutor.scheduleWithFixedDelay(this::evictIdleClients, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+        }
+        clients.values().forEach(pooledClient -> pooledClient.client.close());
+        clients.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the client of the gateway, creating it if there is none for the current certificates. Every lease must be released with
+     * {@link #release(String)} using the returned lease key, the client itself must not be closed by the caller.
+     */
+    public Lease lease(GatewayConfig gatewayConfig, boolean debug) {
+        String key = createKey(gatewayConfig, debug);
+        if (!clients.containsKey(key) && clients.size() >= maxSize) {
+            evictLeastRecentlyUsedClient();
+        }
+        PooledClient pooledClient = clients.compute(key, (k, current) -> {
+            PooledClient result = current;
+            if (result == null) {
+                result = new PooledClient(createClient(gatewayConfig, debug));
+                metricService.incrementMetricCounter(SaltMetricType.CLIENT_POOL_CREATED);
+                LOGGER.debug("New salt client created for gateway: {}", gatewayConfig.getGatewayUrl());
+            } else {
+                metricService.incrementMetricCounter(SaltMetricType.CLIENT_POOL_REUSED);
+            }
+            result.leases.incrementAndGet();
+            result.lastUsed = System.currentTimeMillis();
+            return result;
+        });
+        return new Lease(key, pooledClient.client);
+    }
+
+    public void release(String key) {
+        clients.computeIfPresent(key, (k, pooledClient) -> {
+            pooledClient.leases.decrementAndGet();
+            pooledClient.lastUsed = System.currentTimeMillis();
+            return pooledClient;
+        });
+    }
+
+    void evictIdleClients() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        try {
+            clients.keySet().forEach(key -> evictIfUnused(key, idleSince));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to evict idle salt clients", e);
+        }
+    }
+
+    private void evictLeastRecentlyUsedClient() {
+        clients.entrySet().stream()
+                .filter(entry -> entry.getValue().leases.get() == 0)
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                .ifPresent(entry -> evictIfUnused(entry.getKey(), Long.MAX_VALUE));
+    }
+
+    private void evictIfUnused(String key, long idleSince) {
+        clients.computeIfPresent(key, (k, pooledClient) -> {
+            if (pooledClient.leases.get() == 0 && pooledClient.lastUsed <= idleSince) {
+                LOGGER.debug("Closing unused salt client: {}", pooledClient.client);
+                pooledClient.client.close();
+                metricService.incrementMetricCounter(SaltMetricType.CLIENT_POOL_EVICTED);
+                return null;
+            }
+            return pooledClient;
+        });
+    }
+
+    private Client createClient(GatewayConfig gatewayConfig, boolean debug) {
+        try {
+            return RestClientUtil.createClient(gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(), debug);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create rest client with 2-way-ssl config", e);
+        }
+    }
+
+    private String createKey(GatewayConfig gatewayConfig, boolean debug) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(Objects.toString(gatewayConfig.getServerCert(), ""), StandardCharsets.UTF_8);
+        hasher.putString(Objects.toString(gatewayConfig.getClientCert(), ""), StandardCharsets.UTF_8);
+        hasher.putString(Objects.toString(gatewayConfig.getClientKey(), ""), StandardCharsets.UTF_8);
+        return gatewayConfig.getGatewayUrl() + '#' + hasher.hash() + '#' + debug;
+    }
+
+    public static class Lease {
+
+        private final String key;
+
+        private final Client client;
+
+        Lease(String key, Client client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+    }
+
+    private static class PooledClient {
+
+        private final Client client;
+
+        private final AtomicInteger leases = new AtomicInteger();
+
+        private volatile long lastUsed;
+
+        PooledClient(Client client) {
+            this.client = client;
+        }
+    }
+}
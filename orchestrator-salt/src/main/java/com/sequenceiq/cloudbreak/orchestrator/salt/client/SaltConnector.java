@@ -8,12 +8,16 @@ import static java.util.Collections.singletonMap;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.client.Client;
@@ -25,6 +29,8 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.apache.http.HttpStatus;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
 import org.glassfish.jersey.media.multipart.MultiPart;
@@ -85,13 +91,33 @@ public class SaltConnector implements Closeable {
 
     private final SaltErrorResolver saltErrorResolver;
 
+    private final SaltClientPool clientPool;
+
+    private final String clientPoolKey;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     public SaltConnector(GatewayConfig gatewayConfig, SaltErrorResolver saltErrorResolver, boolean debug, Tracer tracer) {
+        this(gatewayConfig, saltErrorResolver, debug, tracer, null);
+    }
+
+    public SaltConnector(GatewayConfig gatewayConfig, SaltErrorResolver saltErrorResolver, boolean debug, Tracer tracer, SaltClientPool clientPool) {
         ClientTracingFeature tracingFeature = new ClientTracingFeature.Builder(tracer)
                 .withTraceSerialization(false)
                 .withDecorators(List.of(new TracingClientSpanDecorator())).build();
+        String leaseKey = null;
         try {
-            restClient = RestClientUtil.createClient(
-                    gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(), debug);
+            if (clientPool != null) {
+                SaltClientPool.Lease lease = clientPool.lease(gatewayConfig, debug);
+                leaseKey = lease.getKey();
+                restClient = lease.getClient();
+                clientPoolKey = leaseKey;
+            } else {
+                restClient = RestClientUtil.createClient(
+                        gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(), debug);
+                clientPoolKey = null;
+            }
+            this.clientPool = clientPool;
             String saltBootPasswd = Optional.ofNullable(gatewayConfig.getSaltBootPassword()).orElse(SALT_BOOT_PASSWORD);
             saltTarget = restClient.target(gatewayConfig.getGatewayUrl())
                     .register(HttpAuthenticationFeature.basic(SALT_BOOT_USER, saltBootPasswd))
@@ -102,6 +128,9 @@ public class SaltConnector implements Closeable {
             signatureKey = gatewayConfig.getSignatureKey();
             this.saltErrorResolver = saltErrorResolver;
         } catch (Exception e) {
+            if (leaseKey != null) {
+                clientPool.release(leaseKey);
+            }
             throw new RuntimeException("Failed to create rest client with 2-way-ssl config", e);
         }
     }
@@ -215,12 +244,32 @@ public class SaltConnector implements Closeable {
         return getGenericResponses(targets, path, fileName, content, distributeResponse);
     }
 
+    /**
+     * Uploads the file without reading it into memory: the signature is calculated while streaming through the file once and the request
+     * body is sent with chunked transfer encoding straight from the file.
+     */
+    @Measure(SaltConnector.class)
+    public GenericResponses upload(Iterable<String> targets, String path, String fileName, Path file) throws IOException {
+        String signature;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            signature = PkiUtil.generateSignature(signatureKey, inputStream);
+        }
+        Response distributeResponse = upload(SaltEndpoint.BOOT_FILE_DISTRIBUTE.getContextPath(), targets, path, fileName, signature, file);
+        return getGenericResponses(targets, distributeResponse,
+                () -> upload(SaltEndpoint.BOOT_FILE_UPLOAD.getContextPath(), targets, path, fileName, signature, file));
+    }
+
     private GenericResponses getGenericResponses(Iterable<String> targets, String path, String fileName, byte[] content, Response distributeResponse)
             throws IOException {
+        return getGenericResponses(targets, distributeResponse, () -> upload(SaltEndpoint.BOOT_FILE_UPLOAD.getContextPath(), targets, path, fileName, content));
+    }
+
+    private GenericResponses getGenericResponses(Iterable<String> targets, Response distributeResponse, SingleFileUpload singleFileUpload)
+            throws IOException {
         if (distributeResponse.getStatus() == HttpStatus.SC_NOT_FOUND) {
             // simple file upload for CB <= 1.14
             distributeResponse.close();
-            Response singleResponse = upload(SaltEndpoint.BOOT_FILE_UPLOAD.getContextPath(), targets, path, fileName, content);
+            Response singleResponse = singleFileUpload.upload();
             GenericResponses genericResponses = new GenericResponses();
             GenericResponse genericResponse = new GenericResponse();
             genericResponse.setAddress(targets.iterator().next());
@@ -243,6 +292,17 @@ public class SaltConnector implements Closeable {
                 .post(Entity.entity(getBodyPart(targets, path, fileName, permission, content), contentType));
     }
 
+    private Response upload(String endpoint, Iterable<String> targets, String path, String fileName, String signature, Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            FormDataMultiPart targetsPart = targets(path(new FormDataMultiPart(), path), targets);
+            MultiPart bodyPart = targetsPart.bodyPart(new StreamDataBodyPart("file", inputStream, fileName));
+            return saltTarget.path(endpoint).request()
+                    .header(SIGN_HEADER, signature)
+                    .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                    .post(Entity.entity(bodyPart, MediaType.MULTIPART_FORM_DATA_TYPE));
+        }
+    }
+
     private Invocation.Builder endpointInvocation(String endpoint, byte[] content) throws IOException {
         String signature = PkiUtil.generateSignature(signatureKey, content);
         return saltTarget.path(endpoint).request().header(SIGN_HEADER, signature);
@@ -330,9 +390,19 @@ public class SaltConnector implements Closeable {
         return form;
     }
 
+    @FunctionalInterface
+    private interface SingleFileUpload {
+        Response upload() throws IOException;
+    }
+
     @Override
     public void close() {
-        if (restClient != null) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (clientPool != null) {
+            clientPool.release(clientPoolKey);
+        } else if (restClient != null) {
             restClient.close();
         }
     }
@@ -0,0 +1,123 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.client;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.orchestrator.salt.metrics.SaltMetricType;
+
+/**
+ * Remembers the content hash of the files that were successfully uploaded to an instance, so uploading the same content to the same
+ * instance and location again can be skipped. Salt bootstrap has no endpoint to query the hash of a file, so the hashes are recorded on
+ * this side and expire after {@code cb.salt.upload.dedup.ttl.minutes} to limit how long a file changed on the node could go unnoticed.
+ * Uploads are keyed by the instance id of the target and not by its address, so a repaired or upscaled node that got the address of
+ * a previous instance is never skipped. Only idempotent, non-secret files should be deduplicated this way.
+ * The content hashes of the saved pillars are kept the same way when {@code cb.salt.pillar.dedup.enabled} is set.
+ */
+@Component
+public class SaltUploadHashCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltUploadHashCache.class);
+
+    private static final String PILLAR = "pillar";
+
+    @Value("${cb.salt.upload.dedup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.salt.pillar.dedup.enabled:false}")
+    private boolean pillarDedupEnabled;
+
+    @Value("${cb.salt.upload.dedup.ttl.minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${cb.salt.upload.dedup.max.size:100000}")
+    private long maxSize;
+
+    @Inject
+    private MetricService metricService;
+
+    private Cache<String, String> contentHashes;
+
+    @PostConstruct
+    public void init() {
+        contentHashes = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isPillarDedupEnabled() {
+        return pillarDedupEnabled;
+    }
+
+    /**
+     * Returns the targets that do not have the content with the given hash at the given location yet. The keys of the given map are the
+     * upload targets, the values are the instance ids behind them; targets without a known instance id are always returned.
+     */
+    public Set<String> targetsWithoutContent(Map<String, String> targetInstanceIds, String path, String fileName, String contentHash) {
+        Set<String> result = targetsWithout(targetInstanceIds, path, fileName, contentHash);
+        int skipped = targetInstanceIds.size() - result.size();
+        if (skipped > 0) {
+            LOGGER.debug("Skipping the upload of {}/{} to {} target(s), the content is already there", path, fileName, skipped);
+            metricService.incrementMetricCounter(SaltMetricType.UPLOAD_DEDUP_SKIPPED, skipped);
+        }
+        return result;
+    }
+
+    public void contentUploaded(Map<String, String> targetInstanceIds, Set<String> targets, String path, String fileName, String contentHash) {
+        targets.stream()
+                .filter(target -> Objects.nonNull(targetInstanceIds.get(target)))
+                .forEach(target -> contentHashes.put(key(target, targetInstanceIds.get(target), path, fileName), contentHash));
+    }
+
+    public void contentUploadFailed(Map<String, String> targetInstanceIds, Set<String> targets, String path, String fileName) {
+        targets.stream()
+                .filter(target -> Objects.nonNull(targetInstanceIds.get(target)))
+                .forEach(target -> contentHashes.invalidate(key(target, targetInstanceIds.get(target), path, fileName)));
+    }
+
+    /**
+     * Returns the targets that do not have the pillar with the given content hash at the given path yet, see
+     * {@link #targetsWithoutContent(Map, String, String, String)}.
+     */
+    public Set<String> targetsWithoutPillar(Map<String, String> targetInstanceIds, String pillarPath, String contentHash) {
+        return targetsWithout(targetInstanceIds, pillarPath, PILLAR, contentHash);
+    }
+
+    public void pillarSaved(Map<String, String> targetInstanceIds, String pillarPath, String contentHash) {
+        contentUploaded(targetInstanceIds, targetInstanceIds.keySet(), pillarPath, PILLAR, contentHash);
+    }
+
+    public void pillarSaveFailed(Map<String, String> targetInstanceIds, String pillarPath) {
+        contentUploadFailed(targetInstanceIds, targetInstanceIds.keySet(), pillarPath, PILLAR);
+    }
+
+    private Set<String> targetsWithout(Map<String, String> targetInstanceIds, String path, String fileName, String contentHash) {
+        return targetInstanceIds.entrySet().stream()
+                .filter(target -> target.getValue() == null
+                        || !contentHash.equals(contentHashes.getIfPresent(key(target.getKey(), target.getValue(), path, fileName))))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private String key(String target, String instanceId, String path, String fileName) {
+        return String.join("|", target, instanceId, path, fileName);
+    }
+}
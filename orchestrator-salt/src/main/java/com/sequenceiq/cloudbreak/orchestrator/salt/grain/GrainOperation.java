@@ -0,0 +1,47 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.grain;
+
+import java.util.Set;
+
+public class GrainOperation {
+
+    private final Set<String> targetHostnames;
+
+    private final String key;
+
+    private final String value;
+
+    private final boolean addGrain;
+
+    public GrainOperation(Set<String> targetHostnames, String key, String value, boolean addGrain) {
+        this.targetHostnames = targetHostnames;
+        this.key = key;
+        this.value = value;
+        this.addGrain = addGrain;
+    }
+
+    public Set<String> getTargetHostnames() {
+        return targetHostnames;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isAddGrain() {
+        return addGrain;
+    }
+
+    @Override
+    public String toString() {
+        return "GrainOperation{"
+                + "key='" + key + '\''
+                + ", value='" + value + '\''
+                + ", addGrain=" + addGrain
+                + ", targetHostnames=" + targetHostnames
+                + '}';
+    }
+}
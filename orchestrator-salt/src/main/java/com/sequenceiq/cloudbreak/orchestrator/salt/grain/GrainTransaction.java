@@ -0,0 +1,55 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.grain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the grain modifications of an orchestration step, so they can be tracked, verified and retried together by
+ * {@link com.sequenceiq.cloudbreak.orchestrator.salt.runner.SaltCommandRunner#runGrainTransaction} instead of one salt command each.
+ */
+public class GrainTransaction {
+
+    private static final String ROLES = "roles";
+
+    private final List<GrainOperation> operations = new ArrayList<>();
+
+    public GrainTransaction addRole(Set<String> targetHostnames, String role) {
+        return add(targetHostnames, ROLES, role);
+    }
+
+    public GrainTransaction removeRole(Set<String> targetHostnames, String role) {
+        return remove(targetHostnames, ROLES, role);
+    }
+
+    public GrainTransaction add(Set<String> targetHostnames, String key, String value) {
+        return modify(targetHostnames, key, value, true);
+    }
+
+    public GrainTransaction remove(Set<String> targetHostnames, String key, String value) {
+        return modify(targetHostnames, key, value, false);
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    public List<GrainOperation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    private GrainTransaction modify(Set<String> targetHostnames, String key, String value, boolean addGrain) {
+        if (!targetHostnames.isEmpty()) {
+            operations.add(new GrainOperation(targetHostnames, key, value, addGrain));
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "GrainTransaction{"
+                + "operations=" + operations
+                + '}';
+    }
+}
@@ -0,0 +1,23 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.metrics;
+
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+
+public enum SaltMetricType implements Metric {
+    CLIENT_POOL_REUSED("salt.client.pool.reused"),
+    CLIENT_POOL_CREATED("salt.client.pool.created"),
+    CLIENT_POOL_EVICTED("salt.client.pool.evicted"),
+    CLIENT_POOL_SIZE("salt.client.pool.size"),
+    UPLOAD_DEDUP_SKIPPED("salt.upload.dedup.skipped"),
+    PILLAR_DEDUP_SKIPPED("salt.pillar.dedup.skipped");
+
+    private final String metricName;
+
+    SaltMetricType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    @Override
+    public String getMetricName() {
+        return metricName;
+    }
+}
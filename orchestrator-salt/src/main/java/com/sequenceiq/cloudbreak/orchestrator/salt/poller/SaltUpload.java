@@ -1,6 +1,7 @@
 package com.sequenceiq.cloudbreak.orchestrator.salt.poller;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Set;
 
 import com.sequenceiq.cloudbreak.orchestrator.model.GenericResponses;
@@ -14,11 +15,22 @@ public class SaltUpload extends SaltFileUpload {
 
     private final byte[] content;
 
+    private final Path file;
+
     public SaltUpload(SaltConnector sc, Set<String> targets, String path, String fileName, byte[] content) {
         super(sc, targets);
         this.path = path;
         this.fileName = fileName;
         this.content = content;
+        file = null;
+    }
+
+    public SaltUpload(SaltConnector sc, Set<String> targets, String path, String fileName, Path file) {
+        super(sc, targets);
+        this.path = path;
+        this.fileName = fileName;
+        this.file = file;
+        content = null;
     }
 
     @Override
@@ -34,6 +46,8 @@ public class SaltUpload extends SaltFileUpload {
     }
 
     GenericResponses upload() throws IOException {
-        return getSaltConnector().upload(getTargets(), path, fileName, content);
+        return file != null
+                ? getSaltConnector().upload(getTargets(), path, fileName, file)
+                : getSaltConnector().upload(getTargets(), path, fileName, content);
     }
 }
@@ -0,0 +1,106 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.poller.checker;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sequenceiq.cloudbreak.orchestrator.model.Node;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.target.HostList;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainOperation;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainTransaction;
+import com.sequenceiq.cloudbreak.orchestrator.salt.poller.BaseSaltJobRunner;
+import com.sequenceiq.cloudbreak.orchestrator.salt.states.SaltStates;
+
+/**
+ * Applies the grain modifications of a {@link GrainTransaction} under one tracked salt command. Every operation still sends its own
+ * grains.append or grains.remove call, because appending a list value is not idempotent in salt. The grains are read back once per
+ * grain key for all the operations. The hosts where some modification did not take effect are left as target hostnames, so the
+ * surrounding salt runner retries with its own backoff; every retry runs a single sync before only the pending modifications are
+ * applied again. A targeted node missing from the read-back fails the transaction, as it does for a single grain modification.
+ */
+public class GrainTransactionRunner extends BaseSaltJobRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GrainTransactionRunner.class);
+
+    private final Map<GrainOperation, Set<String>> pendingTargets = new LinkedHashMap<>();
+
+    private boolean submitted;
+
+    public GrainTransactionRunner(GrainTransaction transaction, Set<Node> allNode) {
+        super(transaction.getOperations().stream().flatMap(operation -> operation.getTargetHostnames().stream()).collect(Collectors.toSet()), allNode);
+        transaction.getOperations().forEach(operation -> pendingTargets.put(operation, new HashSet<>(operation.getTargetHostnames())));
+    }
+
+    @Override
+    public String submit(SaltConnector saltConnector) throws SaltJobFailedException {
+        if (submitted) {
+            LOGGER.info("Retrying salt grain transaction after sync. {}", this);
+            SaltStates.syncAll(saltConnector);
+        } else {
+            LOGGER.info("Starting salt grain transaction. {}", this);
+            submitted = true;
+        }
+        applyPending(saltConnector);
+        Set<String> missingHostnames = pendingTargets.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        setTargetHostnames(missingHostnames);
+        return missingHostnames.toString();
+    }
+
+    private void applyPending(SaltConnector saltConnector) throws SaltJobFailedException {
+        for (Entry<GrainOperation, Set<String>> pending : pendingTargets.entrySet()) {
+            GrainOperation operation = pending.getKey();
+            HostList target = new HostList(pending.getValue());
+            if (operation.isAddGrain()) {
+                SaltStates.addGrain(saltConnector, target, operation.getKey(), operation.getValue());
+            } else {
+                SaltStates.removeGrain(saltConnector, target, operation.getKey(), operation.getValue());
+            }
+        }
+        Map<String, Set<String>> hostnamesByKey = new LinkedHashMap<>();
+        pendingTargets.forEach((operation, hostnames) -> hostnamesByKey.computeIfAbsent(operation.getKey(), key -> new HashSet<>()).addAll(hostnames));
+        for (Entry<String, Set<String>> hostnamesOfKey : hostnamesByKey.entrySet()) {
+            Map<String, JsonNode> grains = SaltStates.getGrains(saltConnector, new HostList(hostnamesOfKey.getValue()), hostnamesOfKey.getKey());
+            checkNodesInGrains(grains, hostnamesOfKey.getKey(), hostnamesOfKey.getValue());
+            pendingTargets.entrySet().stream()
+                    .filter(pending -> pending.getKey().getKey().equals(hostnamesOfKey.getKey()))
+                    .forEach(pending -> pending.getValue().removeIf(hostname -> isModified(grains, hostname, pending.getKey())));
+        }
+        pendingTargets.values().removeIf(Set::isEmpty);
+    }
+
+    private void checkNodesInGrains(Map<String, JsonNode> grains, String key, Set<String> hostnames) throws SaltJobFailedException {
+        for (Node node : getAllNode()) {
+            if (hostnames.contains(node.getHostname()) && !grains.containsKey(node.getHostname())) {
+                throw new SaltJobFailedException("Can not find node in grains result. target=" + node.getHostname() + ", key=" + key);
+            }
+        }
+    }
+
+    private boolean isModified(Map<String, JsonNode> grains, String hostname, GrainOperation operation) {
+        if (!grains.containsKey(hostname)) {
+            return false;
+        }
+        Iterable<JsonNode> elements = () -> grains.get(hostname).elements();
+        boolean foundGrain = StreamSupport.stream(elements.spliterator(), false)
+                .anyMatch(element -> operation.getValue().equals(element.asText()));
+        return operation.isAddGrain() == foundGrain;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("GrainTransactionRunner{");
+        sb.append(super.toString());
+        sb.append(", pendingOperations=").append(pendingTargets.keySet());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.orchestrator.salt.runner;
 
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.inject.Inject;
@@ -8,9 +9,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.orchestrator.OrchestratorBootstrap;
+import com.sequenceiq.cloudbreak.orchestrator.model.Node;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainTransaction;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.BaseSaltJobRunner;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.SaltCommandTracker;
+import com.sequenceiq.cloudbreak.orchestrator.salt.poller.checker.GrainTransactionRunner;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.checker.ModifyGrainBase;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteria;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteriaModel;
@@ -43,7 +47,19 @@ public class SaltCommandRunner {
 
     public void runModifyGrainCommand(SaltConnector sc, ModifyGrainBase modifyGrainRunner, ExitCriteriaModel exitCriteriaModel,
             ExitCriteria exitCriteria) throws Exception {
-        OrchestratorBootstrap saltCommandTracker = new SaltCommandTracker(sc, modifyGrainRunner);
+        runGrainCommand(sc, modifyGrainRunner, exitCriteriaModel, exitCriteria);
+    }
+
+    public void runGrainTransaction(SaltConnector sc, GrainTransaction grainTransaction, Set<Node> allNodes, ExitCriteriaModel exitCriteriaModel,
+            ExitCriteria exitCriteria) throws Exception {
+        if (!grainTransaction.isEmpty()) {
+            runGrainCommand(sc, new GrainTransactionRunner(grainTransaction, allNodes), exitCriteriaModel, exitCriteria);
+        }
+    }
+
+    private void runGrainCommand(SaltConnector sc, BaseSaltJobRunner grainRunner, ExitCriteriaModel exitCriteriaModel, ExitCriteria exitCriteria)
+            throws Exception {
+        OrchestratorBootstrap saltCommandTracker = new SaltCommandTracker(sc, grainRunner);
         Callable<Boolean> saltCommandRunBootstrapRunner = saltRunner.runner(saltCommandTracker, exitCriteria,
                 exitCriteriaModel, modifyGrainMaxRetry, modifyGrainMaxErrorRetry);
         saltCommandRunBootstrapRunner.call();
@@ -15,6 +15,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,9 +60,12 @@ import com.sequenceiq.cloudbreak.orchestrator.model.Node;
 import com.sequenceiq.cloudbreak.orchestrator.model.SaltConfig;
 import com.sequenceiq.cloudbreak.orchestrator.model.SaltPillarProperties;
 import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltUploadHashCache;
 import com.sequenceiq.cloudbreak.orchestrator.salt.domain.MinionStatus;
 import com.sequenceiq.cloudbreak.orchestrator.salt.domain.MinionStatusSaltResponse;
 import com.sequenceiq.cloudbreak.orchestrator.salt.domain.Pillar;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainOperation;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainTransaction;
 import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainUploader;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.BaseSaltJobRunner;
 import com.sequenceiq.cloudbreak.orchestrator.salt.poller.PillarSave;
@@ -111,6 +115,9 @@ public class SaltOrchestratorTest {
     @Mock
     private SaltService saltService;
 
+    @Mock
+    private SaltUploadHashCache saltUploadHashCache;
+
     @Mock
     private Retry retry;
 
@@ -220,7 +227,12 @@ public class SaltOrchestratorTest {
         verifyNew(SaltJobIdTracker.class, atLeastOnce()).withArguments(eq(saltConnector), eq(highStateAllRunner), eq(true));
         verify(saltCommandRunner, times(1)).runSaltCommand(any(SaltConnector.class), any(BaseSaltJobRunner.class),
                 any(ExitCriteriaModel.class), any(ExitCriteria.class));
-        verify(saltCommandRunner, times(2)).runModifyGrainCommand(any(SaltConnector.class), any(ModifyGrainBase.class),
+        ArgumentCaptor<GrainTransaction> grainTransactionCaptor = ArgumentCaptor.forClass(GrainTransaction.class);
+        verify(saltCommandRunner, times(1)).runGrainTransaction(any(SaltConnector.class), grainTransactionCaptor.capture(), eq(targets),
+                any(ExitCriteriaModel.class), any(ExitCriteria.class));
+        Assert.assertEquals(List.of("manager_agent", "manager_server"),
+                grainTransactionCaptor.getValue().getOperations().stream().map(GrainOperation::getValue).collect(Collectors.toList()));
+        verify(saltCommandRunner, never()).runModifyGrainCommand(any(SaltConnector.class), any(ModifyGrainBase.class),
                 any(ExitCriteriaModel.class), any(ExitCriteria.class));
         verify(grainUploader, times(1)).uploadGrains(anySet(), anyList(), any(ExitCriteriaModel.class), any(SaltConnector.class),
                 any(ExitCriteria.class));
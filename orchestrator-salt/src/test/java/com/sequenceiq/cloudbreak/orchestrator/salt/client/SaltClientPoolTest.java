@@ -0,0 +1,125 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.salt.metrics.SaltMetricType;
+
+import io.opentracing.Tracer;
+
+class SaltClientPoolTest {
+
+    private static final String GATEWAY_URL = "https://10.0.0.1:9443";
+
+    private final MetricService metricService = mock(MetricService.class);
+
+    private final GatewayConfig gatewayConfig = mock(GatewayConfig.class);
+
+    private final SaltClientPool underTest = new SaltClientPool();
+
+    @BeforeEach
+    void setUp() {
+        Whitebox.setInternalState(underTest, "metricService", metricService);
+        Whitebox.setInternalState(underTest, "maxSize", 10);
+        Whitebox.setInternalState(underTest, "idleTimeoutMs", 0L);
+        when(gatewayConfig.getGatewayUrl()).thenReturn(GATEWAY_URL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testClientIsReusedForTheSameGatewayAndCertificates() {
+        SaltClientPool.Lease first = underTest.lease(gatewayConfig, false);
+        SaltClientPool.Lease second = underTest.lease(gatewayConfig, false);
+
+        assertSame(first.getClient(), second.getClient());
+        assertEquals(first.getKey(), second.getKey());
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.CLIENT_POOL_CREATED);
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.CLIENT_POOL_REUSED);
+    }
+
+    @Test
+    void testNewClientIsCreatedWhenTheCertificateChanges() {
+        SaltClientPool.Lease first = underTest.lease(gatewayConfig, false);
+        when(gatewayConfig.getServerCert()).thenReturn("rotated");
+        SaltClientPool.Lease second = underTest.lease(gatewayConfig, false);
+
+        assertNotSame(first.getClient(), second.getClient());
+        assertNotEquals(first.getKey(), second.getKey());
+    }
+
+    @Test
+    void testOnlyReleasedClientsAreEvicted() {
+        SaltClientPool.Lease first = underTest.lease(gatewayConfig, false);
+        when(gatewayConfig.getGatewayUrl()).thenReturn("https://10.0.0.2:9443");
+        SaltClientPool.Lease second = underTest.lease(gatewayConfig, false);
+        underTest.release(first.getKey());
+
+        underTest.evictIdleClients();
+
+        Map<String, ?> clients = Whitebox.getInternalState(underTest, "clients");
+        assertEquals(1, clients.size());
+        assertEquals(second.getKey(), clients.keySet().iterator().next());
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.CLIENT_POOL_EVICTED);
+    }
+
+    @Test
+    void testLeastRecentlyUsedReleasedClientIsEvictedWhenThePoolIsFull() {
+        Whitebox.setInternalState(underTest, "maxSize", 1);
+        SaltClientPool.Lease first = underTest.lease(gatewayConfig, false);
+        underTest.release(first.getKey());
+        when(gatewayConfig.getGatewayUrl()).thenReturn("https://10.0.0.2:9443");
+        SaltClientPool.Lease second = underTest.lease(gatewayConfig, false);
+
+        Map<String, ?> clients = Whitebox.getInternalState(underTest, "clients");
+        assertEquals(1, clients.size());
+        assertEquals(second.getKey(), clients.keySet().iterator().next());
+    }
+
+    @Test
+    void testClosingTheConnectorTwiceReleasesTheLeaseOnce() {
+        SaltClientPool.Lease other = underTest.lease(gatewayConfig, false);
+        SaltConnector saltConnector = new SaltConnector(gatewayConfig, null, false, mock(Tracer.class), underTest);
+
+        saltConnector.close();
+        saltConnector.close();
+        underTest.evictIdleClients();
+
+        Map<String, ?> clients = Whitebox.getInternalState(underTest, "clients");
+        assertEquals(1, clients.size());
+        underTest.release(other.getKey());
+        underTest.evictIdleClients();
+        assertTrue(clients.isEmpty());
+    }
+
+    @Test
+    void testLeaseIsReleasedWhenTheConnectorCannotBeCreated() {
+        when(gatewayConfig.getSaltBootPassword()).thenThrow(new IllegalStateException("no password"));
+
+        assertThrows(RuntimeException.class, () -> new SaltConnector(gatewayConfig, null, false, mock(Tracer.class), underTest));
+        underTest.evictIdleClients();
+
+        Map<String, ?> clients = Whitebox.getInternalState(underTest, "clients");
+        assertTrue(clients.isEmpty());
+    }
+}
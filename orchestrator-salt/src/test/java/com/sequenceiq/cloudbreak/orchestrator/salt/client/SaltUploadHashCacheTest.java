@@ -0,0 +1,93 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.orchestrator.salt.metrics.SaltMetricType;
+
+class SaltUploadHashCacheTest {
+
+    private static final String PATH = "/srv";
+
+    private static final String FILE_NAME = "salt.zip";
+
+    private final MetricService metricService = mock(MetricService.class);
+
+    private final SaltUploadHashCache underTest = new SaltUploadHashCache();
+
+    @BeforeEach
+    void setUp() {
+        Whitebox.setInternalState(underTest, "metricService", metricService);
+        Whitebox.setInternalState(underTest, "ttlMinutes", 30L);
+        Whitebox.setInternalState(underTest, "maxSize", 100L);
+        underTest.init();
+    }
+
+    @Test
+    void testOnlyTargetsWithoutTheSameContentAreReturned() {
+        Map<String, String> targets = Map.of("10.0.0.1", "i-1", "10.0.0.2", "i-2", "10.0.0.3", "i-3");
+        underTest.contentUploaded(targets, Set.of("10.0.0.1", "10.0.0.2"), PATH, FILE_NAME, "hash1");
+
+        Set<String> result = underTest.targetsWithoutContent(targets, PATH, FILE_NAME, "hash1");
+
+        assertEquals(Set.of("10.0.0.3"), result);
+        verify(metricService, times(1)).incrementMetricCounter(SaltMetricType.UPLOAD_DEDUP_SKIPPED, 2);
+    }
+
+    @Test
+    void testChangedContentIsUploadedAgain() {
+        underTest.contentUploaded(Map.of("10.0.0.1", "i-1"), Set.of("10.0.0.1"), PATH, FILE_NAME, "hash1");
+
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutContent(Map.of("10.0.0.1", "i-1"), PATH, FILE_NAME, "hash2"));
+    }
+
+    @Test
+    void testNewInstanceWithTheSameAddressIsUploadedAgain() {
+        underTest.contentUploaded(Map.of("10.0.0.1", "i-1"), Set.of("10.0.0.1"), PATH, FILE_NAME, "hash1");
+
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutContent(Map.of("10.0.0.1", "i-2"), PATH, FILE_NAME, "hash1"));
+    }
+
+    @Test
+    void testTargetWithoutInstanceIdIsAlwaysUploaded() {
+        Map<String, String> targets = new HashMap<>();
+        targets.put("10.0.0.1", null);
+        underTest.contentUploaded(targets, Set.of("10.0.0.1"), PATH, FILE_NAME, "hash1");
+
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutContent(targets, PATH, FILE_NAME, "hash1"));
+    }
+
+    @Test
+    void testFailedUploadIsForgotten() {
+        underTest.contentUploaded(Map.of("10.0.0.1", "i-1"), Set.of("10.0.0.1"), PATH, FILE_NAME, "hash1");
+        underTest.contentUploadFailed(Map.of("10.0.0.1", "i-1"), Set.of("10.0.0.1"), PATH, FILE_NAME);
+
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutContent(Map.of("10.0.0.1", "i-1"), PATH, FILE_NAME, "hash1"));
+    }
+
+    @Test
+    void testPillarHashesAreKeptApartFromTheUploadedFiles() {
+        Map<String, String> targets = Map.of("10.0.0.1", "i-1");
+        underTest.pillarSaved(targets, PATH, "hash1");
+
+        assertEquals(Set.of(), underTest.targetsWithoutPillar(targets, PATH, "hash1"));
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutPillar(targets, PATH, "hash2"));
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutPillar(Map.of("10.0.0.1", "i-2"), PATH, "hash1"));
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutContent(targets, PATH, FILE_NAME, "hash1"));
+
+        underTest.pillarSaveFailed(targets, PATH);
+
+        assertEquals(Set.of("10.0.0.1"), underTest.targetsWithoutPillar(targets, PATH, "hash1"));
+    }
+}
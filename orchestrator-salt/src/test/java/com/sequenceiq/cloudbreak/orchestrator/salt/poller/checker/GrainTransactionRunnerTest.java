@@ -0,0 +1,128 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.poller.checker;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.orchestrator.model.Node;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.ApplyResponse;
+import com.sequenceiq.cloudbreak.orchestrator.salt.grain.GrainTransaction;
+import com.sequenceiq.cloudbreak.orchestrator.salt.states.SaltStates;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(SaltStates.class)
+public class GrainTransactionRunnerTest {
+
+    private static final String SERVER = "10-0-0-1.example.com";
+
+    private static final String AGENT = "10-0-0-2.example.com";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void submitTestReadsTheGrainsOnceForTheWholeTransaction() throws SaltJobFailedException {
+        Set<Node> allNode = Set.of(
+                new Node("10.0.0.1", "5.5.5.1", "i-1234", "m5.xlarge", SERVER, "hg"),
+                new Node("10.0.0.2", "5.5.5.2", "i-1234", "m5.xlarge", AGENT, "hg"));
+        PowerMockito.mockStatic(SaltStates.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> grains = new HashMap<>();
+        grains.put(SERVER, objectMapper.valueToTree(new String[]{"manager_agent", "manager_server"}));
+        grains.put(AGENT, objectMapper.valueToTree(new String[]{"manager_agent"}));
+        PowerMockito.when(SaltStates.addGrain(any(), any(), anyString(), any())).thenReturn(new ApplyResponse());
+        PowerMockito.when(SaltStates.removeGrain(any(), any(), anyString(), any())).thenReturn(new ApplyResponse());
+        PowerMockito.when(SaltStates.getGrains(any(), any(), any())).thenReturn(grains);
+        GrainTransaction transaction = new GrainTransaction()
+                .addRole(Set.of(SERVER, AGENT), "manager_agent")
+                .addRole(Set.of(SERVER), "manager_server")
+                .removeRole(Set.of(AGENT), "manager_server");
+
+        GrainTransactionRunner underTest = new GrainTransactionRunner(transaction, allNode);
+        underTest.submit(Mockito.mock(SaltConnector.class));
+
+        assertThat(underTest.getTargetHostnames(), empty());
+        PowerMockito.verifyStatic(SaltStates.class, times(2));
+        SaltStates.addGrain(any(), any(), eq("roles"), any());
+        PowerMockito.verifyStatic(SaltStates.class, times(1));
+        SaltStates.removeGrain(any(), any(), eq("roles"), eq("manager_server"));
+        PowerMockito.verifyStatic(SaltStates.class, times(1));
+        SaltStates.getGrains(any(), any(), eq("roles"));
+    }
+
+    @Test
+    public void submitTestLeavesTheRetryToTheCallerAndSyncsBeforeReapplying() throws SaltJobFailedException {
+        Set<Node> allNode = Set.of(
+                new Node("10.0.0.1", "5.5.5.1", "i-1234", "m5.xlarge", SERVER, "hg"),
+                new Node("10.0.0.2", "5.5.5.2", "i-1234", "m5.xlarge", AGENT, "hg"));
+        PowerMockito.mockStatic(SaltStates.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> missingGrains = new HashMap<>();
+        missingGrains.put(SERVER, objectMapper.valueToTree(new String[]{"manager_agent"}));
+        missingGrains.put(AGENT, objectMapper.valueToTree(new String[]{}));
+        Map<String, JsonNode> grains = new HashMap<>();
+        grains.put(AGENT, objectMapper.valueToTree(new String[]{"manager_agent"}));
+        PowerMockito.when(SaltStates.addGrain(any(), any(), anyString(), any())).thenReturn(new ApplyResponse());
+        PowerMockito.when(SaltStates.getGrains(any(), any(), any())).thenReturn(missingGrains, grains);
+        GrainTransaction transaction = new GrainTransaction()
+                .addRole(Set.of(SERVER, AGENT), "manager_agent");
+        SaltConnector saltConnector = Mockito.mock(SaltConnector.class);
+
+        GrainTransactionRunner underTest = new GrainTransactionRunner(transaction, allNode);
+        underTest.submit(saltConnector);
+
+        assertThat(underTest.getTargetHostnames(), contains(AGENT));
+        PowerMockito.verifyStatic(SaltStates.class, never());
+        SaltStates.syncAll(any());
+
+        underTest.submit(saltConnector);
+
+        assertThat(underTest.getTargetHostnames(), empty());
+        PowerMockito.verifyStatic(SaltStates.class, times(1));
+        SaltStates.syncAll(any());
+        PowerMockito.verifyStatic(SaltStates.class, times(2));
+        SaltStates.addGrain(any(), any(), eq("roles"), eq("manager_agent"));
+    }
+
+    @Test
+    public void submitTestFailsWhenANodeIsMissingFromTheGrains() throws SaltJobFailedException {
+        Set<Node> allNode = Set.of(
+                new Node("10.0.0.1", "5.5.5.1", "i-1234", "m5.xlarge", SERVER, "hg"),
+                new Node("10.0.0.2", "5.5.5.2", "i-1234", "m5.xlarge", AGENT, "hg"));
+        PowerMockito.mockStatic(SaltStates.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> grains = new HashMap<>();
+        grains.put(SERVER, objectMapper.valueToTree(new String[]{"manager_agent"}));
+        PowerMockito.when(SaltStates.addGrain(any(), any(), anyString(), any())).thenReturn(new ApplyResponse());
+        PowerMockito.when(SaltStates.getGrains(any(), any(), any())).thenReturn(grains);
+        GrainTransaction transaction = new GrainTransaction()
+                .addRole(Set.of(SERVER, AGENT), "manager_agent");
+
+        GrainTransactionRunner underTest = new GrainTransactionRunner(transaction, allNode);
+
+        expectedException.expect(SaltJobFailedException.class);
+        expectedException.expectMessage("Can not find node in grains result. target=10-0-0-2.example.com, key=roles");
+        underTest.submit(Mockito.mock(SaltConnector.class));
+    }
+}
@@ -0,0 +1,128 @@
+package com.sequenceiq.cloudbreak.cmtemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.handlebar.HandlebarTemplate;
+import com.sequenceiq.cloudbreak.handlebar.HandlebarUtils;
+import com.sequenceiq.cloudbreak.template.TemplateModelContextBuilder;
+import com.sequenceiq.cloudbreak.template.TemplatePreparationObject;
+import com.sequenceiq.cloudbreak.template.TemplatePreparationObject.Builder;
+import com.sequenceiq.cloudbreak.template.TemplateProcessor;
+import com.sequenceiq.cloudbreak.template.model.GeneralClusterConfigs;
+import com.sequenceiq.cloudbreak.template.views.BlueprintView;
+
+/**
+ * Compares the cost of compiling a default CM template with the cost of applying the already compiled template, and the end to end
+ * processing with and without the compiled template cache. Run with {@code ./gradlew :template-manager-cmtemplate:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateProcessorBenchmark {
+
+    private static final String VERSION = "7.2.8";
+
+    @Param({"cdp-data-engineering", "cdp-data-mart", "cdp-flow-management", "cdp-opdb", "cdp-sdx", "cdp-streaming"})
+    private String templateName;
+
+    private final Handlebars handlebars = HandlebarUtils.handlebars();
+
+    private String templateText;
+
+    private Template compiledTemplate;
+
+    private Map<String, Object> model;
+
+    private TemplatePreparationObject preparationObject;
+
+    private TemplateProcessor uncachedProcessor;
+
+    private TemplateProcessor cachedProcessor;
+
+    @Setup
+    public void setUp() throws IOException {
+        templateText = readTemplate(templateName);
+        compiledTemplate = compile();
+        BlueprintView blueprintView = new BlueprintView(templateText, VERSION, "CDH", new CmTemplateProcessor(templateText));
+        GeneralClusterConfigs generalClusterConfigs = new GeneralClusterConfigs();
+        generalClusterConfigs.setClusterName("benchmark");
+        preparationObject = Builder.builder()
+                .withBlueprintView(blueprintView)
+                .withGeneralClusterConfigs(generalClusterConfigs)
+                .build();
+        model = new TemplateModelContextBuilder()
+                .withBlueprintView(blueprintView)
+                .withComponents(blueprintView.getComponents())
+                .withGeneralClusterConfigs(generalClusterConfigs)
+                .build();
+        uncachedProcessor = createProcessor(0L);
+        cachedProcessor = createProcessor(500L);
+    }
+
+    @Benchmark
+    public Template compileOnly() throws IOException {
+        return compile();
+    }
+
+    @Benchmark
+    public String applyOnly() throws IOException {
+        return compiledTemplate.apply(model);
+    }
+
+    @Benchmark
+    public String processWithoutCache() throws IOException {
+        return uncachedProcessor.process(templateText, preparationObject, Map.of());
+    }
+
+    @Benchmark
+    public String processWithCache() throws IOException {
+        return cachedProcessor.process(templateText, preparationObject, Map.of());
+    }
+
+    private Template compile() throws IOException {
+        return handlebars.compileInline(templateText, HandlebarTemplate.DEFAULT_PREFIX.key(), HandlebarTemplate.DEFAULT_POSTFIX.key());
+    }
+
+    private TemplateProcessor createProcessor(long cacheSize) {
+        TemplateProcessor templateProcessor = new TemplateProcessor();
+        ReflectionTestUtils.setField(templateProcessor, "compiledTemplateCacheSize", cacheSize);
+        ReflectionTestUtils.setField(templateProcessor, "metricService", Mockito.mock(MetricService.class, Mockito.withSettings().stubOnly()));
+        templateProcessor.init();
+        return templateProcessor;
+    }
+
+    private String readTemplate(String name) throws IOException {
+        String path = VERSION + '/' + name + ".bp";
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IOException("Default template not found on the classpath: " + path);
+            }
+            return JsonUtil.readTree(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).get("blueprint").toString();
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.sequenceiq.cloudbreak.template;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.TagType;
 import com.github.jknack.handlebars.Template;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.handlebar.HandlebarTemplate;
 import com.sequenceiq.cloudbreak.handlebar.HandlebarUtils;
-import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.cloudbreak.template.metrics.TemplateMetricType;
 
 @Component
 public class TemplateProcessor {
@@ -22,6 +34,34 @@ public class TemplateProcessor {
 
     private final Handlebars handlebars = HandlebarUtils.handlebars();
 
+    @Value("${cb.template.compiled.cache.max.size:500}")
+    private long compiledTemplateCacheSize;
+
+    @Inject
+    private MetricService metricService;
+
+    private Cache<String, Template> compiledTemplates;
+
+    /**
+     * The compiled templates are cached by the SHA-256 of the template text, as a few hundred distinct templates cover almost every
+     * cluster. A compiled {@link Template} is immutable and can be applied concurrently. The cache is only used when it is set to a
+     * positive size.
+     */
+    @PostConstruct
+    public void init() {
+        if (compiledTemplateCacheSize > 0) {
+            compiledTemplates = CacheBuilder.newBuilder()
+                    .maximumSize(compiledTemplateCacheSize)
+                    .removalListener(notification -> {
+                        if (notification.getCause() == RemovalCause.SIZE) {
+                            metricService.incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_EVICTED);
+                        }
+                    })
+                    .build();
+            metricService.gaugeMapSize(TemplateMetricType.COMPILED_TEMPLATE_CACHE_SIZE, compiledTemplates.asMap());
+        }
+    }
+
     public String process(String sourceTemplate, TemplatePreparationObject source, Map<String, Object> customProperties) throws IOException {
         long started = System.currentTimeMillis();
         String generateBlueprint = generateTemplateWithParameters(sourceTemplate, source, customProperties);
@@ -42,16 +82,41 @@ public class TemplateProcessor {
 
     private String generateTemplateWithParameters(String sourceTemplate, TemplatePreparationObject source, Map<String, Object> customProperties)
             throws IOException {
-        Template template = handlebars.compileInline(sourceTemplate, HandlebarTemplate.DEFAULT_PREFIX.key(), HandlebarTemplate.DEFAULT_POSTFIX.key());
+        Template template = compile(sourceTemplate);
         return template.apply(prepareTemplateObject(source, customProperties));
     }
 
     private List<String> queryTemplateParameters(String sourceTemplate)
             throws IOException {
-        Template template = handlebars.compileInline(sourceTemplate, HandlebarTemplate.DEFAULT_PREFIX.key(), HandlebarTemplate.DEFAULT_POSTFIX.key());
+        Template template = compile(sourceTemplate);
         return template.collect(TagType.VAR);
     }
 
+    private Template compile(String sourceTemplate) throws IOException {
+        if (compiledTemplates == null) {
+            return compileInline(sourceTemplate);
+        }
+        String key = Hashing.sha256().hashString(sourceTemplate, StandardCharsets.UTF_8).toString();
+        Template template = compiledTemplates.getIfPresent(key);
+        if (template != null) {
+            metricService.incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_HIT);
+            return template;
+        }
+        metricService.incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_MISS);
+        try {
+            return compiledTemplates.get(key, () -> compileInline(sourceTemplate));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to compile template", e.getCause());
+        }
+    }
+
+    private Template compileInline(String sourceTemplate) throws IOException {
+        return handlebars.compileInline(sourceTemplate, HandlebarTemplate.DEFAULT_PREFIX.key(), HandlebarTemplate.DEFAULT_POSTFIX.key());
+    }
+
     private Map<String, Object> prepareTemplateObject(TemplatePreparationObject source, Map<String, Object> customProperties) {
         source.getFixInputs().putAll(customProperties);
         return new TemplateModelContextBuilder()
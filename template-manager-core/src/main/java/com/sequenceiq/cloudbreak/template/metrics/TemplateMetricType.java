@@ -0,0 +1,21 @@
+package com.sequenceiq.cloudbreak.template.metrics;
+
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+
+public enum TemplateMetricType implements Metric {
+    COMPILED_TEMPLATE_CACHE_HIT("template.compiled.cache.hit"),
+    COMPILED_TEMPLATE_CACHE_MISS("template.compiled.cache.miss"),
+    COMPILED_TEMPLATE_CACHE_EVICTED("template.compiled.cache.evicted"),
+    COMPILED_TEMPLATE_CACHE_SIZE("template.compiled.cache.size");
+
+    private final String metricName;
+
+    TemplateMetricType(String metricName) {
+        this.metricName = metricName;
+    }
+
+    @Override
+    public String getMetricName() {
+        return metricName;
+    }
+}
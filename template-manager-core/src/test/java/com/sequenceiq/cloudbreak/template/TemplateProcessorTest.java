@@ -0,0 +1,73 @@
+package com.sequenceiq.cloudbreak.template;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.Metric;
+import com.sequenceiq.cloudbreak.template.metrics.TemplateMetricType;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TemplateProcessorTest {
+
+    private static final String TEMPLATE = "{\"host\": \"{{{ general.clusterName }}}\", \"port\": \"{{{ general.port }}}\"}";
+
+    @InjectMocks
+    private TemplateProcessor underTest;
+
+    @Mock
+    private MetricService metricService;
+
+    @Test
+    public void testCompiledTemplateIsReusedForTheSameText() throws IOException {
+        initCache(10L);
+
+        List<String> first = underTest.queryParameters(TEMPLATE);
+        List<String> second = underTest.queryParameters(TEMPLATE);
+
+        assertEquals(List.of("general.clusterName", "general.port"), first);
+        assertEquals(first, second);
+        verify(metricService, times(1)).incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_MISS);
+        verify(metricService, times(1)).incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_HIT);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTemplateIsEvictedWhenTheCacheIsFull() throws IOException {
+        initCache(1L);
+
+        underTest.queryParameters(TEMPLATE);
+        underTest.queryParameters("{{{ other }}}");
+        underTest.queryParameters(TEMPLATE);
+
+        verify(metricService, times(3)).incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_MISS);
+        verify(metricService, times(2)).incrementMetricCounter(TemplateMetricType.COMPILED_TEMPLATE_CACHE_EVICTED);
+    }
+
+    @Test
+    public void testTemplatesAreCompiledEveryTimeWhenTheCacheIsDisabled() throws IOException {
+        initCache(0L);
+
+        List<String> result = underTest.queryParameters(TEMPLATE);
+
+        assertEquals(List.of("general.clusterName", "general.port"), result);
+        verify(metricService, never()).incrementMetricCounter(any(Metric.class));
+    }
+
+    private void initCache(long size) {
+        ReflectionTestUtils.setField(underTest, "compiledTemplateCacheSize", size);
+        underTest.init();
+    }
+}